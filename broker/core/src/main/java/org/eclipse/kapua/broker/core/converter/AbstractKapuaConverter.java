@@ -24,12 +24,15 @@ import org.eclipse.kapua.broker.core.listener.CamelConstants;
 import org.eclipse.kapua.broker.core.message.CamelKapuaMessage;
 import org.eclipse.kapua.broker.core.message.CamelUtil;
 import org.eclipse.kapua.broker.core.message.JmsUtil;
+import org.eclipse.kapua.broker.core.message.KapuaConnectionContext;
 import org.eclipse.kapua.broker.core.message.MessageConstants;
 import org.eclipse.kapua.broker.core.plugin.ConnectorDescriptor;
 import org.eclipse.kapua.broker.core.plugin.ConnectorDescriptor.MessageType;
+import org.eclipse.kapua.broker.core.plugin.ConnectorDescriptorProviders;
 import org.eclipse.kapua.commons.metric.MetricServiceFactory;
 import org.eclipse.kapua.commons.metric.MetricsService;
 import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.translator.SenderIdentity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -101,11 +104,32 @@ public abstract class AbstractKapuaConverter {
                 try {
                     // FIX #164
                     Date queuedOn = new Date(message.getHeader(CamelConstants.JMS_HEADER_TIMESTAMP, Long.class));
-                    KapuaId connectionId = SerializationUtils.deserialize(Base64.getDecoder().decode(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_ID, String.class)));
                     String clientId = message.getHeader(MessageConstants.HEADER_KAPUA_CLIENT_ID, String.class);
-                    ConnectorDescriptor connectorDescriptor = SerializationUtils
-                            .deserialize(Base64.getDecoder().decode(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTOR_DEVICE_PROTOCOL, String.class)));
-                    return JmsUtil.convertToCamelKapuaMessage(connectorDescriptor, messageType, messageContent, CamelUtil.getTopic(message), queuedOn, connectionId, clientId);
+                    KapuaId connectionId;
+                    ConnectorDescriptor connectorDescriptor;
+                    SenderIdentity senderIdentity = null;
+                    String connectionContextHeader = message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_CONTEXT, String.class);
+                    if (connectionContextHeader != null) {
+                        KapuaConnectionContext connectionContext = KapuaConnectionContext.decode(connectionContextHeader);
+                        connectionId = connectionContext.getConnectionId();
+                        connectorDescriptor = ConnectorDescriptorProviders.getDescriptor(connectionContext.getConnectorName());
+                        if (connectorDescriptor == null) {
+                            throw KapuaException.internalError(String.format("Unable to find connector descriptor for connector '%s'", connectionContext.getConnectorName()));
+                        }
+                        if (connectionContext.getAccountName() != null && clientId != null) {
+                            senderIdentity = new SenderIdentity(connectionContext.getScopeId(), connectionContext.getAccountName(), clientId, connectionContext.getDeviceId());
+                        }
+                    } else {
+                        // messages published before the introduction of the connection context header
+                        connectionId = SerializationUtils.deserialize(Base64.getDecoder().decode(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_ID, String.class)));
+                        connectorDescriptor = SerializationUtils
+                                .deserialize(Base64.getDecoder().decode(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTOR_DEVICE_PROTOCOL, String.class)));
+                    }
+                    return JmsUtil.convertToCamelKapuaMessage(connectorDescriptor, messageType, messageContent, CamelUtil.getTopic(message), queuedOn, connectionId, clientId, senderIdentity);
+                } catch (IllegalArgumentException e) {
+                    metricConverterErrorMessage.inc();
+                    logger.error("Exception decoding message connection context {}", e.getMessage(), e);
+                    throw KapuaException.internalError(e, "Cannot decode the connection context of the message type " + exchange.getIn().getClass());
                 } catch (JMSException e) {
                     metricConverterErrorMessage.inc();
                     logger.error("Exception converting message {}", e.getMessage(), e);
@@ -18,7 +18,9 @@ import org.apache.commons.lang3.SerializationUtils;
 import org.apache.shiro.util.ThreadContext;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.broker.core.listener.AbstractListener;
+import org.eclipse.kapua.broker.core.message.KapuaConnectionContext;
 import org.eclipse.kapua.broker.core.message.MessageConstants;
+import org.eclipse.kapua.broker.core.plugin.KapuaSecurityContext;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.commons.security.KapuaSession;
 import org.slf4j.Logger;
@@ -38,7 +40,8 @@ public class KapuaCamelFilter extends AbstractListener {
     }
 
     /**
-     * Bind the Kapua session retrieved from the message header (with key {@link MessageConstants#HEADER_KAPUA_SESSION}) to the current thread context.
+     * Bind the Kapua session retrieved from the message header (with key {@link MessageConstants#HEADER_KAPUA_CONNECTION_CONTEXT}) to the current thread context.<br>
+     * Messages without the connection context header fall back to the serialized session header (with key {@link MessageConstants#HEADER_KAPUA_SESSION}).
      *
      * @param exchange
      * @param value
@@ -49,8 +52,14 @@ public class KapuaCamelFilter extends AbstractListener {
         if (Boolean.FALSE.equals(exchange.getIn().getHeader(MessageConstants.HEADER_KAPUA_BROKER_CONTEXT, boolean.class))) {
             try {
                 // FIX #164
-                KapuaSecurityUtils
-                        .setSession((KapuaSession) SerializationUtils.deserialize(Base64.getDecoder().decode(exchange.getIn().getHeader(MessageConstants.HEADER_KAPUA_SESSION, String.class))));
+                String connectionContextHeader = exchange.getIn().getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_CONTEXT, String.class);
+                if (connectionContextHeader != null) {
+                    // the trusted mode of the session can only be restored by the KapuaSecurityContext
+                    KapuaSecurityUtils.setSession(KapuaSecurityContext.newKapuaSession(KapuaConnectionContext.decode(connectionContextHeader)));
+                } else {
+                    KapuaSecurityUtils
+                            .setSession((KapuaSession) SerializationUtils.deserialize(Base64.getDecoder().decode(exchange.getIn().getHeader(MessageConstants.HEADER_KAPUA_SESSION, String.class))));
+                }
             } catch (IllegalArgumentException | SerializationException e) {
                 // continue without session
                 logger.debug("Cannot restore Kapua session: {}", e.getMessage(), e);
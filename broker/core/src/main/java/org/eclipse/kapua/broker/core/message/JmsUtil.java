@@ -23,7 +23,10 @@ import org.eclipse.kapua.broker.core.plugin.KapuaSecurityBrokerFilter;
 import org.eclipse.kapua.message.KapuaMessage;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.device.call.message.DeviceMessage;
+import org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage;
+import org.eclipse.kapua.translator.SenderIdentity;
 import org.eclipse.kapua.translator.Translator;
+import org.eclipse.kapua.translator.exception.TranslatorNotFoundException;
 import org.eclipse.kapua.transport.message.jms.JmsMessage;
 import org.eclipse.kapua.transport.message.jms.JmsPayload;
 import org.eclipse.kapua.transport.message.jms.JmsTopic;
@@ -34,6 +37,8 @@ import javax.jms.BytesMessage;
 import javax.jms.JMSException;
 import javax.jms.Topic;
 import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Jms message utility class
@@ -44,6 +49,11 @@ public class JmsUtil {
 
     public static final Logger logger = LoggerFactory.getLogger(JmsUtil.class);
 
+    /**
+     * The {@link KapuaMessage} types without a direct {@link Translator} from {@link JmsMessage}, so that they are not looked up again for each message.
+     */
+    private static final Set<Class<?>> NO_DIRECT_TRANSLATOR_TYPES = ConcurrentHashMap.newKeySet();
+
     private JmsUtil() {
     }
 
@@ -119,7 +129,7 @@ public class JmsUtil {
             int readBytes = jmsMessage.readBytes(payload);
             logger.debug("Message conversion... {} bytes read!", readBytes);
         }
-        KapuaMessage<?, ?> kapuaMessage = convertToKapuaMessage(deviceMessageType, kapuaMessageType, payload, jmsTopic, queuedOn, clientId);
+        KapuaMessage<?, ?> kapuaMessage = convertToKapuaMessage(deviceMessageType, kapuaMessageType, payload, jmsTopic, queuedOn, clientId, null);
         return new CamelKapuaMessage<>(kapuaMessage, connectionId, connectorDescriptor);
     }
 
@@ -138,7 +148,28 @@ public class JmsUtil {
     public static CamelKapuaMessage<?> convertToCamelKapuaMessage(ConnectorDescriptor connectorDescriptor, MessageType messageType, byte[] messageBody, String jmsTopic, Date queuedOn,
                                                                   KapuaId connectionId, String clientId)
             throws KapuaException {
-        KapuaMessage<?, ?> kapuaMessage = convertToKapuaMessage(connectorDescriptor.getDeviceClass(messageType), connectorDescriptor.getKapuaClass(messageType), messageBody, jmsTopic, queuedOn, clientId);
+        return convertToCamelKapuaMessage(connectorDescriptor, messageType, messageBody, jmsTopic, queuedOn, connectionId, clientId, null);
+    }
+
+    /**
+     * Convert raw byte[] message to {@link CamelKapuaMessage}, using the already resolved {@link SenderIdentity} of the connection which has published it
+     *
+     * @param connectorDescriptor
+     * @param messageType
+     * @param messageBody
+     * @param jmsTopic
+     * @param queuedOn
+     * @param connectionId
+     * @param clientId
+     * @param senderIdentity      the {@link SenderIdentity} of the connection. May be {@code null} if not known.
+     * @return
+     * @throws KapuaException
+     * @since 1.5.0
+     */
+    public static CamelKapuaMessage<?> convertToCamelKapuaMessage(ConnectorDescriptor connectorDescriptor, MessageType messageType, byte[] messageBody, String jmsTopic, Date queuedOn,
+                                                                  KapuaId connectionId, String clientId, SenderIdentity senderIdentity)
+            throws KapuaException {
+        KapuaMessage<?, ?> kapuaMessage = convertToKapuaMessage(connectorDescriptor.getDeviceClass(messageType), connectorDescriptor.getKapuaClass(messageType), messageBody, jmsTopic, queuedOn, clientId, senderIdentity);
         return new CamelKapuaMessage<>(kapuaMessage, connectionId, connectorDescriptor);
     }
 
@@ -150,11 +181,33 @@ public class JmsUtil {
      * @param messageBody
      * @param jmsTopic
      * @param queuedOn
+     * @param clientId
+     * @param senderIdentity
      * @return
      * @throws KapuaException
      */
     private static KapuaMessage<?, ?> convertToKapuaMessage(Class<? extends DeviceMessage<?, ?>> deviceMessageType, Class<? extends KapuaMessage<?, ?>> kapuaMessageType, byte[] messageBody,
-                                                            String jmsTopic, Date queuedOn, String clientId)
+                                                            String jmsTopic, Date queuedOn, String clientId, SenderIdentity senderIdentity)
+            throws KapuaException {
+        KapuaMessage<?, ?> message;
+        Translator<JmsMessage, KapuaMessage<?, ?>> directTranslator = getDirectTranslator(deviceMessageType, kapuaMessageType);
+        if (directTranslator != null) {
+            // single step... from jms to Kapua, skipping the device dependent protocol message
+            JmsMessage jmsMessage = new JmsMessage(new JmsTopic(jmsTopic), queuedOn, new JmsPayload(messageBody));
+            message = senderIdentity != null ? directTranslator.translate(jmsMessage, senderIdentity) : directTranslator.translate(jmsMessage);
+        } else {
+            message = convertToKapuaMessageTwoSteps(deviceMessageType, kapuaMessageType, messageBody, jmsTopic, queuedOn, senderIdentity);
+        }
+
+        if (StringUtils.isEmpty(message.getClientId())) {
+            logger.debug("Updating client id since the received value is null (new value {})", clientId);
+            message.setClientId(clientId);
+        }
+        return message;
+    }
+
+    private static KapuaMessage<?, ?> convertToKapuaMessageTwoSteps(Class<? extends DeviceMessage<?, ?>> deviceMessageType, Class<? extends KapuaMessage<?, ?>> kapuaMessageType, byte[] messageBody,
+                                                                    String jmsTopic, Date queuedOn, SenderIdentity senderIdentity)
             throws KapuaException {
         // first step... from jms to device dependent protocol level (unknown)
         Translator<JmsMessage, DeviceMessage<?, ?>> translatorFromJms = Translator.getTranslatorFor(JmsMessage.class, deviceMessageType);// birth ...
@@ -162,12 +215,33 @@ public class JmsUtil {
 
         // second step.... from device dependent protocol (unknown) to Kapua
         Translator<DeviceMessage<?, ?>, KapuaMessage<?, ?>> translatorToKapua = Translator.getTranslatorFor(deviceMessageType, kapuaMessageType);
-        KapuaMessage<?, ?> message = translatorToKapua.translate(deviceMessage);
-        if (StringUtils.isEmpty(message.getClientId())) {
-            logger.debug("Updating client id since the received value is null (new value {})", clientId);
-            message.setClientId(clientId);
+        return senderIdentity != null ? translatorToKapua.translate(deviceMessage, senderIdentity) : translatorToKapua.translate(deviceMessage);
+    }
+
+    /**
+     * Gets the {@link Translator} which translates directly from {@link JmsMessage} to the given {@link KapuaMessage} type, if available.
+     * <p>
+     * It is available only for the {@link KuraDataMessage}s, for which the single step {@link Translator} is registered in the {@link java.util.ServiceLoader}
+     * together with the two steps ones.
+     * The {@link KapuaMessage} types without a direct {@link Translator} are remembered, since the lookup of a missing {@link Translator} is not cached by {@link Translator#getTranslatorFor(Class, Class)}.
+     *
+     * @param deviceMessageType The device dependent protocol message type.
+     * @param kapuaMessageType  The {@link KapuaMessage} type.
+     * @return The direct {@link Translator}, or {@code null} if not available.
+     * @since 1.5.0
+     */
+    private static Translator<JmsMessage, KapuaMessage<?, ?>> getDirectTranslator(Class<? extends DeviceMessage<?, ?>> deviceMessageType, Class<? extends KapuaMessage<?, ?>> kapuaMessageType) {
+        if (!KuraDataMessage.class.equals(deviceMessageType) || NO_DIRECT_TRANSLATOR_TYPES.contains(kapuaMessageType)) {
+            return null;
+        }
+
+        try {
+            return Translator.getTranslatorFor(JmsMessage.class, kapuaMessageType);
+        } catch (TranslatorNotFoundException e) {
+            logger.debug("No direct translator found from {} to {}. Translating through {}", JmsMessage.class.getName(), kapuaMessageType.getName(), deviceMessageType.getName());
+            NO_DIRECT_TRANSLATOR_TYPES.add(kapuaMessageType);
+            return null;
         }
-        return message;
     }
 
     /**
@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.message;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Connection context attached by the broker to each message published by a device connection.<br>
+ * It carries the minimum set of information needed by the Camel routes to rebuild the device connection context (connection id, connector name, session scope id and user id),
+ * along with the account name and the device id of the connection, so that the routes do not need to look them up for each message.
+ * It also carries the id of the access token of the session, if any, which is needed by the services that forward the session (like the job engine client).
+ * <p>
+ * The context is encoded into a single compact message header (see {@link MessageConstants#HEADER_KAPUA_CONNECTION_CONTEXT}) through a versioned binary format,
+ * so the encoded value can be computed once per connection and the routes can decode it without Java serialization.
+ * <p>
+ * Format (version 3):
+ * <pre>
+ * byte     version
+ * byte     flags (bit 0: connection id present, bit 1: trusted mode, bit 2: account name present, bit 3: device id present, bit 4: token id present)
+ * id       connection id (only if the bit 0 of the flags is set)
+ * id       scope id
+ * id       user id
+ * utf      connector name
+ * utf      account name (only if the bit 2 of the flags is set)
+ * id       device id (only if the bit 3 of the flags is set)
+ * utf      token id (only if the bit 4 of the flags is set)
+ * </pre>
+ * Version 2 is the same format without the token id, and version 1 is the same format without the account name, the device id and the token id.
+ * They are still decoded, to process the messages published before the upgrade.
+ * where {@code id} is an unsigned byte length followed by the {@link BigInteger#toByteArray()} representation of the identifier.
+ *
+ * @since 1.5.0
+ */
+public class KapuaConnectionContext {
+
+    private static final byte VERSION_1 = 1;
+    private static final byte VERSION_2 = 2;
+    private static final byte VERSION_3 = 3;
+
+    private static final byte FLAG_CONNECTION_ID = 0x01;
+    private static final byte FLAG_TRUSTED_MODE = 0x02;
+    private static final byte FLAG_ACCOUNT_NAME = 0x04;
+    private static final byte FLAG_DEVICE_ID = 0x08;
+    private static final byte FLAG_TOKEN_ID = 0x10;
+
+    private final KapuaId connectionId;
+    private final KapuaId scopeId;
+    private final KapuaId userId;
+    private final String connectorName;
+    private final boolean trustedMode;
+    private final String accountName;
+    private final KapuaId deviceId;
+    private final String tokenId;
+
+    /**
+     * Constructor.
+     *
+     * @param connectionId  The device connection {@link KapuaId}. May be {@code null}.
+     * @param scopeId       The session scope {@link KapuaId}.
+     * @param userId        The session user {@link KapuaId}.
+     * @param connectorName The name of the connector which the device is connected to.
+     * @param trustedMode   The session trusted mode.
+     * @since 1.5.0
+     */
+    public KapuaConnectionContext(KapuaId connectionId, KapuaId scopeId, KapuaId userId, String connectorName, boolean trustedMode) {
+        this(connectionId, scopeId, userId, connectorName, trustedMode, null, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param connectionId  The device connection {@link KapuaId}. May be {@code null}.
+     * @param scopeId       The session scope {@link KapuaId}.
+     * @param userId        The session user {@link KapuaId}.
+     * @param connectorName The name of the connector which the device is connected to.
+     * @param trustedMode   The session trusted mode.
+     * @param accountName   The name of the account of the session scope. May be {@code null}.
+     * @param deviceId      The {@link KapuaId} of the device registered with the connection client id. May be {@code null}.
+     * @since 1.5.0
+     */
+    public KapuaConnectionContext(KapuaId connectionId, KapuaId scopeId, KapuaId userId, String connectorName, boolean trustedMode, String accountName, KapuaId deviceId) {
+        this(connectionId, scopeId, userId, connectorName, trustedMode, accountName, deviceId, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param connectionId  The device connection {@link KapuaId}. May be {@code null}.
+     * @param scopeId       The session scope {@link KapuaId}.
+     * @param userId        The session user {@link KapuaId}.
+     * @param connectorName The name of the connector which the device is connected to.
+     * @param trustedMode   The session trusted mode.
+     * @param accountName   The name of the account of the session scope. May be {@code null}.
+     * @param deviceId      The {@link KapuaId} of the device registered with the connection client id. May be {@code null}.
+     * @param tokenId       The id of the access token of the session. May be {@code null} if the session has no access token.
+     * @since 1.5.0
+     */
+    public KapuaConnectionContext(KapuaId connectionId, KapuaId scopeId, KapuaId userId, String connectorName, boolean trustedMode, String accountName, KapuaId deviceId, String tokenId) {
+        Objects.requireNonNull(scopeId);
+        Objects.requireNonNull(userId);
+        Objects.requireNonNull(connectorName);
+
+        this.connectionId = connectionId;
+        this.scopeId = scopeId;
+        this.userId = userId;
+        this.connectorName = connectorName;
+        this.trustedMode = trustedMode;
+        this.accountName = accountName;
+        this.deviceId = deviceId;
+        this.tokenId = tokenId;
+    }
+
+    public KapuaId getConnectionId() {
+        return connectionId;
+    }
+
+    public KapuaId getScopeId() {
+        return scopeId;
+    }
+
+    public KapuaId getUserId() {
+        return userId;
+    }
+
+    public String getConnectorName() {
+        return connectorName;
+    }
+
+    public boolean isTrustedMode() {
+        return trustedMode;
+    }
+
+    public String getAccountName() {
+        return accountName;
+    }
+
+    public KapuaId getDeviceId() {
+        return deviceId;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * Encodes this {@link KapuaConnectionContext} into its header representation.
+     *
+     * @return The {@link Base64} (url safe, without padding) representation of the binary encoded context.
+     * @since 1.5.0
+     */
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            byte flags = 0;
+            if (connectionId != null) {
+                flags |= FLAG_CONNECTION_ID;
+            }
+            if (trustedMode) {
+                flags |= FLAG_TRUSTED_MODE;
+            }
+            if (accountName != null) {
+                flags |= FLAG_ACCOUNT_NAME;
+            }
+            if (deviceId != null) {
+                flags |= FLAG_DEVICE_ID;
+            }
+            if (tokenId != null) {
+                flags |= FLAG_TOKEN_ID;
+            }
+
+            out.writeByte(VERSION_3);
+            out.writeByte(flags);
+            if (connectionId != null) {
+                writeId(out, connectionId);
+            }
+            writeId(out, scopeId);
+            writeId(out, userId);
+            out.writeUTF(connectorName);
+            if (accountName != null) {
+                out.writeUTF(accountName);
+            }
+            if (deviceId != null) {
+                writeId(out, deviceId);
+            }
+            if (tokenId != null) {
+                out.writeUTF(tokenId);
+            }
+        } catch (IOException e) {
+            // Cannot happen writing to a ByteArrayOutputStream
+            throw new IllegalStateException("Cannot encode the connection context", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes the {@link KapuaConnectionContext} from its header representation.
+     *
+     * @param encoded The header value produced by {@link #encode()}.
+     * @return The decoded {@link KapuaConnectionContext}.
+     * @throws IllegalArgumentException if the given value is {@code null}, is not a valid encoded context or has been encoded with an unsupported version.
+     * @since 1.5.0
+     */
+    public static KapuaConnectionContext decode(String encoded) {
+        if (encoded == null) {
+            throw new IllegalArgumentException("Connection context header is missing");
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(encoded)))) {
+            byte version = in.readByte();
+            if (version != VERSION_1 && version != VERSION_2 && version != VERSION_3) {
+                throw new IllegalArgumentException(String.format("Unsupported connection context version: %d", version));
+            }
+
+            byte flags = in.readByte();
+            KapuaId connectionId = (flags & FLAG_CONNECTION_ID) != 0 ? readId(in) : null;
+            KapuaId scopeId = readId(in);
+            KapuaId userId = readId(in);
+            String connectorName = in.readUTF();
+            String accountName = null;
+            KapuaId deviceId = null;
+            String tokenId = null;
+            if (version >= VERSION_2) {
+                accountName = (flags & FLAG_ACCOUNT_NAME) != 0 ? in.readUTF() : null;
+                deviceId = (flags & FLAG_DEVICE_ID) != 0 ? readId(in) : null;
+            }
+            if (version >= VERSION_3) {
+                tokenId = (flags & FLAG_TOKEN_ID) != 0 ? in.readUTF() : null;
+            }
+
+            return new KapuaConnectionContext(connectionId, scopeId, userId, connectorName, (flags & FLAG_TRUSTED_MODE) != 0, accountName, deviceId, tokenId);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid connection context header", e);
+        }
+    }
+
+    private static void writeId(DataOutputStream out, KapuaId id) throws IOException {
+        byte[] idBytes = id.getId().toByteArray();
+        out.writeByte(idBytes.length);
+        out.write(idBytes);
+    }
+
+    private static KapuaId readId(DataInputStream in) throws IOException {
+        byte[] idBytes = new byte[in.readUnsignedByte()];
+        in.readFully(idBytes);
+        return new KapuaEid(new BigInteger(idBytes));
+    }
+}
@@ -37,6 +37,7 @@ public class MessageConstants {
     public static final String METRIC_USER_ID = "userId";
     public static final String METRIC_NODE_ID = "nodeId";
 
+    public static final String HEADER_KAPUA_CONNECTION_CONTEXT = "KAPUA_CONNECTION_CONTEXT";
     public static final String HEADER_KAPUA_CONNECTION_ID = "KAPUA_CONNECTION_ID";
     public static final String HEADER_KAPUA_RECEIVED_TIMESTAMP = "KAPUA_RECEIVED_TIMESTAMP";
     public static final String HEADER_KAPUA_CLIENT_ID = "KAPUA_CLIENT_ID";
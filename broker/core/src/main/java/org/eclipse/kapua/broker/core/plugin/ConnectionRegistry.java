@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.plugin;
+
+import org.apache.activemq.broker.Connection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the live {@link Connection}s of this broker, indexed by full client id.
+ * <p>
+ * It is used by the {@link KapuaSecurityBrokerFilter} to find the connection of a client without scanning all the connected clients,
+ * like when the same client connects to another broker of the cluster (stealing link).
+ * Each full client id is bound to the last connection that logged in with it: the older connections of the same client do not remove it when they disconnect.
+ *
+ * @since 1.5.0
+ */
+public class ConnectionRegistry {
+
+    private final Map<String, ConnectionEntry> connections = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the given connection for the given full client id, replacing the previous one.
+     *
+     * @param fullClientId The full client id.
+     * @param connectionId The connection id.
+     * @param connection   The {@link Connection}. It can be {@code null} if it is not available.
+     * @return The connection id previously registered for the full client id, or {@code null} if there was none.
+     * @since 1.5.0
+     */
+    public String register(String fullClientId, String connectionId, Connection connection) {
+        ConnectionEntry previousEntry = connections.put(fullClientId, new ConnectionEntry(connectionId, connection));
+        return previousEntry != null ? previousEntry.connectionId : null;
+    }
+
+    /**
+     * Unregisters the given connection, if it is still the one registered for the given full client id.
+     *
+     * @param fullClientId The full client id.
+     * @param connectionId The connection id.
+     * @return {@code true} if the connection has been unregistered, {@code false} if another connection is registered for the full client id.
+     * @since 1.5.0
+     */
+    public boolean unregister(String fullClientId, String connectionId) {
+        boolean[] unregistered = new boolean[1];
+        connections.computeIfPresent(fullClientId, (key, entry) -> {
+            if (entry.connectionId.equals(connectionId)) {
+                unregistered[0] = true;
+                return null;
+            }
+            return entry;
+        });
+        return unregistered[0];
+    }
+
+    /**
+     * Gets the connection id registered for the given full client id.
+     *
+     * @param fullClientId The full client id.
+     * @return The registered connection id, or {@code null} if there is none.
+     * @since 1.5.0
+     */
+    public String getConnectionId(String fullClientId) {
+        ConnectionEntry entry = connections.get(fullClientId);
+        return entry != null ? entry.connectionId : null;
+    }
+
+    /**
+     * Gets the {@link Connection} registered for the given full client id.
+     *
+     * @param fullClientId The full client id.
+     * @return The registered {@link Connection}, or {@code null} if there is none.
+     * @since 1.5.0
+     */
+    public Connection getConnection(String fullClientId) {
+        ConnectionEntry entry = connections.get(fullClientId);
+        return entry != null ? entry.connection : null;
+    }
+
+    /**
+     * Gets the number of registered connections.
+     *
+     * @return The number of registered connections.
+     * @since 1.5.0
+     */
+    public int size() {
+        return connections.size();
+    }
+
+    private static class ConnectionEntry {
+
+        private final String connectionId;
+        private final Connection connection;
+
+        private ConnectionEntry(String connectionId, Connection connection) {
+            this.connectionId = connectionId;
+            this.connection = connection;
+        }
+    }
+}
@@ -31,7 +31,6 @@ import org.apache.activemq.filter.DestinationMapEntry;
 import org.apache.activemq.security.AuthorizationEntry;
 import org.apache.activemq.security.DefaultAuthorizationMap;
 import org.apache.activemq.security.SecurityContext;
-import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.shiro.ShiroException;
 import org.apache.shiro.authc.AuthenticationException;
@@ -77,13 +76,11 @@ import javax.security.auth.login.CredentialException;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -132,6 +129,11 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
      */
     private static int publishInfoMessageSizeLimit;
 
+    /**
+     * Whether to create an {@link AccessToken} on each login
+     */
+    private static boolean loginAccessTokenEnabled;
+
     static {
         BrokerSetting config = BrokerSetting.getInstance();
         BROKER_IP_RESOLVER_CLASS_NAME = config.getString(BrokerSettingKey.BROKER_IP_RESOLVER_CLASS_NAME);
@@ -142,6 +144,7 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
         STEALING_LINK_INITIALIZATION_MAX_WAIT_TIME = config.getLong(BrokerSettingKey.STEALING_LINK_INITIALIZATION_MAX_WAIT_TIME);
         stealingLinkEnabled = config.getBoolean(BrokerSettingKey.BROKER_STEALING_LINK_ENABLED);
         publishInfoMessageSizeLimit = BrokerSetting.getInstance().getInt(BrokerSettingKey.PUBLISHED_MESSAGE_SIZE_LOG_THRESHOLD, DEFAULT_PUBLISHED_MESSAGE_SIZE_LOG_THRESHOLD);
+        loginAccessTokenEnabled = config.getBoolean(BrokerSettingKey.LOGIN_ACCESS_TOKEN_ENABLED, false);
     }
 
     protected BrokerIpResolver brokerIpResolver;
@@ -149,7 +152,7 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
     protected JmsConsumerWrapper stealingLinkManagerConsumer;
     protected String brokerId;
 
-    protected static final Map<String, String> CONNECTION_MAP = new ConcurrentHashMap<>();
+    protected static final ConnectionRegistry CONNECTION_MAP = new ConnectionRegistry();
     private Authenticator authenticator;
     private Authorizer authorizer;
 
@@ -260,7 +263,7 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
                     if (!brokerId.equals(messageBrokerId)) {
                         logger.debug("Received connect message from another broker id: '{}' topic: '{}' - message id: '{}'", messageBrokerId, destination, messageId);
                         KapuaSecurityContext kapuaSecurityContext = getKapuaSecurityContext(message);
-                        if (CONNECTION_MAP.get(kapuaSecurityContext.getFullClientId()) != null) {
+                        if (CONNECTION_MAP.getConnectionId(kapuaSecurityContext.getFullClientId()) != null) {
                             logger.debug("Stealing link detected - broker id: '{}' topic: '{}' - message id: '{}'", messageBrokerId, destination, messageId);
                             // iterate over all connected clients
                             disconnectClients(kapuaSecurityContext);
@@ -273,6 +276,15 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
     }
 
     private void disconnectClients(KapuaSecurityContext kapuaSecurityContext) throws Exception {
+        Connection connection = CONNECTION_MAP.getConnection(kapuaSecurityContext.getFullClientId());
+        if (connection != null) {
+            logger.info("New connection detected for {} on another broker.  Stopping the current connection...", kapuaSecurityContext.getFullClientId());
+            loginMetric.getRemoteStealingLinkDisconnect().inc();
+            connection.serviceExceptionAsync(new IOException(new KapuaDuplicateClientIdException(kapuaSecurityContext.getFullClientId())));
+            return;
+        }
+
+        // connection not registered, look for it among all the connected clients
         for (Connection conn : getClients()) {
             logger.debug("Checking if {} equals {}", kapuaSecurityContext.getFullClientId(), conn.getConnectionId());
             if (kapuaSecurityContext.getFullClientId().equals(conn.getConnectionId())) {
@@ -442,20 +454,31 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
             logger.info("User name {} - client id: {}, connection id: {}", info.getUserName(), info.getClientId(), info.getConnectionId());
             Context loginShiroLoginTimeContext = loginMetric.getShiroLoginTime().time();
             LoginCredentials credentials = credentialsFactory.newUsernamePasswordCredentials(info.getUserName(), info.getPassword());
-            AccessToken accessToken = authenticationService.login(credentials);
+            KapuaPrincipal principal;
+            if (loginAccessTokenEnabled) {
+                AccessToken accessToken = authenticationService.login(credentials);
+                principal = new KapuaPrincipalImpl(accessToken,
+                        info.getUserName(),
+                        info.getClientId(),
+                        info.getClientIp());
+            } else {
+                // The access token would be invalidated at the end of the login, so skip its creation
+                authenticationService.authenticate(credentials);
+                KapuaSession kapuaSession = KapuaSecurityUtils.getSession();
+                principal = new KapuaPrincipalImpl(kapuaSession.getScopeId(),
+                        kapuaSession.getUserId(),
+                        info.getUserName(),
+                        info.getClientId(),
+                        info.getClientIp());
+            }
 
-            final Account account = getAccount(accessToken.getScopeId());
+            final Account account = getAccount(principal.getAccountId());
 
-            KapuaPrincipal principal = new KapuaPrincipalImpl(accessToken,
-                    info.getUserName(),
-                    info.getClientId(),
-                    info.getClientIp());
             kapuaSecurityContext = new KapuaSecurityContext(principal, brokerIdResolver.getBrokerId(this), brokerIpResolver.getBrokerIpOrHostName(),
                     account.getName(), info, (((TransportConnector) context.getConnector()).getName()));
-            kapuaSecurityContext.updateOldConnectionId(CONNECTION_MAP.get(kapuaSecurityContext.getFullClientId()));
             loginShiroLoginTimeContext.stop();
 
-            CONNECTION_MAP.put(kapuaSecurityContext.getFullClientId(), info.getConnectionId().getValue());
+            kapuaSecurityContext.updateOldConnectionId(CONNECTION_MAP.register(kapuaSecurityContext.getFullClientId(), info.getConnectionId().getValue(), context.getConnection()));
 
             buildAuthorization(kapuaSecurityContext, authenticator.connect(kapuaSecurityContext));
             context.setSecurityContext(kapuaSecurityContext);
@@ -527,7 +550,7 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
         KapuaSecurityContext kapuaSecurityContext = getKapuaSecurityContext(context);
         try {
             KapuaPrincipal kapuaPrincipal = ((KapuaPrincipal) kapuaSecurityContext.getMainPrincipal());
-            kapuaSecurityContext.updateOldConnectionId(CONNECTION_MAP.get(kapuaSecurityContext.getFullClientId()));
+            kapuaSecurityContext.updateOldConnectionId(CONNECTION_MAP.getConnectionId(kapuaSecurityContext.getFullClientId()));
             // TODO fix the kapua session when run as feature will be implemented
             KapuaSecurityUtils.setSession(new KapuaSession(kapuaPrincipal));
             authenticator.disconnect(kapuaSecurityContext, error);
@@ -538,10 +561,8 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
             loginRemoveConnectionTimeContext.stop();
             authenticationService.logout();
             if (kapuaSecurityContext != null && kapuaSecurityContext.getFullClientId() != null) {
-                if (info.getConnectionId().getValue().equals(CONNECTION_MAP.get(kapuaSecurityContext.getFullClientId()))) {
-                    // cleanup stealing link detection map
-                    CONNECTION_MAP.remove(kapuaSecurityContext.getFullClientId());
-                } else {
+                // cleanup stealing link detection map
+                if (!CONNECTION_MAP.unregister(kapuaSecurityContext.getFullClientId(), info.getConnectionId().getValue())) {
                     logger.info("Cannot find client id in the connection map. May be it's due to a stealing link. ({})", kapuaSecurityContext.getFullClientId());
                 }
             } else {
@@ -623,11 +644,9 @@ public class KapuaSecurityBrokerFilter extends BrokerFilter {
                 kapuaSecurityContext.setMissing();
             }
             // FIX #164
-            messageSend.setProperty(MessageConstants.HEADER_KAPUA_CONNECTION_ID, Base64.getEncoder().encodeToString(SerializationUtils.serialize(kapuaSecurityContext.getKapuaConnectionId())));
+            // the connection context is encoded once per connection and then reused for every published message
+            messageSend.setProperty(MessageConstants.HEADER_KAPUA_CONNECTION_CONTEXT, kapuaSecurityContext.getConnectionContextHeader());
             messageSend.setProperty(MessageConstants.HEADER_KAPUA_CLIENT_ID, kapuaPrincipal.getClientId());
-            messageSend.setProperty(MessageConstants.HEADER_KAPUA_CONNECTOR_DEVICE_PROTOCOL,
-                    Base64.getEncoder().encodeToString(SerializationUtils.serialize(kapuaSecurityContext.getConnectorDescriptor())));
-            messageSend.setProperty(MessageConstants.HEADER_KAPUA_SESSION, Base64.getEncoder().encodeToString(SerializationUtils.serialize(kapuaSecurityContext.getKapuaSession())));
             messageSend.setProperty(MessageConstants.HEADER_KAPUA_BROKER_CONTEXT, false);
             if (publishInfoMessageSizeLimit < messageSize) {
                 logger.info("Published message size over threshold. size: {} - destination: {} - account id: {} - username: {} - clientId: {}",
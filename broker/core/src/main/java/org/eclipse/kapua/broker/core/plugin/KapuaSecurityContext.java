@@ -27,10 +27,18 @@ import org.apache.activemq.command.ConnectionInfo;
 import org.apache.activemq.security.AuthorizationMap;
 import org.apache.activemq.security.SecurityContext;
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.broker.core.message.KapuaConnectionContext;
+import org.eclipse.kapua.broker.core.plugin.authorization.AuthorizationDecisionCache;
+import org.eclipse.kapua.broker.core.setting.BrokerSetting;
+import org.eclipse.kapua.broker.core.setting.BrokerSettingKey;
 import org.eclipse.kapua.commons.model.id.KapuaEid;
 import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.authentication.KapuaPrincipal;
+import org.eclipse.kapua.service.authentication.token.AccessToken;
+import org.eclipse.kapua.service.authentication.token.AccessTokenFactory;
+import org.eclipse.kapua.service.device.registry.Device;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -53,14 +61,22 @@ public class KapuaSecurityContext extends SecurityContext {
     public static final String PARAM_KEY_PROFILE_ADMIN = "profile_admin";
     public static final String PARAM_KEY_STATUS_MISSING = "status_missing";
 
+    private static final AccessTokenFactory ACCESS_TOKEN_FACTORY = KapuaLocator.getInstance().getFactory(AccessTokenFactory.class);
+
+    private static final int AUTHORIZATION_CACHE_SIZE_MAX = BrokerSetting.getInstance().getInt(BrokerSettingKey.AUTHORIZATION_CACHE_SIZE_MAX, 100);
+
     private KapuaPrincipal principal;
     private KapuaSession kapuaSession;
     private KapuaId kapuaConnectionId;
+    private KapuaId deviceId;
     private String connectionId;
     private Set<Principal> principals;
     private ConnectorDescriptor connectorDescriptor;
+    private String connectorName;
+    private volatile String connectionContextHeader;
 
     private AuthorizationMap authorizationMap;
+    private volatile AuthorizationDecisionCache authorizationDecisionCache;
 
     private String brokerId;
     private KapuaId scopeId;
@@ -108,6 +124,7 @@ public class KapuaSecurityContext extends SecurityContext {
         if (connectorName == null) {
             throw new IllegalStateException("Connector name is empty!");
         }
+        this.connectorName = connectorName;
         connectorDescriptor = ConnectorDescriptorProviders.getDescriptor(connectorName);
         if (connectorDescriptor == null) {
             throw new IllegalStateException(String.format("Unable to find connector descriptor for connector '%s'", connectorName));
@@ -118,6 +135,32 @@ public class KapuaSecurityContext extends SecurityContext {
         updateFullClientId();
     }
 
+    /**
+     * Rebuilds the {@link KapuaSession} of a device connection from the {@link KapuaConnectionContext} attached to its messages.<br>
+     * The trusted mode can only be restored here, since this is the trusted class allowed to call {@link KapuaSession#createFrom(AccessToken, KapuaId, KapuaId)}.
+     * <p>
+     * The rebuilt {@link KapuaSession} is not bound to the current thread.
+     * Its {@link AccessToken}, if any, only carries the token id, scope id and user id.
+     *
+     * @param connectionContext The {@link KapuaConnectionContext} decoded from the message.
+     * @return The rebuilt {@link KapuaSession}.
+     * @since 1.5.0
+     */
+    public static KapuaSession newKapuaSession(KapuaConnectionContext connectionContext) {
+        AccessToken accessToken = null;
+        if (connectionContext.getTokenId() != null) {
+            accessToken = ACCESS_TOKEN_FACTORY.newEntity(connectionContext.getScopeId());
+            accessToken.setUserId(connectionContext.getUserId());
+            accessToken.setTokenId(connectionContext.getTokenId());
+        }
+
+        if (connectionContext.isTrustedMode()) {
+            return KapuaSession.createFrom(accessToken, connectionContext.getScopeId(), connectionContext.getUserId());
+        } else {
+            return new KapuaSession(accessToken, connectionContext.getScopeId(), connectionContext.getUserId());
+        }
+    }
+
     public KapuaPrincipal getKapuaPrincipal() throws KapuaException {
         return principal;
     }
@@ -130,14 +173,32 @@ public class KapuaSecurityContext extends SecurityContext {
         return principals;
     }
 
+    /**
+     * Sets the {@link AuthorizationMap} of this connection.<br>
+     * The cached authorization decisions are discarded.
+     *
+     * @param authorizationMap The {@link AuthorizationMap}.
+     */
     public void setAuthorizationMap(AuthorizationMap authorizationMap) {
         this.authorizationMap = authorizationMap;
+        // replaced after the map, so decisions taken against the previous map are never cached in the new instance
+        authorizationDecisionCache = new AuthorizationDecisionCache(AUTHORIZATION_CACHE_SIZE_MAX);
     }
 
     public AuthorizationMap getAuthorizationMap() {
         return authorizationMap;
     }
 
+    /**
+     * Gets the {@link AuthorizationDecisionCache} bound to the current {@link AuthorizationMap}.
+     *
+     * @return The {@link AuthorizationDecisionCache}, or {@code null} if the {@link AuthorizationMap} has not been set yet.
+     * @since 1.5.0
+     */
+    public AuthorizationDecisionCache getAuthorizationDecisionCache() {
+        return authorizationDecisionCache;
+    }
+
     public KapuaId getKapuaConnectionId() {
         return kapuaConnectionId;
     }
@@ -150,10 +211,32 @@ public class KapuaSecurityContext extends SecurityContext {
         return connectorDescriptor;
     }
 
+    public String getConnectorName() {
+        return connectorName;
+    }
+
     public KapuaSession getKapuaSession() {
         return kapuaSession;
     }
 
+    /**
+     * Gets the encoded {@link KapuaConnectionContext} to be attached to the messages published by this connection.<br>
+     * The value is computed once and then reused until the Kapua connection id changes.
+     *
+     * @return The encoded {@link KapuaConnectionContext}
+     * @since 1.5.0
+     */
+    public String getConnectionContextHeader() {
+        String header = connectionContextHeader;
+        if (header == null) {
+            AccessToken accessToken = kapuaSession.getAccessToken();
+            header = new KapuaConnectionContext(kapuaConnectionId, kapuaSession.getScopeId(), kapuaSession.getUserId(), connectorName, kapuaSession.isTrustedMode(), accountName, deviceId,
+                    accessToken != null ? accessToken.getTokenId() : null).encode();
+            connectionContextHeader = header;
+        }
+        return header;
+    }
+
     public void setMissing() {
         setProperty(PARAM_KEY_STATUS_MISSING, Boolean.TRUE);
     }
@@ -168,6 +251,22 @@ public class KapuaSecurityContext extends SecurityContext {
 
     public void updateKapuaConnectionId(DeviceConnection deviceConnection) {
         kapuaConnectionId = deviceConnection != null ? deviceConnection.getId() : null;
+        connectionContextHeader = null;
+    }
+
+    /**
+     * Updates the {@link Device} registered with the client id of this connection.
+     *
+     * @param device The {@link Device}. May be {@code null} if it is not registered yet.
+     * @since 1.5.0
+     */
+    public void updateDeviceId(Device device) {
+        deviceId = device != null ? device.getId() : null;
+        connectionContextHeader = null;
+    }
+
+    public KapuaId getDeviceId() {
+        return deviceId;
     }
 
     public void updateOldConnectionId(String oldConnectionId) {
@@ -22,6 +22,7 @@ import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.model.domain.Actions;
 import org.eclipse.kapua.service.authorization.permission.Permission;
 import org.eclipse.kapua.service.device.registry.ConnectionUserCouplingMode;
+import org.eclipse.kapua.service.device.registry.Device;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionCreator;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnectionStatus;
@@ -74,6 +75,9 @@ public class UserAuthenticationLogic extends AuthenticationLogic {
 
         Context loginFindDeviceConnectionTimeContext = loginMetric.getFindDeviceConnectionTime().time();
         DeviceConnection deviceConnection = KapuaSecurityUtils.doPrivileged(() -> deviceConnectionService.findByClientId(kapuaSecurityContext.getScopeId(), kapuaSecurityContext.getClientId()));
+        // resolved once for the connection, so that the messages published by the device do not look it up again
+        Device device = KapuaSecurityUtils.doPrivileged(() -> deviceRegistryService.findByClientId(kapuaSecurityContext.getScopeId(), kapuaSecurityContext.getClientId()));
+        kapuaSecurityContext.updateDeviceId(device);
         loginFindDeviceConnectionTimeContext.stop();
 
         // enforce the user-device bound
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.plugin.authorization;
+
+import org.apache.activemq.command.ActiveMQDestination;
+import org.apache.activemq.security.AuthorizationMap;
+import org.eclipse.kapua.broker.core.plugin.authorization.Authorizer.ActionType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of the authorization decisions of a single connection, by {@link ActionType} and {@link ActiveMQDestination}.
+ * <p>
+ * Evaluating the {@link AuthorizationMap} walks its wildcard tree on each message, while devices publish and subscribe to a small and stable set of destinations.
+ * The cache is bound to a single {@link AuthorizationMap}, so a new instance must be used each time it is rebuilt.
+ * When full, the least recently used decision of the {@link ActionType} is evicted.
+ *
+ * @since 1.5.0
+ */
+public class AuthorizationDecisionCache {
+
+    private final int sizeMax;
+    private final Map<ActionType, Map<ActiveMQDestination, Boolean>> decisions = new EnumMap<>(ActionType.class);
+
+    /**
+     * Constructor.
+     *
+     * @param sizeMax The maximum number of {@link ActiveMQDestination}s cached for each {@link ActionType}.
+     * @since 1.5.0
+     */
+    public AuthorizationDecisionCache(int sizeMax) {
+        this.sizeMax = sizeMax;
+
+        for (ActionType actionType : ActionType.values()) {
+            decisions.put(actionType, Collections.synchronizedMap(new LeastRecentlyUsedMap<>(sizeMax)));
+        }
+    }
+
+    /**
+     * Gets the cached decision of the given {@link ActionType} on the given {@link ActiveMQDestination}.
+     *
+     * @param actionType  The {@link ActionType}.
+     * @param destination The {@link ActiveMQDestination}.
+     * @return {@code true} if allowed, {@code false} if denied, {@code null} if not cached.
+     * @since 1.5.0
+     */
+    public Boolean get(ActionType actionType, ActiveMQDestination destination) {
+        return actionType != null && destination != null ? decisions.get(actionType).get(destination) : null;
+    }
+
+    /**
+     * Caches the decision of the given {@link ActionType} on the given {@link ActiveMQDestination}.
+     *
+     * @param actionType  The {@link ActionType}.
+     * @param destination The {@link ActiveMQDestination}.
+     * @param allowed     Whether the action is allowed or not.
+     * @since 1.5.0
+     */
+    public void put(ActionType actionType, ActiveMQDestination destination, boolean allowed) {
+        if (actionType == null || destination == null || sizeMax <= 0) {
+            return;
+        }
+
+        decisions.get(actionType).put(destination, allowed);
+    }
+
+    /**
+     * Gets the number of cached decisions of the given {@link ActionType}.
+     *
+     * @param actionType The {@link ActionType}.
+     * @return The number of cached decisions.
+     * @since 1.5.0
+     */
+    public int size(ActionType actionType) {
+        return decisions.get(actionType).size();
+    }
+
+    /**
+     * Access ordered {@link LinkedHashMap} which evicts the least recently used entry when its size exceeds the maximum.
+     *
+     * @since 1.5.0
+     */
+    private static class LeastRecentlyUsedMap<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int sizeMax;
+
+        LeastRecentlyUsedMap(int sizeMax) {
+            super(16, 0.75f, true);
+            this.sizeMax = sizeMax;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > sizeMax;
+        }
+    }
+}
@@ -19,13 +19,29 @@ import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.broker.core.plugin.KapuaSecurityContext;
 
 /**
- * Default authorizer implementation.
+ * Default authorizer implementation.<br>
+ * The decisions are cached in the {@link AuthorizationDecisionCache} of the connection, so the authorization map is evaluated once for each destination until it is rebuilt.
  *
  */
 public class DefaultAuthorizer implements Authorizer {
 
     @Override
     public boolean isAllowed(ActionType actionType, KapuaSecurityContext kapuaSecurityContext, ActiveMQDestination destination) throws KapuaException {
+        // got before evaluating the authorization map, so a decision taken against a rebuilt map ends up in a discarded cache at most
+        AuthorizationDecisionCache authorizationDecisionCache = kapuaSecurityContext.getAuthorizationDecisionCache();
+        if (authorizationDecisionCache == null) {
+            return isAllowedUncached(actionType, kapuaSecurityContext, destination);
+        }
+        Boolean cachedAllowed = authorizationDecisionCache.get(actionType, destination);
+        if (cachedAllowed != null) {
+            return cachedAllowed;
+        }
+        boolean allowed = isAllowedUncached(actionType, kapuaSecurityContext, destination);
+        authorizationDecisionCache.put(actionType, destination, allowed);
+        return allowed;
+    }
+
+    protected boolean isAllowedUncached(ActionType actionType, KapuaSecurityContext kapuaSecurityContext, ActiveMQDestination destination) throws KapuaException {
         switch (actionType) {
         case READ:
             return isConsumeAllowed(kapuaSecurityContext, destination);
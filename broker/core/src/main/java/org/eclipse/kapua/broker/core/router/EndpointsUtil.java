@@ -24,14 +24,21 @@ public class EndpointsUtil {
     private EndpointsUtil() { }
 
     public static boolean matches(Exchange exchange, Object value, String previous, Map<String, Object> properties, Pattern pattern) {
+        // TODO if pattern is null it is an error so it should be correct to throw an exception or leave the NullPointerException raised by the method?!
+        return previous == null && pattern.matcher(getOriginalTopic(exchange)).matches();
+    }
+
+    /**
+     * Same as {@link #matches(Exchange, Object, String, Map, Pattern)} but using a precompiled {@link TopicPattern}.
+     *
+     * @since 1.5.0
+     */
+    public static boolean matchesTopicPattern(Exchange exchange, Object value, String previous, Map<String, Object> properties, TopicPattern topicPattern) {
+        return previous == null && topicPattern.matches(getOriginalTopic(exchange));
+    }
 
-        if (previous == null) {
-            String originaTopic = exchange.getIn().getHeader(MessageConstants.PROPERTY_ORIGINAL_TOPIC, String.class);
-            // TODO if pattern is null it is an error so it should be correct to throw an exception or leave the NullPointerException raised by the method?!
-            return pattern.matcher(originaTopic).matches();
-        } else {
-            return false;
-        }
+    private static String getOriginalTopic(Exchange exchange) {
+        return exchange.getIn().getHeader(MessageConstants.PROPERTY_ORIGINAL_TOPIC, String.class);
     }
 
 }
@@ -14,7 +14,6 @@ package org.eclipse.kapua.broker.core.router;
 
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
@@ -34,7 +33,7 @@ import org.apache.camel.Exchange;
 public class ParentEndPoint implements EndPoint {
 
     @XmlTransient
-    private Pattern pattern;
+    private TopicPattern topicPattern;
     @XmlTransient
     private String regexPlaceholderReplaced;
 
@@ -44,7 +43,7 @@ public class ParentEndPoint implements EndPoint {
     @Override
     @XmlTransient
     public boolean matches(Exchange exchange, Object value, String previous, Map<String, Object> properties) {
-        return EndpointsUtil.matches(exchange, value, previous, properties, pattern);
+        return EndpointsUtil.matchesTopicPattern(exchange, value, previous, properties, topicPattern);
     }
 
     @Override
@@ -65,7 +64,7 @@ public class ParentEndPoint implements EndPoint {
     public void setRegex(String regex) {
         this.regex = regex;
         regexPlaceholderReplaced = EndPoint.replacePlaceholder(regex);
-        pattern = EndPoint.parseRegex(regexPlaceholderReplaced);
+        topicPattern = TopicPattern.compile(regexPlaceholderReplaced);
     }
 
     @XmlAnyElement
@@ -13,7 +13,6 @@
 package org.eclipse.kapua.broker.core.router;
 
 import java.util.Map;
-import java.util.regex.Pattern;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
@@ -32,7 +31,7 @@ import org.apache.camel.Exchange;
 public class SimpleEndPoint implements EndPoint {
 
     @XmlTransient
-    private Pattern pattern;
+    private TopicPattern topicPattern;
     @XmlTransient
     private String regexPlaceholderReplaced;
 
@@ -42,7 +41,7 @@ public class SimpleEndPoint implements EndPoint {
     @Override
     @XmlTransient
     public boolean matches(Exchange exchange, Object value, String previous, Map<String, Object> properties) {
-        return EndpointsUtil.matches(exchange, value, previous, properties, pattern);
+        return EndpointsUtil.matchesTopicPattern(exchange, value, previous, properties, topicPattern);
     }
 
     @Override
@@ -58,7 +57,7 @@ public class SimpleEndPoint implements EndPoint {
     public void setRegex(String regex) {
         this.regex = regex;
         regexPlaceholderReplaced = EndPoint.replacePlaceholder(regex);
-        pattern = EndPoint.parseRegex(regexPlaceholderReplaced);
+        topicPattern = TopicPattern.compile(regexPlaceholderReplaced);
     }
 
     public String getEndPoint() {
@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.router;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * {@link EndPoint} topic pattern.
+ * <p>
+ * The {@link EndPoint} regexes are compiled once at startup. When the regex only uses the subset of the syntax used by the default routes
+ * (literals, escaped literals, {@code ^} and {@code $} anchors, {@code .*} wildcards and groups repeated a fixed number of times like {@code (.*\.){2}})
+ * it is compiled into a sequence of literal tokens and wildcards which is matched against the topic without any regex evaluation.<br>
+ * Otherwise the matching is delegated to the {@link Pattern} compiled from the regex.
+ * <p>
+ * The result of {@link #matches(String)} is always the same of {@link java.util.regex.Matcher#matches()} for the same regex.
+ *
+ * @since 1.5.0
+ */
+public abstract class TopicPattern {
+
+    private TopicPattern() {
+    }
+
+    /**
+     * Checks whether the given topic matches this {@link TopicPattern}.
+     *
+     * @param topic The topic to match.
+     * @return {@code true} if the whole topic matches, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public abstract boolean matches(String topic);
+
+    /**
+     * Compiles the given regex.
+     *
+     * @param regex The regex to compile.
+     * @return The compiled {@link TopicPattern}, or {@code null} if the regex is not valid.
+     * @since 1.5.0
+     */
+    public static TopicPattern compile(String regex) {
+        Pattern pattern = EndPoint.parseRegex(regex);
+        if (pattern == null) {
+            return null;
+        }
+
+        List<String> tokens = new Parser(regex).parse();
+        return tokens != null ? new TokenTopicPattern(tokens, pattern) : new RegexTopicPattern(pattern);
+    }
+
+    /**
+     * {@link TopicPattern} which delegates to a {@link Pattern}.
+     */
+    static class RegexTopicPattern extends TopicPattern {
+
+        private final Pattern pattern;
+
+        RegexTopicPattern(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean matches(String topic) {
+            return pattern.matcher(topic).matches();
+        }
+
+        @Override
+        public String toString() {
+            return pattern.pattern();
+        }
+    }
+
+    /**
+     * {@link TopicPattern} compiled to a list of literal tokens where a {@code null} token is a {@code .*} wildcard.
+     */
+    static class TokenTopicPattern extends TopicPattern {
+
+        private final String[] tokens;
+        private final boolean hasWildcard;
+        private final Pattern pattern;
+
+        TokenTopicPattern(List<String> tokens, Pattern pattern) {
+            this.tokens = tokens.toArray(new String[0]);
+            this.hasWildcard = tokens.contains(null);
+            this.pattern = pattern;
+        }
+
+        @Override
+        public boolean matches(String topic) {
+            if (hasWildcard && hasLineTerminator(topic)) {
+                // '.' does not match line terminators. Topics never contain them, but let the regex take care of this corner case.
+                return pattern.matcher(topic).matches();
+            }
+
+            int first = 0;
+            int last = tokens.length - 1;
+            int start = 0;
+            int end = topic.length();
+
+            // Anchored prefix
+            if (first <= last && tokens[first] != null) {
+                if (!topic.startsWith(tokens[first])) {
+                    return false;
+                }
+                start = tokens[first].length();
+                first++;
+            }
+
+            // Anchored suffix
+            if (first <= last && tokens[last] != null) {
+                if (end - start < tokens[last].length() || !topic.endsWith(tokens[last])) {
+                    return false;
+                }
+                end -= tokens[last].length();
+                last--;
+            }
+
+            if (first > last) {
+                // No wildcard left: the prefix and the suffix must have consumed the whole topic
+                return start == end;
+            }
+
+            // Here tokens[first] and tokens[last] are wildcards: find the literals in between with the leftmost occurrence
+            for (int i = first + 1; i < last; i++) {
+                if (tokens[i] != null) {
+                    int index = topic.indexOf(tokens[i], start);
+                    if (index < 0 || index + tokens[i].length() > end) {
+                        return false;
+                    }
+                    start = index + tokens[i].length();
+                }
+            }
+            return true;
+        }
+
+        private static boolean hasLineTerminator(String topic) {
+            for (int i = 0; i < topic.length(); i++) {
+                char c = topic.charAt(i);
+                if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return pattern.pattern();
+        }
+    }
+
+    /**
+     * Parser of the supported regex subset.
+     * <p>
+     * The result is a normalized list of tokens (adjacent literals are merged and adjacent wildcards are collapsed) where {@code null} is a wildcard,
+     * or {@code null} if the regex uses a construct which is not supported.
+     */
+    static class Parser {
+
+        private static final String META_CHARS = "\\^$.|?*+()[]{}";
+
+        private final String regex;
+        private int position;
+
+        Parser(String regex) {
+            this.regex = regex;
+        }
+
+        List<String> parse() {
+            List<Object> elements = new ArrayList<>();
+            if (regex.startsWith("^")) {
+                position++;
+            }
+            if (!parseSequence(elements, false)) {
+                return null;
+            }
+            return normalize(elements);
+        }
+
+        /**
+         * Parses a sequence of elements until the end of the regex or, if nested, until the closing parenthesis (which is consumed).
+         * Each element is either a {@link StringBuilder} (literal) or {@code null} (wildcard).
+         */
+        private boolean parseSequence(List<Object> elements, boolean nested) {
+            while (position < regex.length()) {
+                char c = regex.charAt(position);
+                switch (c) {
+                case '\\':
+                    if (position + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(position + 1))) {
+                        // Character classes (\d, \w...), back references and quoting are not supported
+                        return false;
+                    }
+                    elements.add(new StringBuilder().append(regex.charAt(position + 1)));
+                    position += 2;
+                    break;
+                case '.':
+                    if (position + 1 >= regex.length() || regex.charAt(position + 1) != '*') {
+                        return false;
+                    }
+                    elements.add(null);
+                    position += 2;
+                    break;
+                case '(':
+                    position++;
+                    List<Object> group = new ArrayList<>();
+                    if (regex.startsWith("?:", position)) {
+                        position += 2;
+                    }
+                    if (!parseSequence(group, true)) {
+                        return false;
+                    }
+                    int repetitions = parseRepetitions();
+                    if (repetitions < 0) {
+                        return false;
+                    }
+                    for (int i = 0; i < repetitions; i++) {
+                        for (Object element : group) {
+                            elements.add(element != null ? new StringBuilder((StringBuilder) element) : null);
+                        }
+                    }
+                    break;
+                case ')':
+                    position++;
+                    return nested;
+                case '$':
+                    position++;
+                    // Only supported as end anchor
+                    return !nested && position == regex.length();
+                default:
+                    if (META_CHARS.indexOf(c) >= 0) {
+                        return false;
+                    }
+                    elements.add(new StringBuilder().append(c));
+                    position++;
+                    break;
+                }
+                if (position < regex.length() && isQuantifier(regex.charAt(position)) && regex.charAt(position - 1) != ')') {
+                    // Quantifiers applied to literals are not supported
+                    return false;
+                }
+            }
+            return !nested;
+        }
+
+        /**
+         * Parses the optional {@code {n}} quantifier after a group.
+         *
+         * @return The number of repetitions, or -1 if the quantifier is not supported.
+         */
+        private int parseRepetitions() {
+            if (position >= regex.length() || regex.charAt(position) != '{') {
+                return position < regex.length() && isQuantifier(regex.charAt(position)) ? -1 : 1;
+            }
+            int closing = regex.indexOf('}', position);
+            if (closing < 0) {
+                return -1;
+            }
+            String count = regex.substring(position + 1, closing);
+            if (count.isEmpty() || count.length() > 3 || !count.chars().allMatch(Character::isDigit)) {
+                return -1;
+            }
+            position = closing + 1;
+            if (position < regex.length() && isQuantifier(regex.charAt(position))) {
+                return -1;
+            }
+            return Integer.parseInt(count);
+        }
+
+        private static boolean isQuantifier(char c) {
+            return c == '*' || c == '+' || c == '?' || c == '{';
+        }
+
+        private static List<String> normalize(List<Object> elements) {
+            List<String> tokens = new ArrayList<>();
+            StringBuilder literal = null;
+            boolean wildcard = false;
+            for (Object element : elements) {
+                if (element == null) {
+                    if (literal != null) {
+                        tokens.add(literal.toString());
+                        literal = null;
+                    }
+                    if (!wildcard) {
+                        tokens.add(null);
+                        wildcard = true;
+                    }
+                } else {
+                    if (literal == null) {
+                        literal = new StringBuilder();
+                    }
+                    literal.append((StringBuilder) element);
+                    wildcard = false;
+                }
+            }
+            if (literal != null) {
+                tokens.add(literal.toString());
+            }
+            return Collections.unmodifiableList(tokens);
+        }
+    }
+}
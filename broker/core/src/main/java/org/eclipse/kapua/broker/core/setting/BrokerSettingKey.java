@@ -92,6 +92,15 @@ public enum BrokerSettingKey implements SettingKey {
      * Publish message info if the message size is over the specified threshold
      */
     PUBLISHED_MESSAGE_SIZE_LOG_THRESHOLD("broker.security.published.message_size.log_threshold"),
+    /**
+     * Enable/disable the creation of an access token on each device login.
+     * When disabled, the device credentials are authenticated without persisting an access token, since it is discarded when the login completes.
+     */
+    LOGIN_ACCESS_TOKEN_ENABLED("broker.security.login.access_token.enabled"),
+    /**
+     * Maximum number of destinations for which each connection caches the authorization decision of each action type
+     */
+    AUTHORIZATION_CACHE_SIZE_MAX("broker.security.authorization.cache.size_max"),
     /**
      * Camel default route configuration file name. (please specify just the name. The file path will be discovered by the class loader)
      * Used by the {@link CamelKapuaDefaultRouter} to load the routing configuration.
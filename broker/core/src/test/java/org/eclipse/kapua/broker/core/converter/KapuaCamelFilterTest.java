@@ -16,9 +16,11 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Message;
 import org.apache.commons.lang3.SerializationUtils;
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.broker.core.message.KapuaConnectionContext;
 import org.eclipse.kapua.broker.core.message.MessageConstants;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.qa.markers.junit.JUnitTests;
 import org.junit.Assert;
 import org.junit.Before;
@@ -139,6 +141,55 @@ public class KapuaCamelFilterTest extends Assert {
         KapuaSecurityUtils.clearSession();
     }
 
+    @Test
+    public void bindSessionConnectionContextTest() {
+        Mockito.when(message.getHeader(MessageConstants.HEADER_KAPUA_BROKER_CONTEXT, boolean.class)).thenReturn(false);
+        Mockito.when(exchange.getIn()).thenReturn(message);
+        Mockito.when(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_CONTEXT, String.class))
+                .thenReturn(new KapuaConnectionContext(KapuaId.ONE, KapuaId.ONE, KapuaId.ANY, "mqtt", true, "account-name", null, "token-id").encode());
+
+        assertNull("Null expected.", KapuaSecurityUtils.getSession());
+        try {
+            kapuaCamelFilter.bindSession(exchange, value);
+        } catch (Exception e) {
+            fail("Exception not expected.");
+        }
+
+        KapuaSession session = KapuaSecurityUtils.getSession();
+        assertNotNull("NotNull expected.", session);
+        assertTrue("True expected.", session.isTrustedMode());
+        assertEquals("Expected and actual values should be the same.", KapuaId.ONE, session.getScopeId());
+        assertEquals("Expected and actual values should be the same.", KapuaId.ANY, session.getUserId());
+        assertNotNull("NotNull expected.", session.getAccessToken());
+        KapuaSecurityUtils.clearSession();
+    }
+
+    @Test
+    public void bindSessionConnectionContextNotTrustedTest() {
+        Mockito.when(message.getHeader(MessageConstants.HEADER_KAPUA_BROKER_CONTEXT, boolean.class)).thenReturn(false);
+        Mockito.when(exchange.getIn()).thenReturn(message);
+        Mockito.when(message.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_CONTEXT, String.class))
+                .thenReturn(new KapuaConnectionContext(KapuaId.ONE, KapuaId.ONE, KapuaId.ANY, "mqtt", false).encode());
+
+        try {
+            kapuaCamelFilter.bindSession(exchange, value);
+        } catch (Exception e) {
+            fail("Exception not expected.");
+        }
+
+        KapuaSession session = KapuaSecurityUtils.getSession();
+        assertNotNull("NotNull expected.", session);
+        assertFalse("False expected.", session.isTrustedMode());
+        assertNull("Null expected.", session.getAccessToken());
+        KapuaSecurityUtils.clearSession();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void createTrustedSessionTest() {
+        // Only the KapuaSecurityContext can restore the trusted mode
+        KapuaSession.createFrom(KapuaId.ONE, KapuaId.ANY);
+    }
+
     @Test
     public void bindSessionNullValueFalseTest() {
         Mockito.when(message.getHeader(MessageConstants.HEADER_KAPUA_BROKER_CONTEXT, boolean.class)).thenReturn(false);
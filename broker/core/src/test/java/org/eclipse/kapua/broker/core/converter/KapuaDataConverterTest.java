@@ -21,6 +21,7 @@ import org.eclipse.kapua.KapuaErrorCodes;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.broker.core.listener.CamelConstants;
 import org.eclipse.kapua.broker.core.message.CamelKapuaMessage;
+import org.eclipse.kapua.broker.core.message.KapuaConnectionContext;
 import org.eclipse.kapua.broker.core.message.MessageConstants;
 import org.eclipse.kapua.broker.core.plugin.ConnectorDescriptor;
 import org.eclipse.kapua.broker.core.plugin.ConnectorDescriptorProvider;
@@ -30,6 +31,7 @@ import org.eclipse.kapua.commons.metric.MetricServiceFactory;
 import org.eclipse.kapua.message.KapuaMessage;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.translator.SenderIdentity;
 import org.eclipse.kapua.translator.Translator;
 import org.eclipse.kapua.translator.cache.TranslatorCache;
 import org.eclipse.kapua.translator.exception.TranslateException;
@@ -41,6 +43,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import java.util.Base64;
@@ -161,6 +164,35 @@ public class KapuaDataConverterTest extends Assert {
 
     }
 
+    @Test
+    public void convertToDataSenderIdentityTest() throws KapuaException {
+        KapuaId deviceId = KapuaId.ANY;
+        String connectionContextHeader = new KapuaConnectionContext(kapuaId, kapuaId, kapuaId, "mqtt", false, "account", deviceId).encode();
+        Mockito.when(exchange.getIn()).thenReturn(defaultMessage);
+        Mockito.when(defaultMessage.getHeader(CamelConstants.JMS_HEADER_TIMESTAMP, Long.class)).thenReturn(10L);
+        Mockito.when(defaultMessage.getHeader(MessageConstants.HEADER_KAPUA_CONNECTION_CONTEXT, String.class)).thenReturn(connectionContextHeader);
+        Mockito.when(defaultMessage.getHeader(MessageConstants.HEADER_KAPUA_CLIENT_ID, String.class)).thenReturn("clientid");
+        Mockito.when(defaultMessage.getHeader(MessageConstants.PROPERTY_ORIGINAL_TOPIC, String.class)).thenReturn("topic");
+        Mockito.doReturn(messageKapua).when(translator2).translate(new org.eclipse.kapua.transport.message.jms.JmsMessage(new JmsTopic("topic"), new Date(10L), new JmsPayload(byteArray)));
+        Mockito.when(translator1.translate(Mockito.eq(messageKapua), Mockito.any(SenderIdentity.class))).thenReturn(kapuaMessage);
+        Mockito.when(kapuaMessage.getClientId()).thenReturn("clientid");
+
+        CamelKapuaMessage<?> convertedMessage = kapuaDataConverter.convertToData(exchange, byteArray);
+        assertEquals("Expected and actual values should be the same.", kapuaMessage, convertedMessage.getMessage());
+        assertEquals("Expected and actual values should be the same.", kapuaId, convertedMessage.getConnectionId());
+
+        ArgumentCaptor<SenderIdentity> senderIdentity = ArgumentCaptor.forClass(SenderIdentity.class);
+        Mockito.verify(translator1).translate(Mockito.eq(messageKapua), senderIdentity.capture());
+        Mockito.verify(translator1, Mockito.never()).translate(messageKapua);
+        assertEquals("Expected and actual values should be the same.", kapuaId, senderIdentity.getValue().getScopeId());
+        assertEquals("Expected and actual values should be the same.", "account", senderIdentity.getValue().getAccountName());
+        assertEquals("Expected and actual values should be the same.", "clientid", senderIdentity.getValue().getClientId());
+        assertEquals("Expected and actual values should be the same.", deviceId, senderIdentity.getValue().getDeviceId());
+        assertTrue("True expected.", senderIdentity.getValue().isSenderDevice("account", "clientid"));
+        assertFalse("False expected.", senderIdentity.getValue().isSenderDevice("account", "otherclientid"));
+        assertFalse("False expected.", senderIdentity.getValue().isSenderAccount("otheraccount"));
+    }
+
     @Test
     public void convertToDataObjectValueTest() {
         Mockito.when(exchange.getIn()).thenReturn(message);
@@ -39,6 +39,8 @@ import javax.jms.Topic;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
 
 @Category(JUnitTests.class)
 public class JmsUtilTest extends Assert {
@@ -183,6 +185,58 @@ public class JmsUtilTest extends Assert {
         assertEquals("Expected and actual values should be the same.", connectorDescriptor, JmsUtil.convertToKapuaMessage(connectorDescriptor, messageType, jmsMessage, connectionId, clientId).getConnectorDescriptor());
     }
 
+    @Test
+    public void convertToKapuaMessageDataDirectTranslatorTest() throws KapuaException, JMSException {
+        Map<ConnectorDescriptor.MessageType, Class<? extends DeviceMessage<?, ?>>> deviceClasses = new EnumMap<>(ConnectorDescriptor.MessageType.class);
+        deviceClasses.put(ConnectorDescriptor.MessageType.DATA, org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage.class);
+        Map<ConnectorDescriptor.MessageType, Class<? extends KapuaMessage<?, ?>>> kapuaClasses = new EnumMap<>(ConnectorDescriptor.MessageType.class);
+        kapuaClasses.put(ConnectorDescriptor.MessageType.DATA, DirectDataMessage.class);
+        ConnectorDescriptor dataConnectorDescriptor = new ConnectorDescriptor("MQTT", deviceClasses, kapuaClasses);
+
+        TranslatorCache.cacheTranslator(org.eclipse.kapua.transport.message.jms.JmsMessage.class, DirectDataMessage.class, translator1);
+        TranslatorCache.cacheTranslator(org.eclipse.kapua.transport.message.jms.JmsMessage.class, org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage.class, translator2);
+
+        Mockito.when(translator1.translate(Mockito.any(JmsMessage.class))).thenReturn(kapuaMessage);
+        Mockito.when(jmsMessage.getStringProperty(MessageConstants.PROPERTY_ORIGINAL_TOPIC)).thenReturn("account.clientId.topic");
+        Mockito.when(jmsMessage.getLongProperty(MessageConstants.PROPERTY_ENQUEUED_TIMESTAMP)).thenReturn(10L);
+        Mockito.when(jmsMessage.getBodyLength()).thenReturn(10L);
+        Mockito.when(kapuaMessage.getClientId()).thenReturn("clientId");
+
+        CamelKapuaMessage<?> camelKapuaMessage = JmsUtil.convertToKapuaMessage(dataConnectorDescriptor, ConnectorDescriptor.MessageType.DATA, jmsMessage, connectionId, clientId);
+        assertEquals("Expected and actual values should be the same.", kapuaMessage, camelKapuaMessage.getMessage());
+        Mockito.verify(translator1).translate(Mockito.any(JmsMessage.class));
+        Mockito.verifyZeroInteractions(translator2);
+    }
+
+    @Test
+    public void convertToKapuaMessageDataNoDirectTranslatorTest() throws KapuaException, JMSException {
+        Map<ConnectorDescriptor.MessageType, Class<? extends DeviceMessage<?, ?>>> deviceClasses = new EnumMap<>(ConnectorDescriptor.MessageType.class);
+        deviceClasses.put(ConnectorDescriptor.MessageType.DATA, org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage.class);
+        Map<ConnectorDescriptor.MessageType, Class<? extends KapuaMessage<?, ?>>> kapuaClasses = new EnumMap<>(ConnectorDescriptor.MessageType.class);
+        kapuaClasses.put(ConnectorDescriptor.MessageType.DATA, TwoStepsDataMessage.class);
+        ConnectorDescriptor dataConnectorDescriptor = new ConnectorDescriptor("MQTT", deviceClasses, kapuaClasses);
+
+        TranslatorCache.cacheTranslator(org.eclipse.kapua.transport.message.jms.JmsMessage.class, org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage.class, translator2);
+        TranslatorCache.cacheTranslator(org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage.class, TwoStepsDataMessage.class, translator1);
+
+        Mockito.when(translator2.translate(Mockito.any(JmsMessage.class))).thenReturn(deviceMessage);
+        Mockito.when(translator1.translate(deviceMessage)).thenReturn(kapuaMessage);
+        Mockito.when(jmsMessage.getStringProperty(MessageConstants.PROPERTY_ORIGINAL_TOPIC)).thenReturn("account.clientId.topic");
+        Mockito.when(jmsMessage.getLongProperty(MessageConstants.PROPERTY_ENQUEUED_TIMESTAMP)).thenReturn(10L);
+        Mockito.when(jmsMessage.getBodyLength()).thenReturn(10L);
+        Mockito.when(kapuaMessage.getClientId()).thenReturn("clientId");
+
+        assertEquals("Expected and actual values should be the same.", kapuaMessage, JmsUtil.convertToKapuaMessage(dataConnectorDescriptor, ConnectorDescriptor.MessageType.DATA, jmsMessage, connectionId, clientId).getMessage());
+
+        // The missing direct translator is not looked up again
+        Translator directTranslator = Mockito.mock(Translator.class);
+        TranslatorCache.cacheTranslator(org.eclipse.kapua.transport.message.jms.JmsMessage.class, TwoStepsDataMessage.class, directTranslator);
+
+        assertEquals("Expected and actual values should be the same.", kapuaMessage, JmsUtil.convertToKapuaMessage(dataConnectorDescriptor, ConnectorDescriptor.MessageType.DATA, jmsMessage, connectionId, clientId).getMessage());
+        Mockito.verify(translator1, Mockito.times(2)).translate(deviceMessage);
+        Mockito.verifyZeroInteractions(directTranslator);
+    }
+
     @Test(expected = NullPointerException.class)
     public void convertToKapuaMessageNullConnectorDescriptorTest() throws KapuaException, JMSException {
         JmsUtil.convertToKapuaMessage(null, messageType, jmsMessage, connectionId, clientId);
@@ -394,4 +448,10 @@ public class JmsUtilTest extends Assert {
             assertEquals("Expected and actual values should be the same.", expectedValue[i], JmsUtil.convertMqttWildCardToJms(mqttTopic[i]));
         }
     }
-}
\ No newline at end of file
+
+    private interface DirectDataMessage extends org.eclipse.kapua.message.device.data.KapuaDataMessage {
+    }
+
+    private interface TwoStepsDataMessage extends org.eclipse.kapua.message.device.data.KapuaDataMessage {
+    }
+}
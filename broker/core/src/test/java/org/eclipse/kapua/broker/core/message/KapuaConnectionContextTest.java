@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.message;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.Base64;
+
+@Category(JUnitTests.class)
+public class KapuaConnectionContextTest extends Assert {
+
+    @Test
+    public void encodeDecodeTest() {
+        KapuaId connectionId = new KapuaEid(BigInteger.valueOf(123456789L));
+        KapuaId scopeId = new KapuaEid(BigInteger.valueOf(42L));
+        KapuaId userId = new KapuaEid(new BigInteger("18446744073709551615"));
+
+        KapuaConnectionContext connectionContext = KapuaConnectionContext.decode(new KapuaConnectionContext(connectionId, scopeId, userId, "mqtt", true).encode());
+
+        assertEquals("Expected and actual values should be the same.", connectionId, connectionContext.getConnectionId());
+        assertEquals("Expected and actual values should be the same.", scopeId, connectionContext.getScopeId());
+        assertEquals("Expected and actual values should be the same.", userId, connectionContext.getUserId());
+        assertEquals("Expected and actual values should be the same.", "mqtt", connectionContext.getConnectorName());
+        assertTrue("True expected.", connectionContext.isTrustedMode());
+    }
+
+    @Test
+    public void encodeDecodeNullConnectionIdTest() {
+        KapuaConnectionContext connectionContext = KapuaConnectionContext.decode(new KapuaConnectionContext(null, KapuaId.ONE, KapuaId.ANY, "mqtts", false).encode());
+
+        assertNull("Null expected.", connectionContext.getConnectionId());
+        assertEquals("Expected and actual values should be the same.", KapuaId.ONE.getId(), connectionContext.getScopeId().getId());
+        assertEquals("Expected and actual values should be the same.", KapuaId.ANY.getId(), connectionContext.getUserId().getId());
+        assertEquals("Expected and actual values should be the same.", "mqtts", connectionContext.getConnectorName());
+        assertFalse("False expected.", connectionContext.isTrustedMode());
+    }
+
+    @Test
+    public void encodeDecodeAccountNameDeviceIdTest() {
+        KapuaId deviceId = new KapuaEid(BigInteger.valueOf(987654321L));
+
+        KapuaConnectionContext connectionContext = KapuaConnectionContext.decode(new KapuaConnectionContext(KapuaId.ONE, KapuaId.ONE, KapuaId.ANY, "mqtt", false, "account-name", deviceId).encode());
+
+        assertEquals("Expected and actual values should be the same.", KapuaId.ONE.getId(), connectionContext.getConnectionId().getId());
+        assertEquals("Expected and actual values should be the same.", "mqtt", connectionContext.getConnectorName());
+        assertEquals("Expected and actual values should be the same.", "account-name", connectionContext.getAccountName());
+        assertEquals("Expected and actual values should be the same.", deviceId, connectionContext.getDeviceId());
+
+        connectionContext = KapuaConnectionContext.decode(new KapuaConnectionContext(null, KapuaId.ONE, KapuaId.ANY, "mqtt", false, "account-name", null).encode());
+
+        assertNull("Null expected.", connectionContext.getConnectionId());
+        assertEquals("Expected and actual values should be the same.", "account-name", connectionContext.getAccountName());
+        assertNull("Null expected.", connectionContext.getDeviceId());
+    }
+
+    @Test
+    public void encodeDecodeTokenIdTest() {
+        KapuaConnectionContext connectionContext = KapuaConnectionContext.decode(new KapuaConnectionContext(KapuaId.ONE, KapuaId.ONE, KapuaId.ANY, "mqtt", true, "account-name", null, "token-id").encode());
+
+        assertEquals("Expected and actual values should be the same.", "account-name", connectionContext.getAccountName());
+        assertNull("Null expected.", connectionContext.getDeviceId());
+        assertEquals("Expected and actual values should be the same.", "token-id", connectionContext.getTokenId());
+
+        connectionContext = KapuaConnectionContext.decode(new KapuaConnectionContext(KapuaId.ONE, KapuaId.ONE, KapuaId.ANY, "mqtt", true, "account-name", null, null).encode());
+
+        assertNull("Null expected.", connectionContext.getTokenId());
+    }
+
+    @Test
+    public void decodeVersion2Test() {
+        // version 2, flags (account name present), scope id, user id, connector name, account name
+        byte[] version2 = new byte[]{ 2, 4, 1, 1, 1, 2, 0, 4, 'm', 'q', 't', 't', 0, 1, 'a' };
+
+        KapuaConnectionContext connectionContext = KapuaConnectionContext.decode(Base64.getUrlEncoder().withoutPadding().encodeToString(version2));
+
+        assertNull("Null expected.", connectionContext.getConnectionId());
+        assertEquals("Expected and actual values should be the same.", "mqtt", connectionContext.getConnectorName());
+        assertEquals("Expected and actual values should be the same.", "a", connectionContext.getAccountName());
+        assertNull("Null expected.", connectionContext.getTokenId());
+    }
+
+    @Test
+    public void decodeVersion1Test() {
+        // version 1, flags (connection id present), connection id, scope id, user id, connector name
+        byte[] version1 = new byte[]{ 1, 1, 1, 5, 1, 1, 1, 2, 0, 4, 'm', 'q', 't', 't' };
+
+        KapuaConnectionContext connectionContext = KapuaConnectionContext.decode(Base64.getUrlEncoder().withoutPadding().encodeToString(version1));
+
+        assertEquals("Expected and actual values should be the same.", BigInteger.valueOf(5L), connectionContext.getConnectionId().getId());
+        assertEquals("Expected and actual values should be the same.", BigInteger.ONE, connectionContext.getScopeId().getId());
+        assertEquals("Expected and actual values should be the same.", BigInteger.valueOf(2L), connectionContext.getUserId().getId());
+        assertEquals("Expected and actual values should be the same.", "mqtt", connectionContext.getConnectorName());
+        assertFalse("False expected.", connectionContext.isTrustedMode());
+        assertNull("Null expected.", connectionContext.getAccountName());
+        assertNull("Null expected.", connectionContext.getDeviceId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeNullTest() {
+        KapuaConnectionContext.decode(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeTruncatedTest() {
+        String encoded = new KapuaConnectionContext(KapuaId.ONE, KapuaId.ONE, KapuaId.ONE, "mqtt", true).encode();
+        KapuaConnectionContext.decode(encoded.substring(0, 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeUnsupportedVersionTest() {
+        KapuaConnectionContext.decode(Base64.getUrlEncoder().withoutPadding().encodeToString(new byte[]{ 99, 0 }));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void constructorNullConnectorNameTest() {
+        new KapuaConnectionContext(KapuaId.ONE, KapuaId.ONE, KapuaId.ONE, null, true);
+    }
+}
@@ -44,6 +44,7 @@ public class MessageConstantsTest extends Assert {
         assertEquals("Expected and actual values should be the same.", "scopeId", MessageConstants.PROPERTY_SCOPE_ID);
         assertEquals("Expected and actual values should be the same.", "userId", MessageConstants.METRIC_USER_ID);
         assertEquals("Expected and actual values should be the same.", "nodeId", MessageConstants.METRIC_NODE_ID);
+        assertEquals("Expected and actual values should be the same.", "KAPUA_CONNECTION_CONTEXT", MessageConstants.HEADER_KAPUA_CONNECTION_CONTEXT);
         assertEquals("Expected and actual values should be the same.", "KAPUA_CONNECTION_ID", MessageConstants.HEADER_KAPUA_CONNECTION_ID);
         assertEquals("Expected and actual values should be the same.", "KAPUA_RECEIVED_TIMESTAMP", MessageConstants.HEADER_KAPUA_RECEIVED_TIMESTAMP);
         assertEquals("Expected and actual values should be the same.", "KAPUA_CLIENT_ID", MessageConstants.HEADER_KAPUA_CLIENT_ID);
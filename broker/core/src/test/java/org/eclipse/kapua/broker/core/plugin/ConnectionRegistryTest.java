@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.plugin;
+
+import org.apache.activemq.broker.Connection;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class ConnectionRegistryTest extends Assert {
+
+    @Test
+    public void registerTest() {
+        ConnectionRegistry connectionRegistry = new ConnectionRegistry();
+        Connection connection1 = Mockito.mock(Connection.class);
+        Connection connection2 = Mockito.mock(Connection.class);
+
+        assertNull("Null expected.", connectionRegistry.register("1:client", "connection1", connection1));
+        assertEquals("Expected and actual values should be the same.", "connection1", connectionRegistry.getConnectionId("1:client"));
+        assertSame("Expected and actual values should be the same.", connection1, connectionRegistry.getConnection("1:client"));
+
+        assertEquals("Expected and actual values should be the same.", "connection1", connectionRegistry.register("1:client", "connection2", connection2));
+        assertEquals("Expected and actual values should be the same.", "connection2", connectionRegistry.getConnectionId("1:client"));
+        assertSame("Expected and actual values should be the same.", connection2, connectionRegistry.getConnection("1:client"));
+        assertEquals("Expected and actual values should be the same.", 1, connectionRegistry.size());
+
+        assertNull("Null expected.", connectionRegistry.getConnectionId("2:client"));
+        assertNull("Null expected.", connectionRegistry.getConnection("2:client"));
+    }
+
+    @Test
+    public void unregisterTest() {
+        ConnectionRegistry connectionRegistry = new ConnectionRegistry();
+        connectionRegistry.register("1:client", "connection1", Mockito.mock(Connection.class));
+        connectionRegistry.register("1:client", "connection2", Mockito.mock(Connection.class));
+
+        // The older connection does not remove the newer one
+        assertFalse("False expected.", connectionRegistry.unregister("1:client", "connection1"));
+        assertEquals("Expected and actual values should be the same.", "connection2", connectionRegistry.getConnectionId("1:client"));
+
+        assertTrue("True expected.", connectionRegistry.unregister("1:client", "connection2"));
+        assertNull("Null expected.", connectionRegistry.getConnection("1:client"));
+        assertFalse("False expected.", connectionRegistry.unregister("1:client", "connection2"));
+        assertEquals("Expected and actual values should be the same.", 0, connectionRegistry.size());
+    }
+
+    @Test
+    public void massReconnectionTest() throws Exception {
+        ConnectionRegistry connectionRegistry = new ConnectionRegistry();
+        Connection connection = Mockito.mock(Connection.class);
+        int clients = 50000;
+        int reconnections = 4;
+
+        // Each client reconnects several times, and each old connection is removed after the new one has logged in
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            futures.add(executorService.submit(() -> {
+                for (int c = thread; c < clients; c += 8) {
+                    String fullClientId = "1:client-" + c;
+                    String previousConnectionId = null;
+                    for (int r = 0; r < reconnections; r++) {
+                        String connectionId = fullClientId + "-" + r;
+                        assertEquals("Expected and actual values should be the same.", previousConnectionId, connectionRegistry.register(fullClientId, connectionId, connection));
+                        if (previousConnectionId != null) {
+                            assertFalse("False expected.", connectionRegistry.unregister(fullClientId, previousConnectionId));
+                        }
+                        previousConnectionId = connectionId;
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+        assertTrue("True expected.", executorService.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals("Expected and actual values should be the same.", clients, connectionRegistry.size());
+        for (int c = 0; c < clients; c++) {
+            String fullClientId = "1:client-" + c;
+            assertEquals("Expected and actual values should be the same.", fullClientId + "-" + (reconnections - 1), connectionRegistry.getConnectionId(fullClientId));
+            assertNotNull("Not null expected.", connectionRegistry.getConnection(fullClientId));
+        }
+    }
+}
@@ -63,12 +63,38 @@ public class KapuaPrincipalImplTest extends Assert {
         }
     }
 
+    @Test
+    public void kapuaPrincipalImplWithoutTokenTest() {
+        for (String name : username) {
+            for (String id : clientId) {
+                for (String ip : clientIp) {
+                    KapuaPrincipalImpl kapuaPrincipal = new KapuaPrincipalImpl(KapuaId.ONE, KapuaId.ANY, name, id, ip);
+                    assertEquals("Expected and actual values should be the same.", name, kapuaPrincipal.getName());
+                    assertNull("Null expected.", kapuaPrincipal.getTokenId());
+                    assertEquals("Expected and actual values should be the same.", KapuaId.ANY, kapuaPrincipal.getUserId());
+                    assertEquals("Expected and actual values should be the same.", KapuaId.ONE, kapuaPrincipal.getAccountId());
+                    assertEquals("Expected and actual values should be the same.", id, kapuaPrincipal.getClientId());
+                    assertEquals("Expected and actual values should be the same.", ip, kapuaPrincipal.getClientIp());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void equalsWithoutTokenTest() {
+        accessToken1.setScopeId(KapuaId.ONE);
+        KapuaPrincipalImpl kapuaPrincipal1 = new KapuaPrincipalImpl(accessToken1, "username1", "client1", "192.168.1.1");
+        KapuaPrincipalImpl kapuaPrincipal2 = new KapuaPrincipalImpl(KapuaId.ONE, KapuaId.ONE, "username1", "client1", "192.168.1.1");
+        assertTrue("True expected.", kapuaPrincipal1.equals(kapuaPrincipal2));
+        assertEquals("Expected and actual values should be the same.", kapuaPrincipal1.hashCode(), kapuaPrincipal2.hashCode());
+    }
+
     @Test(expected = NullPointerException.class)
     public void kapuaPrincipalImplNullTokenTest() {
         for (String name : username) {
             for (String id : clientId) {
                 for (String ip : clientIp) {
-                    new KapuaPrincipalImpl(null, name, id, ip);
+                    new KapuaPrincipalImpl((AccessToken) null, name, id, ip);
                 }
             }
         }
@@ -12,10 +12,14 @@
  *******************************************************************************/
 package org.eclipse.kapua.broker.core.plugin;
 
+import org.apache.activemq.command.ActiveMQTopic;
 import org.apache.activemq.command.ConnectionId;
 import org.apache.activemq.command.ConnectionInfo;
 import org.apache.activemq.security.AuthorizationMap;
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.broker.core.message.KapuaConnectionContext;
+import org.eclipse.kapua.broker.core.plugin.authorization.AuthorizationDecisionCache;
+import org.eclipse.kapua.broker.core.plugin.authorization.Authorizer;
 import org.eclipse.kapua.commons.model.id.KapuaEid;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.commons.security.KapuaSession;
@@ -272,6 +276,22 @@ public class KapuaSecurityContextTest extends Assert {
         assertEquals("Expected and actual values should be the same.", authorizationMap, securityContext2.getAuthorizationMap());
     }
 
+    @Test
+    public void getAuthorizationDecisionCacheTest() {
+        ActiveMQTopic destination = new ActiveMQTopic("account.client.topic");
+
+        assertNull("Null expected.", securityContext2.getAuthorizationDecisionCache());
+
+        securityContext2.setAuthorizationMap(Mockito.mock(AuthorizationMap.class));
+        AuthorizationDecisionCache authorizationDecisionCache = securityContext2.getAuthorizationDecisionCache();
+        assertNotNull("Not null expected.", authorizationDecisionCache);
+        authorizationDecisionCache.put(Authorizer.ActionType.WRITE, destination, true);
+
+        securityContext2.setAuthorizationMap(Mockito.mock(AuthorizationMap.class));
+        assertNotSame("Not same expected.", authorizationDecisionCache, securityContext2.getAuthorizationDecisionCache());
+        assertNull("Null expected.", securityContext2.getAuthorizationDecisionCache().get(Authorizer.ActionType.WRITE, destination));
+    }
+
     @Test
     public void updateAndGetKapuaConnectionIdTest() {
         DeviceConnection deviceConnection = Mockito.mock(DeviceConnection.class);
@@ -529,4 +549,31 @@ public class KapuaSecurityContextTest extends Assert {
             assertEquals("NullPointerException expected.", new NullPointerException().toString(), e.toString());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void newKapuaSessionTrustedTest() {
+        KapuaSession session = KapuaSecurityContext.newKapuaSession(new KapuaConnectionContext(KapuaId.ONE, KapuaId.ONE, KapuaId.ANY, "mqtt", true, "account-name", null, "token-id"));
+
+        assertTrue("True expected.", session.isTrustedMode());
+        assertEquals("Expected and actual values should be the same.", KapuaId.ONE, session.getScopeId());
+        assertEquals("Expected and actual values should be the same.", KapuaId.ANY, session.getUserId());
+        assertEquals("Expected and actual values should be the same.", "token-id", session.getAccessToken().getTokenId());
+        assertEquals("Expected and actual values should be the same.", KapuaId.ANY, session.getAccessToken().getUserId());
+        // The thread session is left untouched
+        assertSame("Expected and actual values should be the same.", kapuaSession, KapuaSecurityUtils.getSession());
+    }
+
+    @Test
+    public void newKapuaSessionNotTrustedTest() {
+        KapuaSession session = KapuaSecurityContext.newKapuaSession(new KapuaConnectionContext(KapuaId.ONE, KapuaId.ONE, KapuaId.ANY, "mqtt", false));
+
+        assertFalse("False expected.", session.isTrustedMode());
+        assertNull("Null expected.", session.getAccessToken());
+        assertSame("Expected and actual values should be the same.", kapuaSession, KapuaSecurityUtils.getSession());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void createTrustedSessionNotAllowedTest() {
+        KapuaSession.createFrom(null, KapuaId.ONE, KapuaId.ANY);
+    }
+}
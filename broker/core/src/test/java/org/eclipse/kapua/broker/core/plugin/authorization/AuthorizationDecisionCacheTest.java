@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.plugin.authorization;
+
+import org.apache.activemq.command.ActiveMQTopic;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class AuthorizationDecisionCacheTest extends Assert {
+
+    AuthorizationDecisionCache authorizationDecisionCache;
+    ActiveMQTopic destination;
+
+    @Before
+    public void initialize() {
+        authorizationDecisionCache = new AuthorizationDecisionCache(2);
+        destination = new ActiveMQTopic("account.client.topic");
+    }
+
+    @Test
+    public void putAndGetTest() {
+        assertNull("Null expected.", authorizationDecisionCache.get(Authorizer.ActionType.WRITE, destination));
+
+        authorizationDecisionCache.put(Authorizer.ActionType.WRITE, destination, true);
+        authorizationDecisionCache.put(Authorizer.ActionType.ADMIN, destination, false);
+
+        assertTrue("True expected.", authorizationDecisionCache.get(Authorizer.ActionType.WRITE, new ActiveMQTopic("account.client.topic")));
+        assertFalse("False expected.", authorizationDecisionCache.get(Authorizer.ActionType.ADMIN, destination));
+        assertNull("Null expected.", authorizationDecisionCache.get(Authorizer.ActionType.READ, destination));
+    }
+
+    @Test
+    public void putAndGetNullTest() {
+        authorizationDecisionCache.put(null, destination, true);
+        authorizationDecisionCache.put(Authorizer.ActionType.WRITE, null, true);
+
+        assertNull("Null expected.", authorizationDecisionCache.get(null, destination));
+        assertNull("Null expected.", authorizationDecisionCache.get(Authorizer.ActionType.WRITE, null));
+        assertEquals("Expected and actual values should be the same.", 0, authorizationDecisionCache.size(Authorizer.ActionType.WRITE));
+    }
+
+    @Test
+    public void putOverSizeMaxTest() {
+        ActiveMQTopic destination1 = new ActiveMQTopic("account.client.topic1");
+        ActiveMQTopic destination2 = new ActiveMQTopic("account.client.topic2");
+        authorizationDecisionCache.put(Authorizer.ActionType.READ, destination1, true);
+        authorizationDecisionCache.put(Authorizer.ActionType.READ, destination2, true);
+        assertEquals("Expected and actual values should be the same.", 2, authorizationDecisionCache.size(Authorizer.ActionType.READ));
+
+        // Uses the first one, so that the second one becomes the least recently used
+        assertTrue("True expected.", authorizationDecisionCache.get(Authorizer.ActionType.READ, destination1));
+        authorizationDecisionCache.put(Authorizer.ActionType.READ, destination, true);
+
+        assertEquals("Expected and actual values should be the same.", 2, authorizationDecisionCache.size(Authorizer.ActionType.READ));
+        assertTrue("True expected.", authorizationDecisionCache.get(Authorizer.ActionType.READ, destination1));
+        assertNull("Null expected.", authorizationDecisionCache.get(Authorizer.ActionType.READ, destination2));
+        assertTrue("True expected.", authorizationDecisionCache.get(Authorizer.ActionType.READ, destination));
+    }
+
+    @Test
+    public void putDisabledTest() {
+        AuthorizationDecisionCache disabledAuthorizationDecisionCache = new AuthorizationDecisionCache(0);
+
+        disabledAuthorizationDecisionCache.put(Authorizer.ActionType.WRITE, destination, true);
+
+        assertNull("Null expected.", disabledAuthorizationDecisionCache.get(Authorizer.ActionType.WRITE, destination));
+    }
+}
@@ -13,6 +13,7 @@
 package org.eclipse.kapua.broker.core.plugin.authorization;
 
 import org.apache.activemq.command.ActiveMQDestination;
+import org.apache.activemq.command.ActiveMQTopic;
 import org.apache.activemq.security.AuthorizationMap;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.broker.core.plugin.KapuaSecurityContext;
@@ -46,6 +47,32 @@ public class DefaultAuthorizerTest extends Assert {
         Mockito.when(kapuaSecurityContext.getAuthorizationMap()).thenReturn(authorizationMap);
     }
 
+    @Test
+    public void isAllowedCachedTest() throws KapuaException {
+        ActiveMQDestination destination = new ActiveMQTopic("account.client.topic");
+        AuthorizationDecisionCache authorizationDecisionCache = new AuthorizationDecisionCache(10);
+        Mockito.when(kapuaSecurityContext.getAuthorizationDecisionCache()).thenReturn(authorizationDecisionCache);
+        Mockito.when(authorizationMap.getWriteACLs(destination)).thenReturn(allowedACLs);
+        Mockito.when(kapuaSecurityContext.isInOneOf(allowedACLs)).thenReturn(true);
+
+        assertTrue("True expected.", defaultAuthorizer.isAllowed(Authorizer.ActionType.WRITE, kapuaSecurityContext, destination));
+        assertTrue("True expected.", defaultAuthorizer.isAllowed(Authorizer.ActionType.WRITE, kapuaSecurityContext, new ActiveMQTopic("account.client.topic")));
+
+        Mockito.verify(authorizationMap, Mockito.times(1)).getWriteACLs(destination);
+        assertTrue("True expected.", authorizationDecisionCache.get(Authorizer.ActionType.WRITE, destination));
+    }
+
+    @Test
+    public void isAllowedCachedDeniedTest() throws KapuaException {
+        ActiveMQDestination destination = new ActiveMQTopic("account.client.topic");
+        AuthorizationDecisionCache authorizationDecisionCache = new AuthorizationDecisionCache(10);
+        authorizationDecisionCache.put(Authorizer.ActionType.READ, destination, false);
+        Mockito.when(kapuaSecurityContext.getAuthorizationDecisionCache()).thenReturn(authorizationDecisionCache);
+
+        assertFalse("False expected.", defaultAuthorizer.isAllowed(Authorizer.ActionType.READ, kapuaSecurityContext, destination));
+        Mockito.verify(authorizationMap, Mockito.never()).getReadACLs(destination);
+    }
+
     @Test
     public void isAllowedReadTest() throws KapuaException {
         for (ActiveMQDestination destination : destinations) {
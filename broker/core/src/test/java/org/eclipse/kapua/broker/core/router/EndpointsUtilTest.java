@@ -111,4 +111,18 @@ public class EndpointsUtilTest extends Assert {
             EndpointsUtil.matches(exchange, value, null, properties, null);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void matchesTopicPatternTest() {
+        TopicPattern topicPattern = TopicPattern.compile("Topic");
+        for (Object value : values) {
+            Mockito.when(exchange.getIn()).thenReturn(message);
+            Mockito.when(message.getHeader(MessageConstants.PROPERTY_ORIGINAL_TOPIC, String.class)).thenReturn("Topic");
+            assertTrue("True expected.", EndpointsUtil.matchesTopicPattern(exchange, value, null, properties, topicPattern));
+            assertFalse("False expected.", EndpointsUtil.matchesTopicPattern(exchange, value, "previous", properties, topicPattern));
+
+            Mockito.when(message.getHeader(MessageConstants.PROPERTY_ORIGINAL_TOPIC, String.class)).thenReturn("Different Topic");
+            assertFalse("False expected.", EndpointsUtil.matchesTopicPattern(exchange, value, null, properties, topicPattern));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.broker.core.router;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.regex.Pattern;
+
+@Category(JUnitTests.class)
+public class TopicPatternTest extends Assert {
+
+    private static final String[] COMPILED_REGEXES = new String[]{
+            "^\\$EDC\\..*",
+            "^\\$EDC\\.(.*\\.){2}MQTT\\.BIRTH",
+            "^\\$EDC\\.(.*\\.){2}MQTT\\.DC",
+            "^\\$EDC\\.(.*\\.){2}MQTT\\.APPS",
+            "^\\$EDC\\.(.*\\.){2}MQTT\\.LWT",
+            "^\\$EDC\\.(.*\\.){2}DEPLOY-V2\\.NOTIFY.*",
+            ".*",
+            "",
+            "account\\.client\\.topic",
+            "account(?:\\..*){3}",
+            "a.*b.*a$",
+            "(a.*)(b.*)(c)"
+    };
+
+    private static final String[] REGEX_REGEXES = new String[]{
+            "^\\$EDC\\.[^.]+\\.[^.]+\\.MQTT\\.BIRTH",
+            "account\\.\\w+\\.topic",
+            "a.b",
+            "a+b",
+            "(ab)+",
+            "a|b",
+            "(.*\\.){1,2}MQTT"
+    };
+
+    private static final String[] TOPICS = new String[]{
+            "",
+            ".",
+            "$EDC",
+            "$EDC.",
+            "$EDC.account",
+            "$EDC.account.client.MQTT.BIRTH",
+            "$EDC.account.client.MQTT.BIRTHS",
+            "$EDC.account.client.MQTT.DC",
+            "$EDC.account.client.MQTT.APPS",
+            "$EDC.account.client.MQTT.LWT",
+            "$EDC.account.MQTT.BIRTH",
+            "$EDC..MQTT.BIRTH",
+            "$EDC...MQTT.BIRTH",
+            "$EDC.account.client.extra.MQTT.BIRTH",
+            "$EDC.account.client.DEPLOY-V2.NOTIFY.1234.download",
+            "$EDC.account.client.DEPLOY-V2.NOTIFY",
+            "$EDC.account.client.DEPLOY-V2",
+            "account.client.topic",
+            "account.client.topic.sub",
+            "account.client.sub.topic",
+            "account.client.MQTT",
+            "account.client.sub.MQTT",
+            "account.a.b.c",
+            "account.a.b",
+            "ab",
+            "aba",
+            "abba",
+            "abc",
+            "aabbc",
+            "acb",
+            "a.b",
+            "axb",
+            "$EDC.account.client\n.MQTT.BIRTH",
+            "line\nterminator"
+    };
+
+    @Test
+    public void compileTokenTest() {
+        for (String regex : COMPILED_REGEXES) {
+            assertThat("Instance of TokenTopicPattern expected.", TopicPattern.compile(regex), IsInstanceOf.instanceOf(TopicPattern.TokenTopicPattern.class));
+        }
+    }
+
+    @Test
+    public void compileRegexTest() {
+        for (String regex : REGEX_REGEXES) {
+            assertThat("Instance of RegexTopicPattern expected.", TopicPattern.compile(regex), IsInstanceOf.instanceOf(TopicPattern.RegexTopicPattern.class));
+        }
+    }
+
+    @Test
+    public void compileInvalidRegexTest() {
+        assertNull("Null expected.", TopicPattern.compile("(unclosed"));
+    }
+
+    @Test
+    public void matchesTest() {
+        for (String[] regexes : new String[][]{ COMPILED_REGEXES, REGEX_REGEXES }) {
+            for (String regex : regexes) {
+                Pattern pattern = Pattern.compile(regex);
+                TopicPattern topicPattern = TopicPattern.compile(regex);
+                for (String topic : TOPICS) {
+                    assertEquals("Expected and actual values should be the same. Regex: " + regex + " - topic: " + topic, pattern.matcher(topic).matches(), topicPattern.matches(topic));
+                }
+            }
+        }
+    }
+}
@@ -38,6 +38,7 @@ public class BrokerSettingKeyTest extends Assert {
         assertEquals("broker.client_pool.no_dest_min_size", BrokerSettingKey.BROKER_CLIENT_POOL_NO_DEST_MIN_SIZE.key());
         assertEquals("broker.name", BrokerSettingKey.BROKER_NAME.key());
         assertEquals("broker.security.published.message_size.log_threshold", BrokerSettingKey.PUBLISHED_MESSAGE_SIZE_LOG_THRESHOLD.key());
+        assertEquals("broker.security.login.access_token.enabled", BrokerSettingKey.LOGIN_ACCESS_TOKEN_ENABLED.key());
         assertEquals("camel.default_route.configuration_file_name", BrokerSettingKey.CAMEL_DEFAULT_ROUTE_CONFIGURATION_FILE_NAME.key());
     }
 }
\ No newline at end of file
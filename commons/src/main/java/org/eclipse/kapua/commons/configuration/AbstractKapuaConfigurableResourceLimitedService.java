@@ -16,6 +16,8 @@ import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.commons.jpa.AbstractEntityCacheFactory;
 import org.eclipse.kapua.commons.jpa.EntityManagerFactory;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.KapuaEntity;
 import org.eclipse.kapua.model.KapuaEntityAttributes;
@@ -42,6 +44,11 @@ public abstract class AbstractKapuaConfigurableResourceLimitedService<E extends
     private final Class<S> serviceClass;
     private final Class<F> factoryClass;
 
+    private final AllowedChildEntitiesCounters allowedChildEntitiesCounters = new AllowedChildEntitiesCounters(
+            SystemSetting.getInstance().getBoolean(SystemSettingKey.RESOURCE_LIMITED_COUNTERS_ENABLED, false),
+            SystemSetting.getInstance().getLong(SystemSettingKey.RESOURCE_LIMITED_COUNTERS_RECONCILE_INTERVAL, 60000L),
+            SystemSetting.getInstance().getInt(SystemSettingKey.RESOURCE_LIMITED_COUNTERS_EXACT_COUNT_THRESHOLD, 100));
+
     /**
      * @deprecated this constructor will be removed in a next release (may be)
      */
@@ -83,8 +90,57 @@ public abstract class AbstractKapuaConfigurableResourceLimitedService<E extends
         return true;
     }
 
+    @Override
+    public void setConfigValues(KapuaId scopeId, KapuaId parentId, Map<String, Object> values) throws KapuaException {
+        super.setConfigValues(scopeId, parentId, values);
+
+        // The new configuration changes the entities allowed in the scope and the ones reserved for it in the parent scope
+        allowedChildEntitiesCounters.invalidate(scopeId);
+        if (parentId != null) {
+            allowedChildEntitiesCounters.invalidate(parentId);
+        }
+    }
+
+    /**
+     * Gets the number of entities that can still be created in the given scope.
+     * <p>
+     * The value is taken from the per scope counter when available, which is kept up to date by {@link #onChildEntityCreated(KapuaId)}
+     * and {@link #onChildEntityDeleted(KapuaId)}. The value is computed by {@link #allowedChildEntities(KapuaId, KapuaId, Map)} when
+     * the counter is not available, has to be reconciled, or is close to the limit, so that a stale counter neither rejects nor wrongly admits a creation.
+     *
+     * @param scopeId The {@link KapuaId} of the account to be tested
+     * @return the number of child accounts spots still available
+     * @throws KapuaException
+     */
     protected int allowedChildEntities(KapuaId scopeId) throws KapuaException {
-        return allowedChildEntities(scopeId, null, null);
+        Integer allowedChildEntities = allowedChildEntitiesCounters.get(scopeId);
+        if (allowedChildEntities != null) {
+            return allowedChildEntities;
+        }
+
+        allowedChildEntities = allowedChildEntities(scopeId, null, null);
+        allowedChildEntitiesCounters.set(scopeId, allowedChildEntities);
+        return allowedChildEntities;
+    }
+
+    /**
+     * Updates the count of the entities that can still be created in the given scope after an entity has been created.
+     *
+     * @param scopeId The scope {@link KapuaId} of the created entity.
+     * @since 1.5.0
+     */
+    protected void onChildEntityCreated(KapuaId scopeId) {
+        allowedChildEntitiesCounters.onCreated(scopeId);
+    }
+
+    /**
+     * Updates the count of the entities that can still be created in the given scope after an entity has been deleted.
+     *
+     * @param scopeId The scope {@link KapuaId} of the deleted entity.
+     * @since 1.5.0
+     */
+    protected void onChildEntityDeleted(KapuaId scopeId) {
+        allowedChildEntitiesCounters.onDeleted(scopeId);
     }
 
     protected int allowedChildEntities(KapuaId scopeId, KapuaId targetScopeId) throws KapuaException {
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.configuration;
+
+import org.eclipse.kapua.commons.event.ServiceEventBusManager;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Per scope counters of the entities that can still be created in a {@link AbstractKapuaConfigurableResourceLimitedService}.
+ * <p>
+ * Each counter is set from the full computation of the allowed child entities and then kept up to date as the entities are created and deleted,
+ * so that the admission check does not have to count the entities of the scope and read the configuration of all the child accounts each time.
+ * <p>
+ * Counters expire after the reconcile interval and are computed again.
+ * Counters are not used when they are close to the limit: at or below the exact count threshold the allowed child entities are always computed from the database,
+ * so that concurrent creations on this node cannot let a scope exceed its limit.
+ * <p>
+ * Counters are kept in memory and updated after the creation is committed, so they can only be used when a single node creates the entities.
+ * The creations of the other nodes are not seen until the next reconcile, and together the nodes could create more entities than allowed.
+ * For this reason the counters are not used once the service event bus is started, since this means that the node is part of a deployment
+ * where other nodes (broker, console, REST API, job engine) write to the same database.
+ *
+ * @since 1.5.0
+ */
+class AllowedChildEntitiesCounters {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AllowedChildEntitiesCounters.class);
+
+    private final boolean enabled;
+    private final BooleanSupplier clustered;
+    private final AtomicBoolean clusteredLogged = new AtomicBoolean();
+    private final long reconcileIntervalNanos;
+    private final int exactCountThreshold;
+
+    private final Map<BigInteger, AllowedChildEntitiesCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     * <p>
+     * The counters are not used once the {@link ServiceEventBusManager} is started.
+     *
+     * @param enabled             Whether the counters are enabled.
+     * @param reconcileInterval   The time (in milliseconds) after which a counter is computed again.
+     * @param exactCountThreshold The number of entities that can still be created at or below which the counter is not used.
+     * @since 1.5.0
+     */
+    AllowedChildEntitiesCounters(boolean enabled, long reconcileInterval, int exactCountThreshold) {
+        this(enabled, reconcileInterval, exactCountThreshold, ServiceEventBusManager::isStarted);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param enabled             Whether the counters are enabled.
+     * @param reconcileInterval   The time (in milliseconds) after which a counter is computed again.
+     * @param exactCountThreshold The number of entities that can still be created at or below which the counter is not used.
+     * @param clustered           Whether other nodes can create the entities too, in which case the counters are not used.
+     * @since 1.5.0
+     */
+    AllowedChildEntitiesCounters(boolean enabled, long reconcileInterval, int exactCountThreshold, BooleanSupplier clustered) {
+        this.enabled = enabled;
+        this.clustered = clustered;
+        this.reconcileIntervalNanos = TimeUnit.MILLISECONDS.toNanos(reconcileInterval);
+        this.exactCountThreshold = exactCountThreshold;
+    }
+
+    /**
+     * Gets the number of entities that can still be created in the given scope.
+     *
+     * @param scopeId The scope {@link KapuaId}.
+     * @return The number of entities that can still be created, or {@code null} if the counter is not available, it needs to be reconciled or it is close to the limit.
+     * @since 1.5.0
+     */
+    Integer get(KapuaId scopeId) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        AllowedChildEntitiesCounter counter = counters.get(scopeId.getId());
+        if (counter == null) {
+            return null;
+        }
+
+        if (System.nanoTime() - counter.reconciledOn >= reconcileIntervalNanos) {
+            counters.remove(scopeId.getId(), counter);
+            return null;
+        }
+
+        int allowedChildEntities = counter.allowedChildEntities.get();
+        return allowedChildEntities > exactCountThreshold ? allowedChildEntities : null;
+    }
+
+    /**
+     * Sets the number of entities that can still be created in the given scope, as computed from the database.
+     *
+     * @param scopeId              The scope {@link KapuaId}.
+     * @param allowedChildEntities The number of entities that can still be created.
+     * @since 1.5.0
+     */
+    void set(KapuaId scopeId, int allowedChildEntities) {
+        if (isEnabled()) {
+            counters.put(scopeId.getId(), new AllowedChildEntitiesCounter(allowedChildEntities));
+        }
+    }
+
+    /**
+     * Updates the counter of the given scope after an entity has been created.
+     *
+     * @param scopeId The scope {@link KapuaId}.
+     * @since 1.5.0
+     */
+    void onCreated(KapuaId scopeId) {
+        update(scopeId, -1);
+    }
+
+    /**
+     * Updates the counter of the given scope after an entity has been deleted.
+     *
+     * @param scopeId The scope {@link KapuaId}.
+     * @since 1.5.0
+     */
+    void onDeleted(KapuaId scopeId) {
+        update(scopeId, 1);
+    }
+
+    /**
+     * Removes the counter of the given scope, so that it is computed again on the next check.
+     *
+     * @param scopeId The scope {@link KapuaId}.
+     * @since 1.5.0
+     */
+    void invalidate(KapuaId scopeId) {
+        if (isEnabled()) {
+            counters.remove(scopeId.getId());
+        }
+    }
+
+    private void update(KapuaId scopeId, int delta) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        AllowedChildEntitiesCounter counter = counters.get(scopeId.getId());
+        if (counter != null) {
+            // Integer.MAX_VALUE means that infinite child entities are allowed
+            counter.allowedChildEntities.updateAndGet(allowed -> allowed == Integer.MAX_VALUE ? allowed : allowed + delta);
+        }
+    }
+
+    private boolean isEnabled() {
+        if (!enabled) {
+            return false;
+        }
+
+        if (clustered.getAsBoolean()) {
+            if (clusteredLogged.compareAndSet(false, true)) {
+                LOG.warn("The counters of the allowed child entities are enabled, but they can only be used by a single node. They are not used since the service event bus is started.");
+                counters.clear();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private static class AllowedChildEntitiesCounter {
+
+        private final AtomicInteger allowedChildEntities;
+        private final long reconciledOn;
+
+        private AllowedChildEntitiesCounter(int allowedChildEntities) {
+            this.allowedChildEntities = new AtomicInteger(allowedChildEntities);
+            this.reconciledOn = System.nanoTime();
+        }
+    }
+}
@@ -34,7 +34,7 @@ public class ServiceEventBusManager {
     public static final String JMS_20_EVENT_BUS = "JMS_20_EVENT_BUS";
 
     private static Map<String, ServiceEventBusDriver> serviceEventBusDrivers;
-    private static boolean started;
+    private static volatile boolean started;
 
     static {
         try {
@@ -79,6 +79,16 @@ public class ServiceEventBusManager {
         return serviceEventBusDrivers.get(JMS_20_EVENT_BUS).getEventBus();
     }
 
+    /**
+     * Gets whether the event bus has been started
+     *
+     * @return {@code true} if the event bus has been started, {@code false} otherwise
+     * @since 1.5.0
+     */
+    public static boolean isStarted() {
+        return started;
+    }
+
     /**
      * Start the event bus
      *
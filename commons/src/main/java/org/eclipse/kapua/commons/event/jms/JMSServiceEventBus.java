@@ -320,11 +320,15 @@ public class JMSServiceEventBus implements ServiceEventBus, ServiceEventBusDrive
             try {
                 String subscriptionStr = String.format("events.%s", subscription.getAddress());
                 // create a bunch of sessions to allow parallel event processing
+                // a subscription without name is not shared, so a single consumer is enough to receive all the events
+                int consumerPoolSize = subscription.getName() != null ? CONSUMER_POOL_SIZE : 1;
                 LOGGER.info("Subscribing to address {} - name {} ...", subscriptionStr, subscription.getName());
-                for (int i = 0; i < CONSUMER_POOL_SIZE; i++) {
+                for (int i = 0; i < consumerPoolSize; i++) {
                     final Session jmsSession = jmsConnection.createSession(false, Session.AUTO_ACKNOWLEDGE);
                     Topic jmsTopic = jmsSession.createTopic(subscriptionStr);
-                    MessageConsumer jmsConsumer = jmsSession.createSharedDurableConsumer(jmsTopic, subscription.getName());
+                    MessageConsumer jmsConsumer = subscription.getName() != null ?
+                            jmsSession.createSharedDurableConsumer(jmsTopic, subscription.getName()) :
+                            jmsSession.createConsumer(jmsTopic);
                     jmsConsumer.setMessageListener(message -> {
                         try {
                             if (message instanceof TextMessage) {
@@ -351,7 +355,7 @@ public class JMSServiceEventBus implements ServiceEventBus, ServiceEventBusDrive
                         }
                     });
                 }
-                LOGGER.info("Subscribing to address {} - name {} - pool size {} ...DONE", subscriptionStr, subscription.getName(), CONSUMER_POOL_SIZE);
+                LOGGER.info("Subscribing to address {} - name {} - pool size {} ...DONE", subscriptionStr, subscription.getName(), consumerPoolSize);
             } catch (JMSException e) {
                 throw new ServiceEventBusException(e);
             }
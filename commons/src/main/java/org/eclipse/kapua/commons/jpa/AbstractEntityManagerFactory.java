@@ -44,6 +44,19 @@ public abstract class AbstractEntityManagerFactory implements org.eclipse.kapua.
      * @param uniqueConstraints
      */
     protected AbstractEntityManagerFactory(String persistenceUnitName, String datasourceName, Map<String, String> uniqueConstraints) {
+        this(persistenceUnitName, datasourceName, uniqueConstraints, new HashMap<>());
+    }
+
+    /**
+     * Protected constructor
+     *
+     * @param persistenceUnitName
+     * @param datasourceName
+     * @param uniqueConstraints
+     * @param persistenceUnitOverrides The JPA configuration overrides specific to this {@link EntityManagerFactory}. They take precedence over the default ones.
+     * @since 1.5.0
+     */
+    protected AbstractEntityManagerFactory(String persistenceUnitName, String datasourceName, Map<String, String> uniqueConstraints, Map<String, Object> persistenceUnitOverrides) {
         SystemSetting config = SystemSetting.getInstance();
 
         //
@@ -68,6 +81,8 @@ public abstract class AbstractEntityManagerFactory implements org.eclipse.kapua.
             configOverrides.put("eclipselink.logging.level", "FINE");
             configOverrides.put("eclipselink.logging.parameters", "true");
 
+            configOverrides.putAll(persistenceUnitOverrides);
+
             // Standalone JPA
             entityManagerFactory = Persistence.createEntityManagerFactory(persistenceUnitName, configOverrides);
         } catch (Throwable ex) {
@@ -38,6 +38,7 @@ public class KapuaSession implements Serializable {
     // TODO to be moved inside configuration service or something like that "fully.qualified.classname.methodname" (<init> for the constructor)
     static {
         TRUSTED_CLASSES.add("org.eclipse.kapua.broker.core.plugin.KapuaSecurityContext.<init>");
+        TRUSTED_CLASSES.add("org.eclipse.kapua.broker.core.plugin.KapuaSecurityContext.newKapuaSession");
         TRUSTED_CLASSES.add("org.eclipse.kapua.commons.security.KapuaSecurityUtils.doPrivileged");
         TRUSTED_CLASSES.add("org.eclipse.kapua.commons.event.jms.JMSServiceEventBus.setSession");
         TRUSTED_CLASSES.add("org.eclipse.kapua.job.engine.app.core.filter.RebuildSessionFilter.onAccessDenied");
@@ -122,6 +123,27 @@ public class KapuaSession implements Serializable {
         }
     }
 
+    /**
+     * Creates a new {@link KapuaSession} with trusted mode flag set to true (to be used only from trusted classes).<br>
+     * Unlike {@link #createFrom(KapuaId, KapuaId)} the {@link KapuaSession} is not bound to the current thread.
+     *
+     * @param accessToken The {@link AccessToken}. May be {@code null}.
+     * @param scopeId     The scope {@link KapuaId}.
+     * @param userId      The user {@link KapuaId}.
+     * @return The trusted {@link KapuaSession}.
+     * @since 1.5.0
+     */
+    public static KapuaSession createFrom(AccessToken accessToken, KapuaId scopeId, KapuaId userId) {
+        if (isCallerClassTrusted()) {
+            KapuaSession session = new KapuaSession(accessToken, scopeId, userId);
+            session.trustedMode = true;
+            return session;
+        } else {
+            // TODO to be replaced with a security exception
+            throw new RuntimeException("Method not allowed for the caller class");
+        }
+    }
+
     /**
      * Check if the caller is included in the caller list allowed to change the trusted mode flag.
      *
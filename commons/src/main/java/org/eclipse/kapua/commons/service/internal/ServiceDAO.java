@@ -79,7 +79,6 @@ import javax.persistence.criteria.ParameterExpression;
 import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
-import javax.persistence.metamodel.Attribute;
 import javax.persistence.metamodel.EntityType;
 import javax.validation.constraints.NotNull;
 import java.sql.SQLException;
@@ -661,12 +660,13 @@ public class ServiceDAO {
             attrValue = KapuaEid.parseKapuaId((KapuaId) attrValue);
         }
 
-        // Fields to query properties of sub attributes of the root entity
-        Attribute<?, ?> attribute;
+        // Fields to query properties of sub attributes of the root entity.
+        // Comparisons check the type of the sub attribute, since the type of the root attribute (i.e. an embedded id) may not be comparable.
+        Class<?> attributeJavaType;
         if (attrName.contains(ATTRIBUTE_SEPARATOR)) {
-            attribute = entityType.getAttribute(attrName.split(ATTRIBUTE_SEPARATOR_ESCAPED)[0]);
+            attributeJavaType = extractAttribute(entityRoot, attrName).getJavaType();
         } else {
-            attribute = entityType.getAttribute(attrName);
+            attributeJavaType = entityType.getAttribute(attrName).getJavaType();
         }
 
         if (attrValue instanceof Object[]) {
@@ -729,7 +729,7 @@ public class ServiceDAO {
                     break;
 
                 case GREATER_THAN:
-                    if (attrValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                    if (attrValue instanceof Comparable && ArrayUtils.contains(attributeJavaType.getInterfaces(), Comparable.class)) {
                         Comparable comparableAttrValue = (Comparable<?>) attrValue;
                         Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                         expr = cb.greaterThan(comparableExpression, comparableAttrValue);
@@ -739,7 +739,7 @@ public class ServiceDAO {
                     break;
 
                 case GREATER_THAN_OR_EQUAL:
-                    if (attrValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                    if (attrValue instanceof Comparable && ArrayUtils.contains(attributeJavaType.getInterfaces(), Comparable.class)) {
                         Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                         Comparable comparableAttrValue = (Comparable<?>) attrValue;
                         expr = cb.greaterThanOrEqualTo(comparableExpression, comparableAttrValue);
@@ -749,7 +749,7 @@ public class ServiceDAO {
                     break;
 
                 case LESS_THAN:
-                    if (attrValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                    if (attrValue instanceof Comparable && ArrayUtils.contains(attributeJavaType.getInterfaces(), Comparable.class)) {
                         Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                         Comparable comparableAttrValue = (Comparable<?>) attrValue;
                         expr = cb.lessThan(comparableExpression, comparableAttrValue);
@@ -758,7 +758,7 @@ public class ServiceDAO {
                     }
                     break;
                 case LESS_THAN_OR_EQUAL:
-                    if (attrValue instanceof Comparable && ArrayUtils.contains(attribute.getJavaType().getInterfaces(), Comparable.class)) {
+                    if (attrValue instanceof Comparable && ArrayUtils.contains(attributeJavaType.getInterfaces(), Comparable.class)) {
                         Expression<? extends Comparable> comparableExpression = extractAttribute(entityRoot, attrName);
                         Comparable comparableAttrValue = (Comparable<?>) attrValue;
                         expr = cb.lessThanOrEqualTo(comparableExpression, comparableAttrValue);
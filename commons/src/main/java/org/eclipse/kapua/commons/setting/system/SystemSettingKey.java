@@ -294,7 +294,27 @@ public enum SystemSettingKey implements SettingKey {
     /**
      * Provide the JCache Expiry Policy. Allowed values: MODIFIED, TOUCHED
      */
-    JCACHE_EXPIRY_POLICY("commons.cache.config.expiryPolicy");
+    JCACHE_EXPIRY_POLICY("commons.cache.config.expiryPolicy"),
+
+    /**
+     * Enable the counters of the entities that can still be created in each scope by the resource limited services.
+     * They can only be used when a single node creates the entities, so they are not used when the service event bus is started.
+     *
+     * @since 1.5.0
+     */
+    RESOURCE_LIMITED_COUNTERS_ENABLED("commons.resourceLimited.counters.enabled"),
+    /**
+     * Time (in milliseconds) after which the counters of the resource limited services are computed again from the database
+     *
+     * @since 1.5.0
+     */
+    RESOURCE_LIMITED_COUNTERS_RECONCILE_INTERVAL("commons.resourceLimited.counters.reconcileInterval"),
+    /**
+     * Number of entities that can still be created in a scope at or below which the resource limited services always count the entities in the database
+     *
+     * @since 1.5.0
+     */
+    RESOURCE_LIMITED_COUNTERS_EXACT_COUNT_THRESHOLD("commons.resourceLimited.counters.exactCountThreshold");
 
     private String key;
 
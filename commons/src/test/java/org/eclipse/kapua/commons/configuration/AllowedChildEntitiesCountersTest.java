@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.configuration;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Category(JUnitTests.class)
+public class AllowedChildEntitiesCountersTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+
+    @Test
+    public void getNotSetTest() {
+        AllowedChildEntitiesCounters counters = new AllowedChildEntitiesCounters(true, 60000L, 0, () -> false);
+
+        assertNull("Null expected.", counters.get(SCOPE_ID));
+    }
+
+    @Test
+    public void createdAndDeletedTest() {
+        AllowedChildEntitiesCounters counters = new AllowedChildEntitiesCounters(true, 60000L, 0, () -> false);
+        counters.set(SCOPE_ID, 5);
+
+        counters.onCreated(SCOPE_ID);
+        counters.onCreated(new KapuaEid(BigInteger.TEN));
+        assertEquals("Expected and actual values should be the same.", Integer.valueOf(3), counters.get(SCOPE_ID));
+
+        counters.onDeleted(SCOPE_ID);
+        assertEquals("Expected and actual values should be the same.", Integer.valueOf(4), counters.get(SCOPE_ID));
+
+        counters.onCreated(KapuaId.ONE);
+        assertEquals("Expected and actual values should be the same.", Integer.valueOf(4), counters.get(SCOPE_ID));
+        assertNull("Null expected.", counters.get(KapuaId.ONE));
+    }
+
+    @Test
+    public void infiniteChildEntitiesTest() {
+        AllowedChildEntitiesCounters counters = new AllowedChildEntitiesCounters(true, 60000L, 0, () -> false);
+        counters.set(SCOPE_ID, Integer.MAX_VALUE);
+
+        counters.onCreated(SCOPE_ID);
+        counters.onDeleted(SCOPE_ID);
+        counters.onDeleted(SCOPE_ID);
+        assertEquals("Expected and actual values should be the same.", Integer.valueOf(Integer.MAX_VALUE), counters.get(SCOPE_ID));
+    }
+
+    @Test
+    public void invalidateTest() {
+        AllowedChildEntitiesCounters counters = new AllowedChildEntitiesCounters(true, 60000L, 0, () -> false);
+        counters.set(SCOPE_ID, 5);
+
+        counters.invalidate(SCOPE_ID);
+        assertNull("Null expected.", counters.get(SCOPE_ID));
+    }
+
+    @Test
+    public void reconcileIntervalElapsedTest() {
+        AllowedChildEntitiesCounters counters = new AllowedChildEntitiesCounters(true, 0L, 0, () -> false);
+        counters.set(SCOPE_ID, 5);
+
+        assertNull("Null expected.", counters.get(SCOPE_ID));
+    }
+
+    @Test
+    public void disabledTest() {
+        AllowedChildEntitiesCounters counters = new AllowedChildEntitiesCounters(false, 60000L, 0, () -> false);
+        counters.set(SCOPE_ID, 5);
+        counters.onCreated(SCOPE_ID);
+
+        assertNull("Null expected.", counters.get(SCOPE_ID));
+    }
+
+    @Test
+    public void exactCountThresholdTest() {
+        AllowedChildEntitiesCounters counters = new AllowedChildEntitiesCounters(true, 60000L, 3, () -> false);
+        counters.set(SCOPE_ID, 5);
+        assertEquals("Expected and actual values should be the same.", Integer.valueOf(5), counters.get(SCOPE_ID));
+
+        counters.onCreated(SCOPE_ID);
+        assertEquals("Expected and actual values should be the same.", Integer.valueOf(4), counters.get(SCOPE_ID));
+
+        counters.onCreated(SCOPE_ID);
+        assertNull("Null expected.", counters.get(SCOPE_ID));
+    }
+
+    @Test
+    public void exhaustedTest() {
+        AllowedChildEntitiesCounters counters = new AllowedChildEntitiesCounters(true, 60000L, 0, () -> false);
+        counters.set(SCOPE_ID, 1);
+
+        counters.onCreated(SCOPE_ID);
+        assertNull("Null expected.", counters.get(SCOPE_ID));
+    }
+
+    @Test
+    public void clusteredTest() {
+        AtomicBoolean clustered = new AtomicBoolean();
+        AllowedChildEntitiesCounters counters = new AllowedChildEntitiesCounters(true, 60000L, 0, clustered::get);
+        counters.set(SCOPE_ID, 5);
+        assertEquals("Expected and actual values should be the same.", Integer.valueOf(5), counters.get(SCOPE_ID));
+
+        clustered.set(true);
+        assertNull("Null expected.", counters.get(SCOPE_ID));
+
+        counters.set(SCOPE_ID, 5);
+        assertNull("Null expected.", counters.get(SCOPE_ID));
+    }
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.commons.service.internal;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.configuration.KapuaConfigurableServiceSchemaUtils;
+import org.eclipse.kapua.commons.jpa.EntityManager;
+import org.eclipse.kapua.commons.liquibase.KapuaLiquibaseClient;
+import org.eclipse.kapua.commons.model.AbstractCommonServiceTest;
+import org.eclipse.kapua.commons.model.misc.CollisionEntity;
+import org.eclipse.kapua.commons.model.misc.CollisionEntityManagerFactory;
+import org.eclipse.kapua.commons.model.misc.CollisionIdGenerator;
+import org.eclipse.kapua.commons.model.query.AbstractKapuaQuery;
+import org.eclipse.kapua.commons.model.query.KapuaListResultImpl;
+import org.eclipse.kapua.model.KapuaEntityAttributes;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.KapuaListResult;
+import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.model.query.SortOrder;
+import org.eclipse.kapua.model.query.predicate.AttributePredicate;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests the comparison {@link AttributePredicate.Operator}s on the sub attributes of the embedded {@link KapuaEntityAttributes#ENTITY_ID}.
+ *
+ * @since 1.5.0
+ */
+@Category(JUnitTests.class)
+public class ServiceDAOTest extends AbstractCommonServiceTest {
+
+    private static final String ENTITY_ID_VALUE = KapuaEntityAttributes.ENTITY_ID + ".eid";
+    private static final BigInteger ID_OFFSET = BigInteger.valueOf(10000);
+
+    @BeforeClass
+    public static void setUp() throws KapuaException {
+        new KapuaLiquibaseClient("jdbc:h2:mem:kapua;MODE=MySQL;DB_CLOSE_DELAY=-1", "kapua", "kapua").update();
+        scriptSession(DEFAULT_TEST_PATH, "test_*_create.sql");
+
+        // CollisionEntities with ids from ID_OFFSET + 1 to ID_OFFSET + 5
+        CollisionEntity.initializeCollisionIdGenerator(new CollisionIdGenerator("0", ID_OFFSET, 0));
+
+        EntityManager em = CollisionEntityManagerFactory.getInstance().createEntityManager();
+        try {
+            em.beginTransaction();
+            for (int i = 1; i <= 5; i++) {
+                CollisionEntity collisionEntity = new CollisionEntity("ServiceDAOTest - record " + i);
+                collisionEntity.setScopeId(KapuaId.ONE);
+                collisionEntity.setName("ServiceDAOTest-" + i);
+                em.persist(collisionEntity);
+            }
+            em.commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        scriptSession(DEFAULT_TEST_PATH, DROP_TEST_FILTER);
+        KapuaConfigurableServiceSchemaUtils.dropSchemaObjects(DEFAULT_COMMONS_PATH);
+    }
+
+    @Test
+    public void queryGreaterThanEntityIdTest() throws KapuaException {
+        KapuaQuery query = new CollisionEntityQuery();
+        query.setPredicate(query.attributePredicate(ENTITY_ID_VALUE, ID_OFFSET.add(BigInteger.valueOf(3)), AttributePredicate.Operator.GREATER_THAN));
+
+        Assert.assertEquals("Expected and actual values should be the same.", Arrays.asList(4, 5), queryIds(query));
+    }
+
+    @Test
+    public void queryGreaterThanOrEqualEntityIdTest() throws KapuaException {
+        KapuaQuery query = new CollisionEntityQuery();
+        query.setPredicate(query.attributePredicate(ENTITY_ID_VALUE, ID_OFFSET.add(BigInteger.valueOf(4)), AttributePredicate.Operator.GREATER_THAN_OR_EQUAL));
+
+        Assert.assertEquals("Expected and actual values should be the same.", Arrays.asList(4, 5), queryIds(query));
+    }
+
+    @Test
+    public void queryLessThanEntityIdTest() throws KapuaException {
+        KapuaQuery query = new CollisionEntityQuery();
+        query.setPredicate(query.andPredicate(
+                query.attributePredicate(ENTITY_ID_VALUE, ID_OFFSET, AttributePredicate.Operator.GREATER_THAN),
+                query.attributePredicate(ENTITY_ID_VALUE, ID_OFFSET.add(BigInteger.valueOf(3)), AttributePredicate.Operator.LESS_THAN)
+        ));
+
+        Assert.assertEquals("Expected and actual values should be the same.", Arrays.asList(1, 2), queryIds(query));
+    }
+
+    @Test
+    public void queryLessThanOrEqualEntityIdTest() throws KapuaException {
+        KapuaQuery query = new CollisionEntityQuery();
+        query.setPredicate(query.andPredicate(
+                query.attributePredicate(ENTITY_ID_VALUE, ID_OFFSET, AttributePredicate.Operator.GREATER_THAN),
+                query.attributePredicate(ENTITY_ID_VALUE, ID_OFFSET.add(BigInteger.valueOf(2)), AttributePredicate.Operator.LESS_THAN_OR_EQUAL)
+        ));
+
+        Assert.assertEquals("Expected and actual values should be the same.", Arrays.asList(1, 2), queryIds(query));
+    }
+
+    @Test
+    public void queryKeysetPaginationTest() throws KapuaException {
+        List<Integer> ids = new ArrayList<>();
+
+        BigInteger lastId = ID_OFFSET;
+        boolean lastPage = false;
+        while (!lastPage) {
+            KapuaQuery query = new CollisionEntityQuery();
+            query.setPredicate(query.attributePredicate(ENTITY_ID_VALUE, lastId, AttributePredicate.Operator.GREATER_THAN));
+            query.setSortCriteria(query.fieldSortCriteria(ENTITY_ID_VALUE, SortOrder.ASCENDING));
+            query.setLimit(2);
+
+            KapuaListResult<CollisionEntity> page = query(query);
+            for (CollisionEntity collisionEntity : page.getItems()) {
+                ids.add(collisionEntity.getId().getId().subtract(ID_OFFSET).intValue());
+                lastId = collisionEntity.getId().getId();
+            }
+            lastPage = !page.isLimitExceeded();
+        }
+
+        Assert.assertEquals("Expected and actual values should be the same.", Arrays.asList(1, 2, 3, 4, 5), ids);
+    }
+
+    private static List<Integer> queryIds(KapuaQuery query) throws KapuaException {
+        query.setSortCriteria(query.fieldSortCriteria(ENTITY_ID_VALUE, SortOrder.ASCENDING));
+
+        List<Integer> ids = new ArrayList<>();
+        for (CollisionEntity collisionEntity : query(query).getItems()) {
+            ids.add(collisionEntity.getId().getId().subtract(ID_OFFSET).intValue());
+        }
+        return ids;
+    }
+
+    private static KapuaListResult<CollisionEntity> query(KapuaQuery query) throws KapuaException {
+        EntityManager em = CollisionEntityManagerFactory.getInstance().createEntityManager();
+        try {
+            return ServiceDAO.query(em, CollisionEntity.class, CollisionEntity.class, new KapuaListResultImpl<>(), query);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static class CollisionEntityQuery extends AbstractKapuaQuery {
+
+        CollisionEntityQuery() {
+            super(KapuaId.ONE);
+        }
+    }
+}
@@ -12,13 +12,19 @@
  *******************************************************************************/
 package org.eclipse.kapua.job.engine.commons.operation;
 
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.setting.system.SystemSetting;
+import org.eclipse.kapua.commons.setting.system.SystemSettingKey;
 import org.eclipse.kapua.job.engine.commons.logger.JobLogger;
 import org.eclipse.kapua.job.engine.commons.wrappers.JobContextWrapper;
 import org.eclipse.kapua.job.engine.commons.wrappers.JobTargetWrapper;
 import org.eclipse.kapua.job.engine.commons.wrappers.StepContextWrapper;
 import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.model.query.SortOrder;
 import org.eclipse.kapua.model.query.predicate.AndPredicate;
 import org.eclipse.kapua.model.query.predicate.AttributePredicate;
 import org.eclipse.kapua.service.job.operation.TargetReader;
@@ -38,6 +44,7 @@ import javax.batch.runtime.context.JobContext;
 import javax.batch.runtime.context.StepContext;
 import javax.inject.Inject;
 import java.io.Serializable;
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -45,6 +52,13 @@ import java.util.List;
  * Default {@link TargetReader} implementation.
  * <p>
  * All {@link org.eclipse.kapua.service.job.step.definition.JobStepDefinition} can use this {@link TargetReader} implementation or extend or provide one on their own.
+ * <p>
+ * {@link JobTarget}s are read one page at a time, ordered by {@link JobTarget#getId()} and selecting the ones after the last read {@link JobTarget#getId()} (keyset pagination),
+ * so only a page of {@link JobTarget}s is held in memory and the selection is not affected by the {@link JobTarget}s updated in the meantime.
+ * <p>
+ * The last read {@link JobTarget#getId()} is the checkpoint of the reader, so a resumed step continues after it,
+ * still selecting only the {@link JobTarget}s which are not {@link JobTargetStatus#PROCESS_OK}.
+ * A new execution of the step has no checkpoint, so it selects again all of them, including the ones which failed in the previous executions.
  *
  * @since 1.0.0
  */
@@ -54,6 +68,28 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
 
     private static final KapuaLocator LOCATOR = KapuaLocator.getInstance();
 
+    /**
+     * The {@link JobTarget#getId()} value to which the keyset pagination and the partitions are applied.
+     *
+     * @since 1.5.0
+     */
+    private static final String JOB_TARGET_KEYSET_ATTRIBUTE = JobTargetAttributes.ENTITY_ID + ".eid";
+
+    /**
+     * The default number of {@link JobTarget}s read with each query.
+     *
+     * @since 1.5.0
+     */
+    protected static final int DEFAULT_PAGE_SIZE = 100;
+
+    /**
+     * The upper bound (excluded) of the generated {@link JobTarget#getId()}s, which are uniformly distributed random values.
+     *
+     * @see org.eclipse.kapua.commons.model.id.IdGenerator
+     * @since 1.5.0
+     */
+    private static final BigInteger JOB_TARGET_ID_UPPER_BOUND = BigInteger.ONE.shiftLeft(SystemSetting.getInstance().getInt(SystemSettingKey.KAPUA_KEY_SIZE));
+
     private final JobTargetFactory jobTargetFactory = LOCATOR.getFactory(JobTargetFactory.class);
     private final JobTargetService jobTargetService = LOCATOR.getService(JobTargetService.class);
 
@@ -63,19 +99,107 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
     @Inject
     private StepContext stepContext;
 
+    /**
+     * The current page of {@link JobTarget}s.
+     */
     protected List<JobTargetWrapper> wrappedJobTargets = new ArrayList<>();
+
+    /**
+     * The index in {@link #wrappedJobTargets} of the next {@link JobTarget} to read.
+     */
     protected int jobTargetIndex;
 
+    protected KapuaId lastFetchedJobTargetId;
+    protected KapuaId lastReadJobTargetId;
+    protected boolean lastPageFetched;
+
     @Override
-    public void open(Serializable arg0) throws Exception {
+    public void open(Serializable checkpoint) throws Exception {
         JobContextWrapper jobContextWrapper = new JobContextWrapper(jobContext);
-        StepContextWrapper stepContextWrapper = new StepContextWrapper(stepContext);
 
         JobLogger jobLogger = jobContextWrapper.getJobLogger();
         jobLogger.setClassLog(LOG);
 
         jobLogger.info("Opening cursor...");
 
+        //
+        // Pages are fetched on readItem, starting after the last read JobTarget of the previous execution, if any
+        wrappedJobTargets.clear();
+        jobTargetIndex = 0;
+        lastReadJobTargetId = checkpoint != null ? KapuaEid.parseCompactId((String) checkpoint) : null;
+        lastFetchedJobTargetId = lastReadJobTargetId;
+        lastPageFetched = false;
+
+        if (lastReadJobTargetId != null) {
+            jobLogger.info("Resuming after target: {}", lastReadJobTargetId);
+        }
+
+        jobLogger.info("Opening cursor... DONE!");
+    }
+
+    @Override
+    public Object readItem() throws Exception {
+        JobContextWrapper jobContextWrapper = new JobContextWrapper(jobContext);
+        StepContextWrapper stepContextWrapper = new StepContextWrapper(stepContext);
+
+        JobLogger jobLogger = jobContextWrapper.getJobLogger();
+        jobLogger.setClassLog(LOG);
+
+        jobLogger.info("Reading item...");
+
+        if (jobTargetIndex >= wrappedJobTargets.size()) {
+            fetchNextPage(jobContextWrapper, stepContextWrapper);
+        }
+
+        JobTargetWrapper currentWrappedJobTarget = null;
+        if (jobTargetIndex < wrappedJobTargets.size()) {
+            currentWrappedJobTarget = wrappedJobTargets.get(jobTargetIndex++);
+            lastReadJobTargetId = currentWrappedJobTarget.getJobTarget().getId();
+        }
+
+        jobLogger.info("Reading item... DONE!");
+        return currentWrappedJobTarget;
+    }
+
+    /**
+     * Gets the {@link JobTarget#getId()} of the last read {@link JobTarget}.
+     * <p>
+     * It is invoked at the end of each chunk, when all the read {@link JobTarget}s have been processed and written.
+     *
+     * @return The compact {@link JobTarget#getId()} of the last read {@link JobTarget}, or {@code null} if none has been read yet.
+     * @since 1.5.0
+     */
+    @Override
+    public Serializable checkpointInfo() throws Exception {
+        return lastReadJobTargetId != null ? lastReadJobTargetId.toCompactId() : null;
+    }
+
+    /**
+     * Gets the number of {@link JobTarget}s read with each query, which is also the maximum number of {@link JobTarget}s held by this {@link TargetReader}.
+     *
+     * @return The number of {@link JobTarget}s read with each query.
+     * @since 1.5.0
+     */
+    protected int getPageSize() {
+        return DEFAULT_PAGE_SIZE;
+    }
+
+    /**
+     * Reads the next page of {@link JobTarget}s of the current partition, if any, replacing the current one.
+     *
+     * @param jobContextWrapper  The {@link JobContextWrapper} from which extract data
+     * @param stepContextWrapper The {@link StepContextWrapper} from which extract data
+     * @throws KapuaException if the query of the {@link JobTarget}s fails.
+     * @since 1.5.0
+     */
+    protected void fetchNextPage(JobContextWrapper jobContextWrapper, StepContextWrapper stepContextWrapper) throws KapuaException {
+        wrappedJobTargets.clear();
+        jobTargetIndex = 0;
+
+        if (lastPageFetched) {
+            return;
+        }
+
         //
         // Job Id and JobTarget status filtering
         JobTargetQuery query = jobTargetFactory.newQuery(jobContextWrapper.getScopeId());
@@ -92,35 +216,32 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
         // Filter selected target
         targetSublistFiltering(jobContextWrapper, query, andPredicate);
 
+        //
+        // Filter the targets of this partition
+        partitionFiltering(stepContextWrapper, query, andPredicate);
+
+        //
+        // Keyset pagination
+        if (lastFetchedJobTargetId != null) {
+            andPredicate.and(query.attributePredicate(JOB_TARGET_KEYSET_ATTRIBUTE, lastFetchedJobTargetId.getId(), AttributePredicate.Operator.GREATER_THAN));
+        }
+
         //
         // Query the targets
         query.setPredicate(andPredicate);
+        query.setSortCriteria(query.fieldSortCriteria(JOB_TARGET_KEYSET_ATTRIBUTE, SortOrder.ASCENDING));
+        query.setLimit(getPageSize());
 
         JobTargetListResult jobTargets = KapuaSecurityUtils.doPrivileged(() -> jobTargetService.query(query));
 
         //
         // Wrap the JobTargets in a wrapper object to store additional informations
-        jobTargets.getItems().forEach(jt -> wrappedJobTargets.add(new JobTargetWrapper(jt)));
-
-        jobLogger.info("Opening cursor... DONE!");
-    }
-
-    @Override
-    public Object readItem() throws Exception {
-        JobContextWrapper jobContextWrapper = new JobContextWrapper(jobContext);
-
-        JobLogger jobLogger = jobContextWrapper.getJobLogger();
-        jobLogger.setClassLog(LOG);
-
-        jobLogger.info("Reading item...");
-
-        JobTargetWrapper currentWrappedJobTarget = null;
-        if (jobTargetIndex < wrappedJobTargets.size()) {
-            currentWrappedJobTarget = wrappedJobTargets.get(jobTargetIndex++);
+        for (JobTarget jobTarget : jobTargets.getItems()) {
+            wrappedJobTargets.add(new JobTargetWrapper(jobTarget));
+            lastFetchedJobTargetId = jobTarget.getId();
         }
 
-        jobLogger.info("Reading item... DONE!");
-        return currentWrappedJobTarget;
+        lastPageFetched = !jobTargets.isLimitExceeded();
     }
 
     /**
@@ -169,4 +290,43 @@ public class DefaultTargetReader extends AbstractItemReader implements TargetRea
         }
     }
 
+    /**
+     * This method apply {@link AttributePredicate}s to select only the {@link JobTarget}s of the partition which is processing the step.
+     * <p>
+     * {@link JobTarget}s are sharded across the partitions by ranges of {@link JobTarget#getId()} of the same size, so each {@link JobTarget} is processed by exactly one partition
+     * and each partition reads only its own {@link JobTarget}s.
+     * The first and the last range are open, so {@link JobTarget#getId()}s out of the generated ones are processed as well.
+     * When the step is not partitioned no {@link AttributePredicate} is applied.
+     *
+     * @param stepContextWrapper The {@link StepContextWrapper} from which extract the partition data
+     * @param query              The {@link KapuaQuery} to perform
+     * @param andPredicate       The {@link org.eclipse.kapua.model.query.predicate.AndPredicate} where to apply {@link org.eclipse.kapua.model.query.predicate.QueryPredicate}
+     * @since 1.5.0
+     */
+    protected void partitionFiltering(StepContextWrapper stepContextWrapper, KapuaQuery query, AndPredicate andPredicate) {
+        Integer partitionIndex = stepContextWrapper.getPartitionIndex();
+        if (partitionIndex == null) {
+            return;
+        }
+
+        int partitions = stepContextWrapper.getPartitions();
+        if (partitionIndex > 0) {
+            andPredicate.and(query.attributePredicate(JOB_TARGET_KEYSET_ATTRIBUTE, getPartitionLowerBound(partitionIndex, partitions), AttributePredicate.Operator.GREATER_THAN_OR_EQUAL));
+        }
+        if (partitionIndex < partitions - 1) {
+            andPredicate.and(query.attributePredicate(JOB_TARGET_KEYSET_ATTRIBUTE, getPartitionLowerBound(partitionIndex + 1, partitions), AttributePredicate.Operator.LESS_THAN));
+        }
+    }
+
+    /**
+     * Gets the lowest {@link JobTarget#getId()} of the given partition.
+     *
+     * @param partitionIndex The index of the partition.
+     * @param partitions     The number of partitions.
+     * @return The lowest {@link JobTarget#getId()} of the partition.
+     * @since 1.5.0
+     */
+    static BigInteger getPartitionLowerBound(int partitionIndex, int partitions) {
+        return JOB_TARGET_ID_UPPER_BOUND.multiply(BigInteger.valueOf(partitionIndex)).divide(BigInteger.valueOf(partitions));
+    }
 }
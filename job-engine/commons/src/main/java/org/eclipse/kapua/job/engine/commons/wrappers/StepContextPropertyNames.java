@@ -28,4 +28,20 @@ public interface StepContextPropertyNames {
      * @since 1.0.0
      */
     String STEP_NEXT_INDEX = "step.nextStepIndex";
+
+    /**
+     * The number of partitions which process the {@link org.eclipse.kapua.service.job.targets.JobTarget}s of the step in parallel.
+     * <p>
+     * It can be set as a {@link org.eclipse.kapua.service.job.step.JobStep} property to override the job engine default.
+     *
+     * @since 1.5.0
+     */
+    String STEP_PARTITIONS = "step.partitions";
+
+    /**
+     * The index of the partition which is processing the step, from {@code 0} to {@link #STEP_PARTITIONS} - 1.
+     *
+     * @since 1.5.0
+     */
+    String STEP_PARTITION_INDEX = "step.partitionIndex";
 }
@@ -58,6 +58,28 @@ public class StepContextWrapper {
         return stepNextIndexString != null ? Integer.parseInt(stepNextIndexString) : null;
     }
 
+    /**
+     * Gets the number of partitions which process the step.
+     *
+     * @return The number of partitions, or {@code 1} if the step is not partitioned.
+     * @since 1.5.0
+     */
+    public int getPartitions() {
+        String partitionsString = stepContext.getProperties().getProperty(StepContextPropertyNames.STEP_PARTITIONS);
+        return Strings.isNullOrEmpty(partitionsString) ? 1 : Integer.parseInt(partitionsString);
+    }
+
+    /**
+     * Gets the index of the partition which is processing the step.
+     *
+     * @return The index of the partition, or {@code null} if the step is not partitioned.
+     * @since 1.5.0
+     */
+    public Integer getPartitionIndex() {
+        String partitionIndexString = stepContext.getProperties().getProperty(StepContextPropertyNames.STEP_PARTITION_INDEX);
+        return Strings.isNullOrEmpty(partitionIndexString) ? null : Integer.parseInt(partitionIndexString);
+    }
+
     public <T> T getStepProperty(String stepPropertyName, Class<T> type) throws KapuaIllegalArgumentException {
         Properties jobContextProperties = stepContext.getProperties();
         String stepPropertyString = jobContextProperties.getProperty(stepPropertyName);
@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.commons.operation;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.model.query.AbstractKapuaQuery;
+import org.eclipse.kapua.commons.model.query.KapuaListResultImpl;
+import org.eclipse.kapua.job.engine.commons.model.JobTransientUserData;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobContextPropertyNames;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobContextWrapper;
+import org.eclipse.kapua.job.engine.commons.wrappers.JobTargetWrapper;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextWrapper;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.model.query.predicate.AndPredicate;
+import org.eclipse.kapua.model.query.predicate.AttributePredicate;
+import org.eclipse.kapua.model.query.predicate.QueryPredicate;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.job.targets.JobTarget;
+import org.eclipse.kapua.service.job.targets.JobTargetAttributes;
+import org.eclipse.kapua.service.job.targets.JobTargetFactory;
+import org.eclipse.kapua.service.job.targets.JobTargetListResult;
+import org.eclipse.kapua.service.job.targets.JobTargetQuery;
+import org.eclipse.kapua.service.job.targets.JobTargetService;
+import org.eclipse.kapua.service.job.targets.JobTargetStatus;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import javax.batch.runtime.context.JobContext;
+import javax.batch.runtime.context.StepContext;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+@Category(JUnitTests.class)
+public class DefaultTargetReaderTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId JOB_ID = new KapuaEid(BigInteger.valueOf(20));
+    private static final int PAGE_SIZE = 3;
+
+    private final JobTargetFactory jobTargetFactory = KapuaLocator.getInstance().getFactory(JobTargetFactory.class);
+    private final JobTargetService jobTargetService = KapuaLocator.getInstance().getService(JobTargetService.class);
+
+    private List<JobTarget> jobTargets;
+    private Properties stepProperties;
+
+    @Before
+    public void initialize() throws Exception {
+        Mockito.reset(jobTargetFactory, jobTargetService);
+
+        // JobTargets from 1 to 10, of which 3 has already been processed successfully
+        jobTargets = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            jobTargets.add(newJobTarget(BigInteger.valueOf(i), i == 3 ? JobTargetStatus.PROCESS_OK : JobTargetStatus.PROCESS_AWAITING));
+        }
+
+        stepProperties = new Properties();
+        stepProperties.setProperty(StepContextPropertyNames.STEP_INDEX, "0");
+
+        Mockito.when(jobTargetFactory.newQuery(Mockito.any(KapuaId.class))).thenAnswer(invocation -> new TestJobTargetQuery((KapuaId) invocation.getArguments()[0]));
+        Mockito.when(jobTargetService.query(Mockito.any(KapuaQuery.class))).thenAnswer(invocation -> query((KapuaQuery) invocation.getArguments()[0]));
+    }
+
+    @Test
+    public void readItemPagingTest() throws Exception {
+        DefaultTargetReader targetReader = newTargetReader();
+        targetReader.open(null);
+
+        assertEquals("Expected and actual values should be the same.", ids(1, 2, 4, 5, 6, 7, 8, 9, 10), readAll(targetReader));
+
+        // A query for each page, the last one is not followed by an empty one
+        Mockito.verify(jobTargetService, Mockito.times(3)).query(Mockito.any(KapuaQuery.class));
+
+        // Only the current page is held
+        assertTrue("True expected.", targetReader.wrappedJobTargets.size() <= PAGE_SIZE);
+    }
+
+    @Test
+    public void readItemPartitionTest() throws Exception {
+        // JobTargets at the start of the range of each partition, plus one with a higher than generated id
+        jobTargets.clear();
+        for (int partitionIndex = 0; partitionIndex < 3; partitionIndex++) {
+            BigInteger lowerBound = DefaultTargetReader.getPartitionLowerBound(partitionIndex, 3);
+            for (int i = 0; i < 4; i++) {
+                jobTargets.add(newJobTarget(lowerBound.add(BigInteger.valueOf(i)), JobTargetStatus.PROCESS_AWAITING));
+            }
+        }
+        jobTargets.add(newJobTarget(DefaultTargetReader.getPartitionLowerBound(3, 3), JobTargetStatus.PROCESS_AWAITING));
+
+        stepProperties.setProperty(StepContextPropertyNames.STEP_PARTITIONS, "3");
+
+        List<BigInteger> partitionedJobTargetIds = new ArrayList<>();
+        for (int partitionIndex = 0; partitionIndex < 3; partitionIndex++) {
+            stepProperties.setProperty(StepContextPropertyNames.STEP_PARTITION_INDEX, String.valueOf(partitionIndex));
+
+            DefaultTargetReader targetReader = newTargetReader();
+            targetReader.open(null);
+
+            BigInteger lowerBound = DefaultTargetReader.getPartitionLowerBound(partitionIndex, 3);
+            BigInteger upperBound = DefaultTargetReader.getPartitionLowerBound(partitionIndex + 1, 3);
+            for (BigInteger jobTargetId : readAll(targetReader)) {
+                assertTrue("True expected.", partitionIndex == 0 || jobTargetId.compareTo(lowerBound) >= 0);
+                assertTrue("True expected.", partitionIndex == 2 || jobTargetId.compareTo(upperBound) < 0);
+                partitionedJobTargetIds.add(jobTargetId);
+            }
+        }
+
+        // Each JobTarget is read by exactly one partition
+        List<BigInteger> jobTargetIds = new ArrayList<>();
+        for (JobTarget jobTarget : jobTargets) {
+            jobTargetIds.add(jobTarget.getId().getId());
+        }
+        assertEquals("Expected and actual values should be the same.", jobTargetIds, partitionedJobTargetIds);
+
+        // Each partition reads only its own JobTargets: 4, 4 and 5 JobTargets with pages of 3
+        Mockito.verify(jobTargetService, Mockito.times(6)).query(Mockito.any(KapuaQuery.class));
+    }
+
+    @Test
+    public void partitionFilteringTest() {
+        stepProperties.setProperty(StepContextPropertyNames.STEP_PARTITIONS, "4");
+
+        // The first partition has no lower bound
+        stepProperties.setProperty(StepContextPropertyNames.STEP_PARTITION_INDEX, "0");
+        assertEquals("Expected and actual values should be the same.",
+                Collections.singletonList(AttributePredicate.Operator.LESS_THAN),
+                getPartitionOperators());
+
+        stepProperties.setProperty(StepContextPropertyNames.STEP_PARTITION_INDEX, "1");
+        assertEquals("Expected and actual values should be the same.",
+                Arrays.asList(AttributePredicate.Operator.GREATER_THAN_OR_EQUAL, AttributePredicate.Operator.LESS_THAN),
+                getPartitionOperators());
+
+        // The last partition has no upper bound
+        stepProperties.setProperty(StepContextPropertyNames.STEP_PARTITION_INDEX, "3");
+        assertEquals("Expected and actual values should be the same.",
+                Collections.singletonList(AttributePredicate.Operator.GREATER_THAN_OR_EQUAL),
+                getPartitionOperators());
+
+        // Not partitioned
+        stepProperties.remove(StepContextPropertyNames.STEP_PARTITIONS);
+        stepProperties.remove(StepContextPropertyNames.STEP_PARTITION_INDEX);
+        assertTrue("True expected.", getPartitionOperators().isEmpty());
+    }
+
+    @Test
+    public void openCheckpointTest() throws Exception {
+        DefaultTargetReader targetReader = newTargetReader();
+        targetReader.open(null);
+        assertNull("Null expected.", targetReader.checkpointInfo());
+
+        assertEquals("Expected and actual values should be the same.", BigInteger.ONE, getJobTargetId(targetReader.readItem()));
+        assertEquals("Expected and actual values should be the same.", BigInteger.valueOf(2), getJobTargetId(targetReader.readItem()));
+        assertEquals("Expected and actual values should be the same.", new KapuaEid(BigInteger.valueOf(2)).toCompactId(), targetReader.checkpointInfo());
+
+        // The step is resumed after 1 failed and 2 succeeded, and 5 has been processed successfully meanwhile
+        Mockito.when(jobTargets.get(0).getStatus()).thenReturn(JobTargetStatus.PROCESS_FAILED);
+        Mockito.when(jobTargets.get(1).getStatus()).thenReturn(JobTargetStatus.PROCESS_OK);
+        Mockito.when(jobTargets.get(4).getStatus()).thenReturn(JobTargetStatus.PROCESS_OK);
+
+        DefaultTargetReader resumedTargetReader = newTargetReader();
+        resumedTargetReader.open(targetReader.checkpointInfo());
+
+        // Continues after the checkpoint, still skipping the JobTargets processed successfully
+        assertEquals("Expected and actual values should be the same.", ids(4, 6, 7, 8, 9, 10), readAll(resumedTargetReader));
+        assertEquals("Expected and actual values should be the same.", new KapuaEid(BigInteger.TEN).toCompactId(), resumedTargetReader.checkpointInfo());
+
+        // A new execution has no checkpoint, so the failed JobTarget is processed again
+        DefaultTargetReader newExecutionTargetReader = newTargetReader();
+        newExecutionTargetReader.open(null);
+
+        assertEquals("Expected and actual values should be the same.", ids(1, 4, 6, 7, 8, 9, 10), readAll(newExecutionTargetReader));
+    }
+
+    @Test
+    public void openResetTest() throws Exception {
+        DefaultTargetReader targetReader = newTargetReader();
+        targetReader.open(null);
+        readAll(targetReader);
+
+        // A reopened TargetReader starts again from the first JobTarget
+        targetReader.open(null);
+        assertEquals("Expected and actual values should be the same.", BigInteger.ONE, getJobTargetId(targetReader.readItem()));
+    }
+
+    private DefaultTargetReader newTargetReader() throws Exception {
+        Properties jobProperties = new Properties();
+        jobProperties.setProperty(JobContextPropertyNames.JOB_SCOPE_ID, SCOPE_ID.toCompactId());
+        jobProperties.setProperty(JobContextPropertyNames.JOB_ID, JOB_ID.toCompactId());
+
+        JobContext jobContext = Mockito.mock(JobContext.class);
+        Mockito.when(jobContext.getProperties()).thenReturn(jobProperties);
+        Mockito.when(jobContext.getTransientUserData()).thenReturn(new JobTransientUserData());
+
+        StepContext stepContext = Mockito.mock(StepContext.class);
+        Mockito.when(stepContext.getProperties()).thenReturn(stepProperties);
+
+        DefaultTargetReader targetReader = new TestTargetReader();
+        setField(targetReader, "jobContext", jobContext);
+        setField(targetReader, "stepContext", stepContext);
+        return targetReader;
+    }
+
+    private List<AttributePredicate.Operator> getPartitionOperators() {
+        KapuaQuery query = new TestJobTargetQuery(SCOPE_ID);
+        AndPredicate andPredicate = query.andPredicate();
+
+        StepContext stepContext = Mockito.mock(StepContext.class);
+        Mockito.when(stepContext.getProperties()).thenReturn(stepProperties);
+        new DefaultTargetReader().partitionFiltering(new StepContextWrapper(stepContext), query, andPredicate);
+
+        List<AttributePredicate.Operator> operators = new ArrayList<>();
+        for (QueryPredicate predicate : andPredicate.getPredicates()) {
+            operators.add(((AttributePredicate<?>) predicate).getOperator());
+        }
+        return operators;
+    }
+
+    /**
+     * Applies the {@link JobTarget#getId()} and {@link JobTarget#getStatus()} {@link AttributePredicate}s of the given {@link KapuaQuery} to the {@link JobTarget}s.
+     */
+    private JobTargetListResult query(KapuaQuery query) {
+        List<AttributePredicate<?>> idPredicates = new ArrayList<>();
+        JobTargetStatus excludedStatus = null;
+        for (QueryPredicate predicate : ((AndPredicate) query.getPredicate()).getPredicates()) {
+            AttributePredicate<?> attributePredicate = (AttributePredicate<?>) predicate;
+            if (attributePredicate.getAttributeValue() instanceof BigInteger) {
+                idPredicates.add(attributePredicate);
+            } else if (JobTargetAttributes.STATUS.equals(attributePredicate.getAttributeName())) {
+                excludedStatus = (JobTargetStatus) attributePredicate.getAttributeValue();
+            }
+        }
+
+        TestJobTargetListResult result = new TestJobTargetListResult();
+        for (JobTarget jobTarget : jobTargets) {
+            if (matches(jobTarget.getId().getId(), idPredicates) && jobTarget.getStatus() != excludedStatus) {
+                if (result.getSize() == query.getLimit()) {
+                    result.setLimitExceeded(true);
+                    break;
+                }
+                result.addItem(jobTarget);
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(BigInteger jobTargetId, List<AttributePredicate<?>> idPredicates) {
+        for (AttributePredicate<?> idPredicate : idPredicates) {
+            int comparison = jobTargetId.compareTo((BigInteger) idPredicate.getAttributeValue());
+            switch (idPredicate.getOperator()) {
+                case GREATER_THAN:
+                    if (comparison <= 0) {
+                        return false;
+                    }
+                    break;
+                case GREATER_THAN_OR_EQUAL:
+                    if (comparison < 0) {
+                        return false;
+                    }
+                    break;
+                case LESS_THAN:
+                    if (comparison >= 0) {
+                        return false;
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException(idPredicate.getOperator().name());
+            }
+        }
+        return true;
+    }
+
+    private static List<BigInteger> readAll(DefaultTargetReader targetReader) throws Exception {
+        List<BigInteger> jobTargetIds = new ArrayList<>();
+        Object item;
+        while ((item = targetReader.readItem()) != null) {
+            jobTargetIds.add(getJobTargetId(item));
+        }
+        return jobTargetIds;
+    }
+
+    private static BigInteger getJobTargetId(Object item) {
+        return ((JobTargetWrapper) item).getJobTarget().getId().getId();
+    }
+
+    private static List<BigInteger> ids(int... ids) {
+        List<BigInteger> jobTargetIds = new ArrayList<>();
+        for (int id : ids) {
+            jobTargetIds.add(BigInteger.valueOf(id));
+        }
+        return jobTargetIds;
+    }
+
+    private static JobTarget newJobTarget(BigInteger id, JobTargetStatus status) {
+        JobTarget jobTarget = Mockito.mock(JobTarget.class);
+        Mockito.when(jobTarget.getId()).thenReturn(new KapuaEid(id));
+        Mockito.when(jobTarget.getStatus()).thenReturn(status);
+        return jobTarget;
+    }
+
+    private static void setField(Object target, String fieldName, Object value) throws Exception {
+        Field field = DefaultTargetReader.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * {@link DefaultTargetReader} with small pages and without {@link org.eclipse.kapua.service.job.targets.JobTargetSublist}.
+     */
+    private static class TestTargetReader extends DefaultTargetReader {
+
+        @Override
+        protected int getPageSize() {
+            return PAGE_SIZE;
+        }
+
+        @Override
+        protected void targetSublistFiltering(JobContextWrapper jobContextWrapper, KapuaQuery query, AndPredicate andPredicate) {
+            // No JobTargetSublist
+        }
+    }
+
+    private static class TestJobTargetQuery extends AbstractKapuaQuery implements JobTargetQuery {
+
+        TestJobTargetQuery(KapuaId scopeId) {
+            super(scopeId);
+        }
+    }
+
+    private static class TestJobTargetListResult extends KapuaListResultImpl<JobTarget> implements JobTargetListResult {
+    }
+}
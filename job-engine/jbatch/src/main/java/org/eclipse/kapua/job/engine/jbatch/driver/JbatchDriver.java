@@ -153,6 +153,11 @@ public class JbatchDriver {
                         break;
                     case TARGET:
                         jslStep.setChunk(JobDefinitionBuildUtils.buildChunkStep(jobStepDefinition));
+
+                        int partitions = JobDefinitionBuildUtils.getStepPartitions(jobStepDefinition, jobStep);
+                        if (partitions > 1) {
+                            jslStep.setPartition(JobDefinitionBuildUtils.buildPartition(partitions));
+                        }
                         break;
                     default:
                         throw new KapuaIllegalArgumentException(jobStepDefinition.getStepType().name(), "jobStepDefinition.stepType");
@@ -20,7 +20,10 @@ import com.ibm.jbatch.jsl.model.ItemWriter;
 import com.ibm.jbatch.jsl.model.JSLProperties;
 import com.ibm.jbatch.jsl.model.Listener;
 import com.ibm.jbatch.jsl.model.Listeners;
+import com.ibm.jbatch.jsl.model.Partition;
+import com.ibm.jbatch.jsl.model.PartitionPlan;
 import com.ibm.jbatch.jsl.model.Property;
+import org.eclipse.kapua.KapuaIllegalArgumentException;
 import org.eclipse.kapua.commons.util.xml.XmlUtil;
 import org.eclipse.kapua.job.engine.JobStartOptions;
 import org.eclipse.kapua.job.engine.commons.model.JobTargetSublist;
@@ -29,10 +32,13 @@ import org.eclipse.kapua.job.engine.commons.operation.DefaultTargetWriter;
 import org.eclipse.kapua.job.engine.commons.wrappers.JobContextPropertyNames;
 import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
 import org.eclipse.kapua.job.engine.jbatch.listener.KapuaJobListener;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSetting;
+import org.eclipse.kapua.job.engine.jbatch.setting.JobEngineSettingKeys;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.job.step.JobStep;
 import org.eclipse.kapua.service.job.step.definition.JobStepDefinition;
 import org.eclipse.kapua.service.job.step.definition.JobStepProperty;
+import org.eclipse.kapua.service.job.step.definition.JobStepType;
 
 import javax.validation.constraints.NotNull;
 import javax.xml.bind.JAXBException;
@@ -51,6 +57,10 @@ import java.util.Map;
  */
 public class JobDefinitionBuildUtils {
 
+    private static final JobEngineSetting JOB_ENGINE_SETTING = JobEngineSetting.getInstance();
+
+    private static final String PARTITION_PLAN_PARTITION_INDEX = "partitionIndex";
+
     private JobDefinitionBuildUtils() {
     }
 
@@ -119,7 +129,7 @@ public class JobDefinitionBuildUtils {
         return jslProperties;
     }
 
-    public static JSLProperties buildStepProperties(@NotNull JobStepDefinition jobStepDefinition, @NotNull JobStep jobStep, boolean hasNext) {
+    public static JSLProperties buildStepProperties(@NotNull JobStepDefinition jobStepDefinition, @NotNull JobStep jobStep, boolean hasNext) throws KapuaIllegalArgumentException {
         JSLProperties jslProperties = new JSLProperties();
         List<Property> jslPropertyList = jslProperties.getPropertyList();
 
@@ -135,7 +145,25 @@ public class JobDefinitionBuildUtils {
             jslPropertyList.add(jslStepNextIndexProperty);
         }
 
-        jslPropertyList.addAll(buildCustomStepProperties(jobStepDefinition, jobStep));
+        // The number of partitions is always the resolved one, since it must match the partition plan
+        for (Property customStepProperty : buildCustomStepProperties(jobStepDefinition, jobStep)) {
+            if (!StepContextPropertyNames.STEP_PARTITIONS.equals(customStepProperty.getName())) {
+                jslPropertyList.add(customStepProperty);
+            }
+        }
+
+        int partitions = getStepPartitions(jobStepDefinition, jobStep);
+        if (partitions > 1) {
+            Property jslStepPartitionsProperty = new Property();
+            jslStepPartitionsProperty.setName(StepContextPropertyNames.STEP_PARTITIONS);
+            jslStepPartitionsProperty.setValue(String.valueOf(partitions));
+            jslPropertyList.add(jslStepPartitionsProperty);
+
+            Property jslStepPartitionIndexProperty = new Property();
+            jslStepPartitionIndexProperty.setName(StepContextPropertyNames.STEP_PARTITION_INDEX);
+            jslStepPartitionIndexProperty.setValue("#{partitionPlan['" + PARTITION_PLAN_PARTITION_INDEX + "']}");
+            jslPropertyList.add(jslStepPartitionIndexProperty);
+        }
 
         return jslProperties;
     }
@@ -191,4 +219,79 @@ public class JobDefinitionBuildUtils {
 
         return chunk;
     }
+
+    /**
+     * Builds the static {@link Partition} of a {@link JobStepType#TARGET} step.
+     * <p>
+     * Each partition runs on its own thread, with its own reader, processor and writer, and it is identified by the {@link StepContextPropertyNames#STEP_PARTITION_INDEX} step property.
+     *
+     * @param partitions The number of partitions.
+     * @return The {@link Partition}.
+     * @since 1.5.0
+     */
+    public static Partition buildPartition(int partitions) {
+        PartitionPlan partitionPlan = new PartitionPlan();
+        partitionPlan.setPartitions(String.valueOf(partitions));
+        partitionPlan.setThreads(String.valueOf(partitions));
+
+        for (int partitionIndex = 0; partitionIndex < partitions; partitionIndex++) {
+            Property partitionIndexProperty = new Property();
+            partitionIndexProperty.setName(PARTITION_PLAN_PARTITION_INDEX);
+            partitionIndexProperty.setValue(String.valueOf(partitionIndex));
+
+            JSLProperties partitionProperties = new JSLProperties();
+            partitionProperties.setPartition(String.valueOf(partitionIndex));
+            partitionProperties.getPropertyList().add(partitionIndexProperty);
+            partitionPlan.getProperties().add(partitionProperties);
+        }
+
+        Partition partition = new Partition();
+        partition.setPlan(partitionPlan);
+
+        return partition;
+    }
+
+    /**
+     * Gets the number of partitions of the given {@link JobStep}.
+     * <p>
+     * The value is taken from the {@link StepContextPropertyNames#STEP_PARTITIONS} property of the {@link JobStep} or its {@link JobStepDefinition}.
+     * If none of them sets it, the job engine default is used.
+     * The value is capped to the job engine maximum and only {@link JobStepType#TARGET} steps can have more than one partition.
+     *
+     * @param jobStepDefinition The {@link JobStepDefinition} of the {@link JobStep}.
+     * @param jobStep           The {@link JobStep}.
+     * @return The number of partitions.
+     * @throws KapuaIllegalArgumentException if the {@link StepContextPropertyNames#STEP_PARTITIONS} property is not a positive integer.
+     * @since 1.5.0
+     */
+    public static int getStepPartitions(@NotNull JobStepDefinition jobStepDefinition, @NotNull JobStep jobStep) throws KapuaIllegalArgumentException {
+        if (!JobStepType.TARGET.equals(jobStepDefinition.getStepType())) {
+            return 1;
+        }
+
+        String partitionsString = null;
+        for (Property customStepProperty : buildCustomStepProperties(jobStepDefinition, jobStep)) {
+            if (StepContextPropertyNames.STEP_PARTITIONS.equals(customStepProperty.getName())) {
+                partitionsString = customStepProperty.getValue();
+                break;
+            }
+        }
+
+        int partitions;
+        if (partitionsString != null) {
+            try {
+                partitions = Integer.parseInt(partitionsString);
+            } catch (NumberFormatException nfe) {
+                throw new KapuaIllegalArgumentException(StepContextPropertyNames.STEP_PARTITIONS, partitionsString);
+            }
+
+            if (partitions < 1) {
+                throw new KapuaIllegalArgumentException(StepContextPropertyNames.STEP_PARTITIONS, partitionsString);
+            }
+        } else {
+            partitions = JOB_ENGINE_SETTING.getInt(JobEngineSettingKeys.JOB_ENGINE_STEP_PARTITIONS_DEFAULT, 1);
+        }
+
+        return Math.max(1, Math.min(partitions, JOB_ENGINE_SETTING.getInt(JobEngineSettingKeys.JOB_ENGINE_STEP_PARTITIONS_MAX, 32)));
+    }
 }
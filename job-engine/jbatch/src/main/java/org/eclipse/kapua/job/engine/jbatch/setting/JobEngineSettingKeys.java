@@ -28,7 +28,11 @@ public enum JobEngineSettingKeys implements SettingKey {
 
     JOB_ENGINE_QUEUE_CHECK_DELAY("jobEngine.queue.check.delay"),
 
-    JOB_ENGINE_QUEUE_PROCESSING_RUN_DELAY("jobEngine.queue.processing.run.delay");
+    JOB_ENGINE_QUEUE_PROCESSING_RUN_DELAY("jobEngine.queue.processing.run.delay"),
+
+    JOB_ENGINE_STEP_PARTITIONS_DEFAULT("jobEngine.step.partitions.default"),
+
+    JOB_ENGINE_STEP_PARTITIONS_MAX("jobEngine.step.partitions.max");
 
 
     private String key;
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.job.engine.jbatch.driver.utils;
+
+import com.ibm.jbatch.jsl.model.JSLProperties;
+import com.ibm.jbatch.jsl.model.Partition;
+import com.ibm.jbatch.jsl.model.PartitionPlan;
+import com.ibm.jbatch.jsl.model.Property;
+import org.eclipse.kapua.KapuaIllegalArgumentException;
+import org.eclipse.kapua.job.engine.commons.wrappers.StepContextPropertyNames;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.job.step.JobStep;
+import org.eclipse.kapua.service.job.step.definition.JobStepDefinition;
+import org.eclipse.kapua.service.job.step.definition.JobStepProperty;
+import org.eclipse.kapua.service.job.step.definition.JobStepType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Category(JUnitTests.class)
+public class JobDefinitionBuildUtilsTest extends Assert {
+
+    private JobStepDefinition jobStepDefinition;
+    private JobStep jobStep;
+    private List<JobStepProperty> jobStepDefinitionProperties;
+    private List<JobStepProperty> jobStepProperties;
+
+    @Before
+    public void initialize() {
+        jobStepDefinitionProperties = new ArrayList<>();
+        jobStepProperties = new ArrayList<>();
+
+        jobStepDefinition = Mockito.mock(JobStepDefinition.class);
+        Mockito.when(jobStepDefinition.getStepType()).thenReturn(JobStepType.TARGET);
+        Mockito.doReturn(jobStepDefinitionProperties).when(jobStepDefinition).getStepProperties();
+
+        jobStep = Mockito.mock(JobStep.class);
+        Mockito.when(jobStep.getStepIndex()).thenReturn(1);
+        Mockito.doReturn(jobStepProperties).when(jobStep).getStepProperties();
+    }
+
+    @Test
+    public void getStepPartitionsDefaultTest() throws KapuaIllegalArgumentException {
+        // Default from job-engine-setting.properties
+        assertEquals("Expected and actual values should be the same.", 1, JobDefinitionBuildUtils.getStepPartitions(jobStepDefinition, jobStep));
+    }
+
+    @Test
+    public void getStepPartitionsTest() throws KapuaIllegalArgumentException {
+        jobStepDefinitionProperties.add(newJobStepProperty(StepContextPropertyNames.STEP_PARTITIONS, "2"));
+        assertEquals("Expected and actual values should be the same.", 2, JobDefinitionBuildUtils.getStepPartitions(jobStepDefinition, jobStep));
+
+        // The JobStep value overrides the JobStepDefinition one
+        jobStepProperties.add(newJobStepProperty(StepContextPropertyNames.STEP_PARTITIONS, "4"));
+        assertEquals("Expected and actual values should be the same.", 4, JobDefinitionBuildUtils.getStepPartitions(jobStepDefinition, jobStep));
+    }
+
+    @Test
+    public void getStepPartitionsMaxTest() throws KapuaIllegalArgumentException {
+        jobStepProperties.add(newJobStepProperty(StepContextPropertyNames.STEP_PARTITIONS, "100"));
+
+        // Max from job-engine-setting.properties
+        assertEquals("Expected and actual values should be the same.", 32, JobDefinitionBuildUtils.getStepPartitions(jobStepDefinition, jobStep));
+    }
+
+    @Test
+    public void getStepPartitionsGenericStepTest() throws KapuaIllegalArgumentException {
+        Mockito.when(jobStepDefinition.getStepType()).thenReturn(JobStepType.GENERIC);
+        jobStepProperties.add(newJobStepProperty(StepContextPropertyNames.STEP_PARTITIONS, "4"));
+
+        assertEquals("Expected and actual values should be the same.", 1, JobDefinitionBuildUtils.getStepPartitions(jobStepDefinition, jobStep));
+    }
+
+    @Test(expected = KapuaIllegalArgumentException.class)
+    public void getStepPartitionsNotNumberTest() throws KapuaIllegalArgumentException {
+        jobStepProperties.add(newJobStepProperty(StepContextPropertyNames.STEP_PARTITIONS, "four"));
+
+        JobDefinitionBuildUtils.getStepPartitions(jobStepDefinition, jobStep);
+    }
+
+    @Test(expected = KapuaIllegalArgumentException.class)
+    public void getStepPartitionsNotPositiveTest() throws KapuaIllegalArgumentException {
+        jobStepProperties.add(newJobStepProperty(StepContextPropertyNames.STEP_PARTITIONS, "0"));
+
+        JobDefinitionBuildUtils.getStepPartitions(jobStepDefinition, jobStep);
+    }
+
+    @Test
+    public void buildStepPropertiesTest() throws KapuaIllegalArgumentException {
+        jobStepProperties.add(newJobStepProperty(StepContextPropertyNames.STEP_PARTITIONS, "100"));
+
+        Map<String, String> stepProperties = toMap(JobDefinitionBuildUtils.buildStepProperties(jobStepDefinition, jobStep, false));
+
+        // The capped number of partitions is set, together with the index of the partition from the partition plan
+        assertEquals("Expected and actual values should be the same.", "1", stepProperties.get(StepContextPropertyNames.STEP_INDEX));
+        assertEquals("Expected and actual values should be the same.", "32", stepProperties.get(StepContextPropertyNames.STEP_PARTITIONS));
+        assertEquals("Expected and actual values should be the same.", "#{partitionPlan['partitionIndex']}", stepProperties.get(StepContextPropertyNames.STEP_PARTITION_INDEX));
+    }
+
+    @Test
+    public void buildStepPropertiesNotPartitionedTest() throws KapuaIllegalArgumentException {
+        Map<String, String> stepProperties = toMap(JobDefinitionBuildUtils.buildStepProperties(jobStepDefinition, jobStep, false));
+
+        assertFalse("False expected.", stepProperties.containsKey(StepContextPropertyNames.STEP_PARTITIONS));
+        assertFalse("False expected.", stepProperties.containsKey(StepContextPropertyNames.STEP_PARTITION_INDEX));
+    }
+
+    @Test
+    public void buildPartitionTest() {
+        Partition partition = JobDefinitionBuildUtils.buildPartition(3);
+
+        PartitionPlan partitionPlan = partition.getPlan();
+        assertEquals("Expected and actual values should be the same.", "3", partitionPlan.getPartitions());
+        assertEquals("Expected and actual values should be the same.", "3", partitionPlan.getThreads());
+        assertEquals("Expected and actual values should be the same.", 3, partitionPlan.getProperties().size());
+
+        for (int partitionIndex = 0; partitionIndex < 3; partitionIndex++) {
+            JSLProperties partitionProperties = partitionPlan.getProperties().get(partitionIndex);
+            assertEquals("Expected and actual values should be the same.", String.valueOf(partitionIndex), partitionProperties.getPartition());
+            assertEquals("Expected and actual values should be the same.", String.valueOf(partitionIndex), toMap(partitionProperties).get("partitionIndex"));
+        }
+    }
+
+    private static JobStepProperty newJobStepProperty(String name, String value) {
+        JobStepProperty jobStepProperty = Mockito.mock(JobStepProperty.class);
+        Mockito.when(jobStepProperty.getName()).thenReturn(name);
+        Mockito.when(jobStepProperty.getPropertyValue()).thenReturn(value);
+        return jobStepProperty;
+    }
+
+    private static Map<String, String> toMap(JSLProperties jslProperties) {
+        Map<String, String> properties = new HashMap<>();
+        for (Property property : jslProperties.getPropertyList()) {
+            properties.put(property.getName(), property.getValue());
+        }
+        return properties;
+    }
+}
@@ -30,16 +30,21 @@ import org.eclipse.kapua.commons.core.ServiceModuleProvider;
 import org.eclipse.kapua.commons.core.ServiceModuleProviderImpl;
 import org.eclipse.kapua.commons.util.ResourceUtils;
 import org.eclipse.kapua.locator.KapuaProvider;
+import org.eclipse.kapua.locator.KapuaProviderIndexProcessor;
 import org.eclipse.kapua.model.KapuaObjectFactory;
 import org.eclipse.kapua.service.KapuaService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -83,24 +88,15 @@ public class KapuaModule extends AbstractModule {
             Collection<String> packageNames = locatorConfig.getPackageNames();
 
             ClassLoader classLoader = this.getClass().getClassLoader();
-            ClassPath classPath = ClassPath.from(classLoader);
             boolean initialize = true;
 
             // Among all the classes in the configured packages, retain only the ones
             // annotated with @KapuaProvider annotation
-            Set<Class<?>> providers = new HashSet<>();
-            for (String packageName : packageNames) {
-                // Use the class loader of this (module) class
-                ImmutableSet<ClassInfo> classInfos = classPath.getTopLevelClassesRecursive(packageName);
-                for (ClassInfo classInfo : classInfos) {
-                    logger.trace("CLASS: {}", classInfo.getName());
-                    Class<?> theClass = Class.forName(classInfo.getName(), !initialize, classLoader);
-                    KapuaProvider serviceProvider = theClass.getAnnotation(KapuaProvider.class);
-                    if (serviceProvider != null) {
-                        providers.add(theClass);
-                    }
-                }
-            }
+            long startTime = System.currentTimeMillis();
+            Set<Class<?>> providers = locatorConfig.isProviderIndex() ?
+                    findIndexedProviders(packageNames, classLoader) :
+                    findProviders(packageNames, classLoader);
+            logger.info("Found {} providers {} in {} ms", providers.size(), locatorConfig.isProviderIndex() ? "from the provider indexes" : "scanning the classpath", System.currentTimeMillis() - startTime);
 
             // Provided names are the objects provided by the module (services or factories
             Collection<String> providedInterfaceNames = locatorConfig.getProvidedInterfaceNames();
@@ -197,6 +193,66 @@ public class KapuaModule extends AbstractModule {
         }
     }
 
+    /**
+     * Finds the {@link KapuaProvider}s in the given packages scanning the classpath.
+     */
+    private Set<Class<?>> findProviders(Collection<String> packageNames, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        ClassPath classPath = ClassPath.from(classLoader);
+
+        Set<Class<?>> providers = new HashSet<>();
+        for (String packageName : packageNames) {
+            // Use the class loader of this (module) class
+            ImmutableSet<ClassInfo> classInfos = classPath.getTopLevelClassesRecursive(packageName);
+            for (ClassInfo classInfo : classInfos) {
+                logger.trace("CLASS: {}", classInfo.getName());
+                Class<?> theClass = Class.forName(classInfo.getName(), false, classLoader);
+                KapuaProvider serviceProvider = theClass.getAnnotation(KapuaProvider.class);
+                if (serviceProvider != null) {
+                    providers.add(theClass);
+                }
+            }
+        }
+        return providers;
+    }
+
+    /**
+     * Finds the {@link KapuaProvider}s in the given packages reading the {@link KapuaProviderIndexProcessor#PROVIDER_INDEX_RESOURCE}s
+     * generated at build time, without scanning the classpath.
+     */
+    private Set<Class<?>> findIndexedProviders(Collection<String> packageNames, ClassLoader classLoader) throws IOException {
+        Set<String> providerNames = new HashSet<>();
+        Enumeration<URL> providerIndexes = classLoader.getResources(KapuaProviderIndexProcessor.PROVIDER_INDEX_RESOURCE);
+        while (providerIndexes.hasMoreElements()) {
+            URL providerIndex = providerIndexes.nextElement();
+            logger.trace("PROVIDER INDEX: {}", providerIndex);
+            try (Reader reader = ResourceUtils.openAsReader(providerIndex, StandardCharsets.UTF_8)) {
+                providerNames.addAll(KapuaProviderIndexProcessor.readProviderNames(reader));
+            }
+        }
+
+        Set<Class<?>> providers = new HashSet<>();
+        for (String providerName : providerNames) {
+            if (packageNames.stream().noneMatch(packageName -> providerName.startsWith(packageName + "."))) {
+                continue;
+            }
+
+            logger.trace("CLASS: {}", providerName);
+            Class<?> theClass;
+            try {
+                theClass = Class.forName(providerName, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                // The index can be outdated when compiling incrementally
+                logger.warn("Provider {} listed in the provider indexes not found", providerName);
+                continue;
+            }
+
+            if (theClass.getAnnotation(KapuaProvider.class) != null) {
+                providers.add(theClass);
+            }
+        }
+        return providers;
+    }
+
     @Override
     protected void bindInterceptor(Matcher<? super Class<?>> classMatcher, Matcher<? super Method> methodMatcher, MethodInterceptor... interceptors) {
         super.bindInterceptor(classMatcher, Matchers.not(SyntheticMethodMatcher.getInstance()).and(methodMatcher), interceptors);
@@ -28,15 +28,18 @@ public class LocatorConfig {
 
     private static final String SERVICE_RESOURCE_INTERFACES = "provided.api";
     private static final String SERVICE_RESOURCE_PACKAGES = "packages.package";
+    private static final String SERVICE_RESOURCE_PROVIDER_INDEX = "provider-index";
 
     private final URL url;
     private final List<String> packageNames;
     private final List<String> providedInterfaceNames;
+    private final boolean providerIndex;
 
-    private LocatorConfig(final URL url, final List<String> packageNames, final List<String> providedInterfaceNames) {
+    private LocatorConfig(final URL url, final List<String> packageNames, final List<String> providedInterfaceNames, final boolean providerIndex) {
         this.url = url;
         this.packageNames = packageNames;
         this.providedInterfaceNames = providedInterfaceNames;
+        this.providerIndex = providerIndex;
     }
 
     public static LocatorConfig fromURL(final URL url) throws KapuaLocatorException {
@@ -71,7 +74,9 @@ public class LocatorConfig {
             providedInterfaceNames.add((String) props);
         }
 
-        return new LocatorConfig(url, Collections.unmodifiableList(packageNames), Collections.unmodifiableList(providedInterfaceNames));
+        boolean providerIndex = xmlConfig.getBoolean(SERVICE_RESOURCE_PROVIDER_INDEX, false);
+
+        return new LocatorConfig(url, Collections.unmodifiableList(packageNames), Collections.unmodifiableList(providedInterfaceNames), providerIndex);
     }
 
     private static void addAllStrings(final List<String> list, Collection<?> other) {
@@ -93,4 +98,15 @@ public class LocatorConfig {
     public Collection<String> getProvidedInterfaceNames() {
         return providedInterfaceNames;
     }
+
+    /**
+     * Gets whether the providers are read from the {@link org.eclipse.kapua.locator.KapuaProviderIndexProcessor#PROVIDER_INDEX_RESOURCE}s
+     * instead of scanning the classpath.
+     *
+     * @return {@code true} if the provider indexes are used, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public boolean isProviderIndex() {
+        return providerIndex;
+    }
 }
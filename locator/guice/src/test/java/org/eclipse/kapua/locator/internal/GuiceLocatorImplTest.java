@@ -100,6 +100,14 @@ public class GuiceLocatorImplTest {
         locator.getService(ServiceC.class);
     }
 
+    @Test
+    public void shouldProvideFromProviderIndex() {
+        KapuaLocator locator = new GuiceLocatorImpl("locator-index.xml");
+
+        Assert.assertNotNull(locator.getService(ServiceA.class));
+        Assert.assertNotNull(locator.getFactory(FactoryA.class));
+    }
+
     static interface MyService extends KapuaService {
     }
 
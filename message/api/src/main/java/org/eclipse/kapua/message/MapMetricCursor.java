@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.message;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * {@link MetricCursor} implementation over already decoded metrics.
+ * <p>
+ * The {@code null} values are skipped, since they have no type.
+ *
+ * @since 1.5.0
+ */
+class MapMetricCursor implements MetricCursor {
+
+    private final Iterator<Map.Entry<String, Object>> metricsIterator;
+    private Map.Entry<String, Object> currentMetric;
+
+    MapMetricCursor(Map<String, Object> metrics) {
+        this.metricsIterator = metrics != null ? metrics.entrySet().iterator() : Collections.emptyIterator();
+    }
+
+    @Override
+    public boolean next() {
+        while (metricsIterator.hasNext()) {
+            currentMetric = metricsIterator.next();
+
+            if (currentMetric.getValue() != null) {
+                return true;
+            }
+        }
+
+        currentMetric = null;
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return current().getKey();
+    }
+
+    @Override
+    public Class<?> getType() {
+        return current().getValue().getClass();
+    }
+
+    @Override
+    public Object getValue() {
+        return current().getValue();
+    }
+
+    @Override
+    public double getDoubleValue() {
+        return (Double) getValue();
+    }
+
+    @Override
+    public float getFloatValue() {
+        return (Float) getValue();
+    }
+
+    @Override
+    public long getLongValue() {
+        return (Long) getValue();
+    }
+
+    @Override
+    public int getIntValue() {
+        return (Integer) getValue();
+    }
+
+    @Override
+    public boolean getBooleanValue() {
+        return (Boolean) getValue();
+    }
+
+    @Override
+    public String getStringValue() {
+        return (String) getValue();
+    }
+
+    @Override
+    public byte[] getBytesValue() {
+        return (byte[]) getValue();
+    }
+
+    private Map.Entry<String, Object> current() {
+        if (currentMetric == null) {
+            throw new IllegalStateException("The cursor is not positioned on a metric");
+        }
+
+        return currentMetric;
+    }
+}
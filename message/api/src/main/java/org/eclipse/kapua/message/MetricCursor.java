@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.message;
+
+import java.util.Map;
+
+/**
+ * Forward only cursor over the metrics of a {@link KapuaPayload}.
+ * <p>
+ * It gives access to the name, the type and the value of each metric without boxing the primitive values,
+ * and without decoding the whole {@link KapuaPayload#getMetrics()} when they are backed by a {@link MetricCursorProvider}.
+ * <p>
+ * Usage:
+ * <pre>
+ * MetricCursor metricCursor = MetricCursor.of(payload.getMetrics());
+ * while (metricCursor.next()) {
+ *     String name = metricCursor.getName();
+ *     Class&lt;?&gt; type = metricCursor.getType();
+ *     ...
+ * }
+ * </pre>
+ * The typed getters must be invoked according to {@link #getType()}.
+ *
+ * @since 1.5.0
+ */
+public interface MetricCursor {
+
+    /**
+     * Moves the cursor to the next metric.
+     *
+     * @return {@code true} if the cursor is on a metric, {@code false} if there are no more metrics.
+     * @since 1.5.0
+     */
+    boolean next();
+
+    /**
+     * Gets the name of the current metric.
+     *
+     * @return The name of the current metric.
+     * @since 1.5.0
+     */
+    String getName();
+
+    /**
+     * Gets the type of the current metric value.
+     * <p>
+     * It is the {@link Class} that the value has in {@link KapuaPayload#getMetrics()} (i.e. {@link Double}, {@link Integer}, {@code byte[]}, ...).
+     *
+     * @return The type of the current metric value.
+     * @since 1.5.0
+     */
+    Class<?> getType();
+
+    /**
+     * Gets the value of the current metric, boxed if it is a primitive value.
+     *
+     * @return The value of the current metric.
+     * @since 1.5.0
+     */
+    Object getValue();
+
+    /**
+     * Gets the value of the current {@link Double} metric.
+     *
+     * @return The value of the current metric.
+     * @since 1.5.0
+     */
+    double getDoubleValue();
+
+    /**
+     * Gets the value of the current {@link Float} metric.
+     *
+     * @return The value of the current metric.
+     * @since 1.5.0
+     */
+    float getFloatValue();
+
+    /**
+     * Gets the value of the current {@link Long} metric.
+     *
+     * @return The value of the current metric.
+     * @since 1.5.0
+     */
+    long getLongValue();
+
+    /**
+     * Gets the value of the current {@link Integer} metric.
+     *
+     * @return The value of the current metric.
+     * @since 1.5.0
+     */
+    int getIntValue();
+
+    /**
+     * Gets the value of the current {@link Boolean} metric.
+     *
+     * @return The value of the current metric.
+     * @since 1.5.0
+     */
+    boolean getBooleanValue();
+
+    /**
+     * Gets the value of the current {@link String} metric.
+     *
+     * @return The value of the current metric.
+     * @since 1.5.0
+     */
+    String getStringValue();
+
+    /**
+     * Gets the value of the current {@code byte[]} metric.
+     *
+     * @return The value of the current metric.
+     * @since 1.5.0
+     */
+    byte[] getBytesValue();
+
+    /**
+     * Gets a {@link MetricCursor} over the given metrics.
+     * <p>
+     * If the metrics are a {@link MetricCursorProvider} its {@link MetricCursorProvider#newMetricCursor()} is used,
+     * otherwise the {@link MetricCursor} iterates over the {@link Map#entrySet()}.
+     *
+     * @param metrics The metrics to iterate. May be {@code null}.
+     * @return The {@link MetricCursor} over the given metrics.
+     * @since 1.5.0
+     */
+    static MetricCursor of(Map<String, Object> metrics) {
+        if (metrics instanceof MetricCursorProvider) {
+            return ((MetricCursorProvider) metrics).newMetricCursor();
+        }
+
+        return new MapMetricCursor(metrics);
+    }
+}
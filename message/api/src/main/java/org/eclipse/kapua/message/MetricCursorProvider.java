@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.message;
+
+/**
+ * Metrics which can be read through a {@link MetricCursor} without being decoded.
+ * <p>
+ * It is implemented by the {@link KapuaPayload#getMetrics()} which are lazily decoded from the raw message,
+ * so that {@link MetricCursor#of(java.util.Map)} can read them directly from it.
+ *
+ * @since 1.5.0
+ */
+public interface MetricCursorProvider {
+
+    /**
+     * Instantiates a new {@link MetricCursor} positioned before the first metric.
+     *
+     * @return The new {@link MetricCursor}.
+     * @since 1.5.0
+     */
+    MetricCursor newMetricCursor();
+}
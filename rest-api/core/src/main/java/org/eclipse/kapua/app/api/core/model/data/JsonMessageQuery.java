@@ -45,6 +45,7 @@ public class JsonMessageQuery {
     private KapuaId scopeId;
     private Integer limit;
     private Integer indexOffset;
+    private String cursor;
     private boolean askTotalCount;
     private List<XmlAdaptedSortField> sortFields;
     private StorableFetchStyle fetchStyle;
@@ -103,6 +104,29 @@ public class JsonMessageQuery {
         this.indexOffset = offset;
     }
 
+    /**
+     * Gets the cursor to resume the query from.
+     *
+     * @return The {@link JsonMessageListResult#getNextKey()} of the previous page.
+     * @since 1.5.0
+     */
+    @XmlElement(name = "cursor")
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Sets the cursor to resume the query from.
+     * <p>
+     * When set, the {@link #getOffset()} is ignored.
+     *
+     * @param cursor The {@link JsonMessageListResult#getNextKey()} of the previous page, or empty for the first page.
+     * @since 1.5.0
+     */
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
     @XmlElement(name = "limit")
     public void setLimit(Integer limit) {
         this.limit = limit;
@@ -122,6 +122,25 @@ public class JsonMessageQueryTest extends Assert {
         Assert.assertNull("Null expected.", jsonMessageQuery2.getOffset());
     }
 
+    @Test
+    public void setAndGetCursorTest() {
+        String[] cursors = {"", "WzE2MDk0NTkyMDAwMDAsImlkIl0", "cursor"};
+
+        for (String cursor : cursors) {
+            jsonMessageQuery1.setCursor(cursor);
+            jsonMessageQuery2.setCursor(cursor);
+
+            assertEquals("Expected and actual values should be the same.", cursor, jsonMessageQuery1.getCursor());
+            assertEquals("Expected and actual values should be the same.", cursor, jsonMessageQuery2.getCursor());
+        }
+
+        jsonMessageQuery1.setCursor(null);
+        jsonMessageQuery2.setCursor(null);
+
+        Assert.assertNull("Null expected.", jsonMessageQuery1.getCursor());
+        Assert.assertNull("Null expected.", jsonMessageQuery2.getCursor());
+    }
+
     @Test
     public void setAndGetLimitTest() {
         Integer[] limits = {-2147483648, -1000000, -10, 0, 10, 1000000, 2147483647};
@@ -58,6 +58,7 @@ public class DataChannels extends AbstractKapuaResource {
      * @param name     The channel name to filter results. It allows '#' wildcard in last channel level
      * @param offset   The result set offset.
      * @param limit    The result set limit.
+     * @param cursor   The {@link ChannelInfoListResult#getNextKey()} of the previous page, or empty for the first page. When set, the offset is ignored.
      * @return The {@link ChannelInfoListResult} of all the channelInfos associated to the current selected scope.
      * @throws KapuaException Whenever something bad happens. See specific {@link KapuaService} exceptions.
      * @since 1.0.0
@@ -68,7 +69,8 @@ public class DataChannels extends AbstractKapuaResource {
                                              @QueryParam("clientId") String clientId,
                                              @QueryParam("name") String name,
                                              @QueryParam("offset") @DefaultValue("0") int offset,
-                                             @QueryParam("limit") @DefaultValue("50") int limit)
+                                             @QueryParam("limit") @DefaultValue("50") int limit,
+                                             @QueryParam("cursor") String cursor)
             throws KapuaException {
         AndPredicate andPredicate = DATASTORE_PREDICATE_FACTORY.newAndPredicate();
         if (!Strings.isNullOrEmpty(clientId)) {
@@ -85,6 +87,7 @@ public class DataChannels extends AbstractKapuaResource {
         query.setPredicate(andPredicate);
         query.setOffset(offset);
         query.setLimit(limit);
+        query.setCursor(cursor);
 
         return query(scopeId, query);
     }
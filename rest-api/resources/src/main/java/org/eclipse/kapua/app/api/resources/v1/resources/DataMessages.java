@@ -75,6 +75,7 @@ public class DataMessages extends AbstractKapuaResource {
      * @param endDateParam   The end date to filter the results. Must come after startDate parameter
      * @param offset         The result set offset.
      * @param limit          The result set limit.
+     * @param cursor         The {@link MessageListResult#getNextKey()} of the previous page, or empty for the first page. When set, the offset is ignored.
      * @return The {@link MessageListResult} of all the datastoreMessages associated to the current selected scope.
      * @throws KapuaException Whenever something bad happens. See specific {@link KapuaService} exceptions.
      * @since 1.0.0
@@ -93,7 +94,8 @@ public class DataMessages extends AbstractKapuaResource {
                                                                    @QueryParam("metricMax") String metricMaxValue,
                                                                    @QueryParam("sortDir") @DefaultValue("DESC") SortDirection sortDir,
                                                                    @QueryParam("offset") @DefaultValue("0") int offset,
-                                                                   @QueryParam("limit") @DefaultValue("50") int limit)
+                                                                   @QueryParam("limit") @DefaultValue("50") int limit,
+                                                                   @QueryParam("cursor") String cursor)
             throws KapuaException {
 
         AndPredicate andPredicate = DATASTORE_PREDICATE_FACTORY.newAndPredicate();
@@ -121,6 +123,7 @@ public class DataMessages extends AbstractKapuaResource {
         query.setPredicate(andPredicate);
         query.setOffset(offset);
         query.setLimit(limit);
+        query.setCursor(cursor);
 
         List<SortField> sort = new ArrayList<>();
         sort.add(SortField.of(MessageSchema.MESSAGE_TIMESTAMP, sortDir));
@@ -23,6 +23,7 @@ import org.eclipse.kapua.app.api.core.model.data.JsonDatastoreMessage;
 import org.eclipse.kapua.app.api.core.model.data.JsonKapuaDataMessage;
 import org.eclipse.kapua.app.api.core.model.data.JsonMessageListResult;
 import org.eclipse.kapua.app.api.core.model.data.JsonMessageQuery;
+import org.eclipse.kapua.commons.util.xml.XmlUtil;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.message.device.data.KapuaDataMessage;
 import org.eclipse.kapua.message.device.data.KapuaDataMessageFactory;
@@ -45,8 +46,15 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.xml.bind.JAXBException;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -64,6 +72,8 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
 
     private static final DataMessages DATA_MESSAGES = new DataMessages();
 
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
     /**
      * Gets the {@link DatastoreMessage} list in the scope.
      *
@@ -75,6 +85,7 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
      * @param endDateParam   The end date to filter the results. Must come after startDate parameter
      * @param offset         The result set offset.
      * @param limit          The result set limit.
+     * @param cursor         The {@link MessageListResult#getNextKey()} of the previous page. When set, the offset is ignored.
      * @return The {@link MessageListResult} of all the datastoreMessages associated to the current selected scope.
      * @throws KapuaException Whenever something bad happens. See specific {@link KapuaService} exceptions.
      * @since 1.0.0
@@ -94,7 +105,8 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
                                                                            @QueryParam("metricMax") String metricMaxValue,
                                                                            @QueryParam("sortDir") @DefaultValue("DESC") SortDirection sortDir,
                                                                            @QueryParam("offset") @DefaultValue("0") int offset,
-                                                                           @QueryParam("limit") @DefaultValue("50") int limit)
+                                                                           @QueryParam("limit") @DefaultValue("50") int limit,
+                                                                           @QueryParam("cursor") String cursor)
             throws KapuaException {
 
         MessageListResult result = DATA_MESSAGES.simpleQuery(
@@ -110,7 +122,8 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
                 metricMaxValue,
                 sortDir,
                 offset,
-                limit);
+                limit,
+                cursor);
 
         List<JsonDatastoreMessage> jsonDatastoreMessages = new ArrayList<>();
         result.getItems().forEach(m -> jsonDatastoreMessages.add(new JsonDatastoreMessage(m)));
@@ -118,6 +131,7 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
         jsonResult.addItems(jsonDatastoreMessages);
         jsonResult.setTotalCount(result.getTotalCount());
         jsonResult.setLimitExceeded(result.isLimitExceeded());
+        jsonResult.setNextKey(result.getNextKey());
         return jsonResult;
     }
 
@@ -196,9 +210,73 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
         jsonResult.addItems(jsonDatastoreMessages);
         jsonResult.setLimitExceeded(result.isLimitExceeded());
         jsonResult.setTotalCount(result.getTotalCount());
+        jsonResult.setNextKey(result.getNextKey());
         return jsonResult;
     }
 
+    /**
+     * Exports all the results matching the given {@link MessageQuery} parameter as a JSON array.
+     * <p>
+     * The results are read in pages of {@link JsonMessageQuery#getLimit()} messages, each one resuming from the cursor of the previous one,
+     * and written to the response as soon as each page is read, so the whole result set is never held in memory.
+     *
+     * @param scopeId The {@link ScopeId} in which to search results.
+     * @param query   The {@link MessageQuery} to used to filter results.
+     * @return The {@link StreamingOutput} of all the result matching the given {@link MessageQuery} parameter.
+     * @throws KapuaException Whenever something bad happens. See specific {@link KapuaService} exceptions.
+     * @since 1.5.0
+     */
+    @POST
+    @Path("_export")
+    @Consumes({MediaType.APPLICATION_JSON})
+    @Produces({MediaType.APPLICATION_JSON})
+    public StreamingOutput exportJson(@PathParam("scopeId") ScopeId scopeId,
+                                      JsonMessageQuery query)
+            throws KapuaException {
+        query.setScopeId(scopeId);
+        query.setOffset(null);
+        if (query.getLimit() == null || query.getLimit() <= 0) {
+            query.setLimit(EXPORT_PAGE_SIZE);
+        }
+        if (query.getCursor() == null) {
+            query.setCursor("");
+        }
+
+        MessageQuery messageQuery = convertQuery(query);
+
+        // The first page is read here so that errors are still mapped to the proper response status
+        MessageListResult firstPage = DATA_MESSAGES.query(scopeId, messageQuery);
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try {
+                writer.write('[');
+                boolean first = true;
+                MessageListResult page = firstPage;
+                while (true) {
+                    for (DatastoreMessage datastoreMessage : page.getItems()) {
+                        if (!first) {
+                            writer.write(',');
+                        }
+                        XmlUtil.marshalJson(new JsonDatastoreMessage(datastoreMessage), writer);
+                        first = false;
+                    }
+                    writer.flush();
+
+                    if (page.getNextKey() == null) {
+                        break;
+                    }
+                    messageQuery.setCursor((String) page.getNextKey());
+                    page = DATA_MESSAGES.query(scopeId, messageQuery);
+                }
+                writer.write(']');
+                writer.flush();
+            } catch (KapuaException | JAXBException e) {
+                throw new WebApplicationException(e);
+            }
+        };
+    }
+
     /**
      * Returns the DatastoreMessage specified by the "datastoreMessageId" path parameter.
      *
@@ -227,6 +305,7 @@ public class DataMessagesJson extends AbstractKapuaResource implements JsonSeria
         messageQuery.setFetchStyle(query.getFetchStyle());
         messageQuery.setLimit(query.getLimit());
         messageQuery.setOffset(query.getOffset());
+        messageQuery.setCursor(query.getCursor());
         messageQuery.setPredicate(query.getPredicate());
 
         List<SortField> sortFields = new ArrayList<>();
@@ -138,7 +138,7 @@ public class AccountServiceImpl extends AbstractKapuaConfigurableResourceLimited
             }
         }
 
-        return entityManagerSession.doTransactedAction(EntityManagerContainer.<Account>create().onResultHandler(em -> {
+        Account createdAccount = entityManagerSession.doTransactedAction(EntityManagerContainer.<Account>create().onResultHandler(em -> {
             Account account = AccountDAO.create(em, accountCreator);
             em.persist(account);
 
@@ -147,6 +147,8 @@ public class AccountServiceImpl extends AbstractKapuaConfigurableResourceLimited
             account.setParentAccountPath(parentAccountPath);
             return AccountDAO.update(em, account);
         }));
+        onChildEntityCreated(createdAccount.getScopeId());
+        return createdAccount;
     }
 
     @Override
@@ -266,6 +268,7 @@ public class AccountServiceImpl extends AbstractKapuaConfigurableResourceLimited
 
             return AccountDAO.delete(em, scopeId, accountId);
         }).onAfterHandler((emptyParam) -> entityCache.remove(scopeId, accountId)));
+        onChildEntityDeleted(scopeId);
     }
 
     @Override
@@ -33,6 +33,7 @@ public interface ServiceEventBus {
      *
      * @param address       address to listen for events
      * @param name          subscriber name. It's used to share events between multiple instances of the same consumer.
+     *                      If {@code null} the events are not shared: each instance receives all of them, but only while it is subscribed.
      * @param eventListener listener to invoke when an event is received
      * @throws ServiceEventBusException
      */
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.locator;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor which writes the index of the {@link KapuaProvider}s of a module at build time.
+ * <p>
+ * The index is the {@link #PROVIDER_INDEX_RESOURCE} resource, listing the names of the top level classes annotated with {@link KapuaProvider}, one per line.
+ * It allows the {@link KapuaLocator} implementations to find the {@link KapuaProvider}s without scanning the whole classpath.
+ * <p>
+ * The processor is registered as a {@link javax.annotation.processing.Processor} service, so it runs when compiling any module which depends on this one.
+ *
+ * @since 1.5.0
+ */
+@SupportedAnnotationTypes("org.eclipse.kapua.locator.KapuaProvider")
+public class KapuaProviderIndexProcessor extends AbstractProcessor {
+
+    /**
+     * The name of the resource with the index of the {@link KapuaProvider}s.
+     *
+     * @since 1.5.0
+     */
+    public static final String PROVIDER_INDEX_RESOURCE = "META-INF/kapua/providers.index";
+
+    private final Set<String> providerNames = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!providerNames.isEmpty()) {
+                writeIndex();
+            }
+        } else {
+            for (Element element : roundEnv.getElementsAnnotatedWith(KapuaProvider.class)) {
+                // Only top level classes are looked up by the locators
+                if (element.getKind() == ElementKind.CLASS && element.getEnclosingElement().getKind() == ElementKind.PACKAGE) {
+                    providerNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+                }
+            }
+        }
+
+        // Other processors are free to process the annotation too
+        return false;
+    }
+
+    private void writeIndex() {
+        // When compiling incrementally only the changed classes are processed, so keep the ones already in the index.
+        // Locators verify each entry when loading it.
+        readIndex();
+
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", PROVIDER_INDEX_RESOURCE);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String providerName : providerNames) {
+                    writer.write(providerName);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + PROVIDER_INDEX_RESOURCE + ": " + e.getMessage());
+        }
+    }
+
+    private void readIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", PROVIDER_INDEX_RESOURCE);
+            try (Reader reader = new InputStreamReader(index.openInputStream(), StandardCharsets.UTF_8)) {
+                providerNames.addAll(readProviderNames(reader));
+            }
+        } catch (IOException e) {
+            // No previous index
+        }
+    }
+
+    /**
+     * Reads the names of the {@link KapuaProvider}s from the given index.
+     *
+     * @param reader The {@link Reader} of the {@link #PROVIDER_INDEX_RESOURCE}.
+     * @return The names of the {@link KapuaProvider}s.
+     * @throws IOException if the index cannot be read.
+     * @since 1.5.0
+     */
+    public static Set<String> readProviderNames(Reader reader) throws IOException {
+        Set<String> providerNames = new TreeSet<>();
+
+        BufferedReader bufferedReader = new BufferedReader(reader);
+        String line;
+        while ((line = bufferedReader.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                providerNames.add(line);
+            }
+        }
+
+        return providerNames;
+    }
+}
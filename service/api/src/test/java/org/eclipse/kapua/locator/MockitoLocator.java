@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.locator;
+
+import org.eclipse.kapua.model.KapuaObjectFactory;
+import org.eclipse.kapua.service.KapuaService;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * {@link KapuaLocator} used by the tests.
+ * <p>
+ * It is shared through the test-jar of this module.
+ * The modules that use it register it in their {@code src/test/resources/META-INF/services/org.eclipse.kapua.locator.KapuaLocator}.
+ * <p>
+ * It returns a Mockito mock for each {@link KapuaService} and {@link KapuaObjectFactory}.
+ * The {@link KapuaObjectFactory} mocks answer with mocks, so that the objects they create can be populated.
+ * The same mock is returned on each request so that the tests can stub and verify it.
+ *
+ * @since 1.5.0
+ */
+public class MockitoLocator extends KapuaLocator {
+
+    private final Map<Class<?>, Object> mocks = new ConcurrentHashMap<>();
+
+    @Override
+    public <S extends KapuaService> S getService(Class<S> serviceClass) {
+        return serviceClass.cast(mocks.computeIfAbsent(serviceClass, Mockito::mock));
+    }
+
+    @Override
+    public <F extends KapuaObjectFactory> F getFactory(Class<F> factoryClass) {
+        return factoryClass.cast(mocks.computeIfAbsent(factoryClass, c -> Mockito.mock(c, Mockito.RETURNS_MOCKS)));
+    }
+
+    @Override
+    public List<KapuaService> getServices() {
+        return mocks.values().stream()
+                .filter(KapuaService.class::isInstance)
+                .map(KapuaService.class::cast)
+                .collect(Collectors.toList());
+    }
+}
@@ -18,6 +18,8 @@ import org.eclipse.kapua.service.elasticsearch.client.configuration.Elasticsearc
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInitializationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientUnavailableException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.IndexRequest;
@@ -134,6 +136,18 @@ public interface ElasticsearchClient<C extends Closeable> {
      */
     InsertResponse insert(InsertRequest insertRequest) throws ClientException;
 
+    /**
+     * Bulk inserts.
+     * <p>
+     * A failure of a single {@link InsertRequest} does not fail the whole bulk: it is reported in the matching {@link InsertResponse}.
+     *
+     * @param bulkInsertRequest The {@link BulkInsertRequest} to perform.
+     * @return The {@link BulkInsertResponse} from Elasticsearch, with one {@link InsertResponse} for each {@link InsertRequest}, in the same order.
+     * @throws ClientException if error occurs while inserting documents.
+     * @since 1.5.0
+     */
+    BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException;
+
     /**
      * Upserts a document.
      *
@@ -58,6 +58,12 @@ public class SchemaKeys {
      * @since 1.0.0
      */
     public static final String KEY_SIZE = "size";
+    /**
+     * Search after key (used by queries for paginating the result set from the sort values of the last result of the previous page)
+     *
+     * @since 1.5.0
+     */
+    public static final String KEY_SEARCH_AFTER = "search_after";
 
     /**
      * Query ascending sort key
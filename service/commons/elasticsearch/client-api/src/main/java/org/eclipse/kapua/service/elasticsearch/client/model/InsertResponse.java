@@ -13,6 +13,8 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.elasticsearch.client.model;
 
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+
 /**
  * Insert {@link Response} definition.
  *
@@ -20,6 +22,13 @@ package org.eclipse.kapua.service.elasticsearch.client.model;
  */
 public class InsertResponse extends Response {
 
+    /**
+     * The insert exception, if occurred.
+     *
+     * @since 1.5.0
+     */
+    private ClientException exception;
+
     /**
      * Constructor.
      *
@@ -29,6 +38,43 @@ public class InsertResponse extends Response {
      */
     public InsertResponse(String id, TypeDescriptor typeDescriptor) {
         super(id, typeDescriptor);
+
+        setResult(true);
+    }
+
+    /**
+     * Negative result constructor (result false)
+     *
+     * @param id             The id of the record that was not inserted.
+     * @param typeDescriptor The {@link TypeDescriptor}.
+     * @param exception      The {@link ClientException} which describes the failure.
+     * @since 1.5.0
+     */
+    public InsertResponse(String id, TypeDescriptor typeDescriptor, ClientException exception) {
+        super(id, typeDescriptor);
+
+        setResult(false);
+        setException(exception);
+    }
+
+    /**
+     * Gets the insert exception, if occurred.
+     *
+     * @return The insert exception, if occurred.
+     * @since 1.5.0
+     */
+    public ClientException getException() {
+        return exception;
+    }
+
+    /**
+     * Sets the insert exception, if occurred.
+     *
+     * @param exception The insert exception, if occurred.
+     * @since 1.5.0
+     */
+    public void setException(ClientException exception) {
+        this.exception = exception;
     }
 
 }
@@ -25,6 +25,7 @@ public class ResultList<T> {
 
     private final List<T> result;
     private final long totalCount;
+    private List<Object> lastSortValues;
 
     /**
      * Constructor.
@@ -68,4 +69,26 @@ public class ResultList<T> {
         return totalCount;
     }
 
+    /**
+     * Gets the sort values of the last object of the {@link ResultList}.
+     * <p>
+     * They can be used to fetch the objects which come after the last one with the {@code search_after} query parameter.
+     *
+     * @return The sort values of the last object, or {@code null} if the {@link ResultList} is empty or the query was not sorted.
+     * @since 1.5.0
+     */
+    public List<Object> getLastSortValues() {
+        return lastSortValues;
+    }
+
+    /**
+     * Sets the sort values of the last object of the {@link ResultList}.
+     *
+     * @param lastSortValues The sort values of the last object.
+     * @since 1.5.0
+     */
+    public void setLastSortValues(List<Object> lastSortValues) {
+        this.lastSortValues = lastSortValues;
+    }
+
 }
@@ -31,6 +31,7 @@ public class ElasticsearchKeywords {
     static final String KEY_DOC_INDEX = "_index";
     static final String KEY_DOC_TYPE = "_type";
 
+    static final String KEY_INDEX = "index";
     static final String KEY_ITEMS = "items";
     static final String KEY_RESULT = "result";
     static final String KEY_STATUS = "status";
@@ -28,13 +28,14 @@ import org.eclipse.kapua.commons.util.RandomUtils;
 import org.eclipse.kapua.service.elasticsearch.client.AbstractElasticsearchClient;
 import org.eclipse.kapua.service.elasticsearch.client.ModelContext;
 import org.eclipse.kapua.service.elasticsearch.client.QueryConverter;
-import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientActionResponseException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientCommunicationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientErrorCodes;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInitializationException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInternalError;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.IndexRequest;
@@ -57,8 +58,11 @@ import org.slf4j.LoggerFactory;
 
 import javax.validation.constraints.NotNull;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.Callable;
@@ -79,6 +83,7 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
     private static final String MSG_EMPTY_ERROR = "Empty error message";
 
     private final ObjectMapper objectMapper;
+    private final SearchResponseReader searchResponseReader;
     private static final String CLIENT_HITS_MAX_VALUE_EXCEEDED = "Total hits exceeds integer max value";
     private static final String QUERY_CONVERTED_QUERY = "Query - converted query: '{}'";
     private static final String COUNT_CONVERTED_QUERY = "Count - converted query: '{}'";
@@ -97,6 +102,7 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
 
         objectMapper = new ObjectMapper();
         objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        searchResponseReader = new SearchResponseReader(objectMapper);
     }
 
     @Override
@@ -153,6 +159,76 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
         }
     }
 
+    @Override
+    public BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException {
+        StringBuilder bulkOperation = new StringBuilder();
+
+        for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+            Map<String, Object> storableMap = getModelContext().marshal(insertRequest.getStorable());
+
+            bulkOperation.append("{ \"index\": {\"_index\": \"")
+                    .append(insertRequest.getTypeDescriptor().getIndex())
+                    .append("\", \"_type\": \"")
+                    .append("_doc");
+            if (insertRequest.getId() != null) {
+                bulkOperation.append("\", \"_id\": \"")
+                        .append(insertRequest.getId())
+                        .append("\", \"version\": 1, \"version_type\": \"external");
+            }
+            bulkOperation.append("\"}}\n");
+
+            bulkOperation.append(writeRequestFromMap(storableMap));
+            bulkOperation.append("\n");
+        }
+
+        Response insertResponse = restCallTimeoutHandler(() ->
+                        getClient()
+                                .performRequest(
+                                        ElasticsearchKeywords.ACTION_POST,
+                                        ElasticsearchResourcePaths.getBulkPath(),
+                                        Collections.emptyMap(),
+                                        ApplicationJsonEntityBuilder.buildFrom(bulkOperation.toString()),
+                                        new ContentTypeApplicationJsonHeader()),
+                "multi-index",
+                "INSERT BULK");
+
+        if (isRequestSuccessful(insertResponse)) {
+            JsonNode responseNode = readResponseAsJsonNode(insertResponse);
+
+            ArrayNode items = (ArrayNode) responseNode.get(ElasticsearchKeywords.KEY_ITEMS);
+            if (items == null || items.size() != bulkInsertRequest.getRequest().size()) {
+                throw new ClientInternalError("Unexpected number of items in JSON response from bulk insert");
+            }
+
+            BulkInsertResponse bulkResponse = new BulkInsertResponse();
+            for (JsonNode item : items) {
+                JsonNode jsonNode = item.get(ElasticsearchKeywords.KEY_INDEX);
+                if (jsonNode == null) {
+                    throw new ClientInternalError("Empty JSON response from bulk insert");
+                }
+
+                JsonNode idNode = jsonNode.get(ElasticsearchKeywords.KEY_DOC_ID);
+                String id = idNode != null ? idNode.asText() : null;
+                String indexName = jsonNode.get(ElasticsearchKeywords.KEY_DOC_INDEX).asText();
+                String typeName = jsonNode.get(ElasticsearchKeywords.KEY_DOC_TYPE).asText();
+                int responseCode = jsonNode.get(ElasticsearchKeywords.KEY_STATUS).asInt();
+                if (!isRequestSuccessful(responseCode)) {
+                    String failureMessage = jsonNode.at("/error/reason").asText();
+                    if (StringUtils.isBlank(failureMessage)) {
+                        failureMessage = MSG_EMPTY_ERROR;
+                    }
+                    bulkResponse.add(new InsertResponse(id, new TypeDescriptor(indexName, typeName), new ClientActionResponseException("Insert", failureMessage, String.valueOf(responseCode))));
+                    LOG.info("Insert failed [{}, {}, {}]", indexName, typeName, failureMessage);
+                    continue;
+                }
+                bulkResponse.add(new InsertResponse(id, new TypeDescriptor(indexName, typeName)));
+            }
+            return bulkResponse;
+        } else {
+            throw buildExceptionFromUnsuccessfulResponse("Insert", insertResponse);
+        }
+    }
+
     @Override
     public UpdateResponse upsert(UpdateRequest updateRequest) throws ClientException {
         Map<String, Object> updateRequestStorableMap = getModelContext().marshal(updateRequest.getStorable());
@@ -275,8 +351,6 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
 
         String json = writeRequestFromJsonNode(queryJsonNode);
 
-        long totalCount = 0;
-        ArrayNode resultsNode = null;
         Response queryResponse = restCallTimeoutHandler(() ->
                         getClient()
                                 .performRequest(
@@ -287,38 +361,44 @@ public class RestElasticsearchClient extends AbstractElasticsearchClient<RestCli
                                         new ContentTypeApplicationJsonHeader()),
                 typeDescriptor.getIndex(), "QUERY");
 
-        if (isRequestSuccessful(queryResponse)) {
-            JsonNode responseNode = readResponseAsJsonNode(queryResponse);
-
-            JsonNode hitsNode = responseNode.get(ElasticsearchKeywords.KEY_HITS);
-            totalCount = hitsNode.get(ElasticsearchKeywords.KEY_TOTAL).asLong();
-            if (totalCount > Integer.MAX_VALUE) {
-                throw new ClientException(ClientErrorCodes.ACTION_ERROR, CLIENT_HITS_MAX_VALUE_EXCEEDED);
+        if (!isRequestSuccessful(queryResponse)) {
+            if (!isRequestBadRequest(queryResponse) &&
+                    !isRequestNotFound(queryResponse)) {
+                throw buildExceptionFromUnsuccessfulResponse("Query", queryResponse);
             }
-            resultsNode = ((ArrayNode) hitsNode.get(ElasticsearchKeywords.KEY_HITS));
-        } else if (!isRequestBadRequest(queryResponse) &&
-                !isRequestNotFound(queryResponse)) {
-            throw buildExceptionFromUnsuccessfulResponse("Query", queryResponse);
+            return new ResultList<>(0);
         }
 
-        ResultList<T> resultList = new ResultList<>(totalCount);
         Object queryFetchStyle = getModelConverter().getFetchStyle(query);
-        if (resultsNode != null && !resultsNode.isEmpty()) {
-            for (JsonNode result : resultsNode) {
-                Map<String, Object> object = objectMapper.convertValue(result.get(SchemaKeys.KEY_SOURCE), Map.class);
+        // The total is read before the hits, so the results are collected straight into the ResultList
+        List<ResultList<T>> resultListHolder = new ArrayList<>(1);
+        try (InputStream responseInputStream = queryResponse.getEntity().getContent()) {
+            long totalCount = searchResponseReader.read(
+                    responseInputStream,
+                    total -> {
+                        if (total > Integer.MAX_VALUE) {
+                            throw new ClientException(ClientErrorCodes.ACTION_ERROR, CLIENT_HITS_MAX_VALUE_EXCEEDED);
+                        }
+                        resultListHolder.add(new ResultList<>(total));
+                    },
+                    (id, index, type, sortValues, object) -> {
+                        if (resultListHolder.isEmpty()) {
+                            throw new ClientInternalError("Search response hits read before the total hits count");
+                        }
 
-                String id = result.get(ElasticsearchKeywords.KEY_DOC_ID).asText();
-                String index = result.get(ElasticsearchKeywords.KEY_DOC_INDEX).asText();
-                String type = result.get(ElasticsearchKeywords.KEY_DOC_TYPE).asText();
+                        object.put(ModelContext.TYPE_DESCRIPTOR_KEY, new TypeDescriptor(index, type));
+                        object.put(getModelContext().getIdKeyName(), id);
+                        object.put(QueryConverter.QUERY_FETCH_STYLE_KEY, queryFetchStyle);
 
-                object.put(ModelContext.TYPE_DESCRIPTOR_KEY, new TypeDescriptor(index, type));
-                object.put(getModelContext().getIdKeyName(), id);
-                object.put(QueryConverter.QUERY_FETCH_STYLE_KEY, queryFetchStyle);
+                        ResultList<T> resultList = resultListHolder.get(0);
+                        resultList.add(getModelContext().unmarshal(clazz, object));
+                        resultList.setLastSortValues(sortValues);
+                    });
 
-                resultList.add(getModelContext().unmarshal(clazz, object));
-            }
+            return resultListHolder.isEmpty() ? new ResultList<>(totalCount) : resultListHolder.get(0);
+        } catch (IOException e) {
+            throw new ResponseEntityReadError(e);
         }
-        return resultList;
     }
 
     @Override
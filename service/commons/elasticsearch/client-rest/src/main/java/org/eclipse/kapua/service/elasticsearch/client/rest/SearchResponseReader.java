@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client.rest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader of the Elasticsearch {@code _search} response.
+ * <p>
+ * The response is read with a {@link JsonParser} straight from the response {@link InputStream} and each hit is handed to the {@link HitHandler} as soon as it is read,
+ * so only the {@code _source} of the current hit is held in memory.
+ *
+ * @since 1.5.0
+ */
+class SearchResponseReader {
+
+    /**
+     * Handles a single hit of the {@code _search} response.
+     *
+     * @since 1.5.0
+     */
+    @FunctionalInterface
+    interface HitHandler {
+
+        /**
+         * Handles a single hit.
+         *
+         * @param id         The hit {@code _id}.
+         * @param index      The hit {@code _index}.
+         * @param type       The hit {@code _type}.
+         * @param sortValues The hit {@code sort} values. It is {@code null} if the query is not sorted.
+         * @param source     The hit {@code _source}. It is an empty {@link Map} if the hit has no {@code _source}.
+         * @throws ClientException to stop reading the response.
+         * @since 1.5.0
+         */
+        void handle(String id, String index, String type, List<Object> sortValues, Map<String, Object> source) throws ClientException;
+    }
+
+    /**
+     * Handles the total hits count, which is read before the hits.
+     *
+     * @since 1.5.0
+     */
+    @FunctionalInterface
+    interface TotalHandler {
+
+        /**
+         * Handles the total hits count.
+         *
+         * @param total The total hits count.
+         * @throws ClientException to stop reading the response.
+         * @since 1.5.0
+         */
+        void handle(long total) throws ClientException;
+    }
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor.
+     *
+     * @param objectMapper The {@link ObjectMapper} used to read the {@code _source} of the hits.
+     * @since 1.5.0
+     */
+    SearchResponseReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads the given {@code _search} response.
+     *
+     * @param inputStream  The response {@link InputStream}. It is not closed.
+     * @param totalHandler The {@link TotalHandler} invoked when the total hits count is read.
+     * @param hitHandler   The {@link HitHandler} invoked for each hit, in order.
+     * @return The total hits count.
+     * @throws IOException     if the response cannot be read or is not a valid {@code _search} response.
+     * @throws ClientException if thrown by the handlers.
+     * @since 1.5.0
+     */
+    long read(InputStream inputStream, TotalHandler totalHandler, HitHandler hitHandler) throws IOException, ClientException {
+        long total = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (ElasticsearchKeywords.KEY_HITS.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                    total = readHits(parser, totalHandler, hitHandler);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Reads the outer {@code hits} object.
+     */
+    private long readHits(JsonParser parser, TotalHandler totalHandler, HitHandler hitHandler) throws IOException, ClientException {
+        long total = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (ElasticsearchKeywords.KEY_TOTAL.equals(fieldName)) {
+                total = readTotal(parser, token);
+                totalHandler.handle(total);
+            } else if (ElasticsearchKeywords.KEY_HITS.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    readHit(parser, hitHandler);
+                }
+                expect(parser, parser.getCurrentToken(), JsonToken.END_ARRAY);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Reads the total hits count, either as a number or as the {@code value} of the total object.
+     */
+    private long readTotal(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+
+        long total = 0;
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if ("value".equals(fieldName)) {
+                    total = parser.getValueAsLong();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+        return total;
+    }
+
+    /**
+     * Reads a single hit object.
+     */
+    private void readHit(JsonParser parser, HitHandler hitHandler) throws IOException, ClientException {
+        String id = null;
+        String index = null;
+        String type = null;
+        List<Object> sortValues = null;
+        Map<String, Object> source = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (ElasticsearchKeywords.KEY_DOC_ID.equals(fieldName)) {
+                id = parser.getValueAsString();
+            } else if (ElasticsearchKeywords.KEY_DOC_INDEX.equals(fieldName)) {
+                index = parser.getValueAsString();
+            } else if (ElasticsearchKeywords.KEY_DOC_TYPE.equals(fieldName)) {
+                type = parser.getValueAsString();
+            } else if (SchemaKeys.KEY_SOURCE.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                source = objectMapper.readValue(parser, Map.class);
+            } else if (SchemaKeys.KEY_SORT.equals(fieldName) && token == JsonToken.START_ARRAY) {
+                sortValues = objectMapper.readValue(parser, List.class);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        hitHandler.handle(id, index, type, sortValues, source != null ? source : new HashMap<>());
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws JsonParseException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, String.format("Unexpected token in search response. Expected: %s - found: %s", expected, actual));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.elasticsearch.client.rest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientErrorCodes;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@Category(JUnitTests.class)
+public class SearchResponseReaderTest extends Assert {
+
+    private final SearchResponseReader searchResponseReader = new SearchResponseReader(new ObjectMapper());
+
+    @Test
+    public void readTest() throws Exception {
+        String response = "{\"took\":3,\"timed_out\":false,\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0}," +
+                "\"hits\":{\"total\":2,\"max_score\":1.0,\"hits\":[" +
+                "{\"_index\":\"1-data-message-2021-01\",\"_type\":\"_doc\",\"_id\":\"id-1\",\"_score\":1.0,\"_source\":{\"channel\":\"a/b\",\"metrics\":{\"temp\":{\"dbl\":1.5}}},\"sort\":[1]}," +
+                "{\"_id\":\"id-2\",\"_index\":\"1-data-message-2021-02\",\"_type\":\"_doc\",\"_score\":null}" +
+                "]},\"aggregations\":{}}";
+
+        List<Object[]> hits = new ArrayList<>();
+        long[] handledTotal = new long[1];
+        long total = read(response, totalCount -> handledTotal[0] = totalCount, (id, index, type, sortValues, source) -> hits.add(new Object[]{ id, index, type, sortValues, source }));
+
+        assertEquals("Expected and actual values should be the same.", 2, total);
+        assertEquals("Expected and actual values should be the same.", 2, handledTotal[0]);
+        assertEquals("Expected and actual values should be the same.", 2, hits.size());
+
+        assertEquals("Expected and actual values should be the same.", "id-1", hits.get(0)[0]);
+        assertEquals("Expected and actual values should be the same.", "1-data-message-2021-01", hits.get(0)[1]);
+        assertEquals("Expected and actual values should be the same.", "_doc", hits.get(0)[2]);
+        assertEquals("Expected and actual values should be the same.", Collections.singletonList(1), hits.get(0)[3]);
+        Map<?, ?> source = (Map<?, ?>) hits.get(0)[4];
+        assertEquals("Expected and actual values should be the same.", "a/b", source.get("channel"));
+        assertEquals("Expected and actual values should be the same.", 1.5, ((Map<?, ?>) ((Map<?, ?>) source.get("metrics")).get("temp")).get("dbl"));
+
+        assertEquals("Expected and actual values should be the same.", "id-2", hits.get(1)[0]);
+        assertEquals("Expected and actual values should be the same.", "1-data-message-2021-02", hits.get(1)[1]);
+        assertNull("Null expected.", hits.get(1)[3]);
+        assertTrue("True expected.", ((Map<?, ?>) hits.get(1)[4]).isEmpty());
+    }
+
+    @Test
+    public void readTotalObjectTest() throws Exception {
+        String response = "{\"hits\":{\"total\":{\"value\":10000,\"relation\":\"gte\"},\"hits\":[]}}";
+
+        assertEquals("Expected and actual values should be the same.", 10000, read(response, totalCount -> { }, (id, index, type, sortValues, source) -> fail("No hits expected.")));
+    }
+
+    @Test
+    public void readLargeResponseTest() throws Exception {
+        int hitsCount = 10000;
+        StringBuilder response = new StringBuilder("{\"took\":42,\"hits\":{\"total\":").append(hitsCount).append(",\"hits\":[");
+        for (int i = 0; i < hitsCount; i++) {
+            if (i > 0) {
+                response.append(',');
+            }
+            response.append("{\"_index\":\"index\",\"_type\":\"_doc\",\"_id\":\"id-").append(i).append("\",\"_source\":{\"position\":").append(i).append("}}");
+        }
+        response.append("]}}");
+
+        int[] handledHits = new int[1];
+        read(response.toString(), totalCount -> { }, (id, index, type, sortValues, source) -> {
+            assertEquals("Expected and actual values should be the same.", "id-" + handledHits[0], id);
+            assertEquals("Expected and actual values should be the same.", handledHits[0], source.get("position"));
+            handledHits[0]++;
+        });
+
+        assertEquals("Expected and actual values should be the same.", hitsCount, handledHits[0]);
+    }
+
+    @Test
+    public void readHandlerExceptionTest() throws Exception {
+        String response = "{\"hits\":{\"total\":3,\"hits\":[{\"_id\":\"1\"},{\"_id\":\"2\"},{\"_id\":\"3\"}]}}";
+
+        List<String> ids = new ArrayList<>();
+        try {
+            read(response, totalCount -> { }, (id, index, type, sortValues, source) -> {
+                ids.add(id);
+                if (ids.size() == 2) {
+                    throw new ClientException(ClientErrorCodes.ACTION_ERROR, "stop");
+                }
+            });
+            fail("ClientException expected.");
+        } catch (ClientException e) {
+            assertEquals("Expected and actual values should be the same.", 2, ids.size());
+        }
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void readInvalidResponseTest() throws Exception {
+        read("[]", totalCount -> { }, (id, index, type, sortValues, source) -> { });
+    }
+
+    private long read(String response, SearchResponseReader.TotalHandler totalHandler, SearchResponseReader.HitHandler hitHandler) throws IOException, ClientException {
+        try (InputStream inputStream = new ByteArrayInputStream(response.getBytes(StandardCharsets.UTF_8))) {
+            return searchResponseReader.read(inputStream, totalHandler, hitHandler);
+        }
+    }
+}
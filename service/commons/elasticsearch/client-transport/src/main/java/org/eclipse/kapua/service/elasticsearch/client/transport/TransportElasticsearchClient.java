@@ -21,9 +21,12 @@ import org.eclipse.kapua.service.elasticsearch.client.AbstractElasticsearchClien
 import org.eclipse.kapua.service.elasticsearch.client.ModelContext;
 import org.eclipse.kapua.service.elasticsearch.client.QueryConverter;
 import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientActionResponseException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientErrorCodes;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInitializationException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateRequest;
 import org.eclipse.kapua.service.elasticsearch.client.model.BulkUpdateResponse;
 import org.eclipse.kapua.service.elasticsearch.client.model.IndexRequest;
@@ -74,6 +77,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -141,6 +145,37 @@ public class TransportElasticsearchClient extends AbstractElasticsearchClient<Cl
         return new InsertResponse(response.getId(), insertRequest.getTypeDescriptor());
     }
 
+    @Override
+    public BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException {
+        BulkRequest bulkRequest = new BulkRequest();
+        for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+            Map<String, Object> storableMap = getModelContext().marshal(insertRequest.getStorable());
+            LOG.debug("Insert - converted object: '{}'", storableMap);
+
+            org.elasticsearch.action.index.IndexRequest idxRequest = new org.elasticsearch.action.index.IndexRequest(insertRequest.getTypeDescriptor().getIndex(), insertRequest.getTypeDescriptor().getType()).source(storableMap);
+            if (insertRequest.getId() != null) {
+                idxRequest.id(insertRequest.getId()).version(1).versionType(VersionType.EXTERNAL);
+            }
+            bulkRequest.add(idxRequest);
+        }
+
+        BulkResponse bulkResponse = getClient().bulk(bulkRequest).actionGet(getQueryTimeout());
+
+        BulkInsertResponse response = new BulkInsertResponse();
+        for (BulkItemResponse bulkItemResponse : bulkResponse.getItems()) {
+            TypeDescriptor typeDescriptor = new TypeDescriptor(bulkItemResponse.getIndex(), bulkItemResponse.getType());
+            if (bulkItemResponse.isFailed()) {
+                String failureMessage = bulkItemResponse.getFailureMessage();
+                response.add(new InsertResponse(bulkItemResponse.getId(), typeDescriptor, new ClientActionResponseException("Insert", failureMessage, String.valueOf(bulkItemResponse.status().getStatus()))));
+                LOG.info("Insert failed [{}, {}, {}]", typeDescriptor.getIndex(), typeDescriptor.getType(), failureMessage);
+                continue;
+            }
+            response.add(new InsertResponse(bulkItemResponse.getId(), typeDescriptor));
+        }
+
+        return response;
+    }
+
     @Override
     public UpdateResponse upsert(UpdateRequest upsertRequest) throws ClientException {
         Map<String, Object> storableMap = getModelContext().marshal(upsertRequest.getStorable());
@@ -246,6 +281,10 @@ public class TransportElasticsearchClient extends AbstractElasticsearchClient<Cl
                 object.put(QueryConverter.QUERY_FETCH_STYLE_KEY, queryFetchStyle);
                 result.add(getModelContext().unmarshal(clazz, object));
             }
+
+            if (searchHits.length > 0 && searchHits[searchHits.length - 1].getSortValues().length > 0) {
+                result.setLastSortValues(Arrays.asList(searchHits[searchHits.length - 1].getSortValues()));
+            }
         }
 
         return result;
@@ -138,6 +138,8 @@ public interface StorableListResult<E extends Storable> extends KapuaSerializabl
      * <p>
      * If a limit is set into the query parameters (limit) and the messages count matching the query is higher than the limit, so the next key is the key of the first next object not included in the
      * result set.
+     * <p>
+     * When the query is paged with a {@link org.eclipse.kapua.service.storable.model.query.StorableQuery#getCursor()}, it is the cursor to set to the same query to fetch the next page of results.
      *
      * @return The next key.
      * @since 1.0.0
@@ -145,6 +147,14 @@ public interface StorableListResult<E extends Storable> extends KapuaSerializabl
     @XmlElement(name = "nextKey")
     Object getNextKey();
 
+    /**
+     * Sets the key to fetch the next page of results.
+     *
+     * @param nextKey The key to fetch the next page of results.
+     * @since 1.5.0
+     */
+    void setNextKey(Object nextKey);
+
     /**
      * Gets the total count of {@link Storable}s that match the {@link StorableQuery#getPredicate()}s regardless of {@link StorableQuery#getLimit()} and {@link StorableQuery#getOffset()}
      *
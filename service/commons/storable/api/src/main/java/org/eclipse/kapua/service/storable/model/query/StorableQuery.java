@@ -114,6 +114,30 @@ public interface StorableQuery {
      */
     void setOffset(Integer offset);
 
+    /**
+     * Gets the {@link StorableQuery} cursor.
+     *
+     * @return The {@link StorableQuery} cursor.
+     * @since 1.5.0
+     */
+    @XmlElement(name = "cursor")
+    String getCursor();
+
+    /**
+     * Sets the {@link StorableQuery} cursor from which continue the query.
+     * <p>
+     * The cursor is the opaque value returned as {@link org.eclipse.kapua.service.storable.model.StorableListResult#getNextKey()} by the previous page of the same {@link StorableQuery}.
+     * When set, the {@link StorableQuery} returns the results which come after the last result of the previous page and {@link #getOffset()} is ignored.
+     * Unlike the offset, the cost of fetching a page does not grow with the depth of the page.
+     * <p>
+     * If set to an empty {@link String} the {@link StorableQuery} will start from the first result found, and return the cursor of the next page.
+     * If set to {@code null} the {@link StorableQuery} will start from the first result found (or from the offset), and no cursor is returned.
+     *
+     * @param cursor The {@link StorableQuery} cursor.
+     * @since 1.5.0
+     */
+    void setCursor(String cursor);
+
 
     /**
      * Gets the {@link StorableQuery} limit.
@@ -34,6 +34,7 @@ public abstract class AbstractStorableQuery implements StorableQuery {
     private KapuaId scopeId;
     private Integer limit;
     private Integer indexOffset;
+    private String cursor;
     private boolean askTotalCount;
     private List<SortField> sortFields;
     private StorableFetchStyle fetchStyle;
@@ -102,6 +103,16 @@ public abstract class AbstractStorableQuery implements StorableQuery {
         this.indexOffset = offset;
     }
 
+    @Override
+    public String getCursor() {
+        return cursor;
+    }
+
+    @Override
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
     @Override
     public void setLimit(Integer limit) {
         this.limit = limit;
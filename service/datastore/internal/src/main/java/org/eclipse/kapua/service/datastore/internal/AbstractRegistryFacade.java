@@ -14,10 +14,14 @@ package org.eclipse.kapua.service.datastore.internal;
 
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.datastore.internal.client.DatastoreClientFactory;
+import org.eclipse.kapua.service.datastore.internal.converter.SearchAfterCursor;
 import org.eclipse.kapua.service.datastore.internal.mediator.ConfigurationException;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageStoreConfiguration;
 import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClient;
 import org.eclipse.kapua.service.elasticsearch.client.exception.ClientUnavailableException;
+import org.eclipse.kapua.service.elasticsearch.client.model.ResultList;
+import org.eclipse.kapua.service.storable.model.StorableListResult;
+import org.eclipse.kapua.service.storable.model.query.StorableQuery;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,4 +49,19 @@ public abstract class AbstractRegistryFacade {
     protected ElasticsearchClient<?> getElasticsearchClient() throws ClientUnavailableException {
         return DatastoreClientFactory.getElasticsearchClient();
     }
+
+    /**
+     * Sets the {@link StorableListResult#getNextKey()} to the cursor of the next page, if the results are paged with a cursor and the page is full.
+     *
+     * @param query      The {@link StorableQuery} which produced the page.
+     * @param resultList The {@link ResultList} returned by the {@link ElasticsearchClient}.
+     * @param result     The {@link StorableListResult} to set the next key to.
+     * @since 1.5.0
+     */
+    protected void setNextKey(StorableQuery query, ResultList<?> resultList, StorableListResult<?> result) {
+        Integer limit = query.getLimit();
+        if (query.getCursor() != null && limit != null && limit > 0 && resultList.getResult().size() == limit) {
+            result.setNextKey(SearchAfterCursor.encode(resultList.getLastSortValues()));
+        }
+    }
 }
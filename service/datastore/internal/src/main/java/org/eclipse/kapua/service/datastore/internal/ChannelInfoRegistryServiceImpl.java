@@ -28,6 +28,7 @@ import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.datastore.ChannelInfoRegistryService;
 import org.eclipse.kapua.service.datastore.DatastoreDomains;
 import org.eclipse.kapua.service.datastore.MessageStoreService;
+import org.eclipse.kapua.service.datastore.internal.converter.QueryConverterImpl;
 import org.eclipse.kapua.service.datastore.internal.mediator.ChannelInfoField;
 import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreMediator;
 import org.eclipse.kapua.service.datastore.internal.mediator.MessageField;
@@ -135,6 +136,9 @@ public class ChannelInfoRegistryServiceImpl extends AbstractKapuaService impleme
         ArgumentValidator.notNull(query.getScopeId(), QUERY_SCOPE_ID);
 
         checkDataAccess(query.getScopeId(), Actions.read);
+        if (query.getCursor() != null) {
+            QueryConverterImpl.decodeCursor(query);
+        }
         try {
             ChannelInfoListResult result = channelInfoRegistryFacade.query(query);
             if (result != null && query.getFetchAttributes().contains(ChannelInfoField.TIMESTAMP.field())) {
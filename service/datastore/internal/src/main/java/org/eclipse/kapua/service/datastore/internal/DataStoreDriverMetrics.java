@@ -30,6 +30,10 @@ public class DataStoreDriverMetrics {
     public static final String METRIC_TIME = "time";
     public static final String METRIC_S = "s";
     public static final String METRIC_ALREADY_IN_THE_DATASTORE = "already_in_the_datastore";
+    public static final String METRIC_BULK = "bulk";
+    public static final String METRIC_SIZE = "size";
+    public static final String METRIC_FLUSH = "flush";
+    public static final String METRIC_FULL = "full";
 
     public static final String METRIC_ERROR = "error";
     public static final String METRIC_COUNT = "count";
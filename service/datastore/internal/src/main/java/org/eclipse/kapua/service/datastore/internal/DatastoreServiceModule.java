@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import org.eclipse.kapua.commons.core.ServiceModule;
+import org.eclipse.kapua.locator.KapuaProvider;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreMediator;
+import org.eclipse.kapua.service.datastore.internal.schema.DataIndexPreCreator;
+import org.eclipse.kapua.service.datastore.internal.schema.Schema;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
+
+/**
+ * {@link ServiceModule} which ties the background tasks of the datastore to the lifecycle of the service modules.
+ * <p>
+ * When {@link DatastoreSettingsKey#INDEX_PRECREATION_ENABLED} is set the {@link DataIndexPreCreator} is started on {@link #start()}
+ * and stopped on {@link #stop()}.
+ * <p>
+ * When {@link DatastoreSettingsKey#INGESTION_BULK_ENABLED} is set the {@link MessageBulkInserter} is closed on {@link #stop()}.
+ *
+ * @since 1.5.0
+ */
+@KapuaProvider
+public class DatastoreServiceModule implements ServiceModule {
+
+    private static DataIndexPreCreator dataIndexPreCreator;
+
+    @Override
+    public void start() {
+        DatastoreSettings settings = DatastoreSettings.getInstance();
+        if (!settings.getBoolean(DatastoreSettingsKey.INDEX_PRECREATION_ENABLED, false)) {
+            return;
+        }
+
+        synchronized (DatastoreServiceModule.class) {
+            if (dataIndexPreCreator == null) {
+                dataIndexPreCreator = new DataIndexPreCreator(
+                        new Schema(),
+                        settings.getLong(DatastoreSettingsKey.INDEX_PRECREATION_CHECK_INTERVAL, 60L) * 1000,
+                        settings.getLong(DatastoreSettingsKey.INDEX_PRECREATION_LEAD_TIME, 600L) * 1000);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (DatastoreServiceModule.class) {
+            if (dataIndexPreCreator != null) {
+                dataIndexPreCreator.stop();
+                dataIndexPreCreator = null;
+            }
+        }
+
+        if (DatastoreSettings.getInstance().getBoolean(DatastoreSettingsKey.INGESTION_BULK_ENABLED, false)) {
+            DatastoreMediator.getInstance().close();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.Timer.Context;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientCommunicationException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientInternalError;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientUnavailableException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
+import org.eclipse.kapua.service.elasticsearch.client.model.InsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.InsertResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Groups the {@link InsertRequest}s submitted concurrently into {@link BulkInsertRequest}s.
+ * <p>
+ * The {@link InsertRequest}s are submitted with {@link #insertAsync(InsertRequest)}, which returns as soon as the {@link InsertRequest} has been queued,
+ * or with {@link #insert(InsertRequest)}, which blocks the caller until the bulk which contains its {@link InsertRequest} has been performed.
+ * Each caller gets its own {@link InsertResponse} or its own {@link ClientException},
+ * so each message is still acknowledged (or routed to the error queues) by the thread which is processing it.
+ * <p>
+ * A bulk is sent as soon as it reaches the maximum size, or as soon as the queue is empty and no other caller is waiting for room in it.
+ * The flush interval only bounds the time a bulk waits for the callers which are blocked on the full queue.
+ * While a bulk is being performed the following {@link InsertRequest}s are queued, so the bulk size grows with the Elasticsearch latency.
+ * When the queue is full the callers are blocked until there is room for their {@link InsertRequest}.
+ *
+ * @since 1.5.0
+ */
+public class MessageBulkInserter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MessageBulkInserter.class);
+
+    /**
+     * Performs a {@link BulkInsertRequest}.
+     *
+     * @since 1.5.0
+     */
+    @FunctionalInterface
+    public interface BulkInsertFunction {
+
+        /**
+         * Performs the given {@link BulkInsertRequest}.
+         *
+         * @param bulkInsertRequest The {@link BulkInsertRequest} to perform.
+         * @return The {@link BulkInsertResponse}.
+         * @throws ClientException if error occurs while inserting documents.
+         * @since 1.5.0
+         */
+        BulkInsertResponse insert(BulkInsertRequest bulkInsertRequest) throws ClientException;
+    }
+
+    private final int bulkSizeMax;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<PendingInsert> queue;
+    private final BulkInsertFunction bulkInsertFunction;
+    private final Thread flushThread;
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private volatile boolean closed;
+
+    private final Histogram metricBulkSize;
+    private final Timer metricBulkFlushTime;
+    private final Counter metricBulkQueueFullCount;
+
+    /**
+     * Constructor.
+     * <p>
+     * Starts the thread which performs the {@link BulkInsertRequest}s.
+     *
+     * @param bulkSizeMax        The maximum number of {@link InsertRequest}s for each {@link BulkInsertRequest}.
+     * @param flushInterval      The maximum time (in milliseconds) to wait for the callers blocked on the full queue before performing a {@link BulkInsertRequest} which is not full.
+     * @param queueSizeMax       The maximum number of {@link InsertRequest}s waiting to be performed.
+     * @param bulkInsertFunction The {@link BulkInsertFunction} which performs the {@link BulkInsertRequest}s.
+     * @since 1.5.0
+     */
+    public MessageBulkInserter(int bulkSizeMax, long flushInterval, int queueSizeMax, BulkInsertFunction bulkInsertFunction) {
+        if (bulkSizeMax < 1) {
+            throw new IllegalArgumentException("The bulk maximum size must be greater than 0");
+        }
+        if (flushInterval < 0) {
+            throw new IllegalArgumentException("The bulk flush interval cannot be negative");
+        }
+
+        this.bulkSizeMax = bulkSizeMax;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueSizeMax, bulkSizeMax));
+        this.bulkInsertFunction = bulkInsertFunction;
+
+        MetricsService metricService = MetricServiceFactory.getInstance();
+        metricBulkSize = metricService.getHistogram(DataStoreDriverMetrics.METRIC_MODULE_NAME, DataStoreDriverMetrics.METRIC_COMPONENT_NAME, DataStoreDriverMetrics.METRIC_STORE, DataStoreDriverMetrics.METRIC_BULK, DataStoreDriverMetrics.METRIC_SIZE);
+        metricBulkFlushTime = metricService.getTimer(DataStoreDriverMetrics.METRIC_MODULE_NAME, DataStoreDriverMetrics.METRIC_COMPONENT_NAME, DataStoreDriverMetrics.METRIC_STORE, DataStoreDriverMetrics.METRIC_BULK, DataStoreDriverMetrics.METRIC_FLUSH, DataStoreDriverMetrics.METRIC_TIME, DataStoreDriverMetrics.METRIC_S);
+        metricBulkQueueFullCount = metricService.getCounter(DataStoreDriverMetrics.METRIC_MODULE_NAME, DataStoreDriverMetrics.METRIC_COMPONENT_NAME, DataStoreDriverMetrics.METRIC_STORE, DataStoreDriverMetrics.METRIC_BULK, DataStoreDriverMetrics.METRIC_QUEUE, DataStoreDriverMetrics.METRIC_FULL, DataStoreDriverMetrics.METRIC_COUNT);
+
+        flushThread = new Thread(this::flushLoop, "datastore-bulk-inserter");
+        flushThread.setDaemon(true);
+        flushThread.start();
+    }
+
+    /**
+     * Inserts the given {@link InsertRequest} within the next {@link BulkInsertRequest}.
+     * <p>
+     * The call blocks until the {@link BulkInsertRequest} has been performed.
+     *
+     * @param insertRequest The {@link InsertRequest} to perform.
+     * @return The {@link InsertResponse} of the given {@link InsertRequest}.
+     * @throws ClientException if the whole {@link BulkInsertRequest} or the given {@link InsertRequest} failed.
+     * @since 1.5.0
+     */
+    public InsertResponse insert(InsertRequest insertRequest) throws ClientException {
+        CompletableFuture<InsertResponse> insertResponse = insertAsync(insertRequest);
+        try {
+            return insertResponse.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // The outcome is unknown: let the message be processed again
+            throw new ClientCommunicationException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ClientException) {
+                throw (ClientException) e.getCause();
+            }
+            throw new ClientInternalError(e.getCause(), "Bulk insert failed");
+        }
+    }
+
+    /**
+     * Queues the given {@link InsertRequest} to be performed within the next {@link BulkInsertRequest}.
+     * <p>
+     * The call only blocks while the queue is full.
+     *
+     * @param insertRequest The {@link InsertRequest} to perform.
+     * @return The {@link CompletableFuture} completed with the {@link InsertResponse} of the given {@link InsertRequest},
+     * or completed exceptionally with a {@link ClientException} if the whole {@link BulkInsertRequest} or the given {@link InsertRequest} failed.
+     * @throws ClientException if the {@link InsertRequest} cannot be queued.
+     * @since 1.5.0
+     */
+    public CompletableFuture<InsertResponse> insertAsync(InsertRequest insertRequest) throws ClientException {
+        if (closed) {
+            throw new ClientUnavailableException("The bulk inserter has been closed");
+        }
+
+        PendingInsert pendingInsert = new PendingInsert(insertRequest);
+        if (!queue.offer(pendingInsert)) {
+            metricBulkQueueFullCount.inc();
+            waiting.incrementAndGet();
+            try {
+                queue.put(pendingInsert);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                // The outcome is unknown: let the message be processed again
+                throw new ClientCommunicationException();
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        // Queued after the flush thread drained the queue on close
+        if (closed && queue.remove(pendingInsert)) {
+            pendingInsert.fail(new ClientUnavailableException("The bulk inserter has been closed"));
+        }
+        return pendingInsert.insertResponse;
+    }
+
+    /**
+     * Stops the thread which performs the {@link BulkInsertRequest}s.
+     * <p>
+     * The {@link InsertRequest}s already taken are performed, the ones still queued are failed with a {@link ClientCommunicationException}.
+     *
+     * @since 1.5.0
+     */
+    public void close() {
+        closed = true;
+        flushThread.interrupt();
+        try {
+            flushThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            List<PendingInsert> bulk = new ArrayList<>(bulkSizeMax);
+            try {
+                bulk.add(queue.take());
+
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (bulk.size() < bulkSizeMax) {
+                    queue.drainTo(bulk, bulkSizeMax - bulk.size());
+                    // Waiting is pointless when no other caller is waiting for room in the queue
+                    if (bulk.size() >= bulkSizeMax || waiting.get() == 0) {
+                        break;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        break;
+                    }
+
+                    PendingInsert pendingInsert = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (pendingInsert == null) {
+                        break;
+                    }
+                    bulk.add(pendingInsert);
+                }
+            } catch (InterruptedException e) {
+                LOG.debug("Bulk inserter interrupted");
+            }
+
+            if (!bulk.isEmpty()) {
+                flush(bulk);
+            }
+        }
+
+        List<PendingInsert> pendingInserts = new ArrayList<>();
+        queue.drainTo(pendingInserts);
+        for (PendingInsert pendingInsert : pendingInserts) {
+            pendingInsert.fail(new ClientCommunicationException());
+        }
+    }
+
+    private void flush(List<PendingInsert> bulk) {
+        BulkInsertRequest bulkInsertRequest = new BulkInsertRequest();
+        for (PendingInsert pendingInsert : bulk) {
+            bulkInsertRequest.add(pendingInsert.insertRequest);
+        }
+
+        metricBulkSize.update(bulk.size());
+        Context metricBulkFlushTimeContext = metricBulkFlushTime.time();
+        try {
+            List<InsertResponse> insertResponses = bulkInsertFunction.insert(bulkInsertRequest).getResponse();
+            if (insertResponses.size() != bulk.size()) {
+                throw new ClientInternalError(String.format("Bulk insert returned %d responses for %d requests", insertResponses.size(), bulk.size()));
+            }
+
+            for (int i = 0; i < bulk.size(); i++) {
+                InsertResponse insertResponse = insertResponses.get(i);
+                if (insertResponse.isResult()) {
+                    bulk.get(i).complete(insertResponse);
+                } else if (insertResponse.getException() != null) {
+                    bulk.get(i).fail(insertResponse.getException());
+                } else {
+                    bulk.get(i).fail(new ClientInternalError("Insert failed without a reason"));
+                }
+            }
+        } catch (ClientException e) {
+            LOG.warn("Bulk insert of {} messages failed", bulk.size(), e);
+            for (PendingInsert pendingInsert : bulk) {
+                pendingInsert.fail(e);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Bulk insert of {} messages failed", bulk.size(), e);
+            for (PendingInsert pendingInsert : bulk) {
+                pendingInsert.fail(new ClientInternalError(e, "Bulk insert failed"));
+            }
+        } finally {
+            metricBulkFlushTimeContext.stop();
+        }
+    }
+
+    /**
+     * An {@link InsertRequest} waiting for its {@link InsertResponse}.
+     */
+    private static class PendingInsert {
+
+        private final InsertRequest insertRequest;
+        private final CompletableFuture<InsertResponse> insertResponse = new CompletableFuture<>();
+
+        private PendingInsert(InsertRequest insertRequest) {
+            this.insertRequest = insertRequest;
+        }
+
+        private void complete(InsertResponse response) {
+            insertResponse.complete(response);
+        }
+
+        private void fail(ClientException exception) {
+            insertResponse.completeExceptionally(exception);
+        }
+    }
+}
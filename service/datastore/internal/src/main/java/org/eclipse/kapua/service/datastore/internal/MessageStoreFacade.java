@@ -22,6 +22,7 @@ import org.eclipse.kapua.commons.util.ArgumentValidator;
 import org.eclipse.kapua.commons.util.KapuaDateUtils;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.message.KapuaMessage;
+import org.eclipse.kapua.message.MetricCursor;
 import org.eclipse.kapua.message.device.data.KapuaDataChannel;
 import org.eclipse.kapua.message.internal.device.data.KapuaDataChannelImpl;
 import org.eclipse.kapua.model.id.KapuaId;
@@ -48,6 +49,8 @@ import org.eclipse.kapua.service.datastore.internal.schema.MessageSchema;
 import org.eclipse.kapua.service.datastore.internal.schema.Metadata;
 import org.eclipse.kapua.service.datastore.internal.schema.MetricInfoSchema;
 import org.eclipse.kapua.service.datastore.internal.schema.SchemaUtil;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettings;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreSettingsKey;
 import org.eclipse.kapua.service.datastore.model.ChannelInfo;
 import org.eclipse.kapua.service.datastore.model.ClientInfo;
 import org.eclipse.kapua.service.datastore.model.DatastoreMessage;
@@ -90,6 +93,8 @@ public final class MessageStoreFacade extends AbstractRegistryFacade {
 
     private final MessageStoreMediator mediator;
 
+    private final MessageBulkInserter messageBulkInserter;
+
     private static final String QUERY = "query";
     private static final String QUERY_SCOPE_ID = "query.scopeId";
     private static final String SCOPE_ID = "scopeId";
@@ -108,6 +113,28 @@ public final class MessageStoreFacade extends AbstractRegistryFacade {
 
         MetricsService metricService = MetricServiceFactory.getInstance();
         metricMessagesAlreadyInTheDatastoreCount = metricService.getCounter(DataStoreDriverMetrics.METRIC_MODULE_NAME, DataStoreDriverMetrics.METRIC_COMPONENT_NAME, DataStoreDriverMetrics.METRIC_STORE, DataStoreDriverMetrics.METRIC_MESSAGES, DataStoreDriverMetrics.METRIC_ALREADY_IN_THE_DATASTORE, DataStoreDriverMetrics.METRIC_COUNT);
+
+        DatastoreSettings settings = DatastoreSettings.getInstance();
+        if (settings.getBoolean(DatastoreSettingsKey.INGESTION_BULK_ENABLED, false)) {
+            messageBulkInserter = new MessageBulkInserter(
+                    settings.getInt(DatastoreSettingsKey.INGESTION_BULK_SIZE_MAX, 100),
+                    settings.getLong(DatastoreSettingsKey.INGESTION_BULK_FLUSH_INTERVAL, 20L),
+                    settings.getInt(DatastoreSettingsKey.INGESTION_BULK_QUEUE_SIZE_MAX, 1000),
+                    bulkInsertRequest -> getElasticsearchClient().insert(bulkInsertRequest));
+        } else {
+            messageBulkInserter = null;
+        }
+    }
+
+    /**
+     * Closes the {@link MessageBulkInserter}, if {@link DatastoreSettingsKey#INGESTION_BULK_ENABLED} is set.
+     *
+     * @since 1.5.0
+     */
+    public void close() {
+        if (messageBulkInserter != null) {
+            messageBulkInserter.close();
+        }
     }
 
     /**
@@ -171,10 +198,11 @@ public final class MessageStoreFacade extends AbstractRegistryFacade {
         Map<String, Metric> metrics = new HashMap<>();
         if (message.getPayload() != null && message.getPayload().getMetrics() != null && !message.getPayload().getMetrics().isEmpty()) {
 
-            Map<String, Object> messageMetrics = message.getPayload().getMetrics();
-            for (Map.Entry<String, Object> messageMetric : messageMetrics.entrySet()) {
-                String metricName = DatastoreUtils.normalizeMetricName(messageMetric.getKey());
-                String clientMetricType = DatastoreUtils.getClientMetricFromType(messageMetric.getValue().getClass());
+            // Only names and types are needed, so read them without decoding the metric values
+            MetricCursor metricCursor = MetricCursor.of(message.getPayload().getMetrics());
+            while (metricCursor.next()) {
+                String metricName = DatastoreUtils.normalizeMetricName(metricCursor.getName());
+                String clientMetricType = DatastoreUtils.getClientMetricFromType(metricCursor.getType());
                 Metric metric = new Metric(metricName, clientMetricType);
 
                 // each metric is potentially a dynamic field so report it a new mapping
@@ -188,7 +216,12 @@ public final class MessageStoreFacade extends AbstractRegistryFacade {
             e.printStackTrace();
         }
 
-        InsertResponse insertResponse = getElasticsearchClient().insert(insertRequest);
+        InsertResponse insertResponse;
+        if (messageBulkInserter != null) {
+            insertResponse = messageBulkInserter.insert(insertRequest);
+        } else {
+            insertResponse = getElasticsearchClient().insert(insertRequest);
+        }
         messageToStore.setDatastoreId(STORABLE_ID_FACTORY.newStorableId(insertResponse.getId()));
 
         MessageInfo messageInfo = getConfigProvider().getInfo(message.getScopeId());
@@ -292,9 +325,15 @@ public final class MessageStoreFacade extends AbstractRegistryFacade {
 
         String dataIndexName = SchemaUtil.getDataIndexName(query.getScopeId());
         TypeDescriptor typeDescriptor = new TypeDescriptor(dataIndexName, MessageSchema.MESSAGE_TYPE_NAME);
-        MessageListResult result = new MessageListResultImpl(getElasticsearchClient().query(typeDescriptor, query, DatastoreMessage.class));
-        Integer offset = query.getOffset();
-        result.setLimitExceeded((offset == null ? 0 : offset) + result.getSize() < result.getTotalCount());
+        ResultList<DatastoreMessage> resultList = getElasticsearchClient().query(typeDescriptor, query, DatastoreMessage.class);
+        MessageListResult result = new MessageListResultImpl(resultList);
+        setNextKey(query, resultList, result);
+        if (query.getCursor() != null) {
+            result.setLimitExceeded(result.getNextKey() != null);
+        } else {
+            Integer offset = query.getOffset();
+            result.setLimitExceeded((offset == null ? 0 : offset) + result.getSize() < result.getTotalCount());
+        }
         return result;
     }
 
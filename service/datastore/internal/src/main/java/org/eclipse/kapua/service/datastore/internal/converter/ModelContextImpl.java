@@ -18,6 +18,7 @@ import org.eclipse.kapua.commons.util.KapuaDateUtils;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.message.KapuaPayload;
 import org.eclipse.kapua.message.KapuaPosition;
+import org.eclipse.kapua.message.MetricCursor;
 import org.eclipse.kapua.message.internal.KapuaPositionImpl;
 import org.eclipse.kapua.message.internal.device.data.KapuaDataChannelImpl;
 import org.eclipse.kapua.message.internal.device.data.KapuaDataPayloadImpl;
@@ -359,12 +360,12 @@ public class ModelContextImpl implements ModelContext {
         Map<String, Object> kapuaMetrics = payload.getMetrics();
         if (kapuaMetrics != null) {
             Map<String, Object> metrics = new HashMap<>();
-            String[] metricNames = kapuaMetrics.keySet().toArray(new String[]{});
-            for (String kapuaMetricName : metricNames) {
-                Object metricValue = kapuaMetrics.get(kapuaMetricName);
+            MetricCursor metricCursor = MetricCursor.of(kapuaMetrics);
+            while (metricCursor.next()) {
+                Object metricValue = metricCursor.getValue();
                 // Sanitize field names: '.' is not allowed
-                String metricName = DatastoreUtils.normalizeMetricName(kapuaMetricName);
-                String clientMetricType = DatastoreUtils.getClientMetricFromType(metricValue.getClass());
+                String metricName = DatastoreUtils.normalizeMetricName(metricCursor.getName());
+                String clientMetricType = DatastoreUtils.getClientMetricFromType(metricCursor.getType());
                 String clientMetricTypeAcronym = DatastoreUtils.getClientMetricFromAcronym(clientMetricType);
                 Map<String, Object> field = new HashMap<>();
                 if (DatastoreUtils.isDateMetric(clientMetricTypeAcronym) && metricValue instanceof Date) {
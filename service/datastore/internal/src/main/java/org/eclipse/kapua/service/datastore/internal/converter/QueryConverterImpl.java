@@ -15,14 +15,21 @@ package org.eclipse.kapua.service.datastore.internal.converter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.eclipse.kapua.KapuaIllegalArgumentException;
+import org.eclipse.kapua.service.datastore.internal.schema.ChannelInfoSchema;
+import org.eclipse.kapua.service.datastore.internal.schema.MessageSchema;
+import org.eclipse.kapua.service.datastore.model.query.ChannelInfoQuery;
+import org.eclipse.kapua.service.datastore.model.query.MessageQuery;
 import org.eclipse.kapua.service.elasticsearch.client.QueryConverter;
 import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
 import org.eclipse.kapua.service.elasticsearch.client.exception.QueryMappingException;
 import org.eclipse.kapua.service.storable.exception.MappingException;
+import org.eclipse.kapua.service.storable.model.query.SortDirection;
 import org.eclipse.kapua.service.storable.model.query.SortField;
 import org.eclipse.kapua.service.storable.model.query.StorableQuery;
 import org.eclipse.kapua.service.storable.model.utils.MappingUtils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -55,19 +62,21 @@ public class QueryConverterImpl implements QueryConverter {
 
             // sort
             ArrayNode sortNode = MappingUtils.newArrayNode();
-            List<SortField> sortFields = storableQuery.getSortFields();
-            if (sortFields != null) {
-                for (SortField field : sortFields) {
-                    sortNode.add(MappingUtils.newObjectNode(field.getField(), field.getSortDirection().name()));
-                }
+            for (SortField field : getEffectiveSortFields(storableQuery)) {
+                sortNode.add(MappingUtils.newObjectNode(field.getField(), field.getSortDirection().name()));
             }
 
-            // offset and limit settings
+            // cursor, offset and limit settings
             Integer offset = storableQuery.getOffset();
-            if (offset != null) {
+            Integer limit = storableQuery.getLimit();
+            if (storableQuery.getCursor() != null) {
+                ArrayNode searchAfter = decodeCursor(storableQuery);
+                if (searchAfter != null) {
+                    rootNode.set(SchemaKeys.KEY_SEARCH_AFTER, searchAfter);
+                }
+            } else if (offset != null) {
                 rootNode.set(SchemaKeys.KEY_FROM, MappingUtils.newNumericNode(offset));
             }
-            Integer limit = storableQuery.getLimit();
             if (limit != null) {
                 rootNode.set(SchemaKeys.KEY_SIZE, MappingUtils.newNumericNode(limit));
             }
@@ -75,7 +84,87 @@ public class QueryConverterImpl implements QueryConverter {
             return rootNode;
         } catch (MappingException me) {
             throw new QueryMappingException(me, "Cannot convert Storable Query");
+        } catch (KapuaIllegalArgumentException iae) {
+            throw new QueryMappingException(iae, "Cannot convert Storable Query cursor");
+        }
+    }
+
+    /**
+     * Decodes the {@link StorableQuery#getCursor()} into the {@code search_after} values.
+     * <p>
+     * The cursor must have a value for each of the sort fields of the {@link StorableQuery}, tiebreakers included.
+     * Elasticsearch would otherwise reject the query with a bad request.
+     * The empty cursor requests the first page, so it has no {@code search_after} values.
+     *
+     * @param storableQuery The {@link StorableQuery} with the cursor to decode.
+     * @return The {@code search_after} values, or {@code null} for the empty cursor.
+     * @throws KapuaIllegalArgumentException if the cursor is not a valid cursor for the {@link StorableQuery}.
+     * @since 1.5.0
+     */
+    public static ArrayNode decodeCursor(StorableQuery storableQuery) throws KapuaIllegalArgumentException {
+        if (storableQuery.getCursor().isEmpty()) {
+            return null;
+        }
+
+        ArrayNode searchAfter = SearchAfterCursor.decode(storableQuery.getCursor());
+        if (searchAfter.size() != getEffectiveSortFields(storableQuery).size()) {
+            throw new KapuaIllegalArgumentException("cursor", storableQuery.getCursor());
+        }
+        return searchAfter;
+    }
+
+    /**
+     * Gets the {@link SortField}s of the given {@link StorableQuery}, followed by the tiebreaker ones when the results are paged with a cursor.
+     * <p>
+     * The tiebreakers make sure that paging through the results with a cursor never skips nor repeats a result.
+     * They are not added to the other queries, so their ordering and cost do not change.
+     *
+     * @param storableQuery The {@link StorableQuery}.
+     * @return The {@link SortField}s to sort the results on.
+     * @since 1.5.0
+     */
+    private static List<SortField> getEffectiveSortFields(StorableQuery storableQuery) {
+        List<SortField> effectiveSortFields = new ArrayList<>();
+        List<SortField> sortFields = storableQuery.getSortFields();
+        if (sortFields != null) {
+            effectiveSortFields.addAll(sortFields);
+        }
+
+        if (storableQuery.getCursor() != null) {
+            for (String tiebreakerField : getTiebreakerFields(storableQuery)) {
+                if (!isSorted(sortFields, tiebreakerField)) {
+                    effectiveSortFields.add(SortField.of(tiebreakerField, SortDirection.ASC));
+                }
+            }
+        }
+        return effectiveSortFields;
+    }
+
+    /**
+     * Gets the fields which identify a single result of the given {@link StorableQuery}.
+     *
+     * @param storableQuery The {@link StorableQuery}.
+     * @return The fields to sort the results on, after the {@link StorableQuery#getSortFields()}.
+     * @since 1.5.0
+     */
+    private static String[] getTiebreakerFields(StorableQuery storableQuery) {
+        if (storableQuery instanceof MessageQuery) {
+            return new String[]{ MessageSchema.MESSAGE_ID };
+        } else if (storableQuery instanceof ChannelInfoQuery) {
+            return new String[]{ ChannelInfoSchema.CHANNEL_CLIENT_ID, ChannelInfoSchema.CHANNEL_NAME };
+        }
+        return new String[0];
+    }
+
+    private static boolean isSorted(List<SortField> sortFields, String field) {
+        if (sortFields != null) {
+            for (SortField sortField : sortFields) {
+                if (field.equals(sortField.getField())) {
+                    return true;
+                }
+            }
         }
+        return false;
     }
 
     @Override
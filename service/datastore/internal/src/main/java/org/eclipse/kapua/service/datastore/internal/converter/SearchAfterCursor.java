@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.eclipse.kapua.KapuaIllegalArgumentException;
+import org.eclipse.kapua.service.storable.model.query.StorableQuery;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Codec of the opaque cursor used to page through the {@link StorableQuery} results with the Elasticsearch {@code search_after}.
+ * <p>
+ * The cursor is the URL-safe Base64 encoding of the JSON array of the {@code sort} values of the last result of the previous page.
+ *
+ * @see StorableQuery#getCursor()
+ * @since 1.5.0
+ */
+public class SearchAfterCursor {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private SearchAfterCursor() {
+    }
+
+    /**
+     * Encodes the given {@code sort} values into a cursor.
+     *
+     * @param sortValues The {@code sort} values of the last result of the page.
+     * @return The cursor, or {@code null} if there are no {@code sort} values.
+     * @since 1.5.0
+     */
+    public static String encode(List<Object> sortValues) {
+        if (sortValues == null || sortValues.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(sortValues));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot encode the sort values", e);
+        }
+    }
+
+    /**
+     * Decodes the given cursor into the {@code search_after} values.
+     *
+     * @param cursor The cursor to decode.
+     * @return The {@code search_after} values.
+     * @throws KapuaIllegalArgumentException if the cursor is not a valid cursor.
+     * @since 1.5.0
+     */
+    public static ArrayNode decode(String cursor) throws KapuaIllegalArgumentException {
+        JsonNode sortValues;
+        try {
+            sortValues = OBJECT_MAPPER.readTree(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new KapuaIllegalArgumentException("cursor", cursor);
+        }
+
+        if (sortValues == null || !sortValues.isArray() || sortValues.size() == 0) {
+            throw new KapuaIllegalArgumentException("cursor", cursor);
+        }
+        for (JsonNode sortValue : sortValues) {
+            if (!sortValue.isValueNode()) {
+                throw new KapuaIllegalArgumentException("cursor", cursor);
+            }
+        }
+
+        return (ArrayNode) sortValues;
+    }
+}
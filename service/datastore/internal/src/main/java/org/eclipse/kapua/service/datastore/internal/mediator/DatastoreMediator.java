@@ -16,6 +16,7 @@ package org.eclipse.kapua.service.datastore.internal.mediator;
 import org.eclipse.kapua.KapuaIllegalArgumentException;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.message.KapuaPayload;
+import org.eclipse.kapua.message.MetricCursor;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.datastore.ChannelInfoRegistryService;
 import org.eclipse.kapua.service.datastore.ClientInfoRegistryService;
@@ -38,6 +39,8 @@ import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
 import org.eclipse.kapua.service.storable.exception.MappingException;
 import org.eclipse.kapua.service.storable.model.id.StorableIdFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -174,21 +177,22 @@ public class DatastoreMediator implements MessageStoreMediator,
             return;
         }
 
-        int i = 0;
-        MetricInfoImpl[] messageMetrics = new MetricInfoImpl[metrics.size()];
-        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+        // Only names and types are needed, so read them without decoding the metric values
+        List<MetricInfoImpl> messageMetrics = new ArrayList<>();
+        MetricCursor metricCursor = MetricCursor.of(metrics);
+        while (metricCursor.next()) {
             MetricInfoImpl metricInfo = new MetricInfoImpl(message.getScopeId());
             metricInfo.setClientId(message.getClientId());
             metricInfo.setChannel(semanticChannel);
-            metricInfo.setName(entry.getKey());
-            metricInfo.setMetricType(entry.getValue().getClass());
+            metricInfo.setName(metricCursor.getName());
+            metricInfo.setMetricType(metricCursor.getType());
             metricInfo.setId(STORABLE_ID_FACTORY.newStorableId(MetricInfoField.getOrDeriveId(null, metricInfo)));
             metricInfo.setFirstMessageId(message.getDatastoreId());
             metricInfo.setFirstMessageOn(message.getTimestamp());
-            messageMetrics[i++] = metricInfo;
+            messageMetrics.add(metricInfo);
         }
 
-        metricInfoStoreFacade.upstore(messageMetrics);
+        metricInfoStoreFacade.upstore(messageMetrics.toArray(new MetricInfoImpl[0]));
     }
 
     /*
@@ -244,6 +248,17 @@ public class DatastoreMediator implements MessageStoreMediator,
         clearCache();
     }
 
+    /**
+     * Closes the {@link MessageStoreFacade}, if set.
+     *
+     * @since 1.5.0
+     */
+    public void close() {
+        if (messageStoreFacade != null) {
+            messageStoreFacade.close();
+        }
+    }
+
     public void clearCache() {
         DatastoreCacheManager.getInstance().getChannelsCache().invalidateAll();
         DatastoreCacheManager.getInstance().getClientsCache().invalidateAll();
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.schema;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically creates the data indexes of the next indexing window ahead of time.
+ *
+ * @see Schema#preCreateNextIndexes(long, long)
+ * @since 1.5.0
+ */
+public class DataIndexPreCreator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DataIndexPreCreator.class);
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor.
+     * <p>
+     * It starts a daemon thread which checks for data indexes to be created.
+     *
+     * @param schema        The {@link Schema} which creates the data indexes.
+     * @param checkInterval The interval (in milliseconds) between two checks.
+     * @param leadTime      The time (in milliseconds) before the start of the next indexing window when its data indexes are created.
+     * @since 1.5.0
+     */
+    public DataIndexPreCreator(Schema schema, long checkInterval, long leadTime) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "datastore-index-pre-creator");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                schema.preCreateNextIndexes(System.currentTimeMillis(), leadTime);
+            } catch (Exception e) {
+                // Keep the scheduling going
+                LOG.error("Error while pre-creating the next data indexes", e);
+            }
+        }, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops checking for data indexes to be created.
+     *
+     * @since 1.5.0
+     */
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+}
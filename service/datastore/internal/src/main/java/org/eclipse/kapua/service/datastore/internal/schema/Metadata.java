@@ -14,8 +14,9 @@ package org.eclipse.kapua.service.datastore.internal.schema;
 
 import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Metadata object
@@ -37,8 +38,14 @@ public class Metadata {
     private final Map<String, Metric> messageMappingsCache;
     //
 
+    // Custom mappings being sent to the data index.
+    // Each one is completed when the mapping has been applied.
+    private final Map<String, CompletableFuture<Void>> pendingMessageMappings;
+
     /**
      * Get the mappings cache
+     * <p>
+     * It only contains the mappings already applied to the data index and it can be read concurrently.
      *
      * @return
      * @since 1.0.0
@@ -47,13 +54,24 @@ public class Metadata {
         return messageMappingsCache;
     }
 
+    /**
+     * Gets the mappings being sent to the data index.
+     *
+     * @return The mappings being sent, each with the {@link CompletableFuture} completed when it has been applied.
+     * @since 1.5.0
+     */
+    Map<String, CompletableFuture<Void>> getPendingMessageMappings() {
+        return pendingMessageMappings;
+    }
+
     /**
      * Constructor.
      *
      * @since 1.0.0
      */
     public Metadata(String dataIndexName, String channelRegistryIndexName, String clientRegistryIndexName, String metricRegistryIndexName) {
-        this.messageMappingsCache = new HashMap<>(100);
+        this.messageMappingsCache = new ConcurrentHashMap<>(100);
+        this.pendingMessageMappings = new ConcurrentHashMap<>();
         this.dataIndexName = dataIndexName;
         this.channelRegistryIndexName = channelRegistryIndexName;
         this.clientRegistryIndexName = clientRegistryIndexName;
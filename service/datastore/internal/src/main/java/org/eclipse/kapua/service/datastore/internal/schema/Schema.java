@@ -36,9 +36,14 @@ import org.eclipse.kapua.service.storable.model.utils.MappingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Datastore schema creation/update
@@ -49,6 +54,23 @@ public class Schema {
 
     private static final Logger LOG = LoggerFactory.getLogger(Schema.class);
 
+    /**
+     * The index operations in progress, by index name.
+     * <p>
+     * Each index is created at most once at a time, by the first thread which needs it; the other threads wait for it.
+     * Operations on different indexes are performed concurrently.
+     */
+    private static final Map<String, CompletableFuture<?>> PENDING_INDEX_OPERATIONS = new ConcurrentHashMap<>();
+
+    /**
+     * The last time (in milliseconds) each scope has synchronized its metadata to store messages.
+     * <p>
+     * It is updated at most once every {@link #ACTIVITY_UPDATE_INTERVAL}, to keep the check lock-free for most of the messages.
+     */
+    private static final Map<KapuaId, Long> ACTIVE_SCOPES = new ConcurrentHashMap<>();
+
+    private static final long ACTIVITY_UPDATE_INTERVAL = 60000L;
+
     /**
      * Synchronize metadata
      *
@@ -59,6 +81,22 @@ public class Schema {
      * @since 1.0.0
      */
     public Metadata synch(KapuaId scopeId, long time) throws ClientException, MappingException {
+        markActive(scopeId);
+
+        return synchIndex(scopeId, time);
+    }
+
+    /**
+     * Synchronizes the metadata of the data index of the given time, without marking the scope as active.
+     *
+     * @param scopeId The scope {@link KapuaId}.
+     * @param time    The time of the data index.
+     * @return The {@link Metadata} of the data index.
+     * @throws ClientException
+     * @throws MappingException
+     * @since 1.5.0
+     */
+    private Metadata synchIndex(KapuaId scopeId, long time) throws ClientException, MappingException {
         String dataIndexName;
         try {
             String indexingWindowOption = DatastoreSettings.getInstance().getString(DatastoreSettingsKey.INDEXING_WINDOW_OPTION, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
@@ -72,64 +110,154 @@ public class Schema {
             return currentMetadata;
         }
 
-        LOG.debug("Before entering updating metadata");
-        synchronized (Schema.class) {
+        return doOnce(dataIndexName, () -> {
+            // Another thread may have completed the update while this one was checking the cache
+            Metadata metadata = DatastoreCacheManager.getInstance().getMetadataCache().get(dataIndexName);
+            if (metadata != null) {
+                return metadata;
+            }
+
             LOG.debug("Entered updating metadata");
-            ElasticsearchClient<?> elasticsearchClient = DatastoreClientFactory.getInstance().getElasticsearchClient();
-            // Check existence of the data index
-            IndexResponse dataIndexExistsResponse = elasticsearchClient.isIndexExists(new IndexRequest(dataIndexName));
-            if (!dataIndexExistsResponse.isIndexExists()) {
-                elasticsearchClient.createIndex(dataIndexName, getMappingSchema(dataIndexName));
-                LOG.info("Data index created: {}", dataIndexName);
+            metadata = createIndexes(scopeId, dataIndexName);
+            LOG.debug("Leaving updating metadata");
+
+            // Current metadata can only increase the custom mappings
+            // other fields does not change within the same account id
+            // and custom mappings are not and must not be exposed to
+            // outside this class to preserve thread safetyness
+            DatastoreCacheManager.getInstance().getMetadataCache().put(dataIndexName, metadata);
+
+            return metadata;
+        });
+    }
+
+    /**
+     * Creates the data indexes of the next indexing window, if it starts within the given lead time, for the scopes which have stored messages in the current one.
+     * <p>
+     * The dynamic metric mappings of the current data index are copied to the next one, and the {@link Metadata} of the next data index is cached,
+     * so that the first messages of the next indexing window do not wait for the index creation.
+     *
+     * @param now      The current time (in milliseconds).
+     * @param leadTime The time (in milliseconds) before the start of the next indexing window when its data indexes are created.
+     * @since 1.5.0
+     */
+    public void preCreateNextIndexes(long now, long leadTime) {
+        String indexingWindowOption = DatastoreSettings.getInstance().getString(DatastoreSettingsKey.INDEXING_WINDOW_OPTION, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+
+        for (Entry<KapuaId, Long> activeScope : ACTIVE_SCOPES.entrySet()) {
+            KapuaId scopeId = activeScope.getKey();
+            try {
+                String currentIndexName = DatastoreUtils.getDataIndexName(scopeId, now, indexingWindowOption);
+
+                // No messages stored in the current indexing window
+                if (!currentIndexName.equals(DatastoreUtils.getDataIndexName(scopeId, activeScope.getValue(), indexingWindowOption))) {
+                    ACTIVE_SCOPES.remove(scopeId, activeScope.getValue());
+                    continue;
+                }
+
+                String nextIndexName = DatastoreUtils.getDataIndexName(scopeId, now + leadTime, indexingWindowOption);
+                if (nextIndexName.equals(currentIndexName) || DatastoreCacheManager.getInstance().getMetadataCache().get(nextIndexName) != null) {
+                    continue;
+                }
+
+                synchIndex(scopeId, now + leadTime);
+
+                Metadata currentMetadata = DatastoreCacheManager.getInstance().getMetadataCache().get(currentIndexName);
+                if (currentMetadata != null && !currentMetadata.getMessageMappingsCache().isEmpty()) {
+                    updateMessageMappings(scopeId, now + leadTime, new HashMap<>(currentMetadata.getMessageMappingsCache()));
+                }
+
+                LOG.info("Data index pre-created: {}", nextIndexName);
+            } catch (KapuaException e) {
+                LOG.warn("Error while pre-creating the next data index of scope {}", scopeId, e);
             }
+        }
+    }
+
+    /**
+     * Marks the given scope as active, that is storing messages.
+     *
+     * @param scopeId The scope {@link KapuaId}.
+     * @since 1.5.0
+     */
+    private static void markActive(KapuaId scopeId) {
+        long now = System.currentTimeMillis();
+
+        Long lastActivity = ACTIVE_SCOPES.get(scopeId);
+        if (lastActivity == null || now - lastActivity >= ACTIVITY_UPDATE_INTERVAL) {
+            ACTIVE_SCOPES.put(scopeId, now);
+        }
+    }
+
+    /**
+     * Creates the data index and the registry indexes of the scope, if they do not exist.
+     *
+     * @param scopeId       The scope {@link KapuaId}.
+     * @param dataIndexName The data index name.
+     * @return The {@link Metadata} of the data index.
+     * @throws ClientException
+     * @throws MappingException
+     * @since 1.5.0
+     */
+    private Metadata createIndexes(KapuaId scopeId, String dataIndexName) throws ClientException, MappingException {
+        ElasticsearchClient<?> elasticsearchClient = DatastoreClientFactory.getInstance().getElasticsearchClient();
+        // Check existence of the data index
+        IndexResponse dataIndexExistsResponse = elasticsearchClient.isIndexExists(new IndexRequest(dataIndexName));
+        if (!dataIndexExistsResponse.isIndexExists()) {
+            elasticsearchClient.createIndex(dataIndexName, getMappingSchema(dataIndexName));
+            LOG.info("Data index created: {}", dataIndexName);
+        }
 
-            boolean enableSourceField = true;
+        boolean enableSourceField = true;
 
-            elasticsearchClient.putMapping(new TypeDescriptor(dataIndexName, MessageSchema.MESSAGE_TYPE_NAME), MessageSchema.getMesageTypeSchema(enableSourceField));
+        elasticsearchClient.putMapping(new TypeDescriptor(dataIndexName, MessageSchema.MESSAGE_TYPE_NAME), MessageSchema.getMesageTypeSchema(enableSourceField));
 
-            // Check existence of the kapua internal indexes
-            String channelRegistryIndexName = DatastoreUtils.getChannelIndexName(scopeId);
+        // Check existence of the kapua internal indexes.
+        // They are shared by all the data indexes of the scope, which can be created concurrently
+        String channelRegistryIndexName = DatastoreUtils.getChannelIndexName(scopeId);
+        doOnce(channelRegistryIndexName, () -> {
             IndexResponse channelRegistryIndexExistsResponse = elasticsearchClient.isIndexExists(new IndexRequest(channelRegistryIndexName));
             if (!channelRegistryIndexExistsResponse.isIndexExists()) {
                 elasticsearchClient.createIndex(channelRegistryIndexName, getMappingSchema(channelRegistryIndexName));
-                LOG.info("Channel Metadata index created: {}", channelRegistryIndexExistsResponse);
+                LOG.info("Channel Metadata index created: {}", channelRegistryIndexName);
 
                 elasticsearchClient.putMapping(new TypeDescriptor(channelRegistryIndexName, ChannelInfoSchema.CHANNEL_TYPE_NAME), ChannelInfoSchema.getChannelTypeSchema(enableSourceField));
             }
+            return null;
+        });
 
-            String clientRegistryIndexName = DatastoreUtils.getClientIndexName(scopeId);
+        String clientRegistryIndexName = DatastoreUtils.getClientIndexName(scopeId);
+        doOnce(clientRegistryIndexName, () -> {
             IndexResponse clientRegistryIndexExistsResponse = elasticsearchClient.isIndexExists(new IndexRequest(clientRegistryIndexName));
             if (!clientRegistryIndexExistsResponse.isIndexExists()) {
                 elasticsearchClient.createIndex(clientRegistryIndexName, getMappingSchema(clientRegistryIndexName));
-                LOG.info("Client Metadata index created: {}", clientRegistryIndexExistsResponse);
+                LOG.info("Client Metadata index created: {}", clientRegistryIndexName);
 
                 elasticsearchClient.putMapping(new TypeDescriptor(clientRegistryIndexName, ClientInfoSchema.CLIENT_TYPE_NAME), ClientInfoSchema.getClientTypeSchema(enableSourceField));
             }
+            return null;
+        });
 
-            String metricRegistryIndexName = DatastoreUtils.getMetricIndexName(scopeId);
+        String metricRegistryIndexName = DatastoreUtils.getMetricIndexName(scopeId);
+        doOnce(metricRegistryIndexName, () -> {
             IndexResponse metricRegistryIndexExistsResponse = elasticsearchClient.isIndexExists(new IndexRequest(metricRegistryIndexName));
             if (!metricRegistryIndexExistsResponse.isIndexExists()) {
                 elasticsearchClient.createIndex(metricRegistryIndexName, getMappingSchema(metricRegistryIndexName));
-                LOG.info("Metric Metadata index created: {}", metricRegistryIndexExistsResponse);
+                LOG.info("Metric Metadata index created: {}", metricRegistryIndexName);
 
                 elasticsearchClient.putMapping(new TypeDescriptor(metricRegistryIndexName, MetricInfoSchema.METRIC_TYPE_NAME), MetricInfoSchema.getMetricTypeSchema(enableSourceField));
             }
+            return null;
+        });
 
-            currentMetadata = new Metadata(dataIndexName, channelRegistryIndexName, clientRegistryIndexName, metricRegistryIndexName);
-            LOG.debug("Leaving updating metadata");
-        }
-
-        // Current metadata can only increase the custom mappings
-        // other fields does not change within the same account id
-        // and custom mappings are not and must not be exposed to
-        // outside this class to preserve thread safetyness
-        DatastoreCacheManager.getInstance().getMetadataCache().put(dataIndexName, currentMetadata);
-
-        return currentMetadata;
+        return new Metadata(dataIndexName, channelRegistryIndexName, clientRegistryIndexName, metricRegistryIndexName);
     }
 
     /**
      * Update metric mappings
+     * <p>
+     * Metrics already mapped are checked without locking.
+     * The mapping of each new metric is sent once, by the first thread which finds it; the other threads wait for it to be applied.
      *
      * @param scopeId
      * @param time
@@ -150,21 +278,42 @@ public class Schema {
             throw new ClientException(ClientErrorCodes.INTERNAL_ERROR, kaex, "Error while generating index name");
         }
         Metadata currentMetadata = DatastoreCacheManager.getInstance().getMetadataCache().get(newIndex);
+        if (currentMetadata == null) {
+            currentMetadata = synchIndex(scopeId, time);
+        }
 
-        ObjectNode metricsMapping = null;
-        Map<String, Metric> diffs = null;
+        // Update mappings only if a metric is new (not in cache)
+        if (currentMetadata.getMessageMappingsCache().keySet().containsAll(metrics.keySet())) {
+            return;
+        }
 
-        synchronized (Schema.class) {
-            // Update mappings only if a metric is new (not in cache)
-            diffs = getMessageMappingDiffs(currentMetadata, metrics);
-            if (diffs == null || diffs.isEmpty()) {
-                return;
+        CompletableFuture<Void> mappingsUpdate = new CompletableFuture<>();
+        List<CompletableFuture<Void>> otherMappingsUpdates = new ArrayList<>();
+        Map<String, Metric> diffs = getMessageMappingDiffs(currentMetadata, metrics, mappingsUpdate, otherMappingsUpdates);
+
+        if (!diffs.isEmpty()) {
+            try {
+                ObjectNode metricsMapping = getNewMessageMappingsBuilder(diffs);
+
+                LOG.trace("Sending dynamic message mappings: {}", metricsMapping);
+                DatastoreClientFactory.getInstance().getElasticsearchClient().putMapping(new TypeDescriptor(currentMetadata.getDataIndexName(), MessageSchema.MESSAGE_TYPE_NAME), metricsMapping);
+
+                currentMetadata.getMessageMappingsCache().putAll(diffs);
+                mappingsUpdate.complete(null);
+            } catch (ClientException | MappingException | RuntimeException e) {
+                mappingsUpdate.completeExceptionally(e);
+                throw e;
+            } finally {
+                for (String metricKey : diffs.keySet()) {
+                    currentMetadata.getPendingMessageMappings().remove(metricKey, mappingsUpdate);
+                }
             }
-            metricsMapping = getNewMessageMappingsBuilder(diffs);
         }
 
-        LOG.trace("Sending dynamic message mappings: {}", metricsMapping);
-        DatastoreClientFactory.getInstance().getElasticsearchClient().putMapping(new TypeDescriptor(currentMetadata.getDataIndexName(), MessageSchema.MESSAGE_TYPE_NAME), metricsMapping);
+        // Wait for the mappings sent by the other threads, so that they are applied before storing the message
+        for (CompletableFuture<Void> otherMappingsUpdate : otherMappingsUpdates) {
+            await(otherMappingsUpdate);
+        }
     }
 
     /**
@@ -217,23 +366,29 @@ public class Schema {
     }
 
     /**
-     * @param currentMetadata
-     * @param esMetrics
-     * @return
+     * Finds the metrics which are neither mapped nor being mapped by another thread, and marks them as being mapped by the given {@link CompletableFuture}.
+     *
+     * @param currentMetadata      The {@link Metadata} of the data index.
+     * @param esMetrics            The metrics of the message.
+     * @param mappingsUpdate       The {@link CompletableFuture} of the mappings update of the current thread.
+     * @param otherMappingsUpdates The {@link CompletableFuture}s of the mappings updates of the other threads to wait for.
+     * @return The metrics to be mapped by the current thread.
      * @since 1.0.0
      */
-    private Map<String, Metric> getMessageMappingDiffs(Metadata currentMetadata, Map<String, Metric> esMetrics) {
-        if (esMetrics == null || esMetrics.isEmpty()) {
-            return null;
-        }
-
-        Map<String, Metric> diffs = null;
+    private Map<String, Metric> getMessageMappingDiffs(Metadata currentMetadata, Map<String, Metric> esMetrics, CompletableFuture<Void> mappingsUpdate, List<CompletableFuture<Void>> otherMappingsUpdates) {
+        Map<String, Metric> diffs = new HashMap<>();
         for (Entry<String, Metric> esMetric : esMetrics.entrySet()) {
-            if (!currentMetadata.getMessageMappingsCache().containsKey(esMetric.getKey())) {
-                if (diffs == null) {
-                    diffs = new HashMap<>(100);
-                }
-                currentMetadata.getMessageMappingsCache().put(esMetric.getKey(), esMetric.getValue());
+            if (currentMetadata.getMessageMappingsCache().containsKey(esMetric.getKey())) {
+                continue;
+            }
+
+            CompletableFuture<Void> otherMappingsUpdate = currentMetadata.getPendingMessageMappings().putIfAbsent(esMetric.getKey(), mappingsUpdate);
+            if (otherMappingsUpdate != null) {
+                otherMappingsUpdates.add(otherMappingsUpdate);
+            } else if (currentMetadata.getMessageMappingsCache().containsKey(esMetric.getKey())) {
+                // Mapped by another thread in the meantime
+                currentMetadata.getPendingMessageMappings().remove(esMetric.getKey(), mappingsUpdate);
+            } else {
                 diffs.put(esMetric.getKey(), esMetric.getValue());
             }
         }
@@ -241,6 +396,64 @@ public class Schema {
         return diffs;
     }
 
+    /**
+     * Performs the given operation on an index, unless the same operation is already in progress.
+     * <p>
+     * In that case it waits for the operation in progress and returns its result.
+     *
+     * @param indexName      The index name.
+     * @param indexOperation The {@link IndexOperation} to perform.
+     * @param <T>            The result type.
+     * @return The result of the {@link IndexOperation}.
+     * @throws ClientException
+     * @throws MappingException
+     * @since 1.5.0
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T doOnce(String indexName, IndexOperation<T> indexOperation) throws ClientException, MappingException {
+        CompletableFuture<T> operation = new CompletableFuture<>();
+        CompletableFuture<T> otherOperation = (CompletableFuture<T>) PENDING_INDEX_OPERATIONS.putIfAbsent(indexName, operation);
+        if (otherOperation != null) {
+            return await(otherOperation);
+        }
+
+        try {
+            T result = indexOperation.perform();
+            operation.complete(result);
+            return result;
+        } catch (ClientException | MappingException | RuntimeException e) {
+            operation.completeExceptionally(e);
+            throw e;
+        } finally {
+            PENDING_INDEX_OPERATIONS.remove(indexName, operation);
+        }
+    }
+
+    /**
+     * Waits for an operation performed by another thread.
+     *
+     * @param operation The {@link CompletableFuture} of the operation.
+     * @param <T>       The result type.
+     * @return The result of the operation.
+     * @throws ClientException  If the operation failed with a {@link ClientException}, or with an unexpected error.
+     * @throws MappingException If the operation failed with a {@link MappingException}.
+     * @since 1.5.0
+     */
+    private static <T> T await(CompletableFuture<T> operation) throws ClientException, MappingException {
+        try {
+            return operation.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ClientException) {
+                throw (ClientException) cause;
+            } else if (cause instanceof MappingException) {
+                throw (MappingException) cause;
+            }
+
+            throw new ClientException(ClientErrorCodes.INTERNAL_ERROR, cause, "Error while waiting for the index operation of another thread");
+        }
+    }
+
     /**
      * @param idxName
      * @return
@@ -263,4 +476,15 @@ public class Schema {
         return rootNode;
     }
 
+    /**
+     * An operation on an index.
+     *
+     * @param <T> The result type.
+     * @since 1.5.0
+     */
+    @FunctionalInterface
+    private interface IndexOperation<T> {
+
+        T perform() throws ClientException, MappingException;
+    }
 }
@@ -66,6 +66,48 @@ public enum DatastoreSettingsKey implements SettingKey {
      * Elasticsearch index width. Allowed values: "week", "day", "hour"
      */
     INDEXING_WINDOW_OPTION("datastore.index.window"),
+    /**
+     * Enables the bulk ingestion of the messages: messages stored concurrently are grouped and inserted with a single bulk request
+     *
+     * @since 1.5.0
+     */
+    INGESTION_BULK_ENABLED("datastore.ingestion.bulk.enabled"),
+    /**
+     * Maximum number of messages inserted with a single bulk request
+     *
+     * @since 1.5.0
+     */
+    INGESTION_BULK_SIZE_MAX("datastore.ingestion.bulk.size.max"),
+    /**
+     * Maximum time (in milliseconds) a bulk request waits for the messages blocked on the full queue before being sent
+     *
+     * @since 1.5.0
+     */
+    INGESTION_BULK_FLUSH_INTERVAL("datastore.ingestion.bulk.flush.interval"),
+    /**
+     * Maximum number of messages waiting to be inserted. When reached, the callers are blocked until the pending messages are inserted
+     *
+     * @since 1.5.0
+     */
+    INGESTION_BULK_QUEUE_SIZE_MAX("datastore.ingestion.bulk.queue.size.max"),
+    /**
+     * Enables the creation of the data indexes of the next indexing window, ahead of time, for the scopes which are storing messages
+     *
+     * @since 1.5.0
+     */
+    INDEX_PRECREATION_ENABLED("datastore.index.precreation.enabled"),
+    /**
+     * Time (in seconds) before the start of the next indexing window when its data indexes are created
+     *
+     * @since 1.5.0
+     */
+    INDEX_PRECREATION_LEAD_TIME("datastore.index.precreation.lead.time"),
+    /**
+     * Interval (in seconds) between two checks for data indexes to be created ahead of time
+     *
+     * @since 1.5.0
+     */
+    INDEX_PRECREATION_CHECK_INTERVAL("datastore.index.precreation.check.interval"),
     /**
      * Disables the entire Datastore feature
      */
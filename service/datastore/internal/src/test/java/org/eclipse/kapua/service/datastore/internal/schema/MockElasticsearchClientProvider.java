@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.schema;
+
+import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClient;
+import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClientProvider;
+import org.eclipse.kapua.service.elasticsearch.client.ModelContext;
+import org.eclipse.kapua.service.elasticsearch.client.QueryConverter;
+import org.eclipse.kapua.service.elasticsearch.client.configuration.ElasticsearchClientConfiguration;
+import org.mockito.Mockito;
+
+/**
+ * {@link ElasticsearchClientProvider} used by the tests, set as {@code datastore.elasticsearch.provider}.
+ * <p>
+ * It provides a Mockito mock of the {@link ElasticsearchClient}, the same on each request so that the tests can stub and verify it.
+ *
+ * @since 1.5.0
+ */
+public class MockElasticsearchClientProvider implements ElasticsearchClientProvider<ElasticsearchClient> {
+
+    static final ElasticsearchClient<?> ELASTICSEARCH_CLIENT = Mockito.mock(ElasticsearchClient.class);
+
+    @Override
+    public ElasticsearchClientProvider<ElasticsearchClient> init() {
+        return this;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to close
+    }
+
+    @Override
+    public ElasticsearchClientProvider<ElasticsearchClient> withClientConfiguration(ElasticsearchClientConfiguration elasticsearchClientConfiguration) {
+        return this;
+    }
+
+    @Override
+    public ElasticsearchClientProvider<ElasticsearchClient> withModelContext(ModelContext modelContext) {
+        return this;
+    }
+
+    @Override
+    public ElasticsearchClientProvider<ElasticsearchClient> withModelConverter(QueryConverter queryConverter) {
+        return this;
+    }
+
+    @Override
+    public ElasticsearchClient getElasticsearchClient() {
+        return ELASTICSEARCH_CLIENT;
+    }
+}
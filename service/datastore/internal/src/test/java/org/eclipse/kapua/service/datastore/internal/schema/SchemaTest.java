@@ -0,0 +1,437 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.internal.schema;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.datastore.internal.DatastoreCacheManager;
+import org.eclipse.kapua.service.datastore.internal.client.DatastoreClientFactory;
+import org.eclipse.kapua.service.datastore.internal.mediator.DatastoreUtils;
+import org.eclipse.kapua.service.datastore.internal.mediator.Metric;
+import org.eclipse.kapua.service.datastore.internal.setting.DatastoreElasticsearchClientSettingsKey;
+import org.eclipse.kapua.service.elasticsearch.client.ElasticsearchClient;
+import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientErrorCodes;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.model.IndexRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.IndexResponse;
+import org.eclipse.kapua.service.elasticsearch.client.model.TypeDescriptor;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Category(JUnitTests.class)
+public class SchemaTest extends Assert {
+
+    private static final int THREADS = 8;
+
+    /**
+     * The time the first index operation is held, so that the other threads contend for it.
+     */
+    private static final long CONTENTION_TIME = 200L;
+
+    private static final long HOUR = 3600000L;
+
+    private static final AtomicLong SCOPE_ID_GENERATOR = new AtomicLong(100);
+
+    private static final ElasticsearchClient<?> ELASTICSEARCH_CLIENT = MockElasticsearchClientProvider.ELASTICSEARCH_CLIENT;
+
+    private final Schema schema = new Schema();
+
+    private ExecutorService executor;
+    private CountDownLatch release;
+    private KapuaId scopeId;
+    private long now;
+    private String dataIndexName;
+
+    private Set<String> existingIndexes;
+    private Map<String, AtomicInteger> createIndexCalls;
+    private Queue<String> mappedMetrics;
+
+    @BeforeClass
+    public static void setUpElasticsearchClient() {
+        System.setProperty(DatastoreElasticsearchClientSettingsKey.PROVIDER.key(), MockElasticsearchClientProvider.class.getName());
+    }
+
+    @AfterClass
+    public static void tearDownElasticsearchClient() {
+        DatastoreClientFactory.close();
+        System.clearProperty(DatastoreElasticsearchClientSettingsKey.PROVIDER.key());
+    }
+
+    @Before
+    public void initialize() throws KapuaException {
+        Mockito.reset(ELASTICSEARCH_CLIENT);
+
+        executor = Executors.newFixedThreadPool(THREADS);
+        release = new CountDownLatch(1);
+
+        // The Schema state is shared, so each test has its own scope
+        scopeId = new KapuaEid(BigInteger.valueOf(SCOPE_ID_GENERATOR.incrementAndGet()));
+        now = System.currentTimeMillis();
+        dataIndexName = DatastoreUtils.getDataIndexName(scopeId, now, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+
+        existingIndexes = ConcurrentHashMap.newKeySet();
+        createIndexCalls = new ConcurrentHashMap<>();
+        mappedMetrics = new ConcurrentLinkedQueue<>();
+
+        Mockito.when(ELASTICSEARCH_CLIENT.isIndexExists(Mockito.any(IndexRequest.class))).thenAnswer(invocation -> {
+            String indexName = ((IndexRequest) invocation.getArguments()[0]).getIndex();
+            if (indexName.equals(dataIndexName)) {
+                hold();
+            }
+            return new IndexResponse(existingIndexes.contains(indexName));
+        });
+        Mockito.doAnswer(invocation -> {
+            String indexName = (String) invocation.getArguments()[0];
+            createIndexCalls.computeIfAbsent(indexName, i -> new AtomicInteger()).incrementAndGet();
+            existingIndexes.add(indexName);
+            return null;
+        }).when(ELASTICSEARCH_CLIENT).createIndex(Mockito.anyString(), Mockito.any(ObjectNode.class));
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void synchConcurrentTest() throws Exception {
+        List<Future<Metadata>> synchs = submitConcurrently(() -> schema.synch(scopeId, now));
+
+        Metadata metadata = null;
+        for (Future<Metadata> synch : synchs) {
+            Metadata synchMetadata = synch.get(10, TimeUnit.SECONDS);
+            if (metadata == null) {
+                metadata = synchMetadata;
+            }
+            assertSame("Expected and actual values should be the same.", metadata, synchMetadata);
+        }
+
+        // Each index is created once, by the first thread
+        assertEquals("Expected and actual values should be the same.", 1, createIndexCalls.get(dataIndexName).get());
+        assertEquals("Expected and actual values should be the same.", 1, createIndexCalls.get(DatastoreUtils.getChannelIndexName(scopeId)).get());
+        assertEquals("Expected and actual values should be the same.", 1, createIndexCalls.get(DatastoreUtils.getClientIndexName(scopeId)).get());
+        assertEquals("Expected and actual values should be the same.", 1, createIndexCalls.get(DatastoreUtils.getMetricIndexName(scopeId)).get());
+        Mockito.verify(ELASTICSEARCH_CLIENT, Mockito.times(1)).isIndexExists(Mockito.argThat(new IndexRequestMatcher(dataIndexName)));
+        Mockito.verify(ELASTICSEARCH_CLIENT, Mockito.times(1)).putMapping(Mockito.argThat(new TypeDescriptorMatcher(dataIndexName, MessageSchema.MESSAGE_TYPE_NAME)), Mockito.any(JsonNode.class));
+    }
+
+    @Test
+    public void synchLeaderFailureTest() throws Exception {
+        Mockito.doAnswer(invocation -> {
+            createIndexCalls.computeIfAbsent(dataIndexName, i -> new AtomicInteger()).incrementAndGet();
+            throw new ClientException(ClientErrorCodes.INTERNAL_ERROR, "Index creation failed");
+        }).when(ELASTICSEARCH_CLIENT).createIndex(Mockito.eq(dataIndexName), Mockito.any(ObjectNode.class));
+
+        List<Future<Metadata>> synchs = submitConcurrently(() -> schema.synch(scopeId, now));
+
+        // The threads waiting for the first one see its failure
+        Set<Throwable> failures = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<Metadata> synch : synchs) {
+            failures.add(getFailure(synch));
+        }
+        assertEquals("Expected and actual values should be the same.", 1, createIndexCalls.get(dataIndexName).get());
+        assertEquals("Expected and actual values should be the same.", 1, failures.size());
+        assertTrue("True expected.", failures.iterator().next() instanceof ClientException);
+        assertNull("Null expected.", DatastoreCacheManager.getInstance().getMetadataCache().get(dataIndexName));
+
+        // The failed operation is not left pending
+        Mockito.doNothing().when(ELASTICSEARCH_CLIENT).createIndex(Mockito.eq(dataIndexName), Mockito.any(ObjectNode.class));
+        assertNotNull("Not null expected.", schema.synch(scopeId, now));
+    }
+
+    @Test
+    public void updateMessageMappingsConcurrentTest() throws Exception {
+        release.countDown();
+        Metadata metadata = schema.synch(scopeId, now);
+
+        release = new CountDownLatch(1);
+        stubMessageMappings(false);
+
+        // Each thread maps a metric of its own and a metric shared with the other threads
+        AtomicInteger threadIndex = new AtomicInteger();
+        List<Future<Void>> updates = submitConcurrently(() -> {
+            Map<String, Metric> metrics = new HashMap<>();
+            metrics.put("shared", new Metric("shared", SchemaKeys.TYPE_DOUBLE));
+            String metricName = "metric-" + threadIndex.getAndIncrement();
+            metrics.put(metricName, new Metric(metricName, SchemaKeys.TYPE_INTEGER));
+
+            schema.updateMessageMappings(scopeId, now, metrics);
+            return null;
+        });
+
+        for (Future<Void> update : updates) {
+            update.get(10, TimeUnit.SECONDS);
+        }
+
+        // Each mapping is sent once and none is lost
+        List<String> expectedMetrics = new ArrayList<>();
+        expectedMetrics.add("shared");
+        for (int i = 0; i < THREADS; i++) {
+            expectedMetrics.add("metric-" + i);
+        }
+
+        List<String> sentMetrics = new ArrayList<>(mappedMetrics);
+        Collections.sort(expectedMetrics);
+        Collections.sort(sentMetrics);
+        assertEquals("Expected and actual values should be the same.", expectedMetrics, sentMetrics);
+        assertEquals("Expected and actual values should be the same.", THREADS + 1, metadata.getMessageMappingsCache().size());
+        assertTrue("True expected.", metadata.getMessageMappingsCache().keySet().containsAll(expectedMetrics));
+        assertTrue("True expected.", metadata.getPendingMessageMappings().isEmpty());
+    }
+
+    @Test
+    public void updateMessageMappingsLeaderFailureTest() throws Exception {
+        release.countDown();
+        Metadata metadata = schema.synch(scopeId, now);
+
+        release = new CountDownLatch(1);
+        stubMessageMappings(true);
+
+        List<Future<Void>> updates = submitConcurrently(() -> {
+            schema.updateMessageMappings(scopeId, now, Collections.singletonMap("shared", new Metric("shared", SchemaKeys.TYPE_DOUBLE)));
+            return null;
+        });
+
+        // The threads waiting for the first one see its failure
+        Set<Throwable> failures = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<Void> update : updates) {
+            failures.add(getFailure(update));
+        }
+        assertEquals("Expected and actual values should be the same.", 1, failures.size());
+        assertTrue("True expected.", failures.iterator().next() instanceof ClientException);
+        assertTrue("True expected.", metadata.getMessageMappingsCache().isEmpty());
+        assertTrue("True expected.", metadata.getPendingMessageMappings().isEmpty());
+
+        // The failed mapping is sent again
+        schema.updateMessageMappings(scopeId, now, Collections.singletonMap("shared", new Metric("shared", SchemaKeys.TYPE_DOUBLE)));
+        assertEquals("Expected and actual values should be the same.", Collections.singletonList("shared"), new ArrayList<>(mappedMetrics));
+        assertTrue("True expected.", metadata.getMessageMappingsCache().containsKey("shared"));
+    }
+
+    @Test
+    public void preCreateNextIndexesTest() throws Exception {
+        release.countDown();
+        schema.synch(scopeId, now);
+        schema.updateMessageMappings(scopeId, now, Collections.singletonMap("temperature", new Metric("temperature", SchemaKeys.TYPE_DOUBLE)));
+
+        long nextWindowTime = getNextWindowTime();
+        String nextDataIndexName = DatastoreUtils.getDataIndexName(scopeId, nextWindowTime, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+
+        schema.preCreateNextIndexes(now, nextWindowTime - now);
+
+        // The next data index is created and cached
+        assertEquals("Expected and actual values should be the same.", 1, createIndexCalls.get(nextDataIndexName).get());
+        Metadata nextMetadata = DatastoreCacheManager.getInstance().getMetadataCache().get(nextDataIndexName);
+        assertNotNull("Not null expected.", nextMetadata);
+
+        // The metric mappings of the current data index are copied
+        assertTrue("True expected.", nextMetadata.getMessageMappingsCache().containsKey("temperature"));
+        ArgumentCaptor<JsonNode> mappings = ArgumentCaptor.forClass(JsonNode.class);
+        Mockito.verify(ELASTICSEARCH_CLIENT, Mockito.atLeastOnce()).putMapping(Mockito.argThat(new TypeDescriptorMatcher(nextDataIndexName, MessageSchema.MESSAGE_TYPE_NAME)), mappings.capture());
+        assertTrue("True expected.", mappings.getAllValues().stream()
+                .anyMatch(mapping -> mapping.path(SchemaKeys.FIELD_NAME_PROPERTIES).path(SchemaKeys.FIELD_NAME_METRICS).path(SchemaKeys.FIELD_NAME_PROPERTIES).has("temperature")));
+
+        // It is created once
+        schema.preCreateNextIndexes(now, nextWindowTime - now);
+        assertEquals("Expected and actual values should be the same.", 1, createIndexCalls.get(nextDataIndexName).get());
+    }
+
+    @Test
+    public void preCreateNextIndexesOutsideLeadTimeTest() throws Exception {
+        release.countDown();
+        schema.synch(scopeId, now);
+
+        long nextWindowTime = getNextWindowTime();
+        String nextDataIndexName = DatastoreUtils.getDataIndexName(scopeId, nextWindowTime, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+
+        // The next indexing window starts after the lead time
+        schema.preCreateNextIndexes(now, nextWindowTime - HOUR - now);
+
+        assertNull("Null expected.", createIndexCalls.get(nextDataIndexName));
+        assertNull("Null expected.", DatastoreCacheManager.getInstance().getMetadataCache().get(nextDataIndexName));
+    }
+
+    @Test
+    public void preCreateNextIndexesInactiveScopeTest() throws Exception {
+        release.countDown();
+        schema.synch(scopeId, now);
+
+        long nextWindowTime = getNextWindowTime();
+        String nextDataIndexName = DatastoreUtils.getDataIndexName(scopeId, nextWindowTime, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK);
+
+        // No messages stored in the indexing window of the check, so the scope is no longer active
+        schema.preCreateNextIndexes(nextWindowTime, 0);
+
+        schema.preCreateNextIndexes(now, nextWindowTime - now);
+        assertNull("Null expected.", createIndexCalls.get(nextDataIndexName));
+
+        // Storing messages marks the scope as active again
+        schema.synch(scopeId, now);
+        schema.preCreateNextIndexes(now, nextWindowTime - now);
+        assertEquals("Expected and actual values should be the same.", 1, createIndexCalls.get(nextDataIndexName).get());
+    }
+
+    /**
+     * Records the metrics mapped on the data index.
+     * <p>
+     * The first mapping is held while the other threads contend for it.
+     *
+     * @param failFirst Whether the first mapping fails.
+     */
+    private void stubMessageMappings(boolean failFirst) throws ClientException {
+        AtomicBoolean first = new AtomicBoolean(true);
+        Mockito.doAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                hold();
+
+                if (failFirst) {
+                    throw new ClientException(ClientErrorCodes.INTERNAL_ERROR, "Mapping failed");
+                }
+            }
+
+            JsonNode mapping = (JsonNode) invocation.getArguments()[1];
+            Iterator<String> metricNames = mapping.path(SchemaKeys.FIELD_NAME_PROPERTIES).path(SchemaKeys.FIELD_NAME_METRICS).path(SchemaKeys.FIELD_NAME_PROPERTIES).fieldNames();
+            metricNames.forEachRemaining(mappedMetrics::add);
+            return null;
+        }).when(ELASTICSEARCH_CLIENT).putMapping(Mockito.argThat(new TypeDescriptorMatcher(dataIndexName, MessageSchema.MESSAGE_TYPE_NAME)), Mockito.any(JsonNode.class));
+    }
+
+    /**
+     * Submits the given task to all the threads, which start it together.
+     * <p>
+     * The first index operation is held for {@link #CONTENTION_TIME}, then it is released.
+     *
+     * @param task The task to submit.
+     * @param <T>  The task result type.
+     * @return The {@link Future}s of the tasks.
+     */
+    private <T> List<Future<T>> submitConcurrently(Callable<T> task) throws InterruptedException {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+
+        Thread.sleep(CONTENTION_TIME);
+        release.countDown();
+
+        return futures;
+    }
+
+    /**
+     * Gets a time within the first hour of the next indexing window.
+     *
+     * @return A time within the first hour of the next indexing window.
+     */
+    private long getNextWindowTime() throws KapuaException {
+        long nextWindowTime = now;
+        while (dataIndexName.equals(DatastoreUtils.getDataIndexName(scopeId, nextWindowTime, DatastoreUtils.INDEXING_WINDOW_OPTION_WEEK))) {
+            nextWindowTime += HOUR;
+        }
+        return nextWindowTime;
+    }
+
+    private void hold() throws InterruptedException {
+        assertTrue("True expected.", release.await(10, TimeUnit.SECONDS));
+    }
+
+    private static Throwable getFailure(Future<?> future) throws InterruptedException, TimeoutException {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+
+        fail("Failure expected.");
+        return null;
+    }
+
+    /**
+     * Matches the {@link TypeDescriptor}s of the given index and type.
+     */
+    private static class TypeDescriptorMatcher extends ArgumentMatcher<TypeDescriptor> {
+
+        private final String indexName;
+        private final String typeName;
+
+        TypeDescriptorMatcher(String indexName, String typeName) {
+            this.indexName = indexName;
+            this.typeName = typeName;
+        }
+
+        @Override
+        public boolean matches(Object argument) {
+            return argument instanceof TypeDescriptor && indexName.equals(((TypeDescriptor) argument).getIndex()) && typeName.equals(((TypeDescriptor) argument).getType());
+        }
+    }
+
+    /**
+     * Matches the {@link IndexRequest}s of the given index.
+     */
+    private static class IndexRequestMatcher extends ArgumentMatcher<IndexRequest> {
+
+        private final String indexName;
+
+        IndexRequestMatcher(String indexName) {
+            this.indexName = indexName;
+        }
+
+        @Override
+        public boolean matches(Object argument) {
+            return argument instanceof IndexRequest && indexName.equals(((IndexRequest) argument).getIndex());
+        }
+    }
+}
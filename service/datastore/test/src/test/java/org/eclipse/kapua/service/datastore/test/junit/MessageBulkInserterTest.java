@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.test.junit;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.datastore.internal.MessageBulkInserter;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientActionResponseException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientCommunicationException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientException;
+import org.eclipse.kapua.service.elasticsearch.client.exception.ClientUnavailableException;
+import org.eclipse.kapua.service.elasticsearch.client.model.BulkInsertResponse;
+import org.eclipse.kapua.service.elasticsearch.client.model.InsertRequest;
+import org.eclipse.kapua.service.elasticsearch.client.model.InsertResponse;
+import org.eclipse.kapua.service.elasticsearch.client.model.TypeDescriptor;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class MessageBulkInserterTest extends Assert {
+
+    private static final TypeDescriptor TYPE_DESCRIPTOR = new TypeDescriptor("index", "_doc");
+
+    @Test
+    public void insertTest() throws Exception {
+        List<Integer> bulkSizes = new CopyOnWriteArrayList<>();
+        MessageBulkInserter bulkInserter = new MessageBulkInserter(10, 50, 100, bulkInsertRequest -> {
+            bulkSizes.add(bulkInsertRequest.getRequest().size());
+
+            BulkInsertResponse bulkInsertResponse = new BulkInsertResponse();
+            for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+                bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor()));
+            }
+            return bulkInsertResponse;
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(25);
+        try {
+            List<Future<InsertResponse>> insertResponses = new ArrayList<>();
+            for (int i = 0; i < 25; i++) {
+                String id = "id-" + i;
+                insertResponses.add(executorService.submit(() -> bulkInserter.insert(new InsertRequest(id, TYPE_DESCRIPTOR, id))));
+            }
+
+            for (int i = 0; i < 25; i++) {
+                InsertResponse insertResponse = insertResponses.get(i).get(10, TimeUnit.SECONDS);
+                assertTrue("True expected.", insertResponse.isResult());
+                assertEquals("Expected and actual values should be the same.", "id-" + i, insertResponse.getId());
+            }
+        } finally {
+            executorService.shutdownNow();
+            bulkInserter.close();
+        }
+
+        assertEquals("Expected and actual values should be the same.", 25, bulkSizes.stream().mapToInt(Integer::intValue).sum());
+        for (Integer bulkSize : bulkSizes) {
+            assertTrue("True expected.", bulkSize <= 10);
+        }
+    }
+
+    @Test
+    public void insertItemFailureTest() throws Exception {
+        MessageBulkInserter bulkInserter = new MessageBulkInserter(10, 0, 100, bulkInsertRequest -> {
+            BulkInsertResponse bulkInsertResponse = new BulkInsertResponse();
+            for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+                if ("conflict".equals(insertRequest.getId())) {
+                    bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor(), new ClientActionResponseException("Insert", "version conflict", "409")));
+                } else {
+                    bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor()));
+                }
+            }
+            return bulkInsertResponse;
+        });
+
+        try {
+            assertEquals("Expected and actual values should be the same.", "ok", bulkInserter.insert(new InsertRequest("ok", TYPE_DESCRIPTOR, "ok")).getId());
+            try {
+                bulkInserter.insert(new InsertRequest("conflict", TYPE_DESCRIPTOR, "conflict"));
+                fail("ClientActionResponseException expected.");
+            } catch (ClientActionResponseException e) {
+                assertEquals("Expected and actual values should be the same.", "409", e.getResponseCode());
+            }
+        } finally {
+            bulkInserter.close();
+        }
+    }
+
+    @Test(expected = ClientCommunicationException.class)
+    public void insertBulkFailureTest() throws ClientException {
+        MessageBulkInserter bulkInserter = new MessageBulkInserter(10, 0, 100, bulkInsertRequest -> {
+            throw new ClientCommunicationException();
+        });
+
+        try {
+            bulkInserter.insert(new InsertRequest("id", TYPE_DESCRIPTOR, "id"));
+        } finally {
+            bulkInserter.close();
+        }
+    }
+
+    @Test
+    public void insertAsyncTest() throws Exception {
+        CountDownLatch firstBulkStarted = new CountDownLatch(1);
+        CountDownLatch firstBulkReleased = new CountDownLatch(1);
+        List<Integer> bulkSizes = new CopyOnWriteArrayList<>();
+        MessageBulkInserter bulkInserter = new MessageBulkInserter(10, 50, 10, bulkInsertRequest -> {
+            bulkSizes.add(bulkInsertRequest.getRequest().size());
+            firstBulkStarted.countDown();
+            try {
+                firstBulkReleased.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            BulkInsertResponse bulkInsertResponse = new BulkInsertResponse();
+            for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+                bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor()));
+            }
+            return bulkInsertResponse;
+        });
+
+        // Two producers which do not wait for their messages to be inserted
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<List<CompletableFuture<InsertResponse>>>> producers = new ArrayList<>();
+            for (int p = 0; p < 2; p++) {
+                String producer = "producer-" + p;
+                producers.add(executorService.submit(() -> {
+                    List<CompletableFuture<InsertResponse>> insertResponses = new ArrayList<>();
+                    for (int i = 0; i < 20; i++) {
+                        String id = producer + "-" + i;
+                        insertResponses.add(bulkInserter.insertAsync(new InsertRequest(id, TYPE_DESCRIPTOR, id)));
+                    }
+                    return insertResponses;
+                }));
+            }
+
+            // While the first bulk is performed the following messages are queued, up to the queue size
+            assertTrue("True expected.", firstBulkStarted.await(10, TimeUnit.SECONDS));
+            firstBulkReleased.countDown();
+
+            for (Future<List<CompletableFuture<InsertResponse>>> producer : producers) {
+                for (CompletableFuture<InsertResponse> insertResponse : producer.get(10, TimeUnit.SECONDS)) {
+                    assertTrue("True expected.", insertResponse.get(10, TimeUnit.SECONDS).isResult());
+                }
+            }
+        } finally {
+            executorService.shutdownNow();
+            bulkInserter.close();
+        }
+
+        assertEquals("Expected and actual values should be the same.", 40, bulkSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue("True expected.", bulkSizes.stream().anyMatch(bulkSize -> bulkSize > 2));
+        for (Integer bulkSize : bulkSizes) {
+            assertTrue("True expected.", bulkSize <= 10);
+        }
+    }
+
+    @Test
+    public void insertNoOtherProducerTest() throws Exception {
+        MessageBulkInserter bulkInserter = new MessageBulkInserter(10, 60000, 100, bulkInsertRequest -> {
+            BulkInsertResponse bulkInsertResponse = new BulkInsertResponse();
+            for (InsertRequest insertRequest : bulkInsertRequest.getRequest()) {
+                bulkInsertResponse.add(new InsertResponse(insertRequest.getId(), insertRequest.getTypeDescriptor()));
+            }
+            return bulkInsertResponse;
+        });
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            // The bulk is sent without waiting for the flush interval
+            Future<InsertResponse> insertResponse = executorService.submit(() -> bulkInserter.insert(new InsertRequest("id", TYPE_DESCRIPTOR, "id")));
+            assertEquals("Expected and actual values should be the same.", "id", insertResponse.get(10, TimeUnit.SECONDS).getId());
+        } finally {
+            executorService.shutdownNow();
+            bulkInserter.close();
+        }
+    }
+
+    @Test(expected = ClientUnavailableException.class)
+    public void insertAsyncClosedTest() throws ClientException {
+        MessageBulkInserter bulkInserter = new MessageBulkInserter(10, 0, 100, bulkInsertRequest -> new BulkInsertResponse());
+        bulkInserter.close();
+
+        bulkInserter.insertAsync(new InsertRequest("id", TYPE_DESCRIPTOR, "id"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorInvalidBulkSizeTest() {
+        new MessageBulkInserter(0, 0, 100, bulkInsertRequest -> new BulkInsertResponse());
+    }
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.datastore.test.junit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.eclipse.kapua.KapuaIllegalArgumentException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.datastore.internal.converter.QueryConverterImpl;
+import org.eclipse.kapua.service.datastore.internal.converter.SearchAfterCursor;
+import org.eclipse.kapua.service.datastore.internal.model.query.ChannelInfoQueryImpl;
+import org.eclipse.kapua.service.datastore.internal.model.query.MessageQueryImpl;
+import org.eclipse.kapua.service.datastore.internal.schema.MessageSchema;
+import org.eclipse.kapua.service.elasticsearch.client.SchemaKeys;
+import org.eclipse.kapua.service.elasticsearch.client.exception.QueryMappingException;
+import org.eclipse.kapua.service.storable.model.query.SortDirection;
+import org.eclipse.kapua.service.storable.model.query.SortField;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+@Category(JUnitTests.class)
+public class SearchAfterCursorTest extends Assert {
+
+    @Test
+    public void encodeDecodeTest() throws Exception {
+        List<Object> sortValues = Arrays.asList(1609459200000L, "0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0");
+
+        String cursor = SearchAfterCursor.encode(sortValues);
+        assertNotNull("Not null expected.", cursor);
+        assertFalse("False expected.", cursor.contains("="));
+
+        ArrayNode searchAfter = SearchAfterCursor.decode(cursor);
+        assertEquals("Expected and actual values should be the same.", 2, searchAfter.size());
+        assertEquals("Expected and actual values should be the same.", 1609459200000L, searchAfter.get(0).asLong());
+        assertEquals("Expected and actual values should be the same.", "0f1e2d3c-4b5a-6978-8796-a5b4c3d2e1f0", searchAfter.get(1).asText());
+    }
+
+    @Test
+    public void encodeEmptyTest() {
+        assertNull("Null expected.", SearchAfterCursor.encode(null));
+        assertNull("Null expected.", SearchAfterCursor.encode(Collections.emptyList()));
+    }
+
+    @Test
+    public void decodeInvalidTest() {
+        String[] invalidCursors = {"", "not a cursor", SearchAfterCursor.encode(Collections.singletonList(Collections.singletonMap("a", "b"))), "e30"};
+
+        for (String invalidCursor : invalidCursors) {
+            try {
+                SearchAfterCursor.decode(invalidCursor);
+                fail("KapuaIllegalArgumentException expected for: " + invalidCursor);
+            } catch (KapuaIllegalArgumentException e) {
+                assertEquals("Expected and actual values should be the same.", "cursor", e.getArgumentName());
+            }
+        }
+    }
+
+    @Test
+    public void convertQueryTiebreakerTest() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(new KapuaEid(BigInteger.ONE));
+        query.setLimit(10);
+        query.setSortFields(Collections.singletonList(SortField.of(MessageSchema.MESSAGE_TIMESTAMP, SortDirection.DESC)));
+        query.setCursor("");
+
+        JsonNode queryNode = new QueryConverterImpl().convertQuery(query);
+
+        // The first page of a cursor paging is sorted as the following ones
+        JsonNode sortNode = queryNode.get(SchemaKeys.KEY_SORT);
+        assertEquals("Expected and actual values should be the same.", 2, sortNode.size());
+        assertEquals("Expected and actual values should be the same.", SortDirection.DESC.name(), sortNode.get(0).get(MessageSchema.MESSAGE_TIMESTAMP).asText());
+        assertEquals("Expected and actual values should be the same.", SortDirection.ASC.name(), sortNode.get(1).get(MessageSchema.MESSAGE_ID).asText());
+        assertNull("Null expected.", queryNode.get(SchemaKeys.KEY_FROM));
+        assertNull("Null expected.", queryNode.get(SchemaKeys.KEY_SEARCH_AFTER));
+    }
+
+    @Test
+    public void convertQueryOffsetTest() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(new KapuaEid(BigInteger.ONE));
+        query.setLimit(10);
+        query.setOffset(20);
+        query.setSortFields(Collections.singletonList(SortField.of(MessageSchema.MESSAGE_TIMESTAMP, SortDirection.DESC)));
+
+        JsonNode queryNode = new QueryConverterImpl().convertQuery(query);
+
+        // No tiebreaker without a cursor
+        JsonNode sortNode = queryNode.get(SchemaKeys.KEY_SORT);
+        assertEquals("Expected and actual values should be the same.", 1, sortNode.size());
+        assertEquals("Expected and actual values should be the same.", SortDirection.DESC.name(), sortNode.get(0).get(MessageSchema.MESSAGE_TIMESTAMP).asText());
+        assertEquals("Expected and actual values should be the same.", 20, queryNode.get(SchemaKeys.KEY_FROM).asInt());
+        assertEquals("Expected and actual values should be the same.", 10, queryNode.get(SchemaKeys.KEY_SIZE).asInt());
+        assertNull("Null expected.", queryNode.get(SchemaKeys.KEY_SEARCH_AFTER));
+    }
+
+    @Test
+    public void convertQueryCursorTest() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(new KapuaEid(BigInteger.ONE));
+        query.setLimit(10);
+        query.setOffset(20);
+        query.setSortFields(Arrays.asList(SortField.of(MessageSchema.MESSAGE_ID, SortDirection.DESC), SortField.of(MessageSchema.MESSAGE_TIMESTAMP, SortDirection.ASC)));
+        query.setCursor(SearchAfterCursor.encode(Arrays.asList("id", 1609459200000L)));
+
+        JsonNode queryNode = new QueryConverterImpl().convertQuery(query);
+
+        assertEquals("Expected and actual values should be the same.", 2, queryNode.get(SchemaKeys.KEY_SORT).size());
+        assertNull("Null expected.", queryNode.get(SchemaKeys.KEY_FROM));
+        assertEquals("Expected and actual values should be the same.", 10, queryNode.get(SchemaKeys.KEY_SIZE).asInt());
+
+        JsonNode searchAfterNode = queryNode.get(SchemaKeys.KEY_SEARCH_AFTER);
+        assertEquals("Expected and actual values should be the same.", "id", searchAfterNode.get(0).asText());
+        assertEquals("Expected and actual values should be the same.", 1609459200000L, searchAfterNode.get(1).asLong());
+    }
+
+    @Test(expected = QueryMappingException.class)
+    public void convertQueryInvalidCursorTest() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(new KapuaEid(BigInteger.ONE));
+        query.setCursor("not a cursor");
+
+        new QueryConverterImpl().convertQuery(query);
+    }
+
+    @Test
+    public void decodeCursorArityTest() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(new KapuaEid(BigInteger.ONE));
+        query.setLimit(10);
+        query.setSortFields(Collections.singletonList(SortField.of(MessageSchema.MESSAGE_TIMESTAMP, SortDirection.DESC)));
+
+        // One value for the timestamp and one for the message id tiebreaker
+        query.setCursor(SearchAfterCursor.encode(Arrays.asList(1609459200000L, "id")));
+        assertEquals("Expected and actual values should be the same.", 2, QueryConverterImpl.decodeCursor(query).size());
+
+        List<List<Object>> invalidSortValues = Arrays.asList(
+                Collections.singletonList(1609459200000L),
+                Arrays.asList(1609459200000L, "id", "other"));
+        for (List<Object> sortValues : invalidSortValues) {
+            query.setCursor(SearchAfterCursor.encode(sortValues));
+            try {
+                QueryConverterImpl.decodeCursor(query);
+                fail("KapuaIllegalArgumentException expected for: " + sortValues);
+            } catch (KapuaIllegalArgumentException e) {
+                assertEquals("Expected and actual values should be the same.", "cursor", e.getArgumentName());
+            }
+        }
+    }
+
+    @Test
+    public void decodeCursorChannelTiebreakerTest() throws Exception {
+        ChannelInfoQueryImpl query = new ChannelInfoQueryImpl(new KapuaEid(BigInteger.ONE));
+        query.setLimit(10);
+
+        // Channels are paged by client id and channel
+        query.setCursor(SearchAfterCursor.encode(Arrays.asList("client-1", "a/b")));
+        assertEquals("Expected and actual values should be the same.", 2, QueryConverterImpl.decodeCursor(query).size());
+
+        query.setCursor(SearchAfterCursor.encode(Collections.singletonList("client-1")));
+        try {
+            QueryConverterImpl.decodeCursor(query);
+            fail("KapuaIllegalArgumentException expected");
+        } catch (KapuaIllegalArgumentException e) {
+            assertEquals("Expected and actual values should be the same.", "cursor", e.getArgumentName());
+        }
+    }
+
+    @Test
+    public void decodeCursorFirstPageTest() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(new KapuaEid(BigInteger.ONE));
+        query.setCursor("");
+
+        assertNull("Null expected.", QueryConverterImpl.decodeCursor(query));
+    }
+
+    @Test(expected = QueryMappingException.class)
+    public void convertQueryCursorArityTest() throws Exception {
+        MessageQueryImpl query = new MessageQueryImpl(new KapuaEid(BigInteger.ONE));
+        query.setLimit(10);
+        query.setSortFields(Collections.singletonList(SortField.of(MessageSchema.MESSAGE_TIMESTAMP, SortDirection.DESC)));
+        query.setCursor(SearchAfterCursor.encode(Collections.singletonList(1609459200000L)));
+
+        new QueryConverterImpl().convertQuery(query);
+    }
+}
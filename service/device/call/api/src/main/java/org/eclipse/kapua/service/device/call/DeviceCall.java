@@ -20,6 +20,7 @@ import org.eclipse.kapua.service.device.call.message.app.response.DeviceResponse
 
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
+import java.util.concurrent.CompletionStage;
 
 /**
  * {@link DeviceCall} definition.
@@ -104,6 +105,19 @@ public interface DeviceCall<RQ extends DeviceRequestMessage<?, ?>, RS extends De
      */
     RS options(@NotNull RQ requestMessage, @Nullable Long timeout) throws DeviceCallTimeoutException, DeviceCallSendException;
 
+    /**
+     * Sends a request without blocking while waiting for the response.
+     * <p>
+     * The request is performed according to the {@link org.eclipse.kapua.service.device.call.message.app.request.DeviceRequestChannel#getMethod()}.
+     * The returned {@link CompletionStage} is completed exceptionally with a {@link DeviceCallTimeoutException} if waiting of the response goes on timeout,
+     * or with a {@link DeviceCallSendException} if sending the request produces any error.
+     *
+     * @param requestMessage The {@link DeviceRequestMessage} to send.
+     * @param timeout        The timeout of the request.
+     * @return The {@link CompletionStage} of the {@link DeviceResponseMessage}.
+     * @since 1.5.0
+     */
+    CompletionStage<RS> sendAsync(@NotNull RQ requestMessage, @Nullable Long timeout);
 
     /**
      * Get the {@link DeviceMessage} type.
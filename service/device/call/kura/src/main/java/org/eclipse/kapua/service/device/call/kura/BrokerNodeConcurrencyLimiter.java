@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.call.kura;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of asynchronous requests in-flight towards each broker node.
+ * <p>
+ * The requests exceeding the limit of their broker node are queued, without blocking the submitter, and started as soon as a previous request completes.
+ * The queue of each broker node is bounded: once it is full the requests are rejected.
+ * Requests are started and their results are completed by the given {@link Executor}, so that neither the submitter nor the transport threads
+ * which complete the responses run them.
+ *
+ * @since 1.5.0
+ */
+class BrokerNodeConcurrencyLimiter {
+
+    private final int concurrencyMax;
+    private final int waitingMax;
+    private final Executor executor;
+
+    private final Map<String, BrokerNodeQueue> brokerNodeQueues = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param concurrencyMax The maximum number of requests in-flight towards a single broker node.
+     * @param waitingMax     The maximum number of requests waiting to be started towards a single broker node.
+     * @param executor       The {@link Executor} which starts the requests and completes their results.
+     * @since 1.5.0
+     */
+    BrokerNodeConcurrencyLimiter(int concurrencyMax, int waitingMax, Executor executor) {
+        if (concurrencyMax < 1) {
+            throw new IllegalArgumentException("concurrencyMax must be greater than 0: " + concurrencyMax);
+        }
+        if (waitingMax < 0) {
+            throw new IllegalArgumentException("waitingMax must not be negative: " + waitingMax);
+        }
+
+        this.concurrencyMax = concurrencyMax;
+        this.waitingMax = waitingMax;
+        this.executor = executor;
+    }
+
+    /**
+     * Submits a request towards the given broker node.
+     *
+     * @param brokerNode The broker node of the request.
+     * @param request    The {@link Supplier} which starts the request and returns the {@link CompletableFuture} of its result.
+     * @param <T>        The type of the result.
+     * @return The {@link CompletableFuture} of the result, completed exceptionally with a {@link RejectedExecutionException} if the queue of the broker node is full.
+     * @since 1.5.0
+     */
+    <T> CompletableFuture<T> submit(String brokerNode, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        BrokerNodeQueue brokerNodeQueue = brokerNodeQueues.computeIfAbsent(brokerNode, k -> new BrokerNodeQueue());
+
+        Runnable start = () -> executor.execute(() -> {
+            CompletableFuture<T> requestResult;
+            try {
+                requestResult = request.get();
+            } catch (RuntimeException e) {
+                requestResult = new CompletableFuture<>();
+                requestResult.completeExceptionally(e);
+            }
+
+            requestResult.whenComplete((value, throwable) -> {
+                release(brokerNodeQueue);
+
+                executor.execute(() -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            });
+        });
+
+        try {
+            if (brokerNodeQueue.acquireOrEnqueue(start, concurrencyMax, waitingMax)) {
+                start.run();
+            }
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the number of requests in-flight towards the given broker node.
+     *
+     * @param brokerNode The broker node.
+     * @return The number of requests in-flight.
+     * @since 1.5.0
+     */
+    int getInFlight(String brokerNode) {
+        BrokerNodeQueue brokerNodeQueue = brokerNodeQueues.get(brokerNode);
+        return brokerNodeQueue != null ? brokerNodeQueue.getInFlight() : 0;
+    }
+
+    /**
+     * Gets the number of requests waiting to be started towards the given broker node.
+     *
+     * @param brokerNode The broker node.
+     * @return The number of requests waiting.
+     * @since 1.5.0
+     */
+    int getWaiting(String brokerNode) {
+        BrokerNodeQueue brokerNodeQueue = brokerNodeQueues.get(brokerNode);
+        return brokerNodeQueue != null ? brokerNodeQueue.getWaiting() : 0;
+    }
+
+    private void release(BrokerNodeQueue brokerNodeQueue) {
+        Runnable next = brokerNodeQueue.releaseOrDequeue();
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    /**
+     * The in-flight and waiting requests of a broker node.
+     */
+    private static class BrokerNodeQueue {
+
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int inFlight;
+
+        /**
+         * Takes a slot if available, otherwise enqueues the request.
+         *
+         * @return {@code true} if the slot has been taken and the request must be started, {@code false} if it has been enqueued.
+         * @throws RejectedExecutionException If the queue is full.
+         */
+        synchronized boolean acquireOrEnqueue(Runnable start, int concurrencyMax, int waitingMax) {
+            if (inFlight < concurrencyMax) {
+                inFlight++;
+                return true;
+            }
+
+            if (waiting.size() >= waitingMax) {
+                throw new RejectedExecutionException("Too many requests waiting for the broker node: " + waiting.size());
+            }
+
+            waiting.add(start);
+            return false;
+        }
+
+        /**
+         * Hands the slot over to the next waiting request, if any, otherwise releases it.
+         *
+         * @return The next request to start, or {@code null} if none is waiting.
+         */
+        synchronized Runnable releaseOrDequeue() {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+            }
+            return next;
+        }
+
+        synchronized int getInFlight() {
+            return inFlight;
+        }
+
+        synchronized int getWaiting() {
+            return waiting.size();
+        }
+    }
+}
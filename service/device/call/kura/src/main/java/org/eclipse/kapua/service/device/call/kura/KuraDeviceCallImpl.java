@@ -16,6 +16,7 @@ package org.eclipse.kapua.service.device.call.kura;
 import com.google.common.base.Strings;
 import org.eclipse.kapua.KapuaEntityNotFoundException;
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.cache.LocalCache;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.commons.util.RandomUtils;
 import org.eclipse.kapua.locator.KapuaLocator;
@@ -32,6 +33,8 @@ import org.eclipse.kapua.service.device.call.message.kura.app.request.KuraReques
 import org.eclipse.kapua.service.device.call.message.kura.app.request.KuraRequestMessage;
 import org.eclipse.kapua.service.device.call.message.kura.app.request.KuraRequestPayload;
 import org.eclipse.kapua.service.device.call.message.kura.app.response.KuraResponseMessage;
+import org.eclipse.kapua.service.device.call.message.kura.setting.DeviceCallSettingKeys;
+import org.eclipse.kapua.service.device.call.message.kura.setting.DeviceCallSettings;
 import org.eclipse.kapua.service.device.registry.Device;
 import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.translator.Translator;
@@ -48,6 +51,16 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * {@link DeviceCall} {@link Kura} implementation.
@@ -66,6 +79,65 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
 
     private static final TransportClientFactory TRANSPORT_CLIENT_FACTORY = LOCATOR.getFactory(TransportClientFactory.class);
 
+    private static final DeviceCallSettings DEVICE_CALL_SETTINGS = DeviceCallSettings.getInstance();
+
+    /**
+     * Device to broker node routing table.
+     * <p>
+     * Keys are {@link Account#getName()} and {@link Device#getClientId()}, values are the {@link org.eclipse.kapua.service.device.registry.connection.DeviceConnection#getServerIp()}.
+     * Entries are evicted when a request to the cached broker node fails, since the {@link Device} may have connected to another one.
+     * <p>
+     * Only {@link #sendAsync(KuraRequestMessage, Long)}, which is used for requests to many {@link Device}s, reads it.
+     * The other requests always look up the {@link Device}, so that a reconnection to another broker node is seen immediately, and refresh the entry.
+     *
+     * @since 1.5.0
+     */
+    private static final LocalCache<String, String> ROUTING_CACHE = new LocalCache<>(
+            DEVICE_CALL_SETTINGS.getInt(DeviceCallSettingKeys.ROUTING_CACHE_SIZE_MAX),
+            DEVICE_CALL_SETTINGS.getInt(DeviceCallSettingKeys.ROUTING_CACHE_TTL),
+            null);
+
+    private static final ExecutorService ASYNC_EXECUTOR;
+
+    private static final BrokerNodeConcurrencyLimiter BROKER_NODE_CONCURRENCY_LIMITER;
+
+    /**
+     * Sends the asynchronous requests when the transport cannot send them without blocking.
+     * <p>
+     * Both its threads and its queue are bounded: when the queue is full the requests are sent by the calling thread.
+     *
+     * @since 1.5.0
+     */
+    private static final ExecutorService ASYNC_BLOCKING_EXECUTOR;
+
+    static {
+        AtomicInteger threadCount = new AtomicInteger();
+        ASYNC_EXECUTOR = Executors.newFixedThreadPool(DEVICE_CALL_SETTINGS.getInt(DeviceCallSettingKeys.ASYNC_THREAD_POOL_SIZE), runnable -> {
+            Thread thread = new Thread(runnable, "device-call-async-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        BROKER_NODE_CONCURRENCY_LIMITER = new BrokerNodeConcurrencyLimiter(
+                DEVICE_CALL_SETTINGS.getInt(DeviceCallSettingKeys.ASYNC_NODE_CONCURRENCY_MAX),
+                DEVICE_CALL_SETTINGS.getInt(DeviceCallSettingKeys.ASYNC_NODE_WAITING_MAX),
+                ASYNC_EXECUTOR);
+
+        AtomicInteger blockingThreadCount = new AtomicInteger();
+        int blockingThreadPoolSize = DEVICE_CALL_SETTINGS.getInt(DeviceCallSettingKeys.ASYNC_BLOCKING_THREAD_POOL_SIZE);
+        ASYNC_BLOCKING_EXECUTOR = new ThreadPoolExecutor(
+                blockingThreadPoolSize,
+                blockingThreadPoolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(DEVICE_CALL_SETTINGS.getInt(DeviceCallSettingKeys.ASYNC_BLOCKING_QUEUE_MAX)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "device-call-async-blocking-" + blockingThreadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
 
     @Override
     public KuraResponseMessage create(@NotNull KuraRequestMessage requestMessage, @Nullable Long timeout)
@@ -103,6 +175,49 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
         return sendInternal(requestMessage, timeout);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The number of requests in-flight towards each broker node is limited, the exceeding ones are queued.
+     * The returned {@link CompletionStage} is completed by a dedicated thread pool, so its dependent stages are allowed to perform short blocking operations.
+     * <p>
+     * When the queue of the broker node is full the request is rejected with a {@link DeviceCallSendException}.
+     * <p>
+     * If the transport cannot wait for the response without blocking (see {@link TransportClientFactory#isSendAsyncNonBlocking()}) the request is sent
+     * with {@link #sendInternal(KuraRequestMessage, Long)} by a separate bounded thread pool, which keeps the requests to many {@link Device}s concurrent.
+     * When its queue is full the request is sent on the calling thread.
+     *
+     * @since 1.5.0
+     */
+    @Override
+    public CompletionStage<KuraResponseMessage> sendAsync(@NotNull KuraRequestMessage requestMessage, @Nullable Long timeout) {
+        if (!TRANSPORT_CLIENT_FACTORY.isSendAsyncNonBlocking()) {
+            return sendInternalBlocking(requestMessage, timeout);
+        }
+
+        String serverIp;
+        try {
+            serverIp = resolveServerIp(requestMessage, true);
+        } catch (TransportClientGetException e) {
+            CompletableFuture<KuraResponseMessage> response = new CompletableFuture<>();
+            response.completeExceptionally(new DeviceCallSendException(e, requestMessage));
+            return response;
+        }
+
+        CompletableFuture<KuraResponseMessage> response = new CompletableFuture<>();
+        BROKER_NODE_CONCURRENCY_LIMITER.<KuraResponseMessage>submit(serverIp, () -> sendInternalAsync(requestMessage, serverIp, timeout))
+                .whenComplete((responseMessage, throwable) -> {
+                    if (throwable instanceof RejectedExecutionException) {
+                        response.completeExceptionally(new DeviceCallSendException(throwable, requestMessage));
+                    } else if (throwable != null) {
+                        response.completeExceptionally(throwable);
+                    } else {
+                        response.complete(responseMessage);
+                    }
+                });
+        return response;
+    }
+
     @Override
     public Class<KuraMessage> getBaseMessageClass() {
         return KuraMessage.class;
@@ -136,24 +251,7 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
 
                 //
                 // Make the request
-                // Add requestId and requesterClientId to both payload and channel if response is expected
-                // Note: Adding to both payload and channel to let the translator choose what to do base on the transport used.
-                KuraRequestChannel requestChannel = requestMessage.getChannel();
-                KuraRequestPayload requestPayload = requestMessage.getPayload();
-                if (timeout != null) {
-                    String requestId = String.valueOf(RANDOM.nextLong());
-
-                    requestChannel.setRequestId(requestId);
-                    requestChannel.setRequesterClientId(transportFacade.getClientId());
-
-                    requestPayload.setRequestId(requestId);
-                    requestPayload.setRequesterClientId(transportFacade.getClientId());
-                }
-
-                //
-                // Do send
-                // Set current timestamp
-                requestMessage.setTimestamp(new Date());
+                prepareRequest(requestMessage, transportFacade, timeout);
 
                 // Send
                 TransportMessage transportRequestMessage = translatorKuraTransport.translate(requestMessage);
@@ -163,14 +261,134 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
                 response = translatorTransportKura.translate(transportResponseMessage);
             }
         } catch (TransportTimeoutException te) {
+            evictRoute(requestMessage);
             throw new DeviceCallTimeoutException(te, timeout);
         } catch (KapuaException se) {
+            evictRoute(requestMessage);
             throw new DeviceCallSendException(se, requestMessage);
         }
 
         return response;
     }
 
+    /**
+     * Sends the {@link KuraRequestMessage} with {@link #sendInternal(KuraRequestMessage, Long)} on the {@link #ASYNC_BLOCKING_EXECUTOR}.
+     *
+     * @param requestMessage The {@link KuraRequestMessage} to send.
+     * @param timeout        The timeout of waiting the {@link KuraResponseMessage}.
+     * @return The {@link CompletableFuture} of the {@link KuraResponseMessage}.
+     * @since 1.5.0
+     */
+    private CompletableFuture<KuraResponseMessage> sendInternalBlocking(@NotNull KuraRequestMessage requestMessage, @Nullable Long timeout) {
+        CompletableFuture<KuraResponseMessage> response = new CompletableFuture<>();
+        ASYNC_BLOCKING_EXECUTOR.execute(() -> {
+            try {
+                response.complete(sendInternal(requestMessage, timeout));
+            } catch (DeviceCallTimeoutException | DeviceCallSendException e) {
+                response.completeExceptionally(e);
+            } catch (RuntimeException e) {
+                response.completeExceptionally(new DeviceCallSendException(e, requestMessage));
+            }
+        });
+        return response;
+    }
+
+    /**
+     * Sends the {@link KuraRequestMessage} without blocking while waiting for the response.
+     * <p>
+     * The returned {@link CompletableFuture} is completed exceptionally with a {@link DeviceCallTimeoutException} if waiting of the response goes on timeout,
+     * or with a {@link DeviceCallSendException} if sending the request produces any error.
+     *
+     * @param requestMessage The {@link KuraRequestMessage} to send.
+     * @param serverIp       The broker node to which the target {@link Device} is connected.
+     * @param timeout        The timeout of waiting the {@link KuraResponseMessage}.
+     * @return The {@link CompletableFuture} of the {@link KuraResponseMessage}.
+     * @since 1.5.0
+     */
+    protected CompletableFuture<KuraResponseMessage> sendInternalAsync(@NotNull KuraRequestMessage requestMessage, @NotNull String serverIp, @Nullable Long timeout) {
+        CompletableFuture<KuraResponseMessage> response = new CompletableFuture<>();
+
+        //
+        // Borrow a TransportClient
+        TransportFacade transportFacade;
+        try {
+            transportFacade = borrowClient(serverIp);
+        } catch (TransportClientGetException e) {
+            evictRoute(requestMessage);
+            response.completeExceptionally(new DeviceCallSendException(e, requestMessage));
+            return response;
+        }
+
+        try {
+            //
+            // Get Kura to transport translator for the request and vice versa
+            Translator<KuraRequestMessage, TransportMessage<?, ?>> translatorKuraTransport = getTranslator(requestMessage.getClass(), transportFacade.getMessageClass());
+            Translator<TransportMessage<?, ?>, KuraResponseMessage> translatorTransportKura = getTranslator(transportFacade.getMessageClass(), KuraResponseMessage.class);
+
+            //
+            // Make the request
+            prepareRequest(requestMessage, transportFacade, timeout);
+
+            // Send
+            TransportMessage transportRequestMessage = translatorKuraTransport.translate(requestMessage);
+            CompletableFuture<?> transportResponse = transportFacade.sendAsync(transportRequestMessage, timeout);
+
+            transportResponse.whenComplete((transportResponseMessage, throwable) -> {
+                transportFacade.close();
+
+                if (throwable != null) {
+                    evictRoute(requestMessage);
+
+                    Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                    response.completeExceptionally(cause instanceof TransportTimeoutException ?
+                            new DeviceCallTimeoutException(cause, timeout) :
+                            new DeviceCallSendException(cause, requestMessage));
+                    return;
+                }
+
+                // Translate response
+                try {
+                    response.complete(transportResponseMessage != null ? translatorTransportKura.translate((TransportMessage<?, ?>) transportResponseMessage) : null);
+                } catch (KapuaException e) {
+                    response.completeExceptionally(new DeviceCallSendException(e, requestMessage));
+                }
+            });
+        } catch (KapuaException e) {
+            transportFacade.close();
+            response.completeExceptionally(new DeviceCallSendException(e, requestMessage));
+        }
+
+        return response;
+    }
+
+    /**
+     * Prepares the {@link KuraRequestMessage} to be sent with the given {@link TransportFacade}.
+     * <p>
+     * Adds requestId and requesterClientId to both payload and channel if response is expected.
+     * Note: Adding to both payload and channel to let the translator choose what to do base on the transport used.
+     *
+     * @param requestMessage  The {@link KuraRequestMessage} to send.
+     * @param transportFacade The {@link TransportFacade} which sends the {@link KuraRequestMessage}.
+     * @param timeout         The timeout of waiting the {@link KuraResponseMessage}.
+     * @since 1.5.0
+     */
+    private void prepareRequest(@NotNull KuraRequestMessage requestMessage, @NotNull TransportFacade<?, ?, ?, ?> transportFacade, @Nullable Long timeout) {
+        KuraRequestChannel requestChannel = requestMessage.getChannel();
+        KuraRequestPayload requestPayload = requestMessage.getPayload();
+        if (timeout != null) {
+            String requestId = String.valueOf(RANDOM.nextLong());
+
+            requestChannel.setRequestId(requestId);
+            requestChannel.setRequesterClientId(transportFacade.getClientId());
+
+            requestPayload.setRequestId(requestId);
+            requestPayload.setRequesterClientId(transportFacade.getClientId());
+        }
+
+        // Set current timestamp
+        requestMessage.setTimestamp(new Date());
+    }
+
 
     /**
      * Picks a {@link TransportFacade} to send the {@link KuraResponseMessage}.
@@ -181,7 +399,49 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
      * @since 1.0.0
      */
     protected TransportFacade<?, ?, ?, ?> borrowClient(KuraRequestMessage kuraRequestMessage) throws TransportClientGetException {
-        String serverIp = null;
+        return borrowClient(resolveServerIp(kuraRequestMessage, false));
+    }
+
+    /**
+     * Picks a {@link TransportFacade} connected to the given broker node.
+     *
+     * @param serverIp The broker node.
+     * @return The {@link TransportFacade} to use to send the {@link KuraResponseMessage}.
+     * @throws TransportClientGetException If getting the {@link TransportFacade} causes an {@link Exception}.
+     * @since 1.5.0
+     */
+    private TransportFacade<?, ?, ?, ?> borrowClient(String serverIp) throws TransportClientGetException {
+        try {
+            Map<String, Object> configParameters = new HashMap<>(1);
+            configParameters.put("serverAddress", serverIp);
+            return TRANSPORT_CLIENT_FACTORY.getFacade(configParameters);
+        } catch (TransportClientGetException tcge) {
+            throw tcge;
+        } catch (Exception e) {
+            throw new TransportClientGetException(e, serverIp);
+        }
+    }
+
+    /**
+     * Resolves the broker node to which the target {@link Device} of the {@link KuraRequestMessage} is connected.
+     * <p>
+     * The {@link Account} and the {@link Device} are looked up, unless {@code useRoutingCache} is set and the broker node is in the routing table.
+     * The broker node looked up is always stored in the routing table.
+     *
+     * @param kuraRequestMessage The {@link KuraRequestMessage} to send.
+     * @param useRoutingCache    Whether the broker node can be read from the routing table.
+     * @return The {@link org.eclipse.kapua.service.device.registry.connection.DeviceConnection#getServerIp()} of the target {@link Device}.
+     * @throws TransportClientGetException If the broker node cannot be resolved.
+     * @since 1.5.0
+     */
+    protected String resolveServerIp(KuraRequestMessage kuraRequestMessage, boolean useRoutingCache) throws TransportClientGetException {
+        String routeKey = routeKey(kuraRequestMessage);
+
+        String serverIp = useRoutingCache ? ROUTING_CACHE.get(routeKey) : null;
+        if (serverIp != null) {
+            return serverIp;
+        }
+
         try {
             serverIp = KapuaSecurityUtils.doPrivileged(() -> {
                 Account account = ACCOUNT_SERVICE.findByName(kuraRequestMessage.getChannel().getScope());
@@ -197,19 +457,30 @@ public class KuraDeviceCallImpl implements DeviceCall<KuraRequestMessage, KuraRe
 
                 return device.getConnection().getServerIp();
             });
-
-            if (Strings.isNullOrEmpty(serverIp)) {
-                throw new TransportClientGetException(serverIp);
-            }
-
-            Map<String, Object> configParameters = new HashMap<>(1);
-            configParameters.put("serverAddress", serverIp);
-            return TRANSPORT_CLIENT_FACTORY.getFacade(configParameters);
-        } catch (TransportClientGetException tcge) {
-            throw tcge;
         } catch (Exception e) {
             throw new TransportClientGetException(e, serverIp);
         }
+
+        if (Strings.isNullOrEmpty(serverIp)) {
+            throw new TransportClientGetException(serverIp);
+        }
+
+        ROUTING_CACHE.put(routeKey, serverIp);
+        return serverIp;
+    }
+
+    /**
+     * Evicts the routing table entry of the target {@link Device} of the {@link KuraRequestMessage}.
+     *
+     * @param kuraRequestMessage The {@link KuraRequestMessage} which failed.
+     * @since 1.5.0
+     */
+    private void evictRoute(KuraRequestMessage kuraRequestMessage) {
+        ROUTING_CACHE.remove(routeKey(kuraRequestMessage));
+    }
+
+    private static String routeKey(KuraRequestMessage kuraRequestMessage) {
+        return kuraRequestMessage.getChannel().getScope() + "/" + kuraRequestMessage.getChannel().getClientId();
     }
 
     /**
@@ -0,0 +1,429 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.call.message.kura;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
+import org.eclipse.kapua.message.MetricCursor;
+import org.eclipse.kapua.message.MetricCursorProvider;
+import org.eclipse.kapua.service.device.call.message.kura.proto.KuraPayloadProto;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link KuraPayload#getMetrics()} backed by the raw {@link KuraPayloadProto.KuraPayload} bytes.
+ * <p>
+ * The metrics are decoded into a {@link HashMap} only when they are accessed as a {@link Map}.
+ * Reading them through {@link #newMetricCursor()} reads the raw bytes once instead, into a table shared by all the {@link MetricCursor}s,
+ * without boxing the primitive values and without copying the {@link String} and {@code byte[]} values that are not read.
+ * <p>
+ * The raw bytes must have already been validated by {@link KuraPayloadReader}.
+ *
+ * @since 1.5.0
+ */
+public class KuraLazyMetrics extends AbstractMap<String, Object> implements MetricCursorProvider, Serializable {
+
+    private static final long serialVersionUID = 8454418633218651244L;
+
+    static final int METRIC_TAG = tag(KuraPayloadProto.KuraPayload.METRIC_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    static final int NAME_TAG = tag(KuraPayloadProto.KuraPayload.KuraMetric.NAME_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    static final int TYPE_TAG = tag(KuraPayloadProto.KuraPayload.KuraMetric.TYPE_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int DOUBLE_VALUE_TAG = tag(KuraPayloadProto.KuraPayload.KuraMetric.DOUBLE_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_FIXED64);
+    private static final int FLOAT_VALUE_TAG = tag(KuraPayloadProto.KuraPayload.KuraMetric.FLOAT_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_FIXED32);
+    private static final int LONG_VALUE_TAG = tag(KuraPayloadProto.KuraPayload.KuraMetric.LONG_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int INT_VALUE_TAG = tag(KuraPayloadProto.KuraPayload.KuraMetric.INT_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int BOOL_VALUE_TAG = tag(KuraPayloadProto.KuraPayload.KuraMetric.BOOL_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_VARINT);
+    private static final int STRING_VALUE_TAG = tag(KuraPayloadProto.KuraPayload.KuraMetric.STRING_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+    private static final int BYTES_VALUE_TAG = tag(KuraPayloadProto.KuraPayload.KuraMetric.BYTES_VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private final transient byte[] payloadBytes;
+    private final transient int metricCount;
+
+    private transient MetricTable metricTable;
+    private transient Map<String, Object> decodedMetrics;
+
+    /**
+     * Constructor.
+     *
+     * @param payloadBytes The uncompressed and validated {@link KuraPayloadProto.KuraPayload} bytes.
+     * @param metricCount  The number of {@link KuraPayloadProto.KuraPayload.KuraMetric}s in the bytes.
+     * @since 1.5.0
+     */
+    KuraLazyMetrics(byte[] payloadBytes, int metricCount) {
+        this.payloadBytes = payloadBytes;
+        this.metricCount = metricCount;
+    }
+
+    /**
+     * Checks whether the metrics have been decoded into a {@link Map}.
+     *
+     * @return {@code true} if the metrics have been decoded, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public boolean isDecoded() {
+        return decodedMetrics != null;
+    }
+
+    @Override
+    public MetricCursor newMetricCursor() {
+        if (isDecoded()) {
+            return MetricCursor.of(decodedMetrics);
+        }
+
+        return new KuraMetricCursor(getMetricTable());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return isDecoded() ? decodedMetrics.isEmpty() : metricCount == 0;
+    }
+
+    @Override
+    public int size() {
+        return getDecodedMetrics().size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return getDecodedMetrics().containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return getDecodedMetrics().get(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return getDecodedMetrics().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return getDecodedMetrics().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        getDecodedMetrics().clear();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return getDecodedMetrics().entrySet();
+    }
+
+    private Map<String, Object> getDecodedMetrics() {
+        if (decodedMetrics == null) {
+            Map<String, Object> metrics = new HashMap<>((int) (metricCount / 0.75f) + 1);
+
+            MetricCursor metricCursor = new KuraMetricCursor(getMetricTable());
+            while (metricCursor.next()) {
+                metrics.put(metricCursor.getName(), metricCursor.getValue());
+            }
+
+            decodedMetrics = metrics;
+        }
+
+        return decodedMetrics;
+    }
+
+    private MetricTable getMetricTable() {
+        if (metricTable == null) {
+            metricTable = new MetricTable(payloadBytes, metricCount);
+        }
+
+        return metricTable;
+    }
+
+    /**
+     * Serializes the decoded metrics, since the raw bytes are not kept.
+     *
+     * @return The decoded metrics.
+     * @since 1.5.0
+     */
+    private Object writeReplace() {
+        return new HashMap<>(getDecodedMetrics());
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return fieldNumber << 3 | wireType;
+    }
+
+    /**
+     * The {@link KuraPayloadProto.KuraPayload.KuraMetric}s read once from the raw {@link KuraPayloadProto.KuraPayload} bytes.
+     * <p>
+     * The primitive values are kept unboxed and the {@link String} and {@code byte[]} values are kept as offsets in the raw bytes.
+     * Metrics with the same name are read once, keeping the last one as the decoded {@link Map} does.
+     *
+     * @since 1.5.0
+     */
+    private static class MetricTable {
+
+        private final byte[] payloadBytes;
+
+        private int size;
+        private final String[] names;
+        private final KuraPayloadProto.KuraPayload.KuraMetric.ValueType[] types;
+        private final long[] primitiveValues;
+        private final int[] valueOffsets;
+        private final int[] valueLengths;
+
+        private MetricTable(byte[] payloadBytes, int metricCount) {
+            this.payloadBytes = payloadBytes;
+            this.names = new String[metricCount];
+            this.types = new KuraPayloadProto.KuraPayload.KuraMetric.ValueType[metricCount];
+            this.primitiveValues = new long[metricCount];
+            this.valueOffsets = new int[metricCount];
+            this.valueLengths = new int[metricCount];
+
+            CodedInputStream input = CodedInputStream.newInstance(payloadBytes);
+            Map<String, Integer> indexes = new HashMap<>((int) (metricCount / 0.75f) + 1);
+            try {
+                int tag;
+                while ((tag = input.readTag()) != 0) {
+                    if (tag == METRIC_TAG) {
+                        int oldLimit = input.pushLimit(input.readRawVarint32());
+                        readMetric(input, indexes);
+                        input.popLimit(oldLimit);
+                    } else {
+                        input.skipField(tag);
+                    }
+                }
+            } catch (IOException ioe) {
+                // Cannot happen since the bytes have been already validated
+                throw new UncheckedIOException(ioe);
+            }
+        }
+
+        private void readMetric(CodedInputStream input, Map<String, Integer> indexes) throws IOException {
+            String name = null;
+            KuraPayloadProto.KuraPayload.KuraMetric.ValueType type = null;
+            double doubleValue = 0;
+            float floatValue = 0;
+            long longValue = 0;
+            int intValue = 0;
+            boolean booleanValue = false;
+            int stringValueOffset = 0;
+            int stringValueLength = 0;
+            int bytesValueOffset = 0;
+            int bytesValueLength = 0;
+
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                if (tag == NAME_TAG) {
+                    name = input.readString();
+                } else if (tag == TYPE_TAG) {
+                    KuraPayloadProto.KuraPayload.KuraMetric.ValueType valueType = KuraPayloadProto.KuraPayload.KuraMetric.ValueType.forNumber(input.readEnum());
+                    if (valueType != null) {
+                        type = valueType;
+                    }
+                } else if (tag == DOUBLE_VALUE_TAG) {
+                    doubleValue = input.readDouble();
+                } else if (tag == FLOAT_VALUE_TAG) {
+                    floatValue = input.readFloat();
+                } else if (tag == LONG_VALUE_TAG) {
+                    longValue = input.readInt64();
+                } else if (tag == INT_VALUE_TAG) {
+                    intValue = input.readInt32();
+                } else if (tag == BOOL_VALUE_TAG) {
+                    booleanValue = input.readBool();
+                } else if (tag == STRING_VALUE_TAG) {
+                    stringValueLength = input.readRawVarint32();
+                    stringValueOffset = input.getTotalBytesRead();
+                    input.skipRawBytes(stringValueLength);
+                } else if (tag == BYTES_VALUE_TAG) {
+                    bytesValueLength = input.readRawVarint32();
+                    bytesValueOffset = input.getTotalBytesRead();
+                    input.skipRawBytes(bytesValueLength);
+                } else {
+                    input.skipField(tag);
+                }
+            }
+
+            Integer index = indexes.get(name);
+            if (index == null) {
+                index = size++;
+                indexes.put(name, index);
+            }
+
+            names[index] = name;
+            types[index] = type;
+            primitiveValues[index] = 0;
+            valueOffsets[index] = 0;
+            valueLengths[index] = 0;
+            switch (type) {
+                case DOUBLE:
+                    primitiveValues[index] = Double.doubleToRawLongBits(doubleValue);
+                    break;
+                case FLOAT:
+                    primitiveValues[index] = Float.floatToRawIntBits(floatValue);
+                    break;
+                case INT64:
+                    primitiveValues[index] = longValue;
+                    break;
+                case INT32:
+                    primitiveValues[index] = intValue;
+                    break;
+                case BOOL:
+                    primitiveValues[index] = booleanValue ? 1 : 0;
+                    break;
+                case STRING:
+                    valueOffsets[index] = stringValueOffset;
+                    valueLengths[index] = stringValueLength;
+                    break;
+                case BYTES:
+                default:
+                    valueOffsets[index] = bytesValueOffset;
+                    valueLengths[index] = bytesValueLength;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * {@link MetricCursor} over a {@link MetricTable}.
+     * <p>
+     * {@link String} and {@code byte[]} values are copied out of the raw bytes only when requested.
+     *
+     * @since 1.5.0
+     */
+    private static class KuraMetricCursor implements MetricCursor {
+
+        private final MetricTable metricTable;
+
+        private int index = -1;
+
+        private KuraMetricCursor(MetricTable metricTable) {
+            this.metricTable = metricTable;
+        }
+
+        @Override
+        public boolean next() {
+            if (index < metricTable.size) {
+                index++;
+            }
+
+            return index < metricTable.size;
+        }
+
+        @Override
+        public String getName() {
+            checkPositioned();
+            return metricTable.names[index];
+        }
+
+        @Override
+        public Class<?> getType() {
+            checkPositioned();
+
+            switch (metricTable.types[index]) {
+                case DOUBLE:
+                    return Double.class;
+                case FLOAT:
+                    return Float.class;
+                case INT64:
+                    return Long.class;
+                case INT32:
+                    return Integer.class;
+                case BOOL:
+                    return Boolean.class;
+                case STRING:
+                    return String.class;
+                case BYTES:
+                default:
+                    return byte[].class;
+            }
+        }
+
+        @Override
+        public Object getValue() {
+            checkPositioned();
+
+            switch (metricTable.types[index]) {
+                case DOUBLE:
+                    return getDoubleValue();
+                case FLOAT:
+                    return getFloatValue();
+                case INT64:
+                    return getLongValue();
+                case INT32:
+                    return getIntValue();
+                case BOOL:
+                    return getBooleanValue();
+                case STRING:
+                    return getStringValue();
+                case BYTES:
+                default:
+                    return getBytesValue();
+            }
+        }
+
+        @Override
+        public double getDoubleValue() {
+            checkPositioned();
+            return Double.longBitsToDouble(metricTable.primitiveValues[index]);
+        }
+
+        @Override
+        public float getFloatValue() {
+            checkPositioned();
+            return Float.intBitsToFloat((int) metricTable.primitiveValues[index]);
+        }
+
+        @Override
+        public long getLongValue() {
+            checkPositioned();
+            return metricTable.primitiveValues[index];
+        }
+
+        @Override
+        public int getIntValue() {
+            checkPositioned();
+            return (int) metricTable.primitiveValues[index];
+        }
+
+        @Override
+        public boolean getBooleanValue() {
+            checkPositioned();
+            return metricTable.primitiveValues[index] != 0;
+        }
+
+        @Override
+        public String getStringValue() {
+            checkPositioned();
+            return new String(metricTable.payloadBytes, metricTable.valueOffsets[index], metricTable.valueLengths[index], StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public byte[] getBytesValue() {
+            checkPositioned();
+            return Arrays.copyOfRange(metricTable.payloadBytes, metricTable.valueOffsets[index], metricTable.valueOffsets[index] + metricTable.valueLengths[index]);
+        }
+
+        private void checkPositioned() {
+            if (index < 0 || index >= metricTable.size) {
+                throw new IllegalStateException("The cursor is not positioned on a metric");
+            }
+        }
+    }
+}
@@ -14,17 +14,14 @@ package org.eclipse.kapua.service.device.call.message.kura;
 
 import com.google.common.primitives.Booleans;
 import com.google.protobuf.ByteString;
-import com.google.protobuf.InvalidProtocolBufferException;
 import org.eclipse.kapua.message.internal.MessageErrorCodes;
 import org.eclipse.kapua.message.internal.MessageException;
 import org.eclipse.kapua.service.device.call.message.DevicePayload;
 import org.eclipse.kapua.service.device.call.message.DevicePosition;
 import org.eclipse.kapua.service.device.call.message.kura.proto.KuraPayloadProto;
-import org.eclipse.kapua.service.device.call.message.kura.utils.GZIPUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -175,79 +172,41 @@ public class KuraPayload implements DevicePayload {
     @Override
     public void readFromByteArray(byte[] bytes) throws MessageException {
         //
-        // Decompress
-        if (GZIPUtils.isCompressed(bytes)) {
-            try {
-                bytes = GZIPUtils.decompress(bytes);
-            } catch (IOException ioe) {
-                throw new MessageException(MessageErrorCodes.INVALID_MESSAGE, ioe, (Object[]) null);
-            }
-        }
-
-        //
-        // Convert protobuf
-        KuraPayloadProto.KuraPayload protoMsg = null;
-        try {
-            protoMsg = KuraPayloadProto.KuraPayload.parseFrom(bytes);
-        } catch (InvalidProtocolBufferException ipbe) {
-            throw new MessageException(MessageErrorCodes.INVALID_MESSAGE, ipbe, (Object[]) null);
-        }
+        // Decompress and read protobuf
+        KuraPayloadReader kuraPayloadReader = KuraPayloadReader.read(bytes);
 
         //
         // Add timestamp
-        if (protoMsg.hasTimestamp()) {
-            timestamp = (new Date(protoMsg.getTimestamp()));
+        if (kuraPayloadReader.getTimestamp() != null) {
+            timestamp = (new Date(kuraPayloadReader.getTimestamp()));
         }
 
         //
         // Add position
-        if (protoMsg.hasPosition()) {
-            position = (buildFromProtoBuf(protoMsg.getPosition()));
+        if (kuraPayloadReader.getPosition() != null) {
+            position = (buildFromProtoBuf(kuraPayloadReader.getPosition()));
         }
 
         //
-        // Add metrics
-        protoMsg.getMetricList().forEach(kuraMetric -> {
-            try {
-                Object value = getProtoKuraMetricValue(kuraMetric, kuraMetric.getType());
-                addMetric(kuraMetric.getName(), value);
-            } catch (MessageException me) {
-                LOG.warn("During deserialization, ignoring metric named: {}. Unrecognized value type: {}", kuraMetric.getName(), kuraMetric.getType(), me);
+        // Add metrics, which are decoded only when accessed
+        if (kuraPayloadReader.getMetrics() != null) {
+            if (metrics == null || metrics.isEmpty()) {
+                setMetrics(kuraPayloadReader.getMetrics());
+            } else {
+                metrics.putAll(kuraPayloadReader.getMetrics());
             }
-        });
+        }
 
         //
         // Set the body
-        if (protoMsg.hasBody()) {
-            setBody(protoMsg.getBody().toByteArray());
+        if (kuraPayloadReader.getBody() != null) {
+            setBody(kuraPayloadReader.getBody());
         }
     }
 
     //
     // Private methods
     //
-    private Object getProtoKuraMetricValue(KuraPayloadProto.KuraPayload.KuraMetric metric, KuraPayloadProto.KuraPayload.KuraMetric.ValueType type) throws MessageException {
-        switch (type) {
-            case DOUBLE:
-                return metric.getDoubleValue();
-            case FLOAT:
-                return metric.getFloatValue();
-            case INT64:
-                return metric.getLongValue();
-            case INT32:
-                return metric.getIntValue();
-            case BOOL:
-                return metric.getBoolValue();
-            case STRING:
-                return metric.getStringValue();
-            case BYTES:
-                ByteString bs = metric.getBytesValue();
-                return bs.toByteArray();
-            default:
-                throw new MessageException(MessageErrorCodes.INVALID_METRIC_TYPE, null, type);
-        }
-    }
-
     private static void setProtoKuraMetricValue(KuraPayloadProto.KuraPayload.KuraMetric.Builder metric, Object o) throws MessageException {
 
         if (o instanceof String) {
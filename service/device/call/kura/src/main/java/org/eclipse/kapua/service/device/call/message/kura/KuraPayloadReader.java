@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.call.message.kura;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.ExtensionRegistryLite;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import org.eclipse.kapua.message.internal.MessageErrorCodes;
+import org.eclipse.kapua.message.internal.MessageException;
+import org.eclipse.kapua.service.device.call.message.kura.proto.KuraPayloadProto;
+import org.eclipse.kapua.service.device.call.message.kura.utils.GZIPUtils;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Reader of the raw {@link KuraPayloadProto.KuraPayload} bytes.
+ * <p>
+ * It reads the timestamp, the position and the body, while the {@link KuraPayloadProto.KuraPayload.KuraMetric}s are only validated
+ * and left in the raw bytes to be lazily decoded by the {@link KuraLazyMetrics}.
+ *
+ * @since 1.5.0
+ */
+public class KuraPayloadReader {
+
+    private static final int TIMESTAMP_TAG = KuraPayloadProto.KuraPayload.TIMESTAMP_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_VARINT;
+    private static final int POSITION_TAG = KuraPayloadProto.KuraPayload.POSITION_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int BODY_TAG = KuraPayloadProto.KuraPayload.BODY_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+
+    private Long timestamp;
+    private KuraPayloadProto.KuraPayload.KuraPosition position;
+    private KuraLazyMetrics metrics;
+    private byte[] body;
+
+    private KuraPayloadReader() {
+    }
+
+    /**
+     * Reads the given {@link KuraPayloadProto.KuraPayload} bytes, decompressing them if needed.
+     *
+     * @param bytes The {@link KuraPayloadProto.KuraPayload} bytes.
+     * @return The {@link KuraPayloadReader} with the read values.
+     * @throws MessageException if the bytes are not a valid {@link KuraPayloadProto.KuraPayload}.
+     * @since 1.5.0
+     */
+    public static KuraPayloadReader read(byte[] bytes) throws MessageException {
+        //
+        // Decompress
+        if (GZIPUtils.isCompressed(bytes)) {
+            try {
+                bytes = GZIPUtils.decompress(bytes);
+            } catch (IOException ioe) {
+                throw new MessageException(MessageErrorCodes.INVALID_MESSAGE, ioe, (Object[]) null);
+            }
+        }
+
+        //
+        // Read protobuf
+        KuraPayloadReader kuraPayloadReader = new KuraPayloadReader();
+        try {
+            int metricCount = 0;
+
+            CodedInputStream input = CodedInputStream.newInstance(bytes);
+            int tag;
+            while ((tag = input.readTag()) != 0) {
+                if (tag == TIMESTAMP_TAG) {
+                    kuraPayloadReader.timestamp = input.readInt64();
+                } else if (tag == POSITION_TAG) {
+                    KuraPayloadProto.KuraPayload.KuraPosition.Builder positionBuilder = KuraPayloadProto.KuraPayload.KuraPosition.newBuilder();
+                    if (kuraPayloadReader.position != null) {
+                        positionBuilder.mergeFrom(kuraPayloadReader.position);
+                    }
+                    input.readMessage(positionBuilder, ExtensionRegistryLite.getEmptyRegistry());
+                    kuraPayloadReader.position = positionBuilder.build();
+                } else if (tag == KuraLazyMetrics.METRIC_TAG) {
+                    int oldLimit = input.pushLimit(input.readRawVarint32());
+                    validateMetric(input);
+                    input.popLimit(oldLimit);
+                    metricCount++;
+                } else if (tag == BODY_TAG) {
+                    kuraPayloadReader.body = input.readByteArray();
+                } else {
+                    input.skipField(tag);
+                }
+            }
+
+            if (metricCount > 0) {
+                kuraPayloadReader.metrics = new KuraLazyMetrics(bytes, metricCount);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new MessageException(MessageErrorCodes.INVALID_MESSAGE, e, (Object[]) null);
+        }
+
+        return kuraPayloadReader;
+    }
+
+    /**
+     * Validates the current {@link KuraPayloadProto.KuraPayload.KuraMetric} like {@link KuraPayloadProto.KuraPayload#parseFrom(byte[])} would do,
+     * checking the required fields and the value type, without decoding it.
+     *
+     * @param input The {@link CodedInputStream} limited to the {@link KuraPayloadProto.KuraPayload.KuraMetric}.
+     * @throws IOException if the {@link KuraPayloadProto.KuraPayload.KuraMetric} is not valid.
+     */
+    private static void validateMetric(CodedInputStream input) throws IOException {
+        boolean hasName = false;
+        boolean hasType = false;
+
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            if (tag == KuraLazyMetrics.NAME_TAG) {
+                input.skipField(tag);
+                hasName = true;
+            } else if (tag == KuraLazyMetrics.TYPE_TAG) {
+                // Unknown value types are not set by the protobuf parser, like if the field was missing
+                hasType |= KuraPayloadProto.KuraPayload.KuraMetric.ValueType.forNumber(input.readEnum()) != null;
+            } else {
+                input.skipField(tag);
+            }
+        }
+
+        if (!hasName || !hasType) {
+            throw new InvalidProtocolBufferException("KuraMetric is missing required fields");
+        }
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public KuraPayloadProto.KuraPayload.KuraPosition getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the lazily decoded metrics.
+     *
+     * @return The {@link KuraLazyMetrics}, or {@code null} if there are no metrics.
+     * @since 1.5.0
+     */
+    public Map<String, Object> getMetrics() {
+        return metrics;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
@@ -26,7 +26,70 @@ public enum DeviceCallSettingKeys implements SettingKey {
      *
      * @since 1.0.0
      */
-    DESTINATION_REPLY_PART("destination.reply.part");
+    DESTINATION_REPLY_PART("destination.reply.part"),
+
+    /**
+     * The maximum number of entries of the device to broker node routing cache.
+     * <p>
+     * The routing cache is read only by the asynchronous requests.
+     *
+     * @since 1.5.0
+     */
+    ROUTING_CACHE_SIZE_MAX("routing.cache.size.max"),
+
+    /**
+     * The time (in seconds) after which an entry of the device to broker node routing cache expires.
+     *
+     * @since 1.5.0
+     */
+    ROUTING_CACHE_TTL("routing.cache.ttl"),
+
+    /**
+     * The maximum number of asynchronous requests in-flight towards a single broker node.
+     * <p>
+     * It applies only when the transport sends asynchronously without blocking (i.e. MQTT with {@code transport.mqtt.multiplexed.enabled}),
+     * otherwise see {@link #ASYNC_BLOCKING_THREAD_POOL_SIZE}.
+     *
+     * @since 1.5.0
+     */
+    ASYNC_NODE_CONCURRENCY_MAX("async.node.concurrency.max"),
+
+    /**
+     * The maximum number of asynchronous requests waiting to be sent towards a single broker node.
+     * <p>
+     * The requests exceeding it are rejected.
+     * It applies only when the transport sends asynchronously without blocking (i.e. MQTT with {@code transport.mqtt.multiplexed.enabled}).
+     *
+     * @since 1.5.0
+     */
+    ASYNC_NODE_WAITING_MAX("async.node.waiting.max"),
+
+    /**
+     * The number of threads which send the asynchronous requests when the transport cannot send them without blocking.
+     * <p>
+     * Each of them waits for the response of the request that it sends.
+     *
+     * @since 1.5.0
+     */
+    ASYNC_BLOCKING_THREAD_POOL_SIZE("async.blocking.thread.pool.size"),
+
+    /**
+     * The maximum number of asynchronous requests waiting for a thread when the transport cannot send them without blocking.
+     * <p>
+     * The requests exceeding it are sent by the calling thread.
+     *
+     * @since 1.5.0
+     */
+    ASYNC_BLOCKING_QUEUE_MAX("async.blocking.queue.max"),
+
+    /**
+     * The number of threads which send the asynchronous requests and complete their responses.
+     * <p>
+     * It applies only when the transport sends asynchronously without blocking (i.e. MQTT with {@code transport.mqtt.multiplexed.enabled}).
+     *
+     * @since 1.5.0
+     */
+    ASYNC_THREAD_POOL_SIZE("async.thread.pool.size");
 
     /**
      * The key value of the {@link SettingKey}.
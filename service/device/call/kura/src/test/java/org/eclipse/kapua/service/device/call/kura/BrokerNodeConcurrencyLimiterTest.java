@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.call.kura;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+@Category(JUnitTests.class)
+public class BrokerNodeConcurrencyLimiterTest extends Assert {
+
+    private static final String BROKER_NODE = "broker-1";
+    private static final String OTHER_BROKER_NODE = "broker-2";
+
+    // Runs everything on the calling thread
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private BrokerNodeConcurrencyLimiter brokerNodeConcurrencyLimiter;
+    private List<CompletableFuture<String>> startedRequests;
+
+    @Before
+    public void createInstanceOfClass() {
+        brokerNodeConcurrencyLimiter = new BrokerNodeConcurrencyLimiter(2, 1, DIRECT_EXECUTOR);
+        startedRequests = new ArrayList<>();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorZeroConcurrencyTest() {
+        new BrokerNodeConcurrencyLimiter(0, 1, DIRECT_EXECUTOR);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorNegativeWaitingTest() {
+        new BrokerNodeConcurrencyLimiter(2, -1, DIRECT_EXECUTOR);
+    }
+
+    @Test
+    public void submitWithinLimitTest() throws Exception {
+        CompletableFuture<String> result = submit(BROKER_NODE);
+
+        assertEquals("Expected and actual values should be the same.", 1, startedRequests.size());
+        assertEquals("Expected and actual values should be the same.", 1, brokerNodeConcurrencyLimiter.getInFlight(BROKER_NODE));
+        assertFalse("False expected.", result.isDone());
+
+        startedRequests.get(0).complete("response");
+
+        assertEquals("Expected and actual values should be the same.", "response", result.get());
+        assertEquals("Expected and actual values should be the same.", 0, brokerNodeConcurrencyLimiter.getInFlight(BROKER_NODE));
+    }
+
+    @Test
+    public void submitOverLimitTest() throws Exception {
+        submit(BROKER_NODE);
+        submit(BROKER_NODE);
+        CompletableFuture<String> thirdResult = submit(BROKER_NODE);
+
+        assertEquals("Expected and actual values should be the same.", 2, startedRequests.size());
+        assertEquals("Expected and actual values should be the same.", 2, brokerNodeConcurrencyLimiter.getInFlight(BROKER_NODE));
+        assertEquals("Expected and actual values should be the same.", 1, brokerNodeConcurrencyLimiter.getWaiting(BROKER_NODE));
+
+        startedRequests.get(0).complete("first");
+
+        assertEquals("Expected and actual values should be the same.", 3, startedRequests.size());
+        assertEquals("Expected and actual values should be the same.", 2, brokerNodeConcurrencyLimiter.getInFlight(BROKER_NODE));
+        assertEquals("Expected and actual values should be the same.", 0, brokerNodeConcurrencyLimiter.getWaiting(BROKER_NODE));
+
+        startedRequests.get(2).complete("third");
+        startedRequests.get(1).complete("second");
+
+        assertEquals("Expected and actual values should be the same.", "third", thirdResult.get());
+        assertEquals("Expected and actual values should be the same.", 0, brokerNodeConcurrencyLimiter.getInFlight(BROKER_NODE));
+    }
+
+    @Test
+    public void submitOverWaitingLimitTest() throws Exception {
+        submit(BROKER_NODE);
+        submit(BROKER_NODE);
+        submit(BROKER_NODE);
+        CompletableFuture<String> rejectedResult = submit(BROKER_NODE);
+
+        assertEquals("Expected and actual values should be the same.", 2, startedRequests.size());
+        assertEquals("Expected and actual values should be the same.", 1, brokerNodeConcurrencyLimiter.getWaiting(BROKER_NODE));
+        assertTrue("True expected.", rejectedResult.isCompletedExceptionally());
+
+        try {
+            rejectedResult.get();
+            fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            assertTrue("True expected.", e.getCause() instanceof RejectedExecutionException);
+        }
+
+        startedRequests.get(0).complete("first");
+
+        assertEquals("Expected and actual values should be the same.", 3, startedRequests.size());
+        assertEquals("Expected and actual values should be the same.", 0, brokerNodeConcurrencyLimiter.getWaiting(BROKER_NODE));
+    }
+
+    @Test
+    public void submitOtherBrokerNodeTest() {
+        submit(BROKER_NODE);
+        submit(BROKER_NODE);
+        submit(OTHER_BROKER_NODE);
+
+        assertEquals("Expected and actual values should be the same.", 3, startedRequests.size());
+        assertEquals("Expected and actual values should be the same.", 1, brokerNodeConcurrencyLimiter.getInFlight(OTHER_BROKER_NODE));
+        assertEquals("Expected and actual values should be the same.", 0, brokerNodeConcurrencyLimiter.getWaiting(BROKER_NODE));
+    }
+
+    @Test
+    public void submitFailedTest() throws Exception {
+        submit(BROKER_NODE);
+        submit(BROKER_NODE);
+        CompletableFuture<String> failedResult = brokerNodeConcurrencyLimiter.submit(BROKER_NODE, () -> {
+            throw new IllegalStateException("Cannot start");
+        });
+
+        startedRequests.get(0).completeExceptionally(new IllegalStateException("Failed"));
+
+        try {
+            failedResult.get();
+            fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            assertTrue("True expected.", e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals("Expected and actual values should be the same.", 1, brokerNodeConcurrencyLimiter.getInFlight(BROKER_NODE));
+    }
+
+    private CompletableFuture<String> submit(String brokerNode) {
+        return brokerNodeConcurrencyLimiter.submit(brokerNode, () -> {
+            CompletableFuture<String> request = new CompletableFuture<>();
+            startedRequests.add(request);
+            return request;
+        });
+    }
+}
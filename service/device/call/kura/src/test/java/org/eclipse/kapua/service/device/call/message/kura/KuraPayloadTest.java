@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.call.message.kura;
+
+import com.google.protobuf.ByteString;
+import org.eclipse.kapua.message.MetricCursor;
+import org.eclipse.kapua.message.internal.MessageException;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.device.call.message.kura.proto.KuraPayloadProto;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+@Category(JUnitTests.class)
+public class KuraPayloadTest extends Assert {
+
+    private static final byte[] BODY = new byte[]{1, 2, 3, 4};
+
+    @Test
+    public void readFromByteArrayTest() throws Exception {
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(newKuraPayloadBytes());
+
+        assertEquals("Expected and actual values should be the same.", new Date(1000L), kuraPayload.getTimestamp());
+        assertEquals("Expected and actual values should be the same.", Double.valueOf(45.5), kuraPayload.getPosition().getLatitude());
+        assertEquals("Expected and actual values should be the same.", Double.valueOf(12.5), kuraPayload.getPosition().getLongitude());
+        assertEquals("Expected and actual values should be the same.", Integer.valueOf(4), kuraPayload.getPosition().getStatus());
+        assertArrayEquals("Expected and actual values should be the same.", BODY, kuraPayload.getBody());
+
+        assertTrue("True expected.", kuraPayload.getMetrics() instanceof KuraLazyMetrics);
+        assertFalse("False expected.", kuraPayload.getMetrics().isEmpty());
+        assertFalse("False expected.", ((KuraLazyMetrics) kuraPayload.getMetrics()).isDecoded());
+
+        assertEquals("Expected and actual values should be the same.", newExpectedMetrics().size(), kuraPayload.getMetrics().size());
+        assertTrue("True expected.", ((KuraLazyMetrics) kuraPayload.getMetrics()).isDecoded());
+        assertArrayEquals("Expected and actual values should be the same.", new byte[]{9, 8}, (byte[]) kuraPayload.getMetrics().get("bytes"));
+
+        Map<String, Object> metrics = new HashMap<>(kuraPayload.getMetrics());
+        metrics.remove("bytes");
+        Map<String, Object> expectedMetrics = newExpectedMetrics();
+        expectedMetrics.remove("bytes");
+        assertEquals("Expected and actual values should be the same.", expectedMetrics, metrics);
+    }
+
+    @Test
+    public void readFromCompressedByteArrayTest() throws Exception {
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(compress(newKuraPayloadBytes()));
+
+        assertEquals("Expected and actual values should be the same.", new Date(1000L), kuraPayload.getTimestamp());
+        assertEquals("Expected and actual values should be the same.", 1L, kuraPayload.getMetrics().get("long"));
+    }
+
+    @Test
+    public void metricCursorTest() throws Exception {
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(newKuraPayloadBytes());
+
+        Map<String, Object> expectedMetrics = newExpectedMetrics();
+        int metricCount = 0;
+        MetricCursor metricCursor = MetricCursor.of(kuraPayload.getMetrics());
+        while (metricCursor.next()) {
+            metricCount++;
+            Object expectedValue = expectedMetrics.get(metricCursor.getName());
+            assertEquals("Expected and actual values should be the same.", expectedValue.getClass(), metricCursor.getType());
+
+            switch (metricCursor.getName()) {
+                case "double":
+                    assertEquals("Expected and actual values should be the same.", 1.5d, metricCursor.getDoubleValue(), 0d);
+                    break;
+                case "float":
+                    assertEquals("Expected and actual values should be the same.", 2.5f, metricCursor.getFloatValue(), 0f);
+                    break;
+                case "long":
+                    assertEquals("Expected and actual values should be the same.", 1L, metricCursor.getLongValue());
+                    break;
+                case "int":
+                    assertEquals("Expected and actual values should be the same.", 2, metricCursor.getIntValue());
+                    break;
+                case "bool":
+                    assertTrue("True expected.", metricCursor.getBooleanValue());
+                    break;
+                case "string":
+                    assertEquals("Expected and actual values should be the same.", "value", metricCursor.getStringValue());
+                    break;
+                case "bytes":
+                    assertArrayEquals("Expected and actual values should be the same.", new byte[]{9, 8}, metricCursor.getBytesValue());
+                    break;
+                default:
+                    fail("Unexpected metric: " + metricCursor.getName());
+            }
+        }
+        assertEquals("Expected and actual values should be the same.", expectedMetrics.size(), metricCount);
+
+        // Reading the metrics through the cursor does not decode them
+        assertFalse("False expected.", ((KuraLazyMetrics) kuraPayload.getMetrics()).isDecoded());
+    }
+
+    @Test
+    public void metricCursorReadOnceTest() throws Exception {
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(newKuraPayloadBytes());
+
+        // The raw bytes are read once, for all the cursors
+        MetricCursor firstMetricCursor = MetricCursor.of(kuraPayload.getMetrics());
+        MetricCursor secondMetricCursor = MetricCursor.of(kuraPayload.getMetrics());
+        while (firstMetricCursor.next()) {
+            assertTrue("True expected.", secondMetricCursor.next());
+            assertSame("Expected and actual values should be the same.", firstMetricCursor.getName(), secondMetricCursor.getName());
+        }
+        assertFalse("False expected.", secondMetricCursor.next());
+    }
+
+    @Test
+    public void metricCursorDuplicateNameTest() throws Exception {
+        KuraPayloadProto.KuraPayload.Builder kuraPayloadBuilder = KuraPayloadProto.KuraPayload.newBuilder();
+        kuraPayloadBuilder.addMetric(newKuraMetric("duplicate", KuraPayloadProto.KuraPayload.KuraMetric.ValueType.INT32).setIntValue(1));
+        kuraPayloadBuilder.addMetric(newKuraMetric("other", KuraPayloadProto.KuraPayload.KuraMetric.ValueType.STRING).setStringValue("value"));
+        kuraPayloadBuilder.addMetric(newKuraMetric("duplicate", KuraPayloadProto.KuraPayload.KuraMetric.ValueType.DOUBLE).setDoubleValue(2.5d));
+
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(kuraPayloadBuilder.build().toByteArray());
+
+        // The last metric with the same name is read, as in the decoded metrics
+        Map<String, Object> metrics = new HashMap<>();
+        MetricCursor metricCursor = MetricCursor.of(kuraPayload.getMetrics());
+        while (metricCursor.next()) {
+            assertNull("Null expected.", metrics.put(metricCursor.getName(), metricCursor.getValue()));
+        }
+        assertEquals("Expected and actual values should be the same.", 2, metrics.size());
+        assertEquals("Expected and actual values should be the same.", 2.5d, metrics.get("duplicate"));
+        assertEquals("Expected and actual values should be the same.", kuraPayload.getMetrics(), metrics);
+    }
+
+    @Test
+    public void metricCursorAfterUpdateTest() throws Exception {
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(newKuraPayloadBytes());
+        kuraPayload.addMetric("added", "value");
+        kuraPayload.removeMetric("double");
+
+        Map<String, Object> metrics = new HashMap<>();
+        MetricCursor metricCursor = MetricCursor.of(kuraPayload.getMetrics());
+        while (metricCursor.next()) {
+            metrics.put(metricCursor.getName(), metricCursor.getValue());
+        }
+
+        assertEquals("Expected and actual values should be the same.", "value", metrics.get("added"));
+        assertNull("Null expected.", metrics.get("double"));
+        assertEquals("Expected and actual values should be the same.", newExpectedMetrics().size(), metrics.size());
+    }
+
+    @Test(expected = MessageException.class)
+    public void readFromInvalidByteArrayTest() throws Exception {
+        new KuraPayload().readFromByteArray(new byte[]{127, 110, 1, 0, 11, -1, -10, -128});
+    }
+
+    @Test(expected = MessageException.class)
+    public void readFromByteArrayMissingMetricTypeTest() throws Exception {
+        // The type of the metric is required
+        KuraPayloadProto.KuraPayload.KuraMetric kuraMetric = KuraPayloadProto.KuraPayload.KuraMetric.newBuilder()
+                .setName("name")
+                .setStringValue("value")
+                .buildPartial();
+        byte[] invalidBytes = KuraPayloadProto.KuraPayload.newBuilder().addMetric(kuraMetric).buildPartial().toByteArray();
+
+        new KuraPayload().readFromByteArray(invalidBytes);
+    }
+
+    @Test
+    public void serializationTest() throws Exception {
+        KuraPayload kuraPayload = new KuraPayload();
+        kuraPayload.readFromByteArray(newKuraPayloadBytes());
+
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(kuraPayload.getMetrics());
+        }
+
+        Object readMetrics;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+            readMetrics = objectInputStream.readObject();
+        }
+
+        assertTrue("True expected.", readMetrics instanceof HashMap);
+        assertEquals("Expected and actual values should be the same.", "value", ((Map<?, ?>) readMetrics).get("string"));
+    }
+
+    private static byte[] newKuraPayloadBytes() {
+        KuraPayloadProto.KuraPayload.Builder kuraPayloadBuilder = KuraPayloadProto.KuraPayload.newBuilder()
+                .setTimestamp(1000L)
+                .setPosition(KuraPayloadProto.KuraPayload.KuraPosition.newBuilder()
+                        .setLatitude(45.5)
+                        .setLongitude(12.5)
+                        .setStatus(4))
+                .setBody(ByteString.copyFrom(BODY));
+
+        kuraPayloadBuilder.addMetric(newKuraMetric("double", KuraPayloadProto.KuraPayload.KuraMetric.ValueType.DOUBLE).setDoubleValue(1.5d));
+        kuraPayloadBuilder.addMetric(newKuraMetric("float", KuraPayloadProto.KuraPayload.KuraMetric.ValueType.FLOAT).setFloatValue(2.5f));
+        kuraPayloadBuilder.addMetric(newKuraMetric("long", KuraPayloadProto.KuraPayload.KuraMetric.ValueType.INT64).setLongValue(1L));
+        kuraPayloadBuilder.addMetric(newKuraMetric("int", KuraPayloadProto.KuraPayload.KuraMetric.ValueType.INT32).setIntValue(2));
+        kuraPayloadBuilder.addMetric(newKuraMetric("bool", KuraPayloadProto.KuraPayload.KuraMetric.ValueType.BOOL).setBoolValue(true));
+        kuraPayloadBuilder.addMetric(newKuraMetric("string", KuraPayloadProto.KuraPayload.KuraMetric.ValueType.STRING).setStringValue("value"));
+        kuraPayloadBuilder.addMetric(newKuraMetric("bytes", KuraPayloadProto.KuraPayload.KuraMetric.ValueType.BYTES).setBytesValue(ByteString.copyFrom(new byte[]{9, 8})));
+
+        return kuraPayloadBuilder.build().toByteArray();
+    }
+
+    private static byte[] compress(byte[] bytes) throws Exception {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+            gzipOutputStream.write(bytes);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    private static KuraPayloadProto.KuraPayload.KuraMetric.Builder newKuraMetric(String name, KuraPayloadProto.KuraPayload.KuraMetric.ValueType type) {
+        return KuraPayloadProto.KuraPayload.KuraMetric.newBuilder().setName(name).setType(type);
+    }
+
+    private static Map<String, Object> newExpectedMetrics() {
+        Map<String, Object> expectedMetrics = new HashMap<>();
+        expectedMetrics.put("double", 1.5d);
+        expectedMetrics.put("float", 2.5f);
+        expectedMetrics.put("long", 1L);
+        expectedMetrics.put("int", 2);
+        expectedMetrics.put("bool", true);
+        expectedMetrics.put("string", "value");
+        expectedMetrics.put("bytes", new byte[]{9, 8});
+        return expectedMetrics;
+    }
+}
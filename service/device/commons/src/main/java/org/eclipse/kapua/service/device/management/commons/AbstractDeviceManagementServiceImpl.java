@@ -15,6 +15,7 @@ package org.eclipse.kapua.service.device.management.commons;
 import org.eclipse.kapua.KapuaEntityNotFoundException;
 import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.security.KapuaSession;
 import org.eclipse.kapua.commons.util.ThrowingRunnable;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.id.KapuaId;
@@ -22,6 +23,7 @@ import org.eclipse.kapua.model.type.ObjectTypeConverter;
 import org.eclipse.kapua.model.type.ObjectValueConverter;
 import org.eclipse.kapua.service.authorization.AuthorizationService;
 import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
+import org.eclipse.kapua.service.device.management.commons.call.DeviceCallExecutor;
 import org.eclipse.kapua.service.device.management.message.notification.OperationStatus;
 import org.eclipse.kapua.service.device.management.message.request.KapuaRequestMessage;
 import org.eclipse.kapua.service.device.management.message.response.KapuaResponseMessage;
@@ -33,11 +35,16 @@ import org.eclipse.kapua.service.device.management.registry.operation.DeviceMana
 import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventFactory;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Utility {@code abstract} {@link Class} used to provide utility methods to all implementation of Device Management Services.
@@ -46,6 +53,8 @@ import java.util.Map;
  */
 public abstract class AbstractDeviceManagementServiceImpl {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractDeviceManagementServiceImpl.class);
+
     protected static final KapuaLocator LOCATOR = KapuaLocator.getInstance();
 
     protected static final AuthorizationService AUTHORIZATION_SERVICE = LOCATOR.getService(AuthorizationService.class);
@@ -128,6 +137,71 @@ public abstract class AbstractDeviceManagementServiceImpl {
     }
 
 
+    /**
+     * Sends the given {@link KapuaRequestMessage}s to many {@link org.eclipse.kapua.service.device.registry.Device}s without blocking while waiting for the {@link KapuaResponseMessage}s.
+     * <p>
+     * The {@link KapuaSession} of the caller is set while the {@link BulkResponseHandler} handles each {@link KapuaResponseMessage}.
+     * The {@link CompletionStage} of each {@link org.eclipse.kapua.service.device.registry.Device} is completed exceptionally if its {@link KapuaRequestMessage}
+     * fails as described in {@link DeviceCallExecutor#sendAsync()}, or if the {@link BulkResponseHandler} throws a {@link KapuaException}.
+     *
+     * @param requestMessages The {@link KapuaRequestMessage} to send to each {@link org.eclipse.kapua.service.device.registry.Device#getId()}.
+     * @param timeout         The timeout of each request.
+     * @param responseHandler The {@link BulkResponseHandler} of the {@link KapuaResponseMessage}s.
+     * @param <RQ>            The {@link KapuaRequestMessage} type.
+     * @param <RS>            The {@link KapuaResponseMessage} type.
+     * @param <T>             The result type.
+     * @return The {@link CompletionStage} of the result of each {@link org.eclipse.kapua.service.device.registry.Device#getId()}.
+     * @since 1.5.0
+     */
+    protected <RQ extends KapuaRequestMessage<?, ?>, RS extends KapuaResponseMessage<?, ?>, T> Map<KapuaId, CompletionStage<T>> sendBulk(Map<KapuaId, RQ> requestMessages, Long timeout, BulkResponseHandler<RQ, RS, T> responseHandler) {
+        KapuaSession session = KapuaSecurityUtils.getSession();
+
+        Map<KapuaId, CompletionStage<T>> results = new LinkedHashMap<>();
+        requestMessages.forEach((deviceId, requestMessage) -> {
+            CompletionStage<RS> response = sendAsync(requestMessage, timeout);
+
+            results.put(deviceId, response.handle((responseMessage, throwable) -> {
+                KapuaSession previousSession = KapuaSecurityUtils.getSession();
+                KapuaSecurityUtils.setSession(session);
+                try {
+                    if (throwable != null) {
+                        try {
+                            responseHandler.onFailure(requestMessage, throwable);
+                        } catch (KapuaException e) {
+                            LOG.warn("Error while handling the failure of the request to device {}", deviceId, e);
+                        }
+
+                        throw throwable instanceof CompletionException ? (CompletionException) throwable : new CompletionException(throwable);
+                    }
+
+                    return responseHandler.onResponse(requestMessage, responseMessage);
+                } catch (KapuaException e) {
+                    throw new CompletionException(e);
+                } finally {
+                    KapuaSecurityUtils.setSession(previousSession);
+                }
+            }));
+        });
+
+        return results;
+    }
+
+    /**
+     * Sends the given {@link KapuaRequestMessage} without blocking while waiting for the {@link KapuaResponseMessage}.
+     *
+     * @param requestMessage The {@link KapuaRequestMessage} to send.
+     * @param timeout        The timeout of the request.
+     * @param <RQ>           The {@link KapuaRequestMessage} type.
+     * @param <RS>           The {@link KapuaResponseMessage} type.
+     * @return The {@link CompletionStage} of the {@link KapuaResponseMessage}.
+     * @see DeviceCallExecutor#sendAsync()
+     * @since 1.5.0
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    protected <RQ extends KapuaRequestMessage<?, ?>, RS extends KapuaResponseMessage<?, ?>> CompletionStage<RS> sendAsync(RQ requestMessage, Long timeout) {
+        return new DeviceCallExecutor(requestMessage, timeout).sendAsync();
+    }
+
     private List<DeviceManagementOperationProperty> extractInputProperties(KapuaRequestMessage<?, ?> requestMessage) {
 
         List<DeviceManagementOperationProperty> inputProperties = new ArrayList<>();
@@ -147,4 +221,37 @@ public abstract class AbstractDeviceManagementServiceImpl {
         return inputProperties;
     }
 
+    /**
+     * Handles the {@link KapuaResponseMessage}s of {@link #sendBulk(Map, Long, BulkResponseHandler)}.
+     *
+     * @param <RQ> The {@link KapuaRequestMessage} type.
+     * @param <RS> The {@link KapuaResponseMessage} type.
+     * @param <T>  The result type.
+     * @since 1.5.0
+     */
+    @FunctionalInterface
+    protected interface BulkResponseHandler<RQ extends KapuaRequestMessage<?, ?>, RS extends KapuaResponseMessage<?, ?>, T> {
+
+        /**
+         * Handles the {@link KapuaResponseMessage} of a {@link KapuaRequestMessage}.
+         *
+         * @param requestMessage  The {@link KapuaRequestMessage} sent.
+         * @param responseMessage The {@link KapuaResponseMessage} received.
+         * @return The result for the {@link org.eclipse.kapua.service.device.registry.Device}.
+         * @throws KapuaException If the {@link KapuaResponseMessage} is not successful or cannot be handled.
+         * @since 1.5.0
+         */
+        T onResponse(RQ requestMessage, RS responseMessage) throws KapuaException;
+
+        /**
+         * Handles the failure of a {@link KapuaRequestMessage}.
+         *
+         * @param requestMessage The {@link KapuaRequestMessage} which failed.
+         * @param cause          The cause of the failure.
+         * @throws KapuaException If the failure cannot be handled.
+         * @since 1.5.0
+         */
+        default void onFailure(RQ requestMessage, Throwable cause) throws KapuaException {
+        }
+    }
 }
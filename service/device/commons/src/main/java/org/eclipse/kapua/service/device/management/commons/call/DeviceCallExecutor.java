@@ -37,6 +37,9 @@ import org.eclipse.kapua.translator.Translator;
 
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 
 /**
  * {@link DeviceCallExecutor} definition.<br>
@@ -96,28 +99,8 @@ public class DeviceCallExecutor<C extends KapuaRequestChannel, P extends KapuaRe
     public RS send() throws KapuaEntityNotFoundException, DeviceNotConnectedException, DeviceManagementTimeoutException, DeviceManagementSendException {
 
         //
-        // Check Device existence
-        Device device = null;
-        try {
-            device = DEVICE_REGISTRY_SERVICE.find(requestMessage.getScopeId(), requestMessage.getDeviceId());
-        } catch (KapuaException e) {
-            throw new DeviceManagementSendException(e, requestMessage);
-        }
-        if (device == null) {
-            throw new KapuaEntityNotFoundException(Device.TYPE, requestMessage.getDeviceId());
-        }
-
-        //
-        // Check Device Connection
-        if (device.getConnection() == null) {
-            throw new DeviceNotConnectedException(device.getId());
-        }
-
-        //
-        // Check Device Connection status
-        if (!DeviceConnectionStatus.CONNECTED.equals(device.getConnection().getStatus())) {
-            throw new DeviceNotConnectedException(device.getId(), device.getConnection().getStatus());
-        }
+        // Check Device
+        checkDevice();
 
         //
         // Translate the request from Kapua to Device
@@ -167,4 +150,100 @@ public class DeviceCallExecutor<C extends KapuaRequestChannel, P extends KapuaRe
             throw new DeviceManagementSendException(e, requestMessage);
         }
     }
+
+    /**
+     * Performs the {@link DeviceCall} without blocking while waiting for the {@link KapuaResponseMessage}.
+     * <p>
+     * The {@link Device} is checked before returning. The returned {@link CompletionStage} is completed exceptionally with:
+     * <ul>
+     *     <li>{@link KapuaEntityNotFoundException} if the {@link Device} is not found.</li>
+     *     <li>{@link DeviceNotConnectedException} if the {@link Device} is not {@link DeviceConnectionStatus#CONNECTED}.</li>
+     *     <li>{@link DeviceManagementTimeoutException} if waiting of the {@link KapuaResponseMessage} goes on timeout.</li>
+     *     <li>{@link DeviceManagementSendException} if sending the {@link KapuaRequestMessage} goes on error.</li>
+     * </ul>
+     *
+     * @return The {@link CompletionStage} of the {@link KapuaResponseMessage}.
+     * @see DeviceCall#sendAsync(DeviceRequestMessage, Long)
+     * @since 1.5.0
+     */
+    public CompletionStage<RS> sendAsync() {
+        CompletableFuture<RS> response = new CompletableFuture<>();
+
+        //
+        // Check Device and translate the request from Kapua to Device
+        DeviceCall<DeviceRequestMessage<?, ?>, DeviceResponseMessage<?, ?>> deviceCall;
+        DeviceRequestMessage<?, ?> deviceRequestMessage;
+        Translator<DeviceResponseMessage<?, ?>, RS> tClientToKapua;
+        try {
+            checkDevice();
+
+            deviceCall = DEVICE_CALL_FACTORY.newDeviceCall();
+            Translator<RQ, DeviceRequestMessage<?, ?>> tKapuaToClient = Translator.getTranslatorFor(requestMessage.getRequestClass(), deviceCall.getBaseMessageClass());
+            deviceRequestMessage = tKapuaToClient.translate(requestMessage);
+
+            tClientToKapua = Translator.getTranslatorFor(deviceCall.getBaseMessageClass(), requestMessage.getResponseClass());
+        } catch (KapuaEntityNotFoundException | DeviceNotConnectedException | DeviceManagementSendException e) {
+            response.completeExceptionally(e);
+            return response;
+        } catch (Exception e) {
+            response.completeExceptionally(new DeviceManagementSendException(e, requestMessage));
+            return response;
+        }
+
+        //
+        // Send the request
+        deviceCall.sendAsync(deviceRequestMessage, timeout).whenComplete((responseMessage, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                response.completeExceptionally(cause instanceof DeviceCallTimeoutException ?
+                        new DeviceManagementTimeoutException(cause, timeout) :
+                        new DeviceManagementSendException(cause, requestMessage));
+                return;
+            }
+
+            //
+            // Translate the response from Device to Kapua
+            try {
+                response.complete(tClientToKapua.translate(responseMessage));
+            } catch (Exception e) {
+                response.completeExceptionally(new DeviceManagementSendException(e, requestMessage));
+            }
+        });
+
+        return response;
+    }
+
+    /**
+     * Checks that the target {@link Device} exists and is {@link DeviceConnectionStatus#CONNECTED}.
+     *
+     * @throws KapuaEntityNotFoundException  If the {@link Device} is not found.
+     * @throws DeviceNotConnectedException   If the {@link Device} is not {@link DeviceConnectionStatus#CONNECTED}.
+     * @throws DeviceManagementSendException If looking up the {@link Device} goes on error.
+     * @since 1.5.0
+     */
+    private void checkDevice() throws KapuaEntityNotFoundException, DeviceNotConnectedException, DeviceManagementSendException {
+        //
+        // Check Device existence
+        Device device = null;
+        try {
+            device = DEVICE_REGISTRY_SERVICE.find(requestMessage.getScopeId(), requestMessage.getDeviceId());
+        } catch (KapuaException e) {
+            throw new DeviceManagementSendException(e, requestMessage);
+        }
+        if (device == null) {
+            throw new KapuaEntityNotFoundException(Device.TYPE, requestMessage.getDeviceId());
+        }
+
+        //
+        // Check Device Connection
+        if (device.getConnection() == null) {
+            throw new DeviceNotConnectedException(device.getId());
+        }
+
+        //
+        // Check Device Connection status
+        if (!DeviceConnectionStatus.CONNECTED.equals(device.getConnection().getStatus())) {
+            throw new DeviceNotConnectedException(device.getId(), device.getConnection().getStatus());
+        }
+    }
 }
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.commons;
+
+import org.eclipse.kapua.KapuaErrorCodes;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.device.management.message.request.KapuaRequestMessage;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponseMessage;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Category(JUnitTests.class)
+public class AbstractDeviceManagementServiceImplTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId USER_ID = new KapuaEid(BigInteger.valueOf(20));
+    private static final KapuaId DEVICE_ID_1 = new KapuaEid(BigInteger.valueOf(31));
+    private static final KapuaId DEVICE_ID_2 = new KapuaEid(BigInteger.valueOf(32));
+
+    private TestDeviceManagementService deviceManagementService;
+    private Map<KapuaId, KapuaRequestMessage<?, ?>> requestMessages;
+
+    @Before
+    public void initialize() {
+        deviceManagementService = new TestDeviceManagementService();
+
+        requestMessages = new LinkedHashMap<>();
+        requestMessages.put(DEVICE_ID_1, Mockito.mock(KapuaRequestMessage.class));
+        requestMessages.put(DEVICE_ID_2, Mockito.mock(KapuaRequestMessage.class));
+    }
+
+    @After
+    public void tearDown() {
+        KapuaSecurityUtils.clearSession();
+    }
+
+    @Test
+    public void sendBulkTest() throws Exception {
+        KapuaSession session = new KapuaSession(null, SCOPE_ID, USER_ID);
+        KapuaSecurityUtils.setSession(session);
+
+        List<KapuaSession> handlerSessions = new ArrayList<>();
+        Map<KapuaId, CompletionStage<KapuaResponseMessage<?, ?>>> results = deviceManagementService.sendBulk(requestMessages, 1000L,
+                (KapuaRequestMessage<?, ?> requestMessage, KapuaResponseMessage<?, ?> responseMessage) -> {
+                    handlerSessions.add(KapuaSecurityUtils.getSession());
+                    return responseMessage;
+                });
+
+        assertEquals("Expected and actual values should be the same.", new ArrayList<>(requestMessages.keySet()), new ArrayList<>(results.keySet()));
+        assertFalse("False expected.", results.get(DEVICE_ID_1).toCompletableFuture().isDone());
+
+        // The responses are received on another thread, which has no KapuaSession
+        KapuaResponseMessage<?, ?> responseMessage1 = Mockito.mock(KapuaResponseMessage.class);
+        KapuaResponseMessage<?, ?> responseMessage2 = Mockito.mock(KapuaResponseMessage.class);
+        AtomicReference<KapuaSession> receiverSession = new AtomicReference<>(session);
+        Thread receiver = new Thread(() -> {
+            deviceManagementService.complete(DEVICE_ID_1, responseMessage1);
+            deviceManagementService.complete(DEVICE_ID_2, responseMessage2);
+            receiverSession.set(KapuaSecurityUtils.getSession());
+        });
+        receiver.start();
+        receiver.join(5000);
+
+        assertSame("Expected and actual values should be the same.", responseMessage1, results.get(DEVICE_ID_1).toCompletableFuture().get());
+        assertSame("Expected and actual values should be the same.", responseMessage2, results.get(DEVICE_ID_2).toCompletableFuture().get());
+
+        // The KapuaSession of the caller is set while handling the responses, and then removed
+        assertEquals("Expected and actual values should be the same.", 2, handlerSessions.size());
+        assertSame("Expected and actual values should be the same.", session, handlerSessions.get(0));
+        assertSame("Expected and actual values should be the same.", session, handlerSessions.get(1));
+        assertNull("Null expected.", receiverSession.get());
+    }
+
+    @Test
+    public void sendBulkFailureTest() throws Exception {
+        List<KapuaRequestMessage<?, ?>> failedRequestMessages = new ArrayList<>();
+        List<Throwable> failureCauses = new ArrayList<>();
+        Map<KapuaId, CompletionStage<String>> results = deviceManagementService.sendBulk(requestMessages, 1000L,
+                new AbstractDeviceManagementServiceImpl.BulkResponseHandler<KapuaRequestMessage<?, ?>, KapuaResponseMessage<?, ?>, String>() {
+
+                    @Override
+                    public String onResponse(KapuaRequestMessage<?, ?> requestMessage, KapuaResponseMessage<?, ?> responseMessage) {
+                        return "OK";
+                    }
+
+                    @Override
+                    public void onFailure(KapuaRequestMessage<?, ?> requestMessage, Throwable cause) {
+                        failedRequestMessages.add(requestMessage);
+                        failureCauses.add(cause);
+                    }
+                });
+
+        KapuaException sendException = new KapuaException(KapuaErrorCodes.INTERNAL_ERROR);
+        deviceManagementService.fail(DEVICE_ID_1, sendException);
+        deviceManagementService.complete(DEVICE_ID_2, Mockito.mock(KapuaResponseMessage.class));
+
+        // A failed request does not affect the others
+        assertSame("Expected and actual values should be the same.", sendException, getFailureCause(results.get(DEVICE_ID_1)));
+        assertEquals("Expected and actual values should be the same.", "OK", results.get(DEVICE_ID_2).toCompletableFuture().get());
+
+        assertEquals("Expected and actual values should be the same.", 1, failedRequestMessages.size());
+        assertSame("Expected and actual values should be the same.", requestMessages.get(DEVICE_ID_1), failedRequestMessages.get(0));
+        assertSame("Expected and actual values should be the same.", sendException, failureCauses.get(0));
+    }
+
+    @Test
+    public void sendBulkOnFailureExceptionTest() {
+        Map<KapuaId, CompletionStage<String>> results = deviceManagementService.sendBulk(requestMessages, 1000L,
+                new AbstractDeviceManagementServiceImpl.BulkResponseHandler<KapuaRequestMessage<?, ?>, KapuaResponseMessage<?, ?>, String>() {
+
+                    @Override
+                    public String onResponse(KapuaRequestMessage<?, ?> requestMessage, KapuaResponseMessage<?, ?> responseMessage) {
+                        return "OK";
+                    }
+
+                    @Override
+                    public void onFailure(KapuaRequestMessage<?, ?> requestMessage, Throwable cause) throws KapuaException {
+                        throw new KapuaException(KapuaErrorCodes.INTERNAL_ERROR);
+                    }
+                });
+
+        // The cause of the failure is reported, not the failure of the BulkResponseHandler
+        KapuaException sendException = new KapuaException(KapuaErrorCodes.INTERNAL_ERROR);
+        deviceManagementService.fail(DEVICE_ID_1, sendException);
+
+        assertSame("Expected and actual values should be the same.", sendException, getFailureCause(results.get(DEVICE_ID_1)));
+    }
+
+    @Test
+    public void sendBulkOnResponseExceptionTest() throws Exception {
+        KapuaException responseException = new KapuaException(KapuaErrorCodes.INTERNAL_ERROR);
+        Map<KapuaId, CompletionStage<String>> results = deviceManagementService.sendBulk(requestMessages, 1000L,
+                (KapuaRequestMessage<?, ?> requestMessage, KapuaResponseMessage<?, ?> responseMessage) -> {
+                    if (requestMessage == requestMessages.get(DEVICE_ID_1)) {
+                        throw responseException;
+                    }
+                    return "OK";
+                });
+
+        deviceManagementService.complete(DEVICE_ID_1, Mockito.mock(KapuaResponseMessage.class));
+        deviceManagementService.complete(DEVICE_ID_2, Mockito.mock(KapuaResponseMessage.class));
+
+        assertSame("Expected and actual values should be the same.", responseException, getFailureCause(results.get(DEVICE_ID_1)));
+        assertEquals("Expected and actual values should be the same.", "OK", results.get(DEVICE_ID_2).toCompletableFuture().get());
+    }
+
+    private static Throwable getFailureCause(CompletionStage<?> result) {
+        try {
+            result.toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        fail("ExecutionException expected.");
+        return null;
+    }
+
+    /**
+     * {@link AbstractDeviceManagementServiceImpl} whose requests are completed by the tests.
+     */
+    private class TestDeviceManagementService extends AbstractDeviceManagementServiceImpl {
+
+        private final Map<KapuaId, CompletableFuture<KapuaResponseMessage<?, ?>>> responses = new HashMap<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <RQ extends KapuaRequestMessage<?, ?>, RS extends KapuaResponseMessage<?, ?>> CompletionStage<RS> sendAsync(RQ requestMessage, Long timeout) {
+            CompletableFuture<KapuaResponseMessage<?, ?>> response = new CompletableFuture<>();
+            requestMessages.forEach((deviceId, deviceRequestMessage) -> {
+                if (deviceRequestMessage == requestMessage) {
+                    responses.put(deviceId, response);
+                }
+            });
+            return (CompletionStage<RS>) (CompletionStage<?>) response;
+        }
+
+        void complete(KapuaId deviceId, KapuaResponseMessage<?, ?> responseMessage) {
+            responses.get(deviceId).complete(responseMessage);
+        }
+
+        void fail(KapuaId deviceId, Throwable cause) {
+            responses.get(deviceId).completeExceptionally(cause);
+        }
+    }
+}
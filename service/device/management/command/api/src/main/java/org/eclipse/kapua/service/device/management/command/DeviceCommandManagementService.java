@@ -17,6 +17,10 @@ import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.KapuaService;
 import org.eclipse.kapua.service.device.registry.Device;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
 /**
  * {@link DeviceCommand} {@link KapuaService} definition.
  *
@@ -36,4 +40,20 @@ public interface DeviceCommandManagementService extends KapuaService {
      * @since 1.0.0
      */
     DeviceCommandOutput exec(KapuaId scopeId, KapuaId deviceId, DeviceCommandInput commandInput, Long timeout) throws KapuaException;
+
+    /**
+     * Executes the given {@link DeviceCommandInput} on many target {@link Device}s.
+     * <p>
+     * The requests are sent without waiting for the responses, the returned {@link CompletionStage}s are completed as the {@link Device}s respond.
+     * The {@link CompletionStage} of a {@link Device} is completed exceptionally with the same {@link KapuaException}s that {@link #exec(KapuaId, KapuaId, DeviceCommandInput, Long)} would have thrown.
+     *
+     * @param scopeId      The {@link Device#getScopeId()}.
+     * @param deviceIds    The {@link Device#getId()}s.
+     * @param commandInput The {@link DeviceCommandInput} to be executed.
+     * @param timeout      The time to wait each {@link Device} response.
+     * @return The {@link CompletionStage} of the {@link DeviceCommandOutput} of each {@link Device#getId()}.
+     * @throws KapuaException if the arguments are not valid or the access is denied.
+     * @since 1.5.0
+     */
+    Map<KapuaId, CompletionStage<DeviceCommandOutput>> execBulk(KapuaId scopeId, Set<KapuaId> deviceIds, DeviceCommandInput commandInput, Long timeout) throws KapuaException;
 }
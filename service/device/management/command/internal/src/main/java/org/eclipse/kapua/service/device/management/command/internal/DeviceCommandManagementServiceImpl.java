@@ -33,6 +33,10 @@ import org.eclipse.kapua.service.device.management.message.KapuaMethod;
 import org.eclipse.kapua.service.device.management.message.response.KapuaResponsePayload;
 
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 /**
  * {@link DeviceCommandManagementService} implementation.
@@ -58,6 +62,66 @@ public class DeviceCommandManagementServiceImpl extends AbstractDeviceManagement
 
         //
         // Prepare the request
+        CommandRequestMessage commandRequestMessage = prepareRequest(scopeId, deviceId, commandInput);
+
+        //
+        // Do exec
+        DeviceCallExecutor deviceApplicationCall = new DeviceCallExecutor(commandRequestMessage, timeout);
+        CommandResponseMessage responseMessage = (CommandResponseMessage) deviceApplicationCall.send();
+
+        //
+        // Create event
+        createDeviceEvent(scopeId, deviceId, commandRequestMessage, responseMessage);
+
+        //
+        // Check response
+        return checkResponse(responseMessage);
+    }
+
+    @Override
+    public Map<KapuaId, CompletionStage<DeviceCommandOutput>> execBulk(KapuaId scopeId, Set<KapuaId> deviceIds, DeviceCommandInput commandInput, Long timeout)
+            throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(scopeId, "scopeId");
+        ArgumentValidator.notEmptyOrNull(deviceIds, "deviceIds");
+        ArgumentValidator.notNull(commandInput, "commandInput");
+        ArgumentValidator.notNull(commandInput.getTimeout(), "commandInput.timeout");
+
+        //
+        // Check Access
+        AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(DeviceManagementDomains.DEVICE_MANAGEMENT_DOMAIN, Actions.execute, scopeId));
+
+        //
+        // Prepare the requests
+        Map<KapuaId, CommandRequestMessage> commandRequestMessages = new LinkedHashMap<>();
+        for (KapuaId deviceId : deviceIds) {
+            commandRequestMessages.put(deviceId, prepareRequest(scopeId, deviceId, commandInput));
+        }
+
+        //
+        // Do exec
+        return sendBulk(commandRequestMessages, timeout, (CommandRequestMessage commandRequestMessage, CommandResponseMessage responseMessage) -> {
+            //
+            // Create event
+            createDeviceEvent(scopeId, commandRequestMessage.getDeviceId(), commandRequestMessage, responseMessage);
+
+            //
+            // Check response
+            return checkResponse(responseMessage);
+        });
+    }
+
+    /**
+     * Prepares the {@link CommandRequestMessage} to execute the {@link DeviceCommandInput} on the target {@link org.eclipse.kapua.service.device.registry.Device}.
+     *
+     * @param scopeId      The {@link org.eclipse.kapua.service.device.registry.Device#getScopeId()}.
+     * @param deviceId     The {@link org.eclipse.kapua.service.device.registry.Device#getId()}.
+     * @param commandInput The {@link DeviceCommandInput} to be executed.
+     * @return The {@link CommandRequestMessage}.
+     * @since 1.5.0
+     */
+    private CommandRequestMessage prepareRequest(KapuaId scopeId, KapuaId deviceId, DeviceCommandInput commandInput) {
         CommandRequestChannel commandRequestChannel = new CommandRequestChannel();
         commandRequestChannel.setAppName(CommandAppProperties.APP_NAME);
         commandRequestChannel.setVersion(CommandAppProperties.APP_VERSION);
@@ -81,17 +145,18 @@ public class DeviceCommandManagementServiceImpl extends AbstractDeviceManagement
         commandRequestMessage.setPayload(commandRequestPayload);
         commandRequestMessage.setChannel(commandRequestChannel);
 
-        //
-        // Do exec
-        DeviceCallExecutor deviceApplicationCall = new DeviceCallExecutor(commandRequestMessage, timeout);
-        CommandResponseMessage responseMessage = (CommandResponseMessage) deviceApplicationCall.send();
-
-        //
-        // Create event
-        createDeviceEvent(scopeId, deviceId, commandRequestMessage, responseMessage);
+        return commandRequestMessage;
+    }
 
-        //
-        // Check response
+    /**
+     * Checks the {@link CommandResponseMessage} and converts it to the {@link DeviceCommandOutput}.
+     *
+     * @param responseMessage The {@link CommandResponseMessage} received.
+     * @return The {@link DeviceCommandOutput} containing the execution result.
+     * @throws CommandExecuteManagementException if the {@link CommandResponseMessage} is not accepted.
+     * @since 1.5.0
+     */
+    private DeviceCommandOutput checkResponse(CommandResponseMessage responseMessage) throws CommandExecuteManagementException {
         if (responseMessage.getResponseCode().isAccepted()) {
             CommandResponsePayload responsePayload = responseMessage.getPayload();
 
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.command.internal;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaIllegalAccessException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.device.management.command.DeviceCommandInput;
+import org.eclipse.kapua.service.device.management.command.DeviceCommandOutput;
+import org.eclipse.kapua.service.device.management.command.internal.exception.CommandExecuteManagementException;
+import org.eclipse.kapua.service.device.management.command.message.internal.CommandRequestMessage;
+import org.eclipse.kapua.service.device.management.command.message.internal.CommandResponseMessage;
+import org.eclipse.kapua.service.device.management.command.message.internal.CommandResponsePayload;
+import org.eclipse.kapua.service.device.management.message.request.KapuaRequestMessage;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponseCode;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponseMessage;
+import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
+import org.eclipse.kapua.service.device.registry.event.DeviceEventService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+@Category(JUnitTests.class)
+public class DeviceCommandManagementServiceImplTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId DEVICE_ID_1 = new KapuaEid(BigInteger.valueOf(31));
+    private static final KapuaId DEVICE_ID_2 = new KapuaEid(BigInteger.valueOf(32));
+
+    private final AuthorizationService authorizationService = KapuaLocator.getInstance().getService(AuthorizationService.class);
+    private final DeviceEventService deviceEventService = KapuaLocator.getInstance().getService(DeviceEventService.class);
+
+    private TestDeviceCommandManagementService deviceCommandManagementService;
+    private Set<KapuaId> deviceIds;
+    private DeviceCommandInput commandInput;
+
+    @Before
+    public void initialize() {
+        Mockito.reset(authorizationService, deviceEventService);
+
+        deviceCommandManagementService = new TestDeviceCommandManagementService();
+        deviceIds = new LinkedHashSet<>(Arrays.asList(DEVICE_ID_1, DEVICE_ID_2));
+
+        commandInput = new DeviceCommandInputImpl();
+        commandInput.setCommand("ls");
+        commandInput.setArguments(new String[]{"-l"});
+        commandInput.setTimeout(1000);
+    }
+
+    @Test
+    public void execBulkTest() throws Exception {
+        Map<KapuaId, CompletionStage<DeviceCommandOutput>> results = deviceCommandManagementService.execBulk(SCOPE_ID, deviceIds, commandInput, 5000L);
+
+        assertEquals("Expected and actual values should be the same.", new ArrayList<>(deviceIds), new ArrayList<>(results.keySet()));
+
+        // A request for each Device
+        CommandRequestMessage requestMessage = deviceCommandManagementService.getRequestMessage(DEVICE_ID_2);
+        assertEquals("Expected and actual values should be the same.", SCOPE_ID, requestMessage.getScopeId());
+        assertEquals("Expected and actual values should be the same.", DEVICE_ID_2, requestMessage.getDeviceId());
+        assertEquals("Expected and actual values should be the same.", "ls", requestMessage.getPayload().getCommand());
+        assertEquals("Expected and actual values should be the same.", Long.valueOf(5000L), deviceCommandManagementService.getTimeout(DEVICE_ID_2));
+
+        deviceCommandManagementService.complete(DEVICE_ID_1, newResponseMessage(KapuaResponseCode.ACCEPTED, "output1"));
+        deviceCommandManagementService.complete(DEVICE_ID_2, newResponseMessage(KapuaResponseCode.ACCEPTED, "output2"));
+
+        assertEquals("Expected and actual values should be the same.", "output1", results.get(DEVICE_ID_1).toCompletableFuture().get().getStdout());
+        assertEquals("Expected and actual values should be the same.", "output2", results.get(DEVICE_ID_2).toCompletableFuture().get().getStdout());
+        Mockito.verify(authorizationService).checkPermission(Mockito.any());
+        Mockito.verify(deviceEventService, Mockito.times(2)).create(Mockito.any(DeviceEventCreator.class));
+    }
+
+    @Test
+    public void execBulkRejectedTest() throws Exception {
+        Map<KapuaId, CompletionStage<DeviceCommandOutput>> results = deviceCommandManagementService.execBulk(SCOPE_ID, deviceIds, commandInput, 5000L);
+
+        deviceCommandManagementService.complete(DEVICE_ID_1, newResponseMessage(KapuaResponseCode.BAD_REQUEST, null));
+        deviceCommandManagementService.complete(DEVICE_ID_2, newResponseMessage(KapuaResponseCode.ACCEPTED, "output2"));
+
+        try {
+            results.get(DEVICE_ID_1).toCompletableFuture().get();
+            fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            assertTrue("True expected.", e.getCause() instanceof CommandExecuteManagementException);
+        }
+        assertEquals("Expected and actual values should be the same.", "output2", results.get(DEVICE_ID_2).toCompletableFuture().get().getStdout());
+
+        // The DeviceEvent is created for rejected requests as well
+        Mockito.verify(deviceEventService, Mockito.times(2)).create(Mockito.any(DeviceEventCreator.class));
+    }
+
+    @Test
+    public void execBulkUnauthorizedTest() throws KapuaException {
+        Mockito.doThrow(new KapuaIllegalAccessException("execute")).when(authorizationService).checkPermission(Mockito.any());
+
+        try {
+            deviceCommandManagementService.execBulk(SCOPE_ID, deviceIds, commandInput, 5000L);
+            fail("KapuaIllegalAccessException expected.");
+        } catch (KapuaIllegalAccessException e) {
+            assertTrue("True expected.", deviceCommandManagementService.requestMessages.isEmpty());
+        }
+    }
+
+    private static CommandResponseMessage newResponseMessage(KapuaResponseCode responseCode, String stdout) {
+        CommandResponsePayload responsePayload = new CommandResponsePayload();
+        responsePayload.setStdout(stdout);
+
+        CommandResponseMessage responseMessage = new CommandResponseMessage();
+        responseMessage.setResponseCode(responseCode);
+        responseMessage.setReceivedOn(new Date());
+        responseMessage.setPayload(responsePayload);
+        return responseMessage;
+    }
+
+    /**
+     * {@link DeviceCommandManagementServiceImpl} whose requests are completed by the tests.
+     */
+    private static class TestDeviceCommandManagementService extends DeviceCommandManagementServiceImpl {
+
+        private final Map<KapuaId, CommandRequestMessage> requestMessages = new HashMap<>();
+        private final Map<KapuaId, Long> timeouts = new HashMap<>();
+        private final Map<KapuaId, CompletableFuture<CommandResponseMessage>> responses = new HashMap<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <RQ extends KapuaRequestMessage<?, ?>, RS extends KapuaResponseMessage<?, ?>> CompletionStage<RS> sendAsync(RQ requestMessage, Long timeout) {
+            CompletableFuture<CommandResponseMessage> response = new CompletableFuture<>();
+            requestMessages.put(requestMessage.getDeviceId(), (CommandRequestMessage) requestMessage);
+            timeouts.put(requestMessage.getDeviceId(), timeout);
+            responses.put(requestMessage.getDeviceId(), response);
+            return (CompletionStage<RS>) (CompletionStage<?>) response;
+        }
+
+        CommandRequestMessage getRequestMessage(KapuaId deviceId) {
+            return requestMessages.get(deviceId);
+        }
+
+        Long getTimeout(KapuaId deviceId) {
+            return timeouts.get(deviceId);
+        }
+
+        void complete(KapuaId deviceId, CommandResponseMessage responseMessage) {
+            responses.get(deviceId).complete(responseMessage);
+        }
+    }
+}
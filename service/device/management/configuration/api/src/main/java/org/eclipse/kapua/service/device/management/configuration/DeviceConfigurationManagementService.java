@@ -16,6 +16,10 @@ import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.KapuaService;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
 /**
  * Device configuration service definition.
  *
@@ -72,4 +76,20 @@ public interface DeviceConfigurationManagementService extends KapuaService {
      * @throws KapuaException
      */
     void put(KapuaId scopeId, KapuaId deviceId, DeviceComponentConfiguration deviceComponentConfig, Long timeout) throws KapuaException;
+
+    /**
+     * Puts the given {@link DeviceConfiguration} to many target {@link org.eclipse.kapua.service.device.registry.Device}s.
+     * <p>
+     * The requests are sent without waiting for the responses, the returned {@link CompletionStage}s are completed as the devices respond.
+     * The {@link CompletionStage} of a device is completed exceptionally with the same {@link KapuaException}s that {@link #put(KapuaId, KapuaId, DeviceConfiguration, Long)} would have thrown.
+     *
+     * @param scopeId             The scope {@link KapuaId} of the devices.
+     * @param deviceIds           The {@link KapuaId}s of the devices.
+     * @param deviceConfiguration The {@link DeviceConfiguration} to put.
+     * @param timeout             The time to wait each device response.
+     * @return The {@link CompletionStage} of the outcome of each device {@link KapuaId}.
+     * @throws KapuaException if the arguments are not valid or the access is denied.
+     * @since 1.5.0
+     */
+    Map<KapuaId, CompletionStage<Void>> putBulk(KapuaId scopeId, Set<KapuaId> deviceIds, DeviceConfiguration deviceConfiguration, Long timeout) throws KapuaException;
 }
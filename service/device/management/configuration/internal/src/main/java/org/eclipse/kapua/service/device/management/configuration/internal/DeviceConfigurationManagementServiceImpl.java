@@ -43,6 +43,10 @@ import org.xml.sax.SAXException;
 
 import javax.xml.bind.JAXBException;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 /**
  * {@link DeviceConfigurationManagementService} implementation.
@@ -202,11 +206,6 @@ public class DeviceConfigurationManagementServiceImpl extends AbstractDeviceMana
 
         //
         // Prepare the request
-        ConfigurationRequestChannel configurationRequestChannel = new ConfigurationRequestChannel();
-        configurationRequestChannel.setAppName(DeviceConfigurationAppProperties.APP_NAME);
-        configurationRequestChannel.setVersion(DeviceConfigurationAppProperties.APP_VERSION);
-        configurationRequestChannel.setMethod(KapuaMethod.WRITE);
-
         ConfigurationRequestPayload configurationRequestPayload = new ConfigurationRequestPayload();
 
         try {
@@ -215,12 +214,7 @@ public class DeviceConfigurationManagementServiceImpl extends AbstractDeviceMana
             throw new DeviceManagementRequestException(e, deviceConfiguration);
         }
 
-        ConfigurationRequestMessage configurationRequestMessage = new ConfigurationRequestMessage();
-        configurationRequestMessage.setScopeId(scopeId);
-        configurationRequestMessage.setDeviceId(deviceId);
-        configurationRequestMessage.setCapturedOn(new Date());
-        configurationRequestMessage.setPayload(configurationRequestPayload);
-        configurationRequestMessage.setChannel(configurationRequestChannel);
+        ConfigurationRequestMessage configurationRequestMessage = prepareWriteRequest(scopeId, deviceId, configurationRequestPayload);
 
         //
         // Do put
@@ -233,6 +227,88 @@ public class DeviceConfigurationManagementServiceImpl extends AbstractDeviceMana
 
         //
         // Check response
+        checkPutResponse(responseMessage);
+    }
+
+    @Override
+    public Map<KapuaId, CompletionStage<Void>> putBulk(KapuaId scopeId, Set<KapuaId> deviceIds, DeviceConfiguration deviceConfiguration, Long timeout)
+            throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(scopeId, SCOPE_ID);
+        ArgumentValidator.notEmptyOrNull(deviceIds, "deviceIds");
+        ArgumentValidator.notNull(deviceConfiguration, "componentConfiguration");
+
+        //
+        // Check Access
+        AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(DeviceManagementDomains.DEVICE_MANAGEMENT_DOMAIN, Actions.write, scopeId));
+
+        //
+        // Prepare the requests.
+        // The DeviceConfiguration is marshalled once and its body shared by all the requests
+        ConfigurationRequestPayload marshalledPayload = new ConfigurationRequestPayload();
+
+        try {
+            marshalledPayload.setDeviceConfigurations(deviceConfiguration);
+        } catch (Exception e) {
+            throw new DeviceManagementRequestException(e, deviceConfiguration);
+        }
+
+        Map<KapuaId, ConfigurationRequestMessage> configurationRequestMessages = new LinkedHashMap<>();
+        for (KapuaId deviceId : deviceIds) {
+            ConfigurationRequestPayload configurationRequestPayload = new ConfigurationRequestPayload();
+            configurationRequestPayload.setBody(marshalledPayload.getBody());
+
+            configurationRequestMessages.put(deviceId, prepareWriteRequest(scopeId, deviceId, configurationRequestPayload));
+        }
+
+        //
+        // Do put
+        return sendBulk(configurationRequestMessages, timeout, (ConfigurationRequestMessage configurationRequestMessage, ConfigurationResponseMessage responseMessage) -> {
+            //
+            // Create event
+            createDeviceEvent(scopeId, configurationRequestMessage.getDeviceId(), configurationRequestMessage, responseMessage);
+
+            //
+            // Check response
+            checkPutResponse(responseMessage);
+            return null;
+        });
+    }
+
+    /**
+     * Prepares the {@link ConfigurationRequestMessage} to write the whole {@link DeviceConfiguration} to the target {@link org.eclipse.kapua.service.device.registry.Device}.
+     *
+     * @param scopeId                     The {@link org.eclipse.kapua.service.device.registry.Device#getScopeId()}.
+     * @param deviceId                    The {@link org.eclipse.kapua.service.device.registry.Device#getId()}.
+     * @param configurationRequestPayload The {@link ConfigurationRequestPayload} with the {@link DeviceConfiguration}.
+     * @return The {@link ConfigurationRequestMessage}.
+     * @since 1.5.0
+     */
+    private ConfigurationRequestMessage prepareWriteRequest(KapuaId scopeId, KapuaId deviceId, ConfigurationRequestPayload configurationRequestPayload) {
+        ConfigurationRequestChannel configurationRequestChannel = new ConfigurationRequestChannel();
+        configurationRequestChannel.setAppName(DeviceConfigurationAppProperties.APP_NAME);
+        configurationRequestChannel.setVersion(DeviceConfigurationAppProperties.APP_VERSION);
+        configurationRequestChannel.setMethod(KapuaMethod.WRITE);
+
+        ConfigurationRequestMessage configurationRequestMessage = new ConfigurationRequestMessage();
+        configurationRequestMessage.setScopeId(scopeId);
+        configurationRequestMessage.setDeviceId(deviceId);
+        configurationRequestMessage.setCapturedOn(new Date());
+        configurationRequestMessage.setPayload(configurationRequestPayload);
+        configurationRequestMessage.setChannel(configurationRequestChannel);
+
+        return configurationRequestMessage;
+    }
+
+    /**
+     * Checks the {@link ConfigurationResponseMessage} of a write request.
+     *
+     * @param responseMessage The {@link ConfigurationResponseMessage} received.
+     * @throws ConfigurationPutManagementException if the {@link ConfigurationResponseMessage} is not accepted.
+     * @since 1.5.0
+     */
+    private void checkPutResponse(ConfigurationResponseMessage responseMessage) throws ConfigurationPutManagementException {
         if (!responseMessage.getResponseCode().isAccepted()) {
             KapuaResponsePayload responsePayload = responseMessage.getPayload();
 
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.configuration.internal;
+
+import org.eclipse.kapua.KapuaErrorCodes;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.util.xml.XmlUtil;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.device.management.configuration.DeviceComponentConfiguration;
+import org.eclipse.kapua.service.device.management.configuration.DeviceConfiguration;
+import org.eclipse.kapua.service.device.management.configuration.internal.exception.ConfigurationPutManagementException;
+import org.eclipse.kapua.service.device.management.configuration.message.internal.ConfigurationRequestMessage;
+import org.eclipse.kapua.service.device.management.configuration.message.internal.ConfigurationResponseMessage;
+import org.eclipse.kapua.service.device.management.configuration.message.internal.ConfigurationResponsePayload;
+import org.eclipse.kapua.service.device.management.exception.DeviceManagementRequestException;
+import org.eclipse.kapua.service.device.management.message.KapuaMethod;
+import org.eclipse.kapua.service.device.management.message.request.KapuaRequestMessage;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponseCode;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponseMessage;
+import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
+import org.eclipse.kapua.service.device.registry.event.DeviceEventService;
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+@Category(JUnitTests.class)
+public class DeviceConfigurationManagementServiceImplTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId DEVICE_ID_1 = new KapuaEid(BigInteger.valueOf(31));
+    private static final KapuaId DEVICE_ID_2 = new KapuaEid(BigInteger.valueOf(32));
+
+    private final AuthorizationService authorizationService = KapuaLocator.getInstance().getService(AuthorizationService.class);
+    private final DeviceEventService deviceEventService = KapuaLocator.getInstance().getService(DeviceEventService.class);
+
+    private TestDeviceConfigurationManagementService deviceConfigurationManagementService;
+    private Set<KapuaId> deviceIds;
+    private DeviceConfiguration deviceConfiguration;
+
+    @Before
+    public void initialize() {
+        Mockito.reset(authorizationService, deviceEventService);
+        XmlUtil.setContextProvider(() -> {
+            try {
+                return JAXBContextFactory.createContext(new Class<?>[]{DeviceConfiguration.class, DeviceComponentConfiguration.class}, null);
+            } catch (Exception e) {
+                throw new KapuaException(KapuaErrorCodes.INTERNAL_ERROR, e);
+            }
+        });
+
+        deviceConfigurationManagementService = new TestDeviceConfigurationManagementService();
+        deviceIds = new LinkedHashSet<>(Arrays.asList(DEVICE_ID_1, DEVICE_ID_2));
+
+        DeviceComponentConfiguration componentConfiguration = new DeviceComponentConfigurationImpl("org.eclipse.kura.clock.ClockService");
+        componentConfiguration.setProperties(Collections.singletonMap("enabled", true));
+
+        deviceConfiguration = new DeviceConfigurationImpl();
+        deviceConfiguration.getComponentConfigurations().add(componentConfiguration);
+    }
+
+    @Test
+    public void putBulkTest() throws Exception {
+        Map<KapuaId, CompletionStage<Void>> results = deviceConfigurationManagementService.putBulk(SCOPE_ID, deviceIds, deviceConfiguration, 5000L);
+
+        assertEquals("Expected and actual values should be the same.", new ArrayList<>(deviceIds), new ArrayList<>(results.keySet()));
+
+        // The DeviceConfiguration is marshalled once for all the requests
+        ConfigurationRequestMessage requestMessage1 = deviceConfigurationManagementService.getRequestMessage(DEVICE_ID_1);
+        ConfigurationRequestMessage requestMessage2 = deviceConfigurationManagementService.getRequestMessage(DEVICE_ID_2);
+        assertEquals("Expected and actual values should be the same.", DEVICE_ID_1, requestMessage1.getDeviceId());
+        assertEquals("Expected and actual values should be the same.", DEVICE_ID_2, requestMessage2.getDeviceId());
+        assertEquals("Expected and actual values should be the same.", KapuaMethod.WRITE, requestMessage1.getChannel().getMethod());
+        assertTrue("True expected.", new String(requestMessage1.getPayload().getBody()).contains("org.eclipse.kura.clock.ClockService"));
+        assertSame("Expected and actual values should be the same.", requestMessage1.getPayload().getBody(), requestMessage2.getPayload().getBody());
+
+        deviceConfigurationManagementService.complete(DEVICE_ID_1, newResponseMessage(KapuaResponseCode.ACCEPTED));
+        deviceConfigurationManagementService.complete(DEVICE_ID_2, newResponseMessage(KapuaResponseCode.ACCEPTED));
+
+        assertNull("Null expected.", results.get(DEVICE_ID_1).toCompletableFuture().get());
+        assertNull("Null expected.", results.get(DEVICE_ID_2).toCompletableFuture().get());
+        Mockito.verify(deviceEventService, Mockito.times(2)).create(Mockito.any(DeviceEventCreator.class));
+    }
+
+    @Test
+    public void putBulkRejectedTest() throws Exception {
+        Map<KapuaId, CompletionStage<Void>> results = deviceConfigurationManagementService.putBulk(SCOPE_ID, deviceIds, deviceConfiguration, 5000L);
+
+        deviceConfigurationManagementService.complete(DEVICE_ID_1, newResponseMessage(KapuaResponseCode.INTERNAL_ERROR));
+        deviceConfigurationManagementService.complete(DEVICE_ID_2, newResponseMessage(KapuaResponseCode.ACCEPTED));
+
+        try {
+            results.get(DEVICE_ID_1).toCompletableFuture().get();
+            fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            assertTrue("True expected.", e.getCause() instanceof ConfigurationPutManagementException);
+        }
+        assertNull("Null expected.", results.get(DEVICE_ID_2).toCompletableFuture().get());
+    }
+
+    @Test
+    public void putBulkMarshalFailureTest() throws KapuaException {
+        XmlUtil.setContextProvider(() -> {
+            throw new KapuaException(KapuaErrorCodes.INTERNAL_ERROR);
+        });
+
+        try {
+            deviceConfigurationManagementService.putBulk(SCOPE_ID, deviceIds, deviceConfiguration, 5000L);
+            fail("DeviceManagementRequestException expected.");
+        } catch (DeviceManagementRequestException e) {
+            assertTrue("True expected.", deviceConfigurationManagementService.requestMessages.isEmpty());
+        }
+    }
+
+    private static ConfigurationResponseMessage newResponseMessage(KapuaResponseCode responseCode) {
+        ConfigurationResponseMessage responseMessage = new ConfigurationResponseMessage();
+        responseMessage.setResponseCode(responseCode);
+        responseMessage.setReceivedOn(new Date());
+        responseMessage.setPayload(new ConfigurationResponsePayload());
+        return responseMessage;
+    }
+
+    /**
+     * {@link DeviceConfigurationManagementServiceImpl} whose requests are completed by the tests.
+     */
+    private static class TestDeviceConfigurationManagementService extends DeviceConfigurationManagementServiceImpl {
+
+        private final Map<KapuaId, ConfigurationRequestMessage> requestMessages = new HashMap<>();
+        private final Map<KapuaId, CompletableFuture<ConfigurationResponseMessage>> responses = new HashMap<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <RQ extends KapuaRequestMessage<?, ?>, RS extends KapuaResponseMessage<?, ?>> CompletionStage<RS> sendAsync(RQ requestMessage, Long timeout) {
+            CompletableFuture<ConfigurationResponseMessage> response = new CompletableFuture<>();
+            requestMessages.put(requestMessage.getDeviceId(), (ConfigurationRequestMessage) requestMessage);
+            responses.put(requestMessage.getDeviceId(), response);
+            return (CompletionStage<RS>) (CompletionStage<?>) response;
+        }
+
+        ConfigurationRequestMessage getRequestMessage(KapuaId deviceId) {
+            return requestMessages.get(deviceId);
+        }
+
+        void complete(KapuaId deviceId, ConfigurationResponseMessage responseMessage) {
+            responses.get(deviceId).complete(responseMessage);
+        }
+    }
+}
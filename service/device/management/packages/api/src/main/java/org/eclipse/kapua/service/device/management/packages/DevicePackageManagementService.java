@@ -28,6 +28,10 @@ import org.eclipse.kapua.service.device.management.packages.model.uninstall.Devi
 import org.eclipse.kapua.service.device.management.registry.operation.DeviceManagementOperation;
 import org.eclipse.kapua.service.device.registry.Device;
 
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+
 /**
  * {@link DevicePackageManagementService} definition.
  * <p>
@@ -81,6 +85,24 @@ public interface DevicePackageManagementService extends KapuaService {
      */
     KapuaId downloadExec(KapuaId scopeId, KapuaId deviceId, DevicePackageDownloadRequest packageDownloadRequest, DevicePackageDownloadOptions packageDownloadOptions) throws KapuaException;
 
+    /**
+     * Downloads a {@link org.eclipse.kapua.service.device.management.packages.model.DevicePackage} on many target {@link Device}s.
+     * <p>
+     * A {@link DeviceManagementOperation} is created for each {@link Device}.
+     * The requests are sent without waiting for the responses, the returned {@link CompletionStage}s are completed as the {@link Device}s respond.
+     * The {@link CompletionStage} of a {@link Device} is completed exceptionally with the same {@link KapuaException}s that
+     * {@link #downloadExec(KapuaId, KapuaId, DevicePackageDownloadRequest, DevicePackageDownloadOptions)} would have thrown.
+     *
+     * @param scopeId                The scope {@link KapuaId} of the target {@link Device}s
+     * @param deviceIds              The {@link KapuaId}s of the target {@link Device}s
+     * @param packageDownloadRequest The {@link DevicePackageDownloadRequest} for this request
+     * @param packageDownloadOptions The {@link DevicePackageDownloadOptions} for this request
+     * @return the {@link CompletionStage} of the {@link KapuaId} of the {@link DeviceManagementOperation} of each {@link Device}
+     * @throws KapuaException if the arguments are not valid or the access is denied
+     * @since 1.5.0
+     */
+    Map<KapuaId, CompletionStage<KapuaId>> downloadExecBulk(KapuaId scopeId, Set<KapuaId> deviceIds, DevicePackageDownloadRequest packageDownloadRequest, DevicePackageDownloadOptions packageDownloadOptions) throws KapuaException;
+
     /**
      * Interrupts a {@link org.eclipse.kapua.service.device.management.packages.model.DevicePackage} download operation
      *
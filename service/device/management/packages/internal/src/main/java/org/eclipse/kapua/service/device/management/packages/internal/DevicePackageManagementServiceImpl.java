@@ -61,6 +61,11 @@ import org.eclipse.kapua.service.device.management.packages.model.uninstall.Devi
 import org.eclipse.kapua.service.device.management.packages.model.uninstall.DevicePackageUninstallRequest;
 
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 /**
  * {@link DevicePackageManagementService} implementation.
@@ -171,6 +176,108 @@ public class DevicePackageManagementServiceImpl extends AbstractDeviceManagement
 
         //
         // Prepare the request
+        PackageRequestMessage packageRequestMessage = prepareDownloadRequest(scopeId, deviceId, operationId, packageDownloadRequest);
+
+        //
+        // Create device management operation
+        KapuaId deviceManagementOperationId = createManagementOperation(scopeId, deviceId, operationId, packageRequestMessage);
+
+        //
+        // Do exec
+        DeviceCallExecutor<?, ?, ?, PackageResponseMessage> deviceApplicationCall = new DeviceCallExecutor<>(packageRequestMessage, packageDownloadOptions.getTimeout());
+        PackageResponseMessage responseMessage;
+        try {
+            responseMessage = deviceApplicationCall.send();
+        } catch (Exception e) {
+            closeManagementOperation(scopeId, deviceId, operationId);
+            throw e;
+        }
+
+        //
+        // Create event
+        createDeviceEvent(scopeId, deviceId, packageRequestMessage, responseMessage);
+
+        //
+        // Check response
+        if (!responseMessage.getResponseCode().isAccepted()) {
+            closeManagementOperation(scopeId, deviceId, operationId, responseMessage);
+
+            throw new KapuaException(KapuaErrorCodes.DOWNLOAD_PACKAGE_EXCEPTION);
+        }
+
+        return deviceManagementOperationId;
+    }
+
+    @Override
+    public Map<KapuaId, CompletionStage<KapuaId>> downloadExecBulk(KapuaId scopeId, Set<KapuaId> deviceIds, DevicePackageDownloadRequest packageDownloadRequest, DevicePackageDownloadOptions packageDownloadOptions) throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(scopeId, SCOPE_ID);
+        ArgumentValidator.notEmptyOrNull(deviceIds, "deviceIds");
+        ArgumentValidator.notNull(packageDownloadRequest, "packageDownloadRequest");
+        ArgumentValidator.notNull(packageDownloadRequest.getUri(), "packageDownloadRequest.uri");
+        ArgumentValidator.notNull(packageDownloadRequest.getName(), "packageDownloadRequest.name");
+        ArgumentValidator.notNull(packageDownloadRequest.getVersion(), "packageDownloadRequest.version");
+        ArgumentValidator.notNull(packageDownloadOptions, "packageDownloadOptions");
+
+        //
+        // Check Access
+        AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(DeviceManagementDomains.DEVICE_MANAGEMENT_DOMAIN, Actions.write, scopeId));
+
+        //
+        // Prepare the requests and create the device management operations
+        Map<KapuaId, PackageRequestMessage> packageRequestMessages = new LinkedHashMap<>();
+        Map<KapuaId, KapuaId> deviceManagementOperationIds = new HashMap<>();
+        for (KapuaId deviceId : deviceIds) {
+            KapuaId operationId = new KapuaEid(IdGenerator.generate());
+
+            PackageRequestMessage packageRequestMessage = prepareDownloadRequest(scopeId, deviceId, operationId, packageDownloadRequest);
+
+            deviceManagementOperationIds.put(deviceId, createManagementOperation(scopeId, deviceId, operationId, packageRequestMessage));
+            packageRequestMessages.put(deviceId, packageRequestMessage);
+        }
+
+        //
+        // Do exec
+        return sendBulk(packageRequestMessages, packageDownloadOptions.getTimeout(), new BulkResponseHandler<PackageRequestMessage, PackageResponseMessage, KapuaId>() {
+
+            @Override
+            public KapuaId onResponse(PackageRequestMessage packageRequestMessage, PackageResponseMessage responseMessage) throws KapuaException {
+                KapuaId deviceId = packageRequestMessage.getDeviceId();
+
+                //
+                // Create event
+                createDeviceEvent(scopeId, deviceId, packageRequestMessage, responseMessage);
+
+                //
+                // Check response
+                if (!responseMessage.getResponseCode().isAccepted()) {
+                    closeManagementOperation(scopeId, deviceId, packageRequestMessage.getPayload().getOperationId(), responseMessage);
+
+                    throw new KapuaException(KapuaErrorCodes.DOWNLOAD_PACKAGE_EXCEPTION);
+                }
+
+                return deviceManagementOperationIds.get(deviceId);
+            }
+
+            @Override
+            public void onFailure(PackageRequestMessage packageRequestMessage, Throwable cause) throws KapuaException {
+                closeManagementOperation(scopeId, packageRequestMessage.getDeviceId(), packageRequestMessage.getPayload().getOperationId());
+            }
+        });
+    }
+
+    /**
+     * Prepares the {@link PackageRequestMessage} to download a {@link org.eclipse.kapua.service.device.management.packages.model.DevicePackage} on the target {@link org.eclipse.kapua.service.device.registry.Device}.
+     *
+     * @param scopeId                The {@link org.eclipse.kapua.service.device.registry.Device#getScopeId()}.
+     * @param deviceId               The {@link org.eclipse.kapua.service.device.registry.Device#getId()}.
+     * @param operationId            The {@link org.eclipse.kapua.service.device.management.registry.operation.DeviceManagementOperation#getOperationId()}.
+     * @param packageDownloadRequest The {@link DevicePackageDownloadRequest}.
+     * @return The {@link PackageRequestMessage}.
+     * @since 1.5.0
+     */
+    private PackageRequestMessage prepareDownloadRequest(KapuaId scopeId, KapuaId deviceId, KapuaId operationId, DevicePackageDownloadRequest packageDownloadRequest) {
         PackageRequestChannel packageRequestChannel = new PackageRequestChannel();
         packageRequestChannel.setAppName(PackageAppProperties.APP_NAME);
         packageRequestChannel.setVersion(PackageAppProperties.APP_VERSION);
@@ -210,34 +317,7 @@ public class DevicePackageManagementServiceImpl extends AbstractDeviceManagement
         packageRequestMessage.setPayload(packageRequestPayload);
         packageRequestMessage.setChannel(packageRequestChannel);
 
-        //
-        // Create device management operation
-        KapuaId deviceManagementOperationId = createManagementOperation(scopeId, deviceId, operationId, packageRequestMessage);
-
-        //
-        // Do exec
-        DeviceCallExecutor<?, ?, ?, PackageResponseMessage> deviceApplicationCall = new DeviceCallExecutor<>(packageRequestMessage, packageDownloadOptions.getTimeout());
-        PackageResponseMessage responseMessage;
-        try {
-            responseMessage = deviceApplicationCall.send();
-        } catch (Exception e) {
-            closeManagementOperation(scopeId, deviceId, operationId);
-            throw e;
-        }
-
-        //
-        // Create event
-        createDeviceEvent(scopeId, deviceId, packageRequestMessage, responseMessage);
-
-        //
-        // Check response
-        if (!responseMessage.getResponseCode().isAccepted()) {
-            closeManagementOperation(scopeId, deviceId, operationId, responseMessage);
-
-            throw new KapuaException(KapuaErrorCodes.DOWNLOAD_PACKAGE_EXCEPTION);
-        }
-
-        return deviceManagementOperationId;
+        return packageRequestMessage;
     }
 
     @Override
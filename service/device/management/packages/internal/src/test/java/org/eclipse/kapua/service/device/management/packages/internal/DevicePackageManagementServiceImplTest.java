@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.packages.internal;
+
+import org.eclipse.kapua.KapuaErrorCodes;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.device.management.message.notification.OperationStatus;
+import org.eclipse.kapua.service.device.management.message.request.KapuaRequestMessage;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponseCode;
+import org.eclipse.kapua.service.device.management.message.response.KapuaResponseMessage;
+import org.eclipse.kapua.service.device.management.packages.message.internal.PackageRequestMessage;
+import org.eclipse.kapua.service.device.management.packages.message.internal.PackageResponseMessage;
+import org.eclipse.kapua.service.device.management.packages.message.internal.PackageResponsePayload;
+import org.eclipse.kapua.service.device.management.packages.model.download.DevicePackageDownloadOptions;
+import org.eclipse.kapua.service.device.management.packages.model.download.DevicePackageDownloadRequest;
+import org.eclipse.kapua.service.device.management.packages.model.download.internal.DevicePackageDownloadOptionsImpl;
+import org.eclipse.kapua.service.device.management.packages.model.download.internal.DevicePackageDownloadRequestImpl;
+import org.eclipse.kapua.service.device.management.registry.operation.DeviceManagementOperation;
+import org.eclipse.kapua.service.device.management.registry.operation.DeviceManagementOperationCreator;
+import org.eclipse.kapua.service.device.management.registry.operation.DeviceManagementOperationFactory;
+import org.eclipse.kapua.service.device.management.registry.operation.DeviceManagementOperationRegistryService;
+import org.eclipse.kapua.service.device.registry.event.DeviceEventService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+@Category(JUnitTests.class)
+public class DevicePackageManagementServiceImplTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId DEVICE_ID_1 = new KapuaEid(BigInteger.valueOf(31));
+    private static final KapuaId DEVICE_ID_2 = new KapuaEid(BigInteger.valueOf(32));
+    private static final KapuaId DEVICE_MANAGEMENT_OPERATION_ID_1 = new KapuaEid(BigInteger.valueOf(41));
+    private static final KapuaId DEVICE_MANAGEMENT_OPERATION_ID_2 = new KapuaEid(BigInteger.valueOf(42));
+
+    private final AuthorizationService authorizationService = KapuaLocator.getInstance().getService(AuthorizationService.class);
+    private final DeviceEventService deviceEventService = KapuaLocator.getInstance().getService(DeviceEventService.class);
+    private final DeviceManagementOperationRegistryService deviceManagementOperationRegistryService = KapuaLocator.getInstance().getService(DeviceManagementOperationRegistryService.class);
+    private final DeviceManagementOperationFactory deviceManagementOperationFactory = KapuaLocator.getInstance().getFactory(DeviceManagementOperationFactory.class);
+
+    private TestDevicePackageManagementService devicePackageManagementService;
+    private Set<KapuaId> deviceIds;
+    private DevicePackageDownloadRequest packageDownloadRequest;
+    private DevicePackageDownloadOptions packageDownloadOptions;
+    private DeviceManagementOperation deviceManagementOperation;
+
+    @Before
+    public void initialize() throws KapuaException {
+        Mockito.reset(authorizationService, deviceEventService, deviceManagementOperationRegistryService, deviceManagementOperationFactory);
+
+        Mockito.when(deviceManagementOperationFactory.newCreator(SCOPE_ID)).thenReturn(Mockito.mock(DeviceManagementOperationCreator.class));
+
+        DeviceManagementOperation createdOperation1 = Mockito.mock(DeviceManagementOperation.class);
+        Mockito.when(createdOperation1.getId()).thenReturn(DEVICE_MANAGEMENT_OPERATION_ID_1);
+        DeviceManagementOperation createdOperation2 = Mockito.mock(DeviceManagementOperation.class);
+        Mockito.when(createdOperation2.getId()).thenReturn(DEVICE_MANAGEMENT_OPERATION_ID_2);
+        Mockito.when(deviceManagementOperationRegistryService.create(Mockito.any(DeviceManagementOperationCreator.class))).thenReturn(createdOperation1, createdOperation2);
+
+        deviceManagementOperation = Mockito.mock(DeviceManagementOperation.class);
+        Mockito.when(deviceManagementOperationRegistryService.findByOperationId(Mockito.eq(SCOPE_ID), Mockito.any(KapuaId.class))).thenReturn(deviceManagementOperation);
+
+        devicePackageManagementService = new TestDevicePackageManagementService();
+        deviceIds = new LinkedHashSet<>(Arrays.asList(DEVICE_ID_1, DEVICE_ID_2));
+
+        packageDownloadRequest = new DevicePackageDownloadRequestImpl();
+        packageDownloadRequest.setUri(URI.create("http://download.eclipse.org/kura/releases/4.0.0/org.eclipse.kura.demo.heater_1.0.500.dp"));
+        packageDownloadRequest.setName("heater");
+        packageDownloadRequest.setVersion("1.0.500");
+
+        packageDownloadOptions = new DevicePackageDownloadOptionsImpl();
+        packageDownloadOptions.setTimeout(5000L);
+    }
+
+    @Test
+    public void downloadExecBulkTest() throws Exception {
+        Map<KapuaId, CompletionStage<KapuaId>> results = devicePackageManagementService.downloadExecBulk(SCOPE_ID, deviceIds, packageDownloadRequest, packageDownloadOptions);
+
+        assertEquals("Expected and actual values should be the same.", new ArrayList<>(deviceIds), new ArrayList<>(results.keySet()));
+
+        // A DeviceManagementOperation is created for each Device before sending the requests
+        Mockito.verify(deviceManagementOperationRegistryService, Mockito.times(2)).create(Mockito.any(DeviceManagementOperationCreator.class));
+        PackageRequestMessage requestMessage1 = devicePackageManagementService.getRequestMessage(DEVICE_ID_1);
+        PackageRequestMessage requestMessage2 = devicePackageManagementService.getRequestMessage(DEVICE_ID_2);
+        assertEquals("Expected and actual values should be the same.", "heater", requestMessage1.getPayload().getPackageDownloadName());
+        assertNotEquals("Different values expected.", requestMessage1.getPayload().getOperationId(), requestMessage2.getPayload().getOperationId());
+
+        devicePackageManagementService.complete(DEVICE_ID_1, newResponseMessage(KapuaResponseCode.ACCEPTED));
+        devicePackageManagementService.complete(DEVICE_ID_2, newResponseMessage(KapuaResponseCode.ACCEPTED));
+
+        assertEquals("Expected and actual values should be the same.", DEVICE_MANAGEMENT_OPERATION_ID_1, results.get(DEVICE_ID_1).toCompletableFuture().get());
+        assertEquals("Expected and actual values should be the same.", DEVICE_MANAGEMENT_OPERATION_ID_2, results.get(DEVICE_ID_2).toCompletableFuture().get());
+
+        // The DeviceManagementOperations are left running, they are closed by the notifications of the Devices
+        Mockito.verify(deviceManagementOperationRegistryService, Mockito.never()).update(Mockito.any(DeviceManagementOperation.class));
+    }
+
+    @Test
+    public void downloadExecBulkRejectedTest() throws Exception {
+        Map<KapuaId, CompletionStage<KapuaId>> results = devicePackageManagementService.downloadExecBulk(SCOPE_ID, deviceIds, packageDownloadRequest, packageDownloadOptions);
+
+        devicePackageManagementService.complete(DEVICE_ID_1, newResponseMessage(KapuaResponseCode.BAD_REQUEST));
+        devicePackageManagementService.complete(DEVICE_ID_2, newResponseMessage(KapuaResponseCode.ACCEPTED));
+
+        try {
+            results.get(DEVICE_ID_1).toCompletableFuture().get();
+            fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            assertEquals("Expected and actual values should be the same.", KapuaErrorCodes.DOWNLOAD_PACKAGE_EXCEPTION, ((KapuaException) e.getCause()).getCode());
+        }
+        assertEquals("Expected and actual values should be the same.", DEVICE_MANAGEMENT_OPERATION_ID_2, results.get(DEVICE_ID_2).toCompletableFuture().get());
+
+        // Only the DeviceManagementOperation of the rejected request is closed
+        Mockito.verify(deviceManagementOperationRegistryService).findByOperationId(SCOPE_ID, devicePackageManagementService.getRequestMessage(DEVICE_ID_1).getPayload().getOperationId());
+        Mockito.verify(deviceManagementOperation).setStatus(OperationStatus.FAILED);
+        Mockito.verify(deviceManagementOperationRegistryService).update(deviceManagementOperation);
+    }
+
+    @Test
+    public void downloadExecBulkSendFailureTest() throws Exception {
+        Map<KapuaId, CompletionStage<KapuaId>> results = devicePackageManagementService.downloadExecBulk(SCOPE_ID, deviceIds, packageDownloadRequest, packageDownloadOptions);
+
+        KapuaException sendException = new KapuaException(KapuaErrorCodes.INTERNAL_ERROR);
+        devicePackageManagementService.fail(DEVICE_ID_1, sendException);
+        devicePackageManagementService.complete(DEVICE_ID_2, newResponseMessage(KapuaResponseCode.ACCEPTED));
+
+        try {
+            results.get(DEVICE_ID_1).toCompletableFuture().get();
+            fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            assertSame("Expected and actual values should be the same.", sendException, e.getCause());
+        }
+        assertEquals("Expected and actual values should be the same.", DEVICE_MANAGEMENT_OPERATION_ID_2, results.get(DEVICE_ID_2).toCompletableFuture().get());
+
+        // The DeviceManagementOperation of the failed request is closed
+        Mockito.verify(deviceManagementOperationRegistryService).findByOperationId(SCOPE_ID, devicePackageManagementService.getRequestMessage(DEVICE_ID_1).getPayload().getOperationId());
+        Mockito.verify(deviceManagementOperation).setStatus(OperationStatus.FAILED);
+        Mockito.verify(deviceManagementOperationRegistryService).update(deviceManagementOperation);
+    }
+
+    private static PackageResponseMessage newResponseMessage(KapuaResponseCode responseCode) {
+        PackageResponseMessage responseMessage = new PackageResponseMessage();
+        responseMessage.setResponseCode(responseCode);
+        responseMessage.setReceivedOn(new Date());
+        responseMessage.setPayload(new PackageResponsePayload());
+        return responseMessage;
+    }
+
+    /**
+     * {@link DevicePackageManagementServiceImpl} whose requests are completed by the tests.
+     */
+    private static class TestDevicePackageManagementService extends DevicePackageManagementServiceImpl {
+
+        private final Map<KapuaId, PackageRequestMessage> requestMessages = new HashMap<>();
+        private final Map<KapuaId, CompletableFuture<PackageResponseMessage>> responses = new HashMap<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected <RQ extends KapuaRequestMessage<?, ?>, RS extends KapuaResponseMessage<?, ?>> CompletionStage<RS> sendAsync(RQ requestMessage, Long timeout) {
+            CompletableFuture<PackageResponseMessage> response = new CompletableFuture<>();
+            requestMessages.put(requestMessage.getDeviceId(), (PackageRequestMessage) requestMessage);
+            responses.put(requestMessage.getDeviceId(), response);
+            return (CompletionStage<RS>) (CompletionStage<?>) response;
+        }
+
+        PackageRequestMessage getRequestMessage(KapuaId deviceId) {
+            return requestMessages.get(deviceId);
+        }
+
+        void complete(KapuaId deviceId, PackageResponseMessage responseMessage) {
+            responses.get(deviceId).complete(responseMessage);
+        }
+
+        void fail(KapuaId deviceId, Throwable cause) {
+            responses.get(deviceId).completeExceptionally(cause);
+        }
+    }
+}
@@ -97,8 +97,25 @@ public interface DeviceManagementRegistryManagerService extends KapuaService {
     default void storeManagementNotification(KapuaId scopeId, KapuaId operationId, Date updateOn, OperationStatus operationStatus, String resource, Integer progress, String message) throws KapuaException {
         DeviceManagementOperation deviceManagementOperation = getDeviceManagementOperation(scopeId, operationId);
 
+        createManagementNotification(scopeId, deviceManagementOperation.getId(), updateOn, operationStatus, resource, progress, message);
+    }
+
+    /**
+     * Creates the {@link ManagementOperationNotification} of the given {@link DeviceManagementOperation}.
+     *
+     * @param scopeId                     The scope {@link KapuaId}.
+     * @param deviceManagementOperationId The {@link DeviceManagementOperation#getId()}.
+     * @param updateOn                    The {@link ManagementOperationNotification#getSentOn()}.
+     * @param operationStatus             The {@link ManagementOperationNotification#getStatus()}.
+     * @param resource                    The {@link ManagementOperationNotification#getResource()}.
+     * @param progress                    The {@link ManagementOperationNotification#getProgress()}.
+     * @param message                     The {@link ManagementOperationNotification#getMessage()}.
+     * @throws KapuaException
+     * @since 1.5.0
+     */
+    default void createManagementNotification(KapuaId scopeId, KapuaId deviceManagementOperationId, Date updateOn, OperationStatus operationStatus, String resource, Integer progress, String message) throws KapuaException {
         ManagementOperationNotificationCreator managementOperationNotificationCreator = MANAGEMENT_OPERATION_NOTIFICATION_FACTORY.newCreator(scopeId);
-        managementOperationNotificationCreator.setOperationId(deviceManagementOperation.getId());
+        managementOperationNotificationCreator.setOperationId(deviceManagementOperationId);
         managementOperationNotificationCreator.setSentOn(updateOn);
         managementOperationNotificationCreator.setStatus(operationStatus);
         managementOperationNotificationCreator.setResource(resource);
@@ -158,7 +175,10 @@ public interface DeviceManagementRegistryManagerService extends KapuaService {
                 if (!Strings.isNullOrEmpty(mon.getMessage())) {
                     logSb.append(mon.getSentOn()).append(" - ").append(mon.getMessage()).append("\n");
                 }
-                MANAGEMENT_OPERATION_NOTIFICATION_REGISTRY_SERVICE.delete(mon.getScopeId(), mon.getId());
+            }
+
+            if (!notifications.isEmpty()) {
+                MANAGEMENT_OPERATION_NOTIFICATION_REGISTRY_SERVICE.deleteByOperationId(scopeId, deviceManagementOperation.getId());
             }
 
             deviceManagementOperation.setLog(logSb.toString());
@@ -13,6 +13,7 @@
 package org.eclipse.kapua.service.device.management.registry.operation.notification;
 
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
 import org.eclipse.kapua.service.KapuaEntityService;
 
@@ -31,4 +32,14 @@ public interface ManagementOperationNotificationService
     @Override
     ManagementOperationNotificationListResult query(KapuaQuery query) throws KapuaException;
 
+    /**
+     * Deletes all the {@link ManagementOperationNotification}s of the given {@link ManagementOperationNotification#getOperationId()}.
+     *
+     * @param scopeId     The scope {@link KapuaId}.
+     * @param operationId The {@link ManagementOperationNotification#getOperationId()}.
+     * @throws KapuaException
+     * @since 1.5.0
+     */
+    void deleteByOperationId(KapuaId scopeId, KapuaId operationId) throws KapuaException;
+
 }
@@ -12,9 +12,53 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.device.management.registry.manager.internal;
 
+import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.locator.KapuaProvider;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.device.management.message.notification.OperationStatus;
 import org.eclipse.kapua.service.device.management.registry.manager.DeviceManagementRegistryManagerService;
+import org.eclipse.kapua.service.device.management.registry.manager.internal.setting.DeviceManagementRegistryManagerSetting;
+import org.eclipse.kapua.service.device.management.registry.manager.internal.setting.DeviceManagementRegistryManagerSettingKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
 
 @KapuaProvider
 public class DeviceManagementRegistryManagerServiceImpl implements DeviceManagementRegistryManagerService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceManagementRegistryManagerServiceImpl.class);
+
+    private static final DeviceManagementRegistryManagerSetting DEVICE_MANAGEMENT_REGISTRY_MANAGER_SETTING = DeviceManagementRegistryManagerSetting.getInstance();
+
+    private static final ManagementOperationProgressCache PROGRESS_CACHE = new ManagementOperationProgressCache(
+            DEVICE_MANAGEMENT_REGISTRY_MANAGER_SETTING.getInt(DeviceManagementRegistryManagerSettingKeys.NOTIFICATION_PROGRESS_CACHE_SIZE_MAX),
+            DEVICE_MANAGEMENT_REGISTRY_MANAGER_SETTING.getLong(DeviceManagementRegistryManagerSettingKeys.NOTIFICATION_PROGRESS_CACHE_TTL),
+            DEVICE_MANAGEMENT_REGISTRY_MANAGER_SETTING.getLong(DeviceManagementRegistryManagerSettingKeys.NOTIFICATION_PROGRESS_SNAPSHOT_INTERVAL));
+
+    @Override
+    public void storeManagementNotification(KapuaId scopeId, KapuaId operationId, Date updateOn, OperationStatus operationStatus, String resource, Integer progress, String message) throws KapuaException {
+        if (PROGRESS_CACHE.isCoalescable(scopeId, operationId, updateOn, operationStatus, resource, message)) {
+            LOG.debug("Coalesced notification of operation {} in scope {}. Resource: {} - Progress: {}", operationId, scopeId, resource, progress);
+            return;
+        }
+
+        KapuaId deviceManagementOperationId = PROGRESS_CACHE.getDeviceManagementOperationId(scopeId, operationId);
+        if (deviceManagementOperationId == null) {
+            deviceManagementOperationId = getDeviceManagementOperation(scopeId, operationId).getId();
+        }
+
+        createManagementNotification(scopeId, deviceManagementOperationId, updateOn, operationStatus, resource, progress, message);
+
+        PROGRESS_CACHE.putStored(scopeId, operationId, deviceManagementOperationId, updateOn, operationStatus, resource, message);
+    }
+
+    @Override
+    public void closeDeviceManagementOperation(KapuaId scopeId, KapuaId operationId, Date updateOn, OperationStatus finalStatus, String message) throws KapuaException {
+        try {
+            DeviceManagementRegistryManagerService.super.closeDeviceManagementOperation(scopeId, operationId, updateOn, finalStatus, message);
+        } finally {
+            PROGRESS_CACHE.remove(scopeId, operationId);
+        }
+    }
 }
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.registry.manager.internal;
+
+import com.google.common.base.Strings;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.device.management.message.notification.OperationStatus;
+import org.eclipse.kapua.service.device.management.registry.operation.DeviceManagementOperation;
+import org.eclipse.kapua.service.device.management.registry.operation.notification.ManagementOperationNotification;
+
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Bounded cache of the progress of the in-flight {@link DeviceManagementOperation}s.
+ * <p>
+ * It keeps the last stored {@link ManagementOperationNotification} of each {@link DeviceManagementOperation}, so that the
+ * {@link OperationStatus#RUNNING} notifications which do not add anything to it can be coalesced instead of being stored.
+ * A {@link ManagementOperationNotification} is stored when:
+ * <ul>
+ *     <li>the {@link OperationStatus} or the resource changes</li>
+ *     <li>it has a new message, so the log of the {@link DeviceManagementOperation} is not affected</li>
+ *     <li>the snapshot interval has elapsed since the last stored one</li>
+ * </ul>
+ * It also keeps the {@link DeviceManagementOperation#getId()}, so that it is not looked up for each notification.
+ * <p>
+ * An evicted {@link DeviceManagementOperation} only results in the next {@link ManagementOperationNotification} being stored.
+ *
+ * @since 1.5.0
+ */
+class ManagementOperationProgressCache {
+
+    private final LocalCache<String, OperationProgress> operationProgressCache;
+    private final long snapshotInterval;
+
+    /**
+     * Constructor.
+     *
+     * @param sizeMax          The maximum number of in-flight {@link DeviceManagementOperation}s.
+     * @param ttl              The time (in milliseconds) after which an in-flight {@link DeviceManagementOperation} is evicted.
+     * @param snapshotInterval The minimum time (in milliseconds) between two stored {@link OperationStatus#RUNNING} notifications.
+     * @since 1.5.0
+     */
+    ManagementOperationProgressCache(int sizeMax, long ttl, long snapshotInterval) {
+        this.operationProgressCache = new LocalCache<>(sizeMax, (int) Math.max(1, ttl / 1000), null);
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Gets the cached {@link DeviceManagementOperation#getId()}.
+     *
+     * @param scopeId     The scope {@link KapuaId}.
+     * @param operationId The {@link DeviceManagementOperation#getOperationId()}.
+     * @return The {@link DeviceManagementOperation#getId()}, or {@code null} if not cached.
+     * @since 1.5.0
+     */
+    KapuaId getDeviceManagementOperationId(KapuaId scopeId, KapuaId operationId) {
+        OperationProgress operationProgress = operationProgressCache.get(key(scopeId, operationId));
+        return operationProgress != null ? operationProgress.deviceManagementOperationId : null;
+    }
+
+    /**
+     * Checks whether the given {@link ManagementOperationNotification} can be coalesced with the last stored one.
+     *
+     * @param scopeId     The scope {@link KapuaId}.
+     * @param operationId The {@link DeviceManagementOperation#getOperationId()}.
+     * @param sentOn      The {@link ManagementOperationNotification#getSentOn()}.
+     * @param status      The {@link ManagementOperationNotification#getStatus()}.
+     * @param resource    The {@link ManagementOperationNotification#getResource()}.
+     * @param message     The {@link ManagementOperationNotification#getMessage()}.
+     * @return {@code true} if it does not need to be stored, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    boolean isCoalescable(KapuaId scopeId, KapuaId operationId, Date sentOn, OperationStatus status, String resource, String message) {
+        if (!OperationStatus.RUNNING.equals(status)) {
+            return false;
+        }
+
+        OperationProgress lastStored = operationProgressCache.get(key(scopeId, operationId));
+        if (lastStored == null) {
+            return false;
+        }
+
+        long sinceLastStored = sentOn.getTime() - lastStored.sentOn.getTime();
+
+        return status.equals(lastStored.status) &&
+                Objects.equals(resource, lastStored.resource) &&
+                (Strings.isNullOrEmpty(message) || message.equals(lastStored.message)) &&
+                sinceLastStored >= 0 && sinceLastStored < snapshotInterval;
+    }
+
+    /**
+     * Records the last stored {@link ManagementOperationNotification} of an in-flight {@link DeviceManagementOperation}.
+     *
+     * @param scopeId                     The scope {@link KapuaId}.
+     * @param operationId                 The {@link DeviceManagementOperation#getOperationId()}.
+     * @param deviceManagementOperationId The {@link DeviceManagementOperation#getId()}.
+     * @param sentOn                      The {@link ManagementOperationNotification#getSentOn()}.
+     * @param status                      The {@link ManagementOperationNotification#getStatus()}.
+     * @param resource                    The {@link ManagementOperationNotification#getResource()}.
+     * @param message                     The {@link ManagementOperationNotification#getMessage()}.
+     * @since 1.5.0
+     */
+    void putStored(KapuaId scopeId, KapuaId operationId, KapuaId deviceManagementOperationId, Date sentOn, OperationStatus status, String resource, String message) {
+        operationProgressCache.put(key(scopeId, operationId), new OperationProgress(deviceManagementOperationId, sentOn, status, resource, message));
+    }
+
+    /**
+     * Removes a {@link DeviceManagementOperation} which is no longer in-flight.
+     *
+     * @param scopeId     The scope {@link KapuaId}.
+     * @param operationId The {@link DeviceManagementOperation#getOperationId()}.
+     * @since 1.5.0
+     */
+    void remove(KapuaId scopeId, KapuaId operationId) {
+        operationProgressCache.remove(key(scopeId, operationId));
+    }
+
+    private static String key(KapuaId scopeId, KapuaId operationId) {
+        return scopeId.toCompactId() + "/" + operationId.toCompactId();
+    }
+
+    /**
+     * The last stored progress of an in-flight {@link DeviceManagementOperation}.
+     */
+    private static class OperationProgress {
+
+        private final KapuaId deviceManagementOperationId;
+        private final Date sentOn;
+        private final OperationStatus status;
+        private final String resource;
+        private final String message;
+
+        private OperationProgress(KapuaId deviceManagementOperationId, Date sentOn, OperationStatus status, String resource, String message) {
+            this.deviceManagementOperationId = Objects.requireNonNull(deviceManagementOperationId);
+            this.sentOn = sentOn;
+            this.status = status;
+            this.resource = resource;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.registry.manager.internal.setting;
+
+import org.eclipse.kapua.commons.setting.AbstractKapuaSetting;
+
+/**
+ * Class that offers access to device management registry manager settings
+ *
+ * @since 1.5.0
+ */
+public class DeviceManagementRegistryManagerSetting extends AbstractKapuaSetting<DeviceManagementRegistryManagerSettingKeys> {
+
+    /**
+     * Resource file from which source properties.
+     */
+    private static final String DEVICE_MANAGEMENT_REGISTRY_MANAGER_SETTING_RESOURCE = "device-management-registry-manager-setting.properties";
+
+    private static final DeviceManagementRegistryManagerSetting INSTANCE = new DeviceManagementRegistryManagerSetting();
+
+    /**
+     * Constructor
+     */
+    private DeviceManagementRegistryManagerSetting() {
+        super(DEVICE_MANAGEMENT_REGISTRY_MANAGER_SETTING_RESOURCE);
+    }
+
+    /**
+     * Get a singleton instance of {@link DeviceManagementRegistryManagerSetting}.
+     *
+     * @return The {@link DeviceManagementRegistryManagerSetting} instance.
+     * @since 1.5.0
+     */
+    public static DeviceManagementRegistryManagerSetting getInstance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.registry.manager.internal.setting;
+
+import org.eclipse.kapua.commons.setting.SettingKey;
+
+/**
+ * Available settings key for {@link DeviceManagementRegistryManagerSetting}
+ *
+ * @since 1.5.0
+ */
+public enum DeviceManagementRegistryManagerSettingKeys implements SettingKey {
+
+    /**
+     * The maximum number of in-flight operations whose progress is kept in memory.
+     *
+     * @since 1.5.0
+     */
+    NOTIFICATION_PROGRESS_CACHE_SIZE_MAX("device.management.registry.manager.notification.progress.cache.size.max"),
+
+    /**
+     * The time (in milliseconds) after which the progress of an in-flight operation is evicted from memory.
+     *
+     * @since 1.5.0
+     */
+    NOTIFICATION_PROGRESS_CACHE_TTL("device.management.registry.manager.notification.progress.cache.ttl"),
+
+    /**
+     * The minimum time (in milliseconds) between two stored progress notifications of the same operation and resource.
+     * <p>
+     * Set to 0 to store all the progress notifications.
+     *
+     * @since 1.5.0
+     */
+    NOTIFICATION_PROGRESS_SNAPSHOT_INTERVAL("device.management.registry.manager.notification.progress.snapshot.interval");
+
+    private String key;
+
+    /**
+     * Set up the {@code enum} with the key value provided
+     *
+     * @param key The value mapped by this {@link Enum} value
+     * @since 1.5.0
+     */
+    DeviceManagementRegistryManagerSettingKeys(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Gets the key for this {@link DeviceManagementRegistryManagerSettingKeys}
+     *
+     * @since 1.5.0
+     */
+    @Override
+    public String key() {
+        return key;
+    }
+}
@@ -22,6 +22,8 @@ import org.eclipse.kapua.service.device.management.registry.operation.notificati
 import org.eclipse.kapua.service.device.management.registry.operation.notification.ManagementOperationNotificationCreator;
 import org.eclipse.kapua.service.device.management.registry.operation.notification.ManagementOperationNotificationListResult;
 
+import javax.persistence.TypedQuery;
+
 /**
  * DeviceManagementOperationNotification DAO
  *
@@ -68,6 +70,22 @@ public class ManagementOperationNotificationDAO {
         return ServiceDAO.delete(em, ManagementOperationNotificationImpl.class, scopeId, stepDefinitionId);
     }
 
+    /**
+     * Deletes all the {@link ManagementOperationNotification}s of the given {@link ManagementOperationNotification#getOperationId()} with a single statement.
+     *
+     * @param em          The {@link EntityManager}.
+     * @param scopeId     The scope {@link KapuaId}.
+     * @param operationId The {@link ManagementOperationNotification#getOperationId()}.
+     * @return The number of deleted {@link ManagementOperationNotification}s.
+     * @since 1.5.0
+     */
+    public static int deleteByOperationId(EntityManager em, KapuaId scopeId, KapuaId operationId) {
+        TypedQuery<Integer> deleteByOperationIdQuery = em.createNamedQuery("DeviceManagementOperationNotification.deleteByOperationId", Integer.class);
+        deleteByOperationIdQuery.setParameter("scopeId", scopeId.getId());
+        deleteByOperationIdQuery.setParameter("operationId", operationId.getId());
+        return deleteByOperationIdQuery.executeUpdate();
+    }
+
     /**
      * Finds the stepDefinition by stepDefinition identifier
      */
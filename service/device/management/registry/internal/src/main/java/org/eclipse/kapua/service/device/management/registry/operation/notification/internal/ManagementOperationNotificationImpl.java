@@ -26,6 +26,8 @@ import javax.persistence.Embedded;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
@@ -33,6 +35,10 @@ import java.util.Date;
 
 @Entity(name = "DeviceManagementOperationNotification")
 @Table(name = "dvcm_device_management_operation_notification")
+@NamedQueries({
+        @NamedQuery(name = "DeviceManagementOperationNotification.deleteByOperationId",
+                query = "DELETE FROM DeviceManagementOperationNotification mon WHERE mon.scopeId.eid = :scopeId AND mon.operationId.eid = :operationId")
+})
 public class ManagementOperationNotificationImpl extends AbstractKapuaEntity implements ManagementOperationNotification {
 
     @Embedded
@@ -135,4 +135,20 @@ public class ManagementOperationNotificationServiceImpl extends AbstractKapuaSer
         // Do delete
         entityManagerSession.doTransactedAction(em -> ManagementOperationNotificationDAO.delete(em, scopeId, entityId));
     }
+
+    @Override
+    public void deleteByOperationId(KapuaId scopeId, KapuaId operationId) throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(scopeId, "scopeId");
+        ArgumentValidator.notNull(operationId, "operationId");
+
+        //
+        // Check Access
+        AUTHORIZATION_SERVICE.checkPermission(PERMISSION_FACTORY.newPermission(DeviceManagementRegistryDomains.DEVICE_MANAGEMENT_REGISTRY_DOMAIN, Actions.delete, null));
+
+        //
+        // Do delete
+        entityManagerSession.doTransactedAction(em -> ManagementOperationNotificationDAO.deleteByOperationId(em, scopeId, operationId));
+    }
 }
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.registry.manager.internal;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.device.management.message.notification.OperationStatus;
+import org.eclipse.kapua.service.device.management.registry.manager.DeviceManagementRegistryManagerService;
+import org.eclipse.kapua.service.device.management.registry.operation.DeviceManagementOperation;
+import org.eclipse.kapua.service.device.management.registry.operation.DeviceManagementOperationRegistryService;
+import org.eclipse.kapua.service.device.management.registry.operation.internal.DeviceManagementOperationImpl;
+import org.eclipse.kapua.service.device.management.registry.operation.notification.ManagementOperationNotification;
+import org.eclipse.kapua.service.device.management.registry.operation.notification.ManagementOperationNotificationCreator;
+import org.eclipse.kapua.service.device.management.registry.operation.notification.ManagementOperationNotificationFactory;
+import org.eclipse.kapua.service.device.management.registry.operation.notification.ManagementOperationNotificationService;
+import org.eclipse.kapua.service.device.management.registry.operation.notification.internal.ManagementOperationNotificationCreatorImpl;
+import org.eclipse.kapua.service.device.management.registry.operation.notification.internal.ManagementOperationNotificationImpl;
+import org.eclipse.kapua.service.device.management.registry.operation.notification.internal.ManagementOperationNotificationListResultImpl;
+import org.eclipse.kapua.service.device.management.registry.operation.notification.internal.ManagementOperationNotificationQueryImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Category(JUnitTests.class)
+public class DeviceManagementRegistryManagerServiceImplTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final AtomicLong OPERATION_ID_GENERATOR = new AtomicLong(100);
+
+    private final DeviceManagementOperationRegistryService deviceManagementOperationRegistryService = KapuaLocator.getInstance().getService(DeviceManagementOperationRegistryService.class);
+    private final ManagementOperationNotificationService managementOperationNotificationService = KapuaLocator.getInstance().getService(ManagementOperationNotificationService.class);
+    private final ManagementOperationNotificationFactory managementOperationNotificationFactory = KapuaLocator.getInstance().getFactory(ManagementOperationNotificationFactory.class);
+
+    private DeviceManagementRegistryManagerService deviceManagementRegistryManagerService;
+    private KapuaId operationId;
+    private DeviceManagementOperationImpl deviceManagementOperation;
+    private ManagementOperationNotificationListResultImpl notifications;
+
+    @Before
+    public void initialize() throws KapuaException {
+        Mockito.reset(deviceManagementOperationRegistryService, managementOperationNotificationService, managementOperationNotificationFactory);
+
+        // The progress cache is shared, so each test has its own operation
+        operationId = new KapuaEid(BigInteger.valueOf(OPERATION_ID_GENERATOR.incrementAndGet()));
+
+        deviceManagementOperation = new DeviceManagementOperationImpl(SCOPE_ID);
+        deviceManagementOperation.setId(new KapuaEid(BigInteger.valueOf(OPERATION_ID_GENERATOR.incrementAndGet())));
+        deviceManagementOperation.setOperationId(operationId);
+
+        notifications = new ManagementOperationNotificationListResultImpl();
+
+        Mockito.when(deviceManagementOperationRegistryService.findByOperationId(SCOPE_ID, operationId)).thenReturn(deviceManagementOperation);
+        Mockito.when(deviceManagementOperationRegistryService.update(Mockito.any(DeviceManagementOperation.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+        Mockito.when(managementOperationNotificationFactory.newCreator(Mockito.any(KapuaId.class))).thenAnswer(invocation -> new ManagementOperationNotificationCreatorImpl((KapuaId) invocation.getArguments()[0]));
+        Mockito.when(managementOperationNotificationFactory.newQuery(Mockito.any(KapuaId.class))).thenAnswer(invocation -> new ManagementOperationNotificationQueryImpl((KapuaId) invocation.getArguments()[0]));
+        Mockito.when(managementOperationNotificationService.query(Mockito.any(KapuaQuery.class))).thenReturn(notifications);
+
+        deviceManagementRegistryManagerService = new DeviceManagementRegistryManagerServiceImpl();
+    }
+
+    @Test
+    public void storeManagementNotificationCoalescedTest() throws KapuaException {
+        Date startedOn = new Date();
+
+        deviceManagementRegistryManagerService.storeManagementNotification(SCOPE_ID, operationId, startedOn, OperationStatus.RUNNING, "download", 10, "Downloading");
+        deviceManagementRegistryManagerService.storeManagementNotification(SCOPE_ID, operationId, new Date(startedOn.getTime() + 100), OperationStatus.RUNNING, "download", 20, null);
+        deviceManagementRegistryManagerService.storeManagementNotification(SCOPE_ID, operationId, new Date(startedOn.getTime() + 200), OperationStatus.RUNNING, "install", 30, null);
+
+        // The second notification is coalesced
+        ArgumentCaptor<ManagementOperationNotificationCreator> creators = ArgumentCaptor.forClass(ManagementOperationNotificationCreator.class);
+        Mockito.verify(managementOperationNotificationService, Mockito.times(2)).create(creators.capture());
+        assertEquals("Expected and actual values should be the same.", Integer.valueOf(10), creators.getAllValues().get(0).getProgress());
+        assertEquals("Expected and actual values should be the same.", Integer.valueOf(30), creators.getAllValues().get(1).getProgress());
+        assertEquals("Expected and actual values should be the same.", deviceManagementOperation.getId(), creators.getAllValues().get(1).getOperationId());
+
+        // The DeviceManagementOperation is looked up only once
+        Mockito.verify(deviceManagementOperationRegistryService, Mockito.times(1)).findByOperationId(SCOPE_ID, operationId);
+    }
+
+    @Test
+    public void processOperationNotificationCompletedTest() throws KapuaException {
+        Date startedOn = new Date();
+        deviceManagementRegistryManagerService.storeManagementNotification(SCOPE_ID, operationId, startedOn, OperationStatus.RUNNING, "download", 10, "Downloading");
+
+        notifications.addItem(newNotification(startedOn, "Downloading"));
+        notifications.addItem(newNotification(new Date(startedOn.getTime() + 1000), "Installed"));
+
+        deviceManagementRegistryManagerService.processOperationNotification(SCOPE_ID, operationId, new Date(startedOn.getTime() + 1000), "install", OperationStatus.COMPLETED, 100, "Installed");
+
+        // The notifications are moved to the log of the DeviceManagementOperation and deleted with a single statement
+        assertEquals("Expected and actual values should be the same.", OperationStatus.COMPLETED, deviceManagementOperation.getStatus());
+        assertTrue("True expected.", deviceManagementOperation.getLog().contains("Downloading"));
+        assertTrue("True expected.", deviceManagementOperation.getLog().contains("Installed"));
+        Mockito.verify(managementOperationNotificationService).deleteByOperationId(SCOPE_ID, deviceManagementOperation.getId());
+        Mockito.verify(managementOperationNotificationService, Mockito.never()).delete(Mockito.any(KapuaId.class), Mockito.any(KapuaId.class));
+
+        // The closed DeviceManagementOperation is no longer cached, so it is looked up again
+        Mockito.reset(deviceManagementOperationRegistryService);
+        Mockito.when(deviceManagementOperationRegistryService.findByOperationId(SCOPE_ID, operationId)).thenReturn(deviceManagementOperation);
+
+        deviceManagementRegistryManagerService.storeManagementNotification(SCOPE_ID, operationId, new Date(startedOn.getTime() + 1100), OperationStatus.RUNNING, "download", 10, null);
+        Mockito.verify(deviceManagementOperationRegistryService).findByOperationId(SCOPE_ID, operationId);
+    }
+
+    @Test
+    public void closeDeviceManagementOperationWithoutNotificationsTest() throws KapuaException {
+        deviceManagementRegistryManagerService.closeDeviceManagementOperation(SCOPE_ID, operationId, new Date(), OperationStatus.FAILED, "Failed");
+
+        assertEquals("Expected and actual values should be the same.", OperationStatus.FAILED, deviceManagementOperation.getStatus());
+        Mockito.verify(managementOperationNotificationService, Mockito.never()).deleteByOperationId(Mockito.any(KapuaId.class), Mockito.any(KapuaId.class));
+    }
+
+    private ManagementOperationNotification newNotification(Date sentOn, String message) {
+        ManagementOperationNotification notification = new ManagementOperationNotificationImpl(SCOPE_ID);
+        notification.setOperationId(deviceManagementOperation.getId());
+        notification.setSentOn(sentOn);
+        notification.setStatus(OperationStatus.RUNNING);
+        notification.setMessage(message);
+        return notification;
+    }
+}
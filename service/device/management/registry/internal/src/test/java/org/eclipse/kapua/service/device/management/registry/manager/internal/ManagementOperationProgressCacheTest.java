@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.management.registry.manager.internal;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.device.management.message.notification.OperationStatus;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.Date;
+
+@Category(JUnitTests.class)
+public class ManagementOperationProgressCacheTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId OPERATION_ID = new KapuaEid(BigInteger.valueOf(20));
+    private static final KapuaId DEVICE_MANAGEMENT_OPERATION_ID = new KapuaEid(BigInteger.valueOf(30));
+    private static final long SNAPSHOT_INTERVAL = 5000L;
+
+    private ManagementOperationProgressCache progressCache;
+    private Date lastStoredOn;
+
+    @Before
+    public void initialize() {
+        progressCache = new ManagementOperationProgressCache(10, 3600000L, SNAPSHOT_INTERVAL);
+
+        lastStoredOn = new Date();
+        progressCache.putStored(SCOPE_ID, OPERATION_ID, DEVICE_MANAGEMENT_OPERATION_ID, lastStoredOn, OperationStatus.RUNNING, "download", "Downloading");
+    }
+
+    @Test
+    public void isCoalescableSameStatusTest() {
+        assertTrue("True expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(1000), OperationStatus.RUNNING, "download", null));
+        assertTrue("True expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(1000), OperationStatus.RUNNING, "download", ""));
+        assertTrue("True expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(1000), OperationStatus.RUNNING, "download", "Downloading"));
+    }
+
+    @Test
+    public void isCoalescableNewMessageTest() {
+        assertFalse("False expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(1000), OperationStatus.RUNNING, "download", "Download 50%"));
+    }
+
+    @Test
+    public void isCoalescableTransitionTest() {
+        // Another resource
+        assertFalse("False expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(1000), OperationStatus.RUNNING, "install", null));
+
+        // Back to RUNNING from another status
+        progressCache.putStored(SCOPE_ID, OPERATION_ID, DEVICE_MANAGEMENT_OPERATION_ID, lastStoredOn, OperationStatus.STALE, "download", null);
+        assertFalse("False expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(1000), OperationStatus.RUNNING, "download", null));
+    }
+
+    @Test
+    public void isCoalescableTerminalStatusTest() {
+        assertFalse("False expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(1000), OperationStatus.COMPLETED, "download", null));
+        assertFalse("False expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(1000), OperationStatus.FAILED, "download", null));
+    }
+
+    @Test
+    public void isCoalescableSnapshotIntervalTest() {
+        assertTrue("True expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(SNAPSHOT_INTERVAL - 1), OperationStatus.RUNNING, "download", null));
+        assertFalse("False expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(SNAPSHOT_INTERVAL), OperationStatus.RUNNING, "download", null));
+
+        // Notifications sent before the last stored one are stored, since their order is unknown
+        assertFalse("False expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(-1), OperationStatus.RUNNING, "download", null));
+    }
+
+    @Test
+    public void isCoalescableNotCachedTest() {
+        KapuaId otherOperationId = new KapuaEid(BigInteger.valueOf(21));
+
+        assertFalse("False expected.", progressCache.isCoalescable(SCOPE_ID, otherOperationId, after(1000), OperationStatus.RUNNING, "download", null));
+        assertFalse("False expected.", progressCache.isCoalescable(KapuaId.ONE, OPERATION_ID, after(1000), OperationStatus.RUNNING, "download", null));
+    }
+
+    @Test
+    public void getDeviceManagementOperationIdTest() {
+        assertEquals("Expected and actual values should be the same.", DEVICE_MANAGEMENT_OPERATION_ID, progressCache.getDeviceManagementOperationId(SCOPE_ID, OPERATION_ID));
+        assertNull("Null expected.", progressCache.getDeviceManagementOperationId(SCOPE_ID, new KapuaEid(BigInteger.valueOf(21))));
+    }
+
+    @Test
+    public void removeTest() {
+        progressCache.remove(SCOPE_ID, OPERATION_ID);
+
+        assertNull("Null expected.", progressCache.getDeviceManagementOperationId(SCOPE_ID, OPERATION_ID));
+        assertFalse("False expected.", progressCache.isCoalescable(SCOPE_ID, OPERATION_ID, after(1000), OperationStatus.RUNNING, "download", null));
+    }
+
+    private Date after(long millis) {
+        return new Date(lastStoredOn.getTime() + millis);
+    }
+}
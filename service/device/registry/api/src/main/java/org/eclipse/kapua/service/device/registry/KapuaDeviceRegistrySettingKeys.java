@@ -26,7 +26,35 @@ public enum KapuaDeviceRegistrySettingKeys implements SettingKey {
      * The key value in the configuration resources.
      */
     DEVICE_REGISTRY_KEY("device_registry.key"),
-    DEVICE_EVENT_ADDRESS("device.eventAddress");
+    DEVICE_EVENT_ADDRESS("device.eventAddress"),
+
+    /**
+     * Whether the lifecycle {@link org.eclipse.kapua.service.device.registry.event.DeviceEvent}s are created in bulks by a background writer.
+     *
+     * @since 1.5.0
+     */
+    DEVICE_LIFECYCLE_EVENT_BULK_ENABLED("device.lifecycle.event.bulk.enabled"),
+
+    /**
+     * The maximum number of lifecycle {@link org.eclipse.kapua.service.device.registry.event.DeviceEvent}s created in a single transaction.
+     *
+     * @since 1.5.0
+     */
+    DEVICE_LIFECYCLE_EVENT_BULK_SIZE_MAX("device.lifecycle.event.bulk.size.max"),
+
+    /**
+     * The maximum time (in milliseconds) to wait for other lifecycle {@link org.eclipse.kapua.service.device.registry.event.DeviceEvent}s before creating a bulk which is not full.
+     *
+     * @since 1.5.0
+     */
+    DEVICE_LIFECYCLE_EVENT_BULK_FLUSH_INTERVAL("device.lifecycle.event.bulk.flush.interval"),
+
+    /**
+     * The maximum number of lifecycle {@link org.eclipse.kapua.service.device.registry.event.DeviceEvent}s waiting to be created.
+     *
+     * @since 1.5.0
+     */
+    DEVICE_LIFECYCLE_EVENT_BULK_QUEUE_SIZE_MAX("device.lifecycle.event.bulk.queue.size.max");
 
     private String key;
 
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.registry.event.internal;
+
+import org.eclipse.kapua.commons.jpa.AbstractEntityManagerFactory;
+import org.eclipse.kapua.service.device.registry.internal.DeviceEntityManagerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entity manager factory for the {@link DeviceEventBulkWriter}.
+ * <p>
+ * It uses the same persistence unit of the {@link DeviceEntityManagerFactory}, but in a separate session with JDBC batch writing enabled.
+ * EclipseLink enables batch writing for a whole session, so this keeps the other device registry writes unchanged.
+ *
+ * @since 1.5.0
+ */
+public class DeviceEventBulkEntityManagerFactory extends AbstractEntityManagerFactory {
+
+    private static final String PERSISTENCE_UNIT_NAME = "kapua-device";
+    private static final String SESSION_NAME = "kapua-device-event-bulk";
+    private static final String DATASOURCE_NAME = "kapua-device-event-bulk-dbpool";
+    private static final Map<String, String> UNIQUE_CONSTRAINTS = new HashMap<>();
+
+    private static final DeviceEventBulkEntityManagerFactory INSTANCE = new DeviceEventBulkEntityManagerFactory();
+
+    private DeviceEventBulkEntityManagerFactory() {
+        super(PERSISTENCE_UNIT_NAME,
+                DATASOURCE_NAME,
+                UNIQUE_CONSTRAINTS,
+                buildPersistenceUnitOverrides());
+    }
+
+    /**
+     * Builds the JPA configuration overrides of the {@link DeviceEventBulkWriter} session.
+     *
+     * @return The JPA configuration overrides.
+     * @since 1.5.0
+     */
+    private static Map<String, Object> buildPersistenceUnitOverrides() {
+        Map<String, Object> persistenceUnitOverrides = new HashMap<>();
+        // A different session name is required, otherwise EclipseLink reuses the session of the DeviceEntityManagerFactory
+        persistenceUnitOverrides.put("eclipselink.session-name", SESSION_NAME);
+        persistenceUnitOverrides.put("eclipselink.jdbc.batch-writing", "JDBC");
+        persistenceUnitOverrides.put("eclipselink.jdbc.batch-writing.size", "200");
+
+        // The bulks are written by a single thread
+        persistenceUnitOverrides.put("eclipselink.connection-pool.default.initial", "1");
+        persistenceUnitOverrides.put("eclipselink.connection-pool.default.min", "1");
+        persistenceUnitOverrides.put("eclipselink.connection-pool.default.max", "2");
+        return persistenceUnitOverrides;
+    }
+
+    /**
+     * Returns the {@link DeviceEventBulkEntityManagerFactory} singleton instance.
+     *
+     * @return The {@link DeviceEventBulkEntityManagerFactory} singleton instance.
+     * @since 1.5.0
+     */
+    public static DeviceEventBulkEntityManagerFactory instance() {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.registry.event.internal;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.Timer.Context;
+import org.eclipse.kapua.KapuaEntityNotFoundException;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.jpa.EntityManagerSession;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.commons.util.ArgumentValidator;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceDomains;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.service.device.registry.event.DeviceEvent;
+import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind writer of {@link DeviceEvent}s.
+ * <p>
+ * The submitted {@link DeviceEventCreator}s are queued and created in bulks by a background thread, each bulk in a single transaction.
+ * A bulk is created as soon as it reaches the maximum size or when the flush interval is elapsed since its first {@link DeviceEventCreator} has been taken.
+ * When the queue is full the callers are blocked until there is room for their {@link DeviceEventCreator}.
+ * <p>
+ * The {@link DeviceEventCreator} is validated, the permission is checked and the {@link Device} is looked up when it is submitted, on the thread of the caller,
+ * like {@link DeviceEventServiceImpl#create(DeviceEventCreator)} does.
+ * Each {@link DeviceEvent} is created with the {@link KapuaSession} of the caller which submitted it.
+ * After each bulk the {@link Device#getLastEventId()} is updated once for each {@link Device}, with its most recent {@link DeviceEvent}.
+ * If a bulk fails its {@link DeviceEventCreator}s are created one by one, so that a single invalid {@link DeviceEventCreator} does not affect the others.
+ * <p>
+ * When {@link #close()} is invoked the queued {@link DeviceEventCreator}s are created before the background thread stops.
+ * The {@link DeviceEventBulkWriterModule} closes it when the service modules are stopped.
+ *
+ * @since 1.5.0
+ */
+public class DeviceEventBulkWriter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceEventBulkWriter.class);
+
+    private static final String METRIC_MODULE_NAME = "device";
+    private static final String METRIC_COMPONENT_NAME = "event";
+    private static final String METRIC_BULK = "bulk";
+
+    private final int bulkSizeMax;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<PendingDeviceEvent> queue;
+    private final EntityManagerSession entityManagerSession;
+    private final DeviceRegistryService deviceRegistryService;
+    private final AuthorizationService authorizationService;
+    private final PermissionFactory permissionFactory;
+    private final Thread flushThread;
+
+    private volatile boolean closed;
+
+    private final Histogram metricBulkSize;
+    private final Timer metricBulkFlushTime;
+    private final Counter metricBulkQueueFullCount;
+    private final Counter metricBulkErrorCount;
+
+    /**
+     * Constructor.
+     * <p>
+     * Starts the thread which creates the {@link DeviceEvent}s.
+     * The {@link DeviceEvent}s are created with the {@link DeviceEventBulkEntityManagerFactory}.
+     *
+     * @param bulkSizeMax   The maximum number of {@link DeviceEvent}s created in a single transaction.
+     * @param flushInterval The maximum time (in milliseconds) to wait for other {@link DeviceEventCreator}s before creating a bulk which is not full.
+     * @param queueSizeMax  The maximum number of {@link DeviceEventCreator}s waiting to be created.
+     * @since 1.5.0
+     */
+    public DeviceEventBulkWriter(int bulkSizeMax, long flushInterval, int queueSizeMax) {
+        this(bulkSizeMax,
+                flushInterval,
+                queueSizeMax,
+                new EntityManagerSession(DeviceEventBulkEntityManagerFactory.instance()),
+                KapuaLocator.getInstance().getService(DeviceRegistryService.class),
+                KapuaLocator.getInstance().getService(AuthorizationService.class),
+                KapuaLocator.getInstance().getFactory(PermissionFactory.class));
+    }
+
+    /**
+     * Constructor.
+     * <p>
+     * Starts the thread which creates the {@link DeviceEvent}s.
+     *
+     * @param bulkSizeMax           The maximum number of {@link DeviceEvent}s created in a single transaction.
+     * @param flushInterval         The maximum time (in milliseconds) to wait for other {@link DeviceEventCreator}s before creating a bulk which is not full.
+     * @param queueSizeMax          The maximum number of {@link DeviceEventCreator}s waiting to be created.
+     * @param entityManagerSession  The {@link EntityManagerSession} with which the {@link DeviceEvent}s are created.
+     * @param deviceRegistryService The {@link DeviceRegistryService}.
+     * @param authorizationService  The {@link AuthorizationService}.
+     * @param permissionFactory     The {@link PermissionFactory}.
+     * @since 1.5.0
+     */
+    DeviceEventBulkWriter(int bulkSizeMax, long flushInterval, int queueSizeMax,
+                          EntityManagerSession entityManagerSession,
+                          DeviceRegistryService deviceRegistryService,
+                          AuthorizationService authorizationService,
+                          PermissionFactory permissionFactory) {
+        if (bulkSizeMax < 1) {
+            throw new IllegalArgumentException("The bulk maximum size must be greater than 0");
+        }
+        if (flushInterval < 0) {
+            throw new IllegalArgumentException("The bulk flush interval cannot be negative");
+        }
+
+        this.bulkSizeMax = bulkSizeMax;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueSizeMax, bulkSizeMax));
+        this.entityManagerSession = entityManagerSession;
+        this.deviceRegistryService = deviceRegistryService;
+        this.authorizationService = authorizationService;
+        this.permissionFactory = permissionFactory;
+
+        MetricsService metricService = MetricServiceFactory.getInstance();
+        metricBulkSize = metricService.getHistogram(METRIC_MODULE_NAME, METRIC_COMPONENT_NAME, METRIC_BULK, "size");
+        metricBulkFlushTime = metricService.getTimer(METRIC_MODULE_NAME, METRIC_COMPONENT_NAME, METRIC_BULK, "flush", "time", "s");
+        metricBulkQueueFullCount = metricService.getCounter(METRIC_MODULE_NAME, METRIC_COMPONENT_NAME, METRIC_BULK, "queue", "full", "count");
+        metricBulkErrorCount = metricService.getCounter(METRIC_MODULE_NAME, METRIC_COMPONENT_NAME, METRIC_BULK, "error", "count");
+        try {
+            metricService.registerGauge((Gauge<Integer>) queue::size, METRIC_MODULE_NAME, METRIC_COMPONENT_NAME, METRIC_BULK, "queue", "size");
+        } catch (KapuaException e) {
+            LOG.warn("Cannot register the device event bulk queue size metric", e);
+        }
+
+        flushThread = new Thread(this::flushLoop, "device-event-bulk-writer");
+        flushThread.setDaemon(true);
+        flushThread.start();
+    }
+
+    /**
+     * Submits the given {@link DeviceEventCreator} to be created within the next bulk.
+     *
+     * @param deviceEventCreator The {@link DeviceEventCreator} to create.
+     * @return {@code true} if the {@link DeviceEventCreator} has been queued, {@code false} if the writer has been closed
+     * and the {@link DeviceEventCreator} needs to be created by the caller.
+     * @throws KapuaException if the {@link DeviceEventCreator} is not valid, the caller is not allowed to create it or the {@link Device} does not exist.
+     * @since 1.5.0
+     */
+    public boolean submit(DeviceEventCreator deviceEventCreator) throws KapuaException {
+        //
+        // Argument Validation
+        ArgumentValidator.notNull(deviceEventCreator, "deviceEventCreator");
+        ArgumentValidator.notNull(deviceEventCreator.getScopeId(), "deviceEventCreator.scopeId");
+        ArgumentValidator.notNull(deviceEventCreator.getDeviceId(), "deviceEventCreator.deviceId");
+        ArgumentValidator.notNull(deviceEventCreator.getReceivedOn(), "deviceEventCreator.receivedOn");
+        ArgumentValidator.notEmptyOrNull(deviceEventCreator.getResource(), "deviceEventCreator.eventType");
+
+        //
+        // Check Access
+        authorizationService.checkPermission(permissionFactory.newPermission(DeviceDomains.DEVICE_EVENT_DOMAIN, Actions.write, deviceEventCreator.getScopeId()));
+
+        //
+        // Check that device exists
+        if (deviceRegistryService.find(deviceEventCreator.getScopeId(), deviceEventCreator.getDeviceId()) == null) {
+            throw new KapuaEntityNotFoundException(Device.TYPE, deviceEventCreator.getDeviceId());
+        }
+
+        if (closed) {
+            return false;
+        }
+
+        PendingDeviceEvent pendingDeviceEvent = new PendingDeviceEvent(deviceEventCreator, KapuaSecurityUtils.getSession());
+        try {
+            if (!queue.offer(pendingDeviceEvent)) {
+                metricBulkQueueFullCount.inc();
+                queue.put(pendingDeviceEvent);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        // Queued after the last drain of a closed writer
+        return !(closed && queue.remove(pendingDeviceEvent));
+    }
+
+    /**
+     * Stops the thread which creates the {@link DeviceEvent}s, after the queued {@link DeviceEventCreator}s have been created.
+     *
+     * @since 1.5.0
+     */
+    public void close() {
+        closed = true;
+        flushThread.interrupt();
+        try {
+            flushThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            List<PendingDeviceEvent> bulk = new ArrayList<>(bulkSizeMax);
+            try {
+                bulk.add(queue.take());
+
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (bulk.size() < bulkSizeMax) {
+                    queue.drainTo(bulk, bulkSizeMax - bulk.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (bulk.size() >= bulkSizeMax || remaining <= 0) {
+                        break;
+                    }
+
+                    PendingDeviceEvent pendingDeviceEvent = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (pendingDeviceEvent == null) {
+                        break;
+                    }
+                    bulk.add(pendingDeviceEvent);
+                }
+            } catch (InterruptedException e) {
+                LOG.debug("Device event bulk writer interrupted");
+            }
+
+            if (!bulk.isEmpty()) {
+                flush(bulk);
+            }
+        }
+
+        // Create what is left before stopping
+        List<PendingDeviceEvent> bulk = new ArrayList<>(bulkSizeMax);
+        while (queue.drainTo(bulk, bulkSizeMax) > 0) {
+            flush(bulk);
+            bulk = new ArrayList<>(bulkSizeMax);
+        }
+    }
+
+    private void flush(List<PendingDeviceEvent> bulk) {
+        metricBulkSize.update(bulk.size());
+        Context metricBulkFlushTimeContext = metricBulkFlushTime.time();
+        try {
+            create(bulk);
+        } catch (KapuaException | RuntimeException e) {
+            LOG.warn("Bulk create of {} device events failed. Creating them one by one", bulk.size(), e);
+
+            for (PendingDeviceEvent pendingDeviceEvent : bulk) {
+                try {
+                    create(Collections.singletonList(pendingDeviceEvent));
+                } catch (KapuaException | RuntimeException ex) {
+                    metricBulkErrorCount.inc();
+                    LOG.error("Cannot create device event {} for device {}", pendingDeviceEvent.deviceEventCreator.getResource(), pendingDeviceEvent.deviceEventCreator.getDeviceId(), ex);
+                }
+            }
+        } finally {
+            metricBulkFlushTimeContext.stop();
+        }
+    }
+
+    private void create(List<PendingDeviceEvent> bulk) throws KapuaException {
+        List<DeviceEvent> deviceEvents = entityManagerSession.doTransactedAction(em -> {
+            List<DeviceEvent> createdDeviceEvents = new ArrayList<>(bulk.size());
+            for (PendingDeviceEvent pendingDeviceEvent : bulk) {
+                // The DeviceEvent.createdBy is set from the current session
+                KapuaSecurityUtils.setSession(pendingDeviceEvent.kapuaSession);
+                try {
+                    createdDeviceEvents.add(DeviceEventDAO.create(em, pendingDeviceEvent.deviceEventCreator));
+                } finally {
+                    KapuaSecurityUtils.clearSession();
+                }
+            }
+            return createdDeviceEvents;
+        });
+
+        // Only the most recent DeviceEvent of each Device needs to be set as its last one
+        Map<KapuaId, Integer> lastDeviceEventIndexes = new HashMap<>();
+        for (int i = 0; i < deviceEvents.size(); i++) {
+            DeviceEvent deviceEvent = deviceEvents.get(i);
+            lastDeviceEventIndexes.merge(deviceEvent.getDeviceId(), i, (last, current) -> deviceEvents.get(current).getReceivedOn().before(deviceEvents.get(last).getReceivedOn()) ? last : current);
+        }
+
+        for (int lastDeviceEventIndex : lastDeviceEventIndexes.values()) {
+            DeviceEvent deviceEvent = deviceEvents.get(lastDeviceEventIndex);
+
+            KapuaSecurityUtils.setSession(bulk.get(lastDeviceEventIndex).kapuaSession);
+            try {
+                KapuaSecurityUtils.doPrivileged(() -> DeviceEventServiceImpl.updateLastEventOnDevice(deviceRegistryService, deviceEvent));
+            } catch (KapuaException | RuntimeException e) {
+                // The DeviceEvents are already stored, so they must not be created again
+                LOG.warn("Cannot update the last event of device {}", deviceEvent.getDeviceId(), e);
+            } finally {
+                KapuaSecurityUtils.clearSession();
+            }
+        }
+    }
+
+    /**
+     * A {@link DeviceEventCreator} waiting to be created, with the {@link KapuaSession} of the caller which submitted it.
+     */
+    private static class PendingDeviceEvent {
+
+        private final DeviceEventCreator deviceEventCreator;
+        private final KapuaSession kapuaSession;
+
+        private PendingDeviceEvent(DeviceEventCreator deviceEventCreator, KapuaSession kapuaSession) {
+            this.deviceEventCreator = deviceEventCreator;
+            this.kapuaSession = kapuaSession;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.registry.event.internal;
+
+import org.eclipse.kapua.commons.core.ServiceModule;
+import org.eclipse.kapua.locator.KapuaProvider;
+import org.eclipse.kapua.service.device.registry.KapuaDeviceRegistrySettingKeys;
+import org.eclipse.kapua.service.device.registry.KapuaDeviceRegistrySettings;
+
+/**
+ * {@link ServiceModule} which ties the {@link DeviceEventBulkWriter} to the lifecycle of the service modules.
+ * <p>
+ * When {@link KapuaDeviceRegistrySettingKeys#DEVICE_LIFECYCLE_EVENT_BULK_ENABLED} is set the {@link DeviceEventBulkWriter} is created on {@link #start()}
+ * and closed on {@link #stop()}, after its queued {@link org.eclipse.kapua.service.device.registry.event.DeviceEventCreator}s have been created.
+ *
+ * @since 1.5.0
+ */
+@KapuaProvider
+public class DeviceEventBulkWriterModule implements ServiceModule {
+
+    private static volatile DeviceEventBulkWriter deviceEventBulkWriter;
+
+    @Override
+    public void start() {
+        KapuaDeviceRegistrySettings deviceRegistrySettings = KapuaDeviceRegistrySettings.getInstance();
+        if (!deviceRegistrySettings.getBoolean(KapuaDeviceRegistrySettingKeys.DEVICE_LIFECYCLE_EVENT_BULK_ENABLED, false)) {
+            return;
+        }
+
+        synchronized (DeviceEventBulkWriterModule.class) {
+            if (deviceEventBulkWriter == null) {
+                deviceEventBulkWriter = new DeviceEventBulkWriter(
+                        deviceRegistrySettings.getInt(KapuaDeviceRegistrySettingKeys.DEVICE_LIFECYCLE_EVENT_BULK_SIZE_MAX),
+                        deviceRegistrySettings.getLong(KapuaDeviceRegistrySettingKeys.DEVICE_LIFECYCLE_EVENT_BULK_FLUSH_INTERVAL),
+                        deviceRegistrySettings.getInt(KapuaDeviceRegistrySettingKeys.DEVICE_LIFECYCLE_EVENT_BULK_QUEUE_SIZE_MAX));
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (DeviceEventBulkWriterModule.class) {
+            if (deviceEventBulkWriter != null) {
+                deviceEventBulkWriter.close();
+                deviceEventBulkWriter = null;
+            }
+        }
+    }
+
+    /**
+     * Gets the running {@link DeviceEventBulkWriter}.
+     *
+     * @return The running {@link DeviceEventBulkWriter}, or {@code null} if it is not enabled or the service modules are not started.
+     * @since 1.5.0
+     */
+    public static DeviceEventBulkWriter getDeviceEventBulkWriter() {
+        return deviceEventBulkWriter;
+    }
+}
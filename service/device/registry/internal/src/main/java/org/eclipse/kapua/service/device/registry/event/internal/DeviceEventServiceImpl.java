@@ -95,7 +95,7 @@ public class DeviceEventServiceImpl extends AbstractKapuaService implements Devi
         // Create the event
         DeviceEvent deviceEvent = entityManagerSession.doTransactedAction(entityManager -> DeviceEventDAO.create(entityManager, deviceEventCreator));
 
-        updateLastEventOnDevice(deviceEvent);
+        updateLastEventOnDevice(deviceRegistryService, deviceEvent);
 
         return deviceEvent;
     }
@@ -167,11 +167,12 @@ public class DeviceEventServiceImpl extends AbstractKapuaService implements Devi
     /**
      * Updates the {@link Device#getLastEventId()} with the given {@link DeviceEvent}.
      *
-     * @param deviceEvent The {@link DeviceEvent} that needs to be set.
+     * @param deviceRegistryService The {@link DeviceRegistryService} to use.
+     * @param deviceEvent           The {@link DeviceEvent} that needs to be set.
      * @throws KapuaException If {@link Device} does not exist or updating the entity causes an error that is not {@link KapuaOptimisticLockingException} which is ignored.
      * @since 1.2.0
      */
-    private void updateLastEventOnDevice(DeviceEvent deviceEvent) throws KapuaException {
+    static void updateLastEventOnDevice(DeviceRegistryService deviceRegistryService, DeviceEvent deviceEvent) throws KapuaException {
         int retry = 0;
         do {
             retry++;
@@ -84,7 +84,9 @@ public class DeviceRegistryServiceImpl extends AbstractKapuaConfigurableResource
             throw new KapuaDuplicateNameException(deviceCreator.getClientId());
         }
 
-        return entityManagerSession.doTransactedAction(EntityManagerContainer.<Device>create().onResultHandler(entityManager -> DeviceDAO.create(entityManager, deviceCreator)));
+        Device device = entityManagerSession.doTransactedAction(EntityManagerContainer.<Device>create().onResultHandler(entityManager -> DeviceDAO.create(entityManager, deviceCreator)));
+        onChildEntityCreated(device.getScopeId());
+        return device;
     }
 
     @Override
@@ -134,6 +136,7 @@ public class DeviceRegistryServiceImpl extends AbstractKapuaConfigurableResource
 
         entityManagerSession.doTransactedAction(EntityManagerContainer.create().onResultHandler(entityManager -> DeviceDAO.delete(entityManager, scopeId, deviceId))
                 .onAfterHandler((emptyParam) -> entityCache.remove(scopeId, deviceId)));
+        onChildEntityDeleted(scopeId);
     }
 
     @Override
@@ -35,15 +35,19 @@ import org.eclipse.kapua.model.KapuaEntity;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.device.management.message.response.KapuaResponseCode;
 import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceAttributes;
 import org.eclipse.kapua.service.device.registry.DeviceCreator;
 import org.eclipse.kapua.service.device.registry.DeviceExtendedProperty;
 import org.eclipse.kapua.service.device.registry.DeviceFactory;
+import org.eclipse.kapua.service.device.registry.DeviceQuery;
 import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
 import org.eclipse.kapua.service.device.registry.connection.DeviceConnection;
 import org.eclipse.kapua.service.device.registry.event.DeviceEvent;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventFactory;
 import org.eclipse.kapua.service.device.registry.event.DeviceEventService;
+import org.eclipse.kapua.service.device.registry.event.internal.DeviceEventBulkWriter;
+import org.eclipse.kapua.service.device.registry.event.internal.DeviceEventBulkWriterModule;
 import org.eclipse.kapua.service.device.registry.internal.DeviceExtendedPropertyImpl;
 import org.eclipse.kapua.service.device.registry.lifecycle.DeviceLifeCycleService;
 import org.slf4j.Logger;
@@ -52,9 +56,12 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * {@link DeviceLifeCycleService} implementation.
@@ -128,7 +135,7 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
 
         //
         // Event create
-        createLifecycleEvent(device, "BIRTH", birthMessage);
+        createLifecycleEvent(device.getScopeId(), device.getId(), "BIRTH", birthMessage);
     }
 
     @Override
@@ -138,7 +145,7 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
 
         //
         // Event create
-        createLifecycleEvent(device, "APPLICATION", message);
+        createLifecycleEvent(device.getScopeId(), device.getId(), "APPLICATION", message);
     }
 
     @Override
@@ -165,6 +172,12 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
      * Updates the {@link Device} infos from the {@link KapuaBirthPayload} (or {@link org.eclipse.kapua.message.device.lifecycle.KapuaAppsPayload}.
      * <p>
      * Tries to update the {@link Device} a number of times to allow close device updates to be stored properly.
+     * <p>
+     * If the {@link KapuaBirthPayload} does not change any of the {@link Device} infos the {@link Device} is not updated,
+     * since devices often reconnect with the same birth certificate.
+     * <p>
+     * The {@link Device} is read with {@link DeviceRegistryService#find(KapuaId, KapuaId)}, which can be served by the cache.
+     * The {@link Device#getExtendedProperties()} are loaded and updated only when the {@link KapuaBirthPayload} carries them.
      *
      * @param scopeId      The {@link Device#getScopeId()} to update.
      * @param deviceId     The {@link Device#getId()} to update.
@@ -178,6 +191,8 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
 
         Device device = null;
 
+        List<DeviceExtendedProperty> deviceExtendedProperties = Strings.isNullOrEmpty(birthPayload.getExtendedProperties()) ? null : buildDeviceExtendedPropertyFromBirth(birthPayload.getExtendedProperties());
+
         int retry = 0;
         do {
             retry++;
@@ -189,6 +204,24 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
                     throw new KapuaEntityNotFoundException(Device.TYPE, deviceId);
                 }
 
+                List<DeviceExtendedProperty> storedDeviceExtendedProperties = null;
+                if (deviceExtendedProperties != null) {
+                    Device deviceWithExtendedProperties = findWithExtendedProperties(scopeId, deviceId);
+
+                    if (deviceWithExtendedProperties != null) {
+                        device = deviceWithExtendedProperties;
+                        storedDeviceExtendedProperties = device.getExtendedProperties();
+                    } else {
+                        storedDeviceExtendedProperties = Collections.emptyList();
+                    }
+                }
+
+                if (!isDeviceInfoChanged(device, birthPayload, connectionId) &&
+                        (deviceExtendedProperties == null || toComparable(deviceExtendedProperties).equals(toComparable(storedDeviceExtendedProperties)))) {
+                    LOG.debug("Device info unchanged for device: {}. Skipping update", device.getClientId());
+                    break;
+                }
+
                 // If the BirthMessage does not contain a 'Display Name' keep the one registered on the DeviceRegistryService.
                 if (!Strings.isNullOrEmpty(birthPayload.getDisplayName())) {
                     device.setDisplayName(birthPayload.getDisplayName());
@@ -211,7 +244,9 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
                 device.setApplicationIdentifiers(birthPayload.getApplicationIdentifiers());
                 device.setAcceptEncoding(birthPayload.getAcceptEncoding());
 
-                device.setExtendedProperties(buildDeviceExtendedPropertyFromBirth(birthPayload.getExtendedProperties()));
+                if (deviceExtendedProperties != null) {
+                    device.setExtendedProperties(deviceExtendedProperties);
+                }
 
                 // issue #57
                 device.setConnectionId(connectionId);
@@ -237,39 +272,86 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
         return device;
     }
 
-
     /**
-     * Creates a {@link DeviceEvent} from the {@link KapuaLifecycleMessage}.
+     * Finds the {@link Device} together with its {@link Device#getExtendedProperties()}.
      * <p>
-     * Internally invokes {@link DeviceRegistryService#find(KapuaId, KapuaId)} with the given parameters and
-     * then uses {@link #createLifecycleEvent(Device, String, KapuaLifecycleMessage)}
+     * {@link Device#getExtendedProperties()} are lazily loaded, so they are fetched with the {@link Device} to compare them once the {@link Device} has been detached.
+     * The fetch is an inner join, so a {@link Device} without {@link Device#getExtendedProperties()} is not returned.
      *
-     * @param scopeId  The {@link Device#getScopeId()} of the {@link Device} that generated the {@link KapuaLifecycleMessage}.
-     * @param deviceId The {@link Device#getId()} of the {@link Device} that generated the {@link KapuaLifecycleMessage}.
-     * @param resource The resource used to publish the {@link KapuaLifecycleMessage}
-     * @param message  The {@link KapuaLifecycleMessage} from which to extranct data.
-     * @throws KapuaException if storing the {@link DeviceEvent} throws a {@link KapuaException}
-     * @since 1.2.0
+     * @param scopeId  The {@link Device#getScopeId()} to find.
+     * @param deviceId The {@link Device#getId()} to find.
+     * @return The {@link Device}, or {@code null} if it does not exists or it has no {@link Device#getExtendedProperties()}.
+     * @throws KapuaException If {@link DeviceRegistryService#query(org.eclipse.kapua.model.query.KapuaQuery)} causes an error.
+     * @since 1.5.0
      */
-    private DeviceEvent createLifecycleEvent(@NotNull KapuaId scopeId, KapuaId deviceId, @NotNull String resource, @NotNull KapuaLifecycleMessage<?, ?> message) throws KapuaException {
+    private Device findWithExtendedProperties(KapuaId scopeId, KapuaId deviceId) throws KapuaException {
+        DeviceQuery query = DEVICE_FACTORY.newQuery(scopeId);
+        query.setPredicate(query.attributePredicate(DeviceAttributes.ENTITY_ID, deviceId));
+        query.addFetchAttributes(DeviceAttributes.EXTENDED_PROPERTIES);
 
-        Device device = DEVICE_REGISTRY_SERVICE.find(scopeId, deviceId);
+        return DEVICE_REGISTRY_SERVICE.query(query).getFirstItem();
+    }
+
+    /**
+     * Checks whether the {@link KapuaBirthPayload} changes any of the {@link Device} infos, other than the {@link Device#getExtendedProperties()}.
+     *
+     * @param device       The stored {@link Device}.
+     * @param birthPayload The {@link KapuaBirthPayload} from which extract data.
+     * @param connectionId The {@link DeviceConnection#getId()}
+     * @return {@code true} if the {@link Device} needs to be updated, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    private boolean isDeviceInfoChanged(Device device, KapuaBirthPayload birthPayload, KapuaId connectionId) {
+        return (!Strings.isNullOrEmpty(birthPayload.getDisplayName()) && !birthPayload.getDisplayName().equals(device.getDisplayName())) ||
+                !Objects.equals(birthPayload.getSerialNumber(), device.getSerialNumber()) ||
+                !Objects.equals(birthPayload.getModelId(), device.getModelId()) ||
+                !Objects.equals(birthPayload.getModelName(), device.getModelName()) ||
+                !Objects.equals(birthPayload.getModemImei(), device.getImei()) ||
+                !Objects.equals(birthPayload.getModemImsi(), device.getImsi()) ||
+                !Objects.equals(birthPayload.getModemIccid(), device.getIccid()) ||
+                !Objects.equals(birthPayload.getBiosVersion(), device.getBiosVersion()) ||
+                !Objects.equals(birthPayload.getFirmwareVersion(), device.getFirmwareVersion()) ||
+                !Objects.equals(birthPayload.getOsVersion(), device.getOsVersion()) ||
+                !Objects.equals(birthPayload.getJvmVersion(), device.getJvmVersion()) ||
+                !Objects.equals(birthPayload.getContainerFrameworkVersion(), device.getOsgiFrameworkVersion()) ||
+                !Objects.equals(birthPayload.getApplicationFrameworkVersion(), device.getApplicationFrameworkVersion()) ||
+                !Objects.equals(birthPayload.getConnectionInterface(), device.getConnectionInterface()) ||
+                !Objects.equals(birthPayload.getConnectionIp(), device.getConnectionIp()) ||
+                !Objects.equals(birthPayload.getApplicationIdentifiers(), device.getApplicationIdentifiers()) ||
+                !Objects.equals(birthPayload.getAcceptEncoding(), device.getAcceptEncoding()) ||
+                !Objects.equals(connectionId, device.getConnectionId());
+    }
 
-        return createLifecycleEvent(device, resource, message);
+    /**
+     * Converts the {@link DeviceExtendedProperty}es to a {@link Map} which can be compared regardless of their order.
+     *
+     * @param deviceExtendedProperties The {@link DeviceExtendedProperty}es to convert.
+     * @return The {@link Map} of the {@link DeviceExtendedProperty}es, with their count.
+     * @since 1.5.0
+     */
+    private Map<List<String>, Integer> toComparable(List<DeviceExtendedProperty> deviceExtendedProperties) {
+        Map<List<String>, Integer> comparable = new HashMap<>();
+        for (DeviceExtendedProperty deviceExtendedProperty : deviceExtendedProperties) {
+            comparable.merge(Arrays.asList(deviceExtendedProperty.getGroupName(), deviceExtendedProperty.getName(), deviceExtendedProperty.getValue()), 1, Integer::sum);
+        }
+        return comparable;
     }
 
     /**
      * Creates a {@link DeviceEvent} from the {@link KapuaLifecycleMessage}.
+     * <p>
+     * If the {@link DeviceEventBulkWriter} is enabled the {@link DeviceEvent} is created asynchronously, within the next bulk.
      *
-     * @param device   The {@link Device} that generated the {@link KapuaLifecycleMessage}.
+     * @param scopeId  The {@link Device#getScopeId()} of the {@link Device} that generated the {@link KapuaLifecycleMessage}.
+     * @param deviceId The {@link Device#getId()} of the {@link Device} that generated the {@link KapuaLifecycleMessage}.
      * @param resource The resource used to publish the {@link KapuaLifecycleMessage}
      * @param message  The {@link KapuaLifecycleMessage} from which to extranct data.
      * @throws KapuaException if storing the {@link DeviceEvent} throws a {@link KapuaException}
      * @since 1.2.0
      */
-    private DeviceEvent createLifecycleEvent(@NotNull Device device, @NotNull String resource, @NotNull KapuaLifecycleMessage<?, ?> message) throws KapuaException {
+    private void createLifecycleEvent(@NotNull KapuaId scopeId, KapuaId deviceId, @NotNull String resource, @NotNull KapuaLifecycleMessage<?, ?> message) throws KapuaException {
 
-        DeviceEventCreator deviceEventCreator = DEVICE_EVENT_FACTORY.newCreator(device.getScopeId(), device.getId(), message.getReceivedOn(), resource);
+        DeviceEventCreator deviceEventCreator = DEVICE_EVENT_FACTORY.newCreator(scopeId, deviceId, message.getReceivedOn(), resource);
         deviceEventCreator.setResponseCode(KapuaResponseCode.ACCEPTED);
         deviceEventCreator.setSentOn(message.getSentOn());
 
@@ -282,7 +364,12 @@ public class DeviceLifeCycleServiceImpl implements DeviceLifeCycleService {
             deviceEventCreator.setPosition(position);
         }
 
-        return KapuaSecurityUtils.doPrivileged(() -> DEVICE_EVENT_SERVICE.create(deviceEventCreator));
+        DeviceEventBulkWriter deviceEventBulkWriter = DeviceEventBulkWriterModule.getDeviceEventBulkWriter();
+        KapuaSecurityUtils.doPrivileged(() -> {
+            if (deviceEventBulkWriter == null || !deviceEventBulkWriter.submit(deviceEventCreator)) {
+                DEVICE_EVENT_SERVICE.create(deviceEventCreator);
+            }
+        });
     }
 
     /**
@@ -0,0 +1,303 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.registry.event.internal;
+
+import org.eclipse.kapua.KapuaEntityNotFoundException;
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaIllegalAccessException;
+import org.eclipse.kapua.commons.jpa.EntityManager;
+import org.eclipse.kapua.commons.jpa.EntityManagerSession;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.AuthorizationService;
+import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.service.device.registry.event.DeviceEvent;
+import org.eclipse.kapua.service.device.registry.event.DeviceEventCreator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class DeviceEventBulkWriterTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId DEVICE_ID = new KapuaEid(BigInteger.valueOf(20));
+    private static final String FAILING_RESOURCE = "FAILING";
+
+    private StubEntityTransaction entityTransaction;
+    private javax.persistence.EntityManager javaxEntityManager;
+    private EntityManagerSession entityManagerSession;
+    private DeviceRegistryService deviceRegistryService;
+    private AuthorizationService authorizationService;
+    private PermissionFactory permissionFactory;
+
+    private DeviceEventBulkWriter deviceEventBulkWriter;
+
+    @Before
+    public void initialize() throws KapuaException {
+        entityTransaction = new StubEntityTransaction();
+
+        javaxEntityManager = Mockito.mock(javax.persistence.EntityManager.class);
+        Mockito.when(javaxEntityManager.getTransaction()).thenReturn(entityTransaction);
+        Mockito.doAnswer(invocation -> {
+            entityTransaction.persist((DeviceEvent) invocation.getArguments()[0]);
+            return null;
+        }).when(javaxEntityManager).persist(Mockito.any());
+
+        entityManagerSession = new EntityManagerSession(() -> new EntityManager(javaxEntityManager));
+
+        deviceRegistryService = Mockito.mock(DeviceRegistryService.class);
+        Mockito.when(deviceRegistryService.find(SCOPE_ID, DEVICE_ID)).thenReturn(Mockito.mock(Device.class));
+        authorizationService = Mockito.mock(AuthorizationService.class);
+        permissionFactory = Mockito.mock(PermissionFactory.class);
+    }
+
+    @After
+    public void tearDown() {
+        if (deviceEventBulkWriter != null) {
+            deviceEventBulkWriter.close();
+        }
+    }
+
+    @Test
+    public void submitTest() throws KapuaException, InterruptedException {
+        deviceEventBulkWriter = newDeviceEventBulkWriter(10, 0, 10);
+
+        assertTrue("True expected.", deviceEventBulkWriter.submit(newDeviceEventCreator("BIRTH")));
+        assertTrue("True expected.", entityTransaction.awaitCommitted(1));
+
+        DeviceEvent deviceEvent = entityTransaction.getCommitted().get(0);
+        assertEquals("Expected and actual values should be the same.", SCOPE_ID, deviceEvent.getScopeId());
+        assertEquals("Expected and actual values should be the same.", DEVICE_ID, deviceEvent.getDeviceId());
+        assertEquals("Expected and actual values should be the same.", "BIRTH", deviceEvent.getResource());
+        Mockito.verify(deviceRegistryService, Mockito.timeout(5000)).update(Mockito.any(Device.class));
+    }
+
+    @Test(expected = KapuaIllegalAccessException.class)
+    public void submitUnauthorizedTest() throws KapuaException {
+        Mockito.doThrow(new KapuaIllegalAccessException("write")).when(authorizationService).checkPermission(Mockito.any());
+        deviceEventBulkWriter = newDeviceEventBulkWriter(10, 0, 10);
+
+        deviceEventBulkWriter.submit(newDeviceEventCreator("BIRTH"));
+    }
+
+    @Test
+    public void submitDeviceNotFoundTest() throws KapuaException {
+        Mockito.when(deviceRegistryService.find(SCOPE_ID, DEVICE_ID)).thenReturn(null);
+        deviceEventBulkWriter = newDeviceEventBulkWriter(10, 0, 10);
+
+        try {
+            deviceEventBulkWriter.submit(newDeviceEventCreator("DEATH"));
+            fail("KapuaEntityNotFoundException expected.");
+        } catch (KapuaEntityNotFoundException e) {
+            assertTrue("True expected.", entityTransaction.getCommitted().isEmpty());
+        }
+    }
+
+    @Test
+    public void queueFullTest() throws Exception {
+        deviceEventBulkWriter = newDeviceEventBulkWriter(1, 0, 1);
+
+        // The first DeviceEvent holds the writer, the second fills the queue
+        entityTransaction.holdCommit();
+        assertTrue("True expected.", deviceEventBulkWriter.submit(newDeviceEventCreator("BIRTH")));
+        assertTrue("True expected.", entityTransaction.awaitCommitHeld());
+        assertTrue("True expected.", deviceEventBulkWriter.submit(newDeviceEventCreator("APPLICATION")));
+
+        Thread submitter = new Thread(() -> {
+            try {
+                deviceEventBulkWriter.submit(newDeviceEventCreator("DEATH"));
+            } catch (KapuaException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        submitter.start();
+        submitter.join(500);
+        assertTrue("True expected.", submitter.isAlive());
+
+        entityTransaction.releaseCommit();
+        submitter.join(5000);
+        assertFalse("False expected.", submitter.isAlive());
+        assertTrue("True expected.", entityTransaction.awaitCommitted(3));
+    }
+
+    @Test
+    public void submitAfterCloseTest() throws KapuaException {
+        deviceEventBulkWriter = newDeviceEventBulkWriter(10, 0, 10);
+        deviceEventBulkWriter.close();
+
+        assertFalse("False expected.", deviceEventBulkWriter.submit(newDeviceEventCreator("MISSING")));
+        assertTrue("True expected.", entityTransaction.getCommitted().isEmpty());
+    }
+
+    @Test
+    public void bulkFailureTest() throws KapuaException, InterruptedException {
+        deviceEventBulkWriter = newDeviceEventBulkWriter(3, 60000, 10);
+
+        deviceEventBulkWriter.submit(newDeviceEventCreator("BIRTH"));
+        deviceEventBulkWriter.submit(newDeviceEventCreator(FAILING_RESOURCE));
+        deviceEventBulkWriter.submit(newDeviceEventCreator("APPLICATION"));
+
+        // The failed bulk is created again one DeviceEvent at a time
+        assertTrue("True expected.", entityTransaction.awaitCommitted(2));
+        assertEquals("Expected and actual values should be the same.", 2, entityTransaction.getCommitCount());
+
+        List<DeviceEvent> committed = entityTransaction.getCommitted();
+        assertEquals("Expected and actual values should be the same.", 2, committed.size());
+        assertEquals("Expected and actual values should be the same.", "BIRTH", committed.get(0).getResource());
+        assertEquals("Expected and actual values should be the same.", "APPLICATION", committed.get(1).getResource());
+    }
+
+    @Test
+    public void closeTest() throws KapuaException {
+        deviceEventBulkWriter = newDeviceEventBulkWriter(100, 60000, 100);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue("True expected.", deviceEventBulkWriter.submit(newDeviceEventCreator("APPLICATION")));
+        }
+        deviceEventBulkWriter.close();
+
+        // The queued DeviceEvents are created before close returns
+        assertEquals("Expected and actual values should be the same.", 10, entityTransaction.getCommitted().size());
+    }
+
+    private DeviceEventBulkWriter newDeviceEventBulkWriter(int bulkSizeMax, long flushInterval, int queueSizeMax) {
+        return new DeviceEventBulkWriter(bulkSizeMax, flushInterval, queueSizeMax, entityManagerSession, deviceRegistryService, authorizationService, permissionFactory);
+    }
+
+    private static DeviceEventCreator newDeviceEventCreator(String resource) {
+        return new DeviceEventFactoryImpl().newCreator(SCOPE_ID, DEVICE_ID, new Date(), resource);
+    }
+
+    /**
+     * {@link EntityTransaction} which keeps the persisted {@link DeviceEvent}s until they are committed or rolled back.
+     * <p>
+     * Persisting a {@link DeviceEvent} with the {@link #FAILING_RESOURCE} fails.
+     */
+    private static class StubEntityTransaction implements EntityTransaction {
+
+        private final List<DeviceEvent> pending = new ArrayList<>();
+        private final List<DeviceEvent> committed = new ArrayList<>();
+        private final CountDownLatch commitHeld = new CountDownLatch(1);
+
+        private boolean active;
+        private int commitCount;
+        private CountDownLatch commitRelease;
+
+        synchronized void persist(DeviceEvent deviceEvent) {
+            if (FAILING_RESOURCE.equals(deviceEvent.getResource())) {
+                throw new PersistenceException("Cannot persist " + deviceEvent.getResource());
+            }
+            pending.add(deviceEvent);
+        }
+
+        @Override
+        public synchronized void begin() {
+            active = true;
+        }
+
+        @Override
+        public void commit() {
+            CountDownLatch release;
+            synchronized (this) {
+                release = commitRelease;
+            }
+            if (release != null) {
+                commitHeld.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            synchronized (this) {
+                committed.addAll(pending);
+                pending.clear();
+                active = false;
+                commitCount++;
+                notifyAll();
+            }
+        }
+
+        @Override
+        public synchronized void rollback() {
+            pending.clear();
+            active = false;
+        }
+
+        @Override
+        public void setRollbackOnly() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean getRollbackOnly() {
+            return false;
+        }
+
+        @Override
+        public synchronized boolean isActive() {
+            return active;
+        }
+
+        synchronized void holdCommit() {
+            commitRelease = new CountDownLatch(1);
+        }
+
+        boolean awaitCommitHeld() throws InterruptedException {
+            return commitHeld.await(5, TimeUnit.SECONDS);
+        }
+
+        synchronized void releaseCommit() {
+            commitRelease.countDown();
+            commitRelease = null;
+        }
+
+        synchronized boolean awaitCommitted(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (committed.size() < count) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                wait(remaining);
+            }
+            return true;
+        }
+
+        synchronized int getCommitCount() {
+            return commitCount;
+        }
+
+        synchronized List<DeviceEvent> getCommitted() {
+            return Collections.unmodifiableList(new ArrayList<>(committed));
+        }
+    }
+}
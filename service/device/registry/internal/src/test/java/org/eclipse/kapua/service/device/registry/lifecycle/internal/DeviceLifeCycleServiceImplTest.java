@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.device.registry.lifecycle.internal;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.message.internal.device.lifecycle.KapuaBirthMessageImpl;
+import org.eclipse.kapua.message.internal.device.lifecycle.KapuaBirthPayloadImpl;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.device.registry.Device;
+import org.eclipse.kapua.service.device.registry.DeviceAttributes;
+import org.eclipse.kapua.service.device.registry.DeviceFactory;
+import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.service.device.registry.internal.DeviceExtendedPropertyImpl;
+import org.eclipse.kapua.service.device.registry.internal.DeviceImpl;
+import org.eclipse.kapua.service.device.registry.internal.DeviceListResultImpl;
+import org.eclipse.kapua.service.device.registry.internal.DeviceQueryImpl;
+import org.eclipse.kapua.service.device.registry.lifecycle.DeviceLifeCycleService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Date;
+
+@Category(JUnitTests.class)
+public class DeviceLifeCycleServiceImplTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId DEVICE_ID = new KapuaEid(BigInteger.valueOf(20));
+    private static final KapuaId CONNECTION_ID = new KapuaEid(BigInteger.valueOf(30));
+
+    private static final String EXTENDED_PROPERTIES = "{" +
+            "\"version\": \"1.0\"," +
+            "\"properties\": {" +
+            "  \"Modem\": {\"Signal\": \"-70\", \"Operator\": \"Operator\"}," +
+            "  \"Storage\": {\"Free\": \"1024\"}" +
+            "}}";
+
+    private final DeviceFactory deviceFactory = KapuaLocator.getInstance().getFactory(DeviceFactory.class);
+    private final DeviceRegistryService deviceRegistryService = KapuaLocator.getInstance().getService(DeviceRegistryService.class);
+
+    private DeviceLifeCycleService deviceLifeCycleService;
+    private DeviceImpl device;
+    private KapuaBirthPayloadImpl birthPayload;
+
+    @Before
+    public void initialize() throws KapuaException {
+        Mockito.reset(deviceFactory, deviceRegistryService);
+
+        device = new DeviceImpl(SCOPE_ID);
+        device.setId(DEVICE_ID);
+        device.setClientId("test-device");
+        device.setDisplayName("Test Device");
+        device.setSerialNumber("SN-1");
+        device.setModelId("model-1");
+        device.setFirmwareVersion("1.0.0");
+        device.setConnectionId(CONNECTION_ID);
+        device.setExtendedProperties(Arrays.asList(
+                new DeviceExtendedPropertyImpl("Modem", "Signal", "-70"),
+                new DeviceExtendedPropertyImpl("Modem", "Operator", "Operator"),
+                new DeviceExtendedPropertyImpl("Storage", "Free", "1024")));
+
+        birthPayload = new KapuaBirthPayloadImpl();
+        birthPayload.setDisplayName("Test Device");
+        birthPayload.setSerialNumber("SN-1");
+        birthPayload.setModelId("model-1");
+        birthPayload.setFirmwareVersion("1.0.0");
+        birthPayload.setExtendedProperties(EXTENDED_PROPERTIES);
+
+        Mockito.when(deviceFactory.newQuery(Mockito.any(KapuaId.class))).thenAnswer(invocation -> new DeviceQueryImpl((KapuaId) invocation.getArguments()[0]));
+        Mockito.when(deviceRegistryService.find(SCOPE_ID, DEVICE_ID)).thenAnswer(invocation -> device);
+        Mockito.when(deviceRegistryService.query(Mockito.any(KapuaQuery.class))).thenAnswer(invocation -> {
+            DeviceListResultImpl devices = new DeviceListResultImpl();
+            // The fetch of the extended properties is an inner join
+            if (!device.getExtendedProperties().isEmpty()) {
+                devices.addItem(device);
+            }
+            return devices;
+        });
+        Mockito.when(deviceRegistryService.update(Mockito.any(Device.class))).thenAnswer(invocation -> invocation.getArguments()[0]);
+
+        deviceLifeCycleService = new DeviceLifeCycleServiceImpl();
+    }
+
+    @Test
+    public void birthUnchangedTest() throws KapuaException {
+        deviceLifeCycleService.birth(CONNECTION_ID, newBirthMessage());
+
+        Mockito.verify(deviceRegistryService, Mockito.never()).update(Mockito.any(Device.class));
+
+        // The extended properties are fetched with the Device
+        ArgumentCaptor<KapuaQuery> query = ArgumentCaptor.forClass(KapuaQuery.class);
+        Mockito.verify(deviceRegistryService).query(query.capture());
+        assertTrue("True expected.", query.getValue().getFetchAttributes().contains(DeviceAttributes.EXTENDED_PROPERTIES));
+    }
+
+    @Test
+    public void birthChangedFieldTest() throws KapuaException {
+        birthPayload.setFirmwareVersion("1.1.0");
+
+        deviceLifeCycleService.birth(CONNECTION_ID, newBirthMessage());
+
+        ArgumentCaptor<Device> updatedDevice = ArgumentCaptor.forClass(Device.class);
+        Mockito.verify(deviceRegistryService).update(updatedDevice.capture());
+        assertEquals("Expected and actual values should be the same.", "1.1.0", updatedDevice.getValue().getFirmwareVersion());
+    }
+
+    @Test
+    public void birthChangedConnectionTest() throws KapuaException {
+        deviceLifeCycleService.birth(new KapuaEid(BigInteger.valueOf(31)), newBirthMessage());
+
+        Mockito.verify(deviceRegistryService).update(Mockito.any(Device.class));
+    }
+
+    @Test
+    public void birthReorderedExtendedPropertiesTest() throws KapuaException {
+        device.setExtendedProperties(Arrays.asList(
+                new DeviceExtendedPropertyImpl("Storage", "Free", "1024"),
+                new DeviceExtendedPropertyImpl("Modem", "Operator", "Operator"),
+                new DeviceExtendedPropertyImpl("Modem", "Signal", "-70")));
+
+        deviceLifeCycleService.birth(CONNECTION_ID, newBirthMessage());
+
+        Mockito.verify(deviceRegistryService, Mockito.never()).update(Mockito.any(Device.class));
+    }
+
+    @Test
+    public void birthChangedExtendedPropertyTest() throws KapuaException {
+        birthPayload.setExtendedProperties(EXTENDED_PROPERTIES.replace("-70", "-80"));
+
+        deviceLifeCycleService.birth(CONNECTION_ID, newBirthMessage());
+
+        ArgumentCaptor<Device> updatedDevice = ArgumentCaptor.forClass(Device.class);
+        Mockito.verify(deviceRegistryService).update(updatedDevice.capture());
+        assertTrue("True expected.", updatedDevice.getValue().getExtendedProperties().stream()
+                .anyMatch(extendedProperty -> "Signal".equals(extendedProperty.getName()) && "-80".equals(extendedProperty.getValue())));
+    }
+
+    @Test
+    public void birthRemovedExtendedPropertyTest() throws KapuaException {
+        birthPayload.setExtendedProperties("{\"version\": \"1.0\", \"properties\": {\"Storage\": {\"Free\": \"1024\"}}}");
+
+        deviceLifeCycleService.birth(CONNECTION_ID, newBirthMessage());
+
+        ArgumentCaptor<Device> updatedDevice = ArgumentCaptor.forClass(Device.class);
+        Mockito.verify(deviceRegistryService).update(updatedDevice.capture());
+        assertEquals("Expected and actual values should be the same.", 1, updatedDevice.getValue().getExtendedProperties().size());
+    }
+
+    @Test
+    public void birthAddedExtendedPropertiesTest() throws KapuaException {
+        device.setExtendedProperties(null);
+
+        deviceLifeCycleService.birth(CONNECTION_ID, newBirthMessage());
+
+        ArgumentCaptor<Device> updatedDevice = ArgumentCaptor.forClass(Device.class);
+        Mockito.verify(deviceRegistryService).update(updatedDevice.capture());
+        assertEquals("Expected and actual values should be the same.", 3, updatedDevice.getValue().getExtendedProperties().size());
+    }
+
+    @Test
+    public void birthWithoutExtendedPropertiesTest() throws KapuaException {
+        birthPayload.setExtendedProperties(null);
+
+        deviceLifeCycleService.birth(CONNECTION_ID, newBirthMessage());
+
+        // The Device is taken from find and the extended properties are neither loaded nor updated
+        Mockito.verify(deviceRegistryService, Mockito.never()).query(Mockito.any(KapuaQuery.class));
+        Mockito.verify(deviceRegistryService, Mockito.never()).update(Mockito.any(Device.class));
+
+        birthPayload.setFirmwareVersion("1.1.0");
+        deviceLifeCycleService.birth(CONNECTION_ID, newBirthMessage());
+
+        ArgumentCaptor<Device> updatedDevice = ArgumentCaptor.forClass(Device.class);
+        Mockito.verify(deviceRegistryService).update(updatedDevice.capture());
+        assertEquals("Expected and actual values should be the same.", 3, updatedDevice.getValue().getExtendedProperties().size());
+        Mockito.verify(deviceRegistryService, Mockito.never()).query(Mockito.any(KapuaQuery.class));
+    }
+
+    private KapuaBirthMessageImpl newBirthMessage() {
+        KapuaBirthMessageImpl birthMessage = new KapuaBirthMessageImpl();
+        birthMessage.setScopeId(SCOPE_ID);
+        birthMessage.setDeviceId(DEVICE_ID);
+        birthMessage.setReceivedOn(new Date());
+        birthMessage.setPayload(birthPayload);
+        return birthMessage;
+    }
+}
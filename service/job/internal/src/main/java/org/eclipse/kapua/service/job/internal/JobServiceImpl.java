@@ -106,7 +106,9 @@ public class JobServiceImpl extends AbstractKapuaConfigurableResourceLimitedServ
 
         //
         // Do create
-        return entityManagerSession.doTransactedAction(em -> JobDAO.create(em, creator));
+        Job job = entityManagerSession.doTransactedAction(em -> JobDAO.create(em, creator));
+        onChildEntityCreated(job.getScopeId());
+        return job;
     }
 
     @Override
@@ -269,5 +271,6 @@ public class JobServiceImpl extends AbstractKapuaConfigurableResourceLimitedServ
         }
 
         entityManagerSession.doTransactedAction(em -> JobDAO.delete(em, scopeId, jobId));
+        onChildEntityDeleted(scopeId);
     }
 }
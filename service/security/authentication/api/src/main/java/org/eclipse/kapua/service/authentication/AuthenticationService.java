@@ -53,6 +53,18 @@ public interface AuthenticationService extends KapuaService {
      */
     void authenticate(SessionCredentials sessionCredentials) throws KapuaException;
 
+    /**
+     * Authenticates the provided user login credentials on the current session, without creating an {@link AccessToken}.
+     * <p>
+     * It is meant for short lived sessions, like the ones of the broker when a device connects,
+     * which do not need an {@link AccessToken} to be given back to the user and that would invalidate it right after.
+     *
+     * @param loginCredentials The {@link LoginCredentials} to authenticate.
+     * @throws KapuaException an exception is thrown if the credentials are not found on the system, are expired or are disabled
+     * @since 1.5.0
+     */
+    void authenticate(LoginCredentials loginCredentials) throws KapuaException;
+
     /**
      * Logout the current logged user
      *
@@ -48,6 +48,7 @@ import org.eclipse.kapua.service.authentication.credential.KapuaExistingCredenti
 import org.eclipse.kapua.service.authentication.credential.KapuaPasswordTooLongException;
 import org.eclipse.kapua.service.authentication.credential.KapuaPasswordTooShortException;
 import org.eclipse.kapua.service.authentication.shiro.AuthenticationEntityManagerFactory;
+import org.eclipse.kapua.service.authentication.shiro.realm.UserPassVerifiedCredentialsCache;
 import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSetting;
 import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSettingKeys;
 import org.eclipse.kapua.service.authorization.AuthorizationService;
@@ -226,7 +227,7 @@ public class CredentialServiceImpl extends AbstractKapuaConfigurableService impl
         PermissionFactory permissionFactory = locator.getFactory(PermissionFactory.class);
         authorizationService.checkPermission(permissionFactory.newPermission(AuthenticationDomains.CREDENTIAL_DOMAIN, Actions.write, credential.getScopeId()));
 
-        return entityManagerSession.doTransactedAction(em -> {
+        Credential updatedCredential = entityManagerSession.doTransactedAction(em -> {
             Credential currentCredential = CredentialDAO.find(em, credential.getScopeId(), credential.getId());
 
             if (currentCredential == null) {
@@ -240,6 +241,9 @@ public class CredentialServiceImpl extends AbstractKapuaConfigurableService impl
             // Passing attributes??
             return CredentialDAO.update(em, credential);
         });
+
+        UserPassVerifiedCredentialsCache.getInstance().removeByUserId(updatedCredential.getUserId());
+        return updatedCredential;
     }
 
     @Override
@@ -308,12 +312,14 @@ public class CredentialServiceImpl extends AbstractKapuaConfigurableService impl
         PermissionFactory permissionFactory = locator.getFactory(PermissionFactory.class);
         authorizationService.checkPermission(permissionFactory.newPermission(AuthenticationDomains.CREDENTIAL_DOMAIN, Actions.delete, scopeId));
 
-        entityManagerSession.doTransactedAction(em -> {
+        Credential deletedCredential = entityManagerSession.doTransactedAction(em -> {
             if (CredentialDAO.find(em, scopeId, credentialId) == null) {
                 throw new KapuaEntityNotFoundException(Credential.TYPE, credentialId);
             }
             return CredentialDAO.delete(em, scopeId, credentialId);
         });
+
+        UserPassVerifiedCredentialsCache.getInstance().removeByUserId(deletedCredential.getUserId());
     }
 
     @Override
@@ -475,8 +481,14 @@ public class CredentialServiceImpl extends AbstractKapuaConfigurableService impl
         LOGGER.info("CredentialService: received kapua event from {}, operation {}", kapuaEvent.getService(), kapuaEvent.getOperation());
         if ("user".equals(kapuaEvent.getService()) && "delete".equals(kapuaEvent.getOperation())) {
             deleteCredentialByUserId(kapuaEvent.getScopeId(), kapuaEvent.getEntityId());
+            UserPassVerifiedCredentialsCache.getInstance().removeByUserId(kapuaEvent.getEntityId());
+        } else if ("user".equals(kapuaEvent.getService()) && "update".equals(kapuaEvent.getOperation())) {
+            UserPassVerifiedCredentialsCache.getInstance().removeByUserId(kapuaEvent.getEntityId());
         } else if ("account".equals(kapuaEvent.getService()) && "delete".equals(kapuaEvent.getOperation())) {
             deleteCredentialByAccountId(kapuaEvent.getScopeId(), kapuaEvent.getEntityId());
+            UserPassVerifiedCredentialsCache.getInstance().removeByScopeId(kapuaEvent.getEntityId());
+        } else if ("account".equals(kapuaEvent.getService()) && "update".equals(kapuaEvent.getOperation())) {
+            UserPassVerifiedCredentialsCache.getInstance().removeByScopeId(kapuaEvent.getEntityId());
         }
     }
 
@@ -143,37 +143,8 @@ public class AuthenticationServiceShiroImpl implements AuthenticationService {
 
         //
         // Parse login credentials
-        AuthenticationToken shiroAuthenticationToken;
-        String openIDidToken = null;
-        if (loginCredentials instanceof UsernamePasswordCredentials) {
-            UsernamePasswordCredentialsImpl usernamePasswordCredentials = UsernamePasswordCredentialsImpl.parse((UsernamePasswordCredentials) loginCredentials);
-
-            if (Strings.isNullOrEmpty(usernamePasswordCredentials.getUsername()) ||
-                    Strings.isNullOrEmpty(usernamePasswordCredentials.getPassword())) {
-                throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.INVALID_LOGIN_CREDENTIALS);
-            }
-
-            shiroAuthenticationToken = usernamePasswordCredentials;
-        } else if (loginCredentials instanceof ApiKeyCredentials) {
-            ApiKeyCredentialsImpl apiKeyCredentials = ApiKeyCredentialsImpl.parse((ApiKeyCredentials) loginCredentials);
-
-            if (Strings.isNullOrEmpty(apiKeyCredentials.getApiKey())) {
-                throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.INVALID_LOGIN_CREDENTIALS);
-            }
-
-            shiroAuthenticationToken = apiKeyCredentials;
-        } else if (loginCredentials instanceof JwtCredentials) {
-            JwtCredentialsImpl jwtCredentials = JwtCredentialsImpl.parse((JwtCredentials) loginCredentials);
-            openIDidToken = jwtCredentials.getIdToken();
-
-            if (Strings.isNullOrEmpty(openIDidToken)) {
-                throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.INVALID_LOGIN_CREDENTIALS);
-            }
-
-            shiroAuthenticationToken = jwtCredentials;
-        } else {
-            throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.INVALID_CREDENTIALS_TYPE_PROVIDED);
-        }
+        AuthenticationToken shiroAuthenticationToken = parseLoginCredentials(loginCredentials);
+        String openIDidToken = shiroAuthenticationToken instanceof JwtCredentials ? ((JwtCredentials) shiroAuthenticationToken).getIdToken() : null;
 
         //
         // Login the user
@@ -284,6 +255,47 @@ public class AuthenticationServiceShiroImpl implements AuthenticationService {
 
     }
 
+    @Override
+    public void authenticate(LoginCredentials loginCredentials) throws KapuaException {
+        //
+        // Check LoginCredentials
+        if (loginCredentials == null) {
+            throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.INVALID_LOGIN_CREDENTIALS);
+        }
+
+        // Check subject
+        checkCurrentSubjectNotAuthenticated();
+
+        //
+        // Parse login credentials
+        AuthenticationToken shiroAuthenticationToken = parseLoginCredentials(loginCredentials);
+
+        //
+        // Login the user
+        Subject currentUser = null;
+        try {
+            // Shiro login
+            currentUser = SecurityUtils.getSubject();
+            currentUser.login(shiroAuthenticationToken);
+
+            // Establish session without the access token
+            Session shiroSession = currentUser.getSession();
+            KapuaEid scopeId = (KapuaEid) shiroSession.getAttribute("scopeId");
+            KapuaEid userId = (KapuaEid) shiroSession.getAttribute("userId");
+
+            KapuaSession kapuaSession = new KapuaSession(null, scopeId, userId);
+            KapuaSecurityUtils.setSession(kapuaSession);
+            shiroSession.setAttribute(KapuaSession.KAPUA_SESSION_KEY, kapuaSession);
+
+            // Set some logging
+            MDC.put(KapuaSecurityUtils.MDC_USER_ID, userId.toCompactId());
+            LOG.info("Login for thread '{}' - '{}' - '{}'", Thread.currentThread().getId(), Thread.currentThread().getName(), currentUser);
+
+        } catch (ShiroException se) {
+            handleTokenLoginException(se, currentUser, shiroAuthenticationToken);
+        }
+    }
+
     @Override
     public void verifyCredentials(LoginCredentials loginCredentials) throws KapuaException {
         //
@@ -496,6 +508,48 @@ public class AuthenticationServiceShiroImpl implements AuthenticationService {
         throw kae;
     }
 
+    /**
+     * Parses the given {@link LoginCredentials} into the {@link AuthenticationToken} to login with Shiro.
+     *
+     * @param loginCredentials The {@link LoginCredentials} to parse.
+     * @return The parsed {@link AuthenticationToken}.
+     * @throws KapuaAuthenticationException if the {@link LoginCredentials} are not valid or not supported.
+     * @since 1.5.0
+     */
+    private AuthenticationToken parseLoginCredentials(LoginCredentials loginCredentials) throws KapuaAuthenticationException {
+        AuthenticationToken shiroAuthenticationToken;
+        if (loginCredentials instanceof UsernamePasswordCredentials) {
+            UsernamePasswordCredentialsImpl usernamePasswordCredentials = UsernamePasswordCredentialsImpl.parse((UsernamePasswordCredentials) loginCredentials);
+
+            if (Strings.isNullOrEmpty(usernamePasswordCredentials.getUsername()) ||
+                    Strings.isNullOrEmpty(usernamePasswordCredentials.getPassword())) {
+                throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.INVALID_LOGIN_CREDENTIALS);
+            }
+
+            shiroAuthenticationToken = usernamePasswordCredentials;
+        } else if (loginCredentials instanceof ApiKeyCredentials) {
+            ApiKeyCredentialsImpl apiKeyCredentials = ApiKeyCredentialsImpl.parse((ApiKeyCredentials) loginCredentials);
+
+            if (Strings.isNullOrEmpty(apiKeyCredentials.getApiKey())) {
+                throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.INVALID_LOGIN_CREDENTIALS);
+            }
+
+            shiroAuthenticationToken = apiKeyCredentials;
+        } else if (loginCredentials instanceof JwtCredentials) {
+            JwtCredentialsImpl jwtCredentials = JwtCredentialsImpl.parse((JwtCredentials) loginCredentials);
+
+            if (Strings.isNullOrEmpty(jwtCredentials.getIdToken())) {
+                throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.INVALID_LOGIN_CREDENTIALS);
+            }
+
+            shiroAuthenticationToken = jwtCredentials;
+        } else {
+            throw new KapuaAuthenticationException(KapuaAuthenticationErrorCodes.INVALID_CREDENTIALS_TYPE_PROVIDED);
+        }
+
+        return shiroAuthenticationToken;
+    }
+
     /**
      * Create and persist a {@link AccessToken} from the data contained in the Shiro {@link Session}
      *
@@ -250,14 +250,20 @@ public class UserPassAuthenticatingRealm extends AuthenticatingRealm {
             throw authenticationEx;
         }
         Credential credential = (Credential) kapuaInfo.getCredentials();
-        credential.setFirstLoginFailure(null);
-        credential.setLoginFailuresReset(null);
-        credential.setLockoutReset(null);
-        credential.setLoginFailures(0);
-        try {
-            KapuaSecurityUtils.doPrivileged(() -> credentialService.update(credential));
-        } catch (KapuaException kex) {
-            throw new ShiroException("Error while updating lockout policy", kex);
+        // Reset the lockout policy only if needed, to avoid a write on each login
+        if (credential.getLoginFailures() != 0 ||
+                credential.getFirstLoginFailure() != null ||
+                credential.getLoginFailuresReset() != null ||
+                credential.getLockoutReset() != null) {
+            credential.setFirstLoginFailure(null);
+            credential.setLoginFailuresReset(null);
+            credential.setLockoutReset(null);
+            credential.setLoginFailures(0);
+            try {
+                KapuaSecurityUtils.doPrivileged(() -> credentialService.update(credential));
+            } catch (KapuaException kex) {
+                throw new ShiroException("Error while updating lockout policy", kex);
+            }
         }
         Subject currentSubject = SecurityUtils.getSubject();
         Session session = currentSubject.getSession();
@@ -18,6 +18,9 @@ import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
 import org.apache.shiro.authc.credential.CredentialsMatcher;
 
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.Timer.Context;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.service.authentication.ApiKeyCredentials;
@@ -50,9 +53,20 @@ public class UserPassCredentialsMatcher implements CredentialsMatcher {
     private static final ScratchCodeService SCRATCH_CODE_SERVICE = LOCATOR.getService(ScratchCodeService.class);
     private static final MfaAuthenticatorServiceLocator MFA_AUTH_SERVICE_LOCATOR = MfaAuthenticatorServiceLocator.getInstance();
     private static final MfaAuthenticator MFA_AUTHENTICATOR = MFA_AUTH_SERVICE_LOCATOR.getMfaAuthenticator();
+    private static final UserPassVerifiedCredentialsCache VERIFIED_CREDENTIALS_CACHE = UserPassVerifiedCredentialsCache.getInstance();
+    private static final Timer MATCH_TIME = MetricServiceFactory.getInstance().getTimer("authentication", "userpass", "match", "time", "s");
 
     @Override
     public boolean doCredentialsMatch(AuthenticationToken authenticationToken, AuthenticationInfo authenticationInfo) {
+        Context matchTimeContext = MATCH_TIME.time();
+        try {
+            return doCredentialsMatchInternal(authenticationToken, authenticationInfo);
+        } finally {
+            matchTimeContext.stop();
+        }
+    }
+
+    private boolean doCredentialsMatchInternal(AuthenticationToken authenticationToken, AuthenticationInfo authenticationInfo) {
 
         //
         // Token data
@@ -71,12 +85,11 @@ public class UserPassCredentialsMatcher implements CredentialsMatcher {
         //
         // Match token with info
         boolean credentialMatch = false;
-        if (tokenUsername.equals(infoUser.getName()) && CredentialType.PASSWORD.equals(infoCredential.getCredentialType()) && BCrypt.checkpw(
-                tokenPassword, infoCredential.getCredentialKey())) {
+        if (tokenUsername.equals(infoUser.getName()) && CredentialType.PASSWORD.equals(infoCredential.getCredentialType()) && checkPassword(
+                tokenUsername, tokenPassword, infoCredential)) {
 
             if (!MFA_AUTHENTICATOR.isEnabled()) {
                 credentialMatch = true;
-                // FIXME: if true cache token password for authentication performance improvement
             } else {
 
                 // first check if 2FA is enabled for the current user
@@ -166,4 +179,26 @@ public class UserPassCredentialsMatcher implements CredentialsMatcher {
         return credentialMatch;
     }
 
+    /**
+     * Checks the password against the {@link Credential#getCredentialKey()}.
+     * <p>
+     * The BCrypt check is skipped if the same password has been recently verified against the same {@link Credential}.
+     *
+     * @param username   The username.
+     * @param password   The password to check.
+     * @param credential The {@link Credential} to check against.
+     * @return {@code true} if the password matches, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    private boolean checkPassword(String username, String password, Credential credential) {
+        if (VERIFIED_CREDENTIALS_CACHE.isVerified(username, password, credential)) {
+            return true;
+        }
+
+        boolean passwordMatch = BCrypt.checkpw(password, credential.getCredentialKey());
+        if (passwordMatch) {
+            VERIFIED_CREDENTIALS_CACHE.putVerified(username, password, credential);
+        }
+        return passwordMatch;
+    }
 }
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.shiro.realm;
+
+import com.codahale.metrics.Counter;
+import org.eclipse.kapua.KapuaRuntimeException;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.metric.MetricServiceFactory;
+import org.eclipse.kapua.commons.metric.MetricsService;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.authentication.credential.Credential;
+import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSetting;
+import org.eclipse.kapua.service.authentication.shiro.setting.KapuaAuthenticationSettingKeys;
+import org.eclipse.kapua.service.user.User;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Cache of the username and password pairs that have been recently verified against a {@link Credential}.
+ * <p>
+ * It allows the {@link UserPassCredentialsMatcher} to skip the BCrypt check when the same client logs in again,
+ * like when many devices reconnect at once after a broker restart.
+ * <p>
+ * Username and password are never stored: the entries are keyed by an HMAC of them, computed with a random key generated at startup.
+ * Each entry also holds the {@link Credential#getCredentialKey()} that was verified, so it no longer matches once the password changes.
+ * The entries of a {@link User} are removed when its {@link Credential}s, the {@link User} itself or its {@link Account} change.
+ *
+ * @since 1.5.0
+ */
+public class UserPassVerifiedCredentialsCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final String METRIC_MODULE_NAME = "authentication";
+    private static final String METRIC_COMPONENT_NAME = "userpass";
+
+    private static final KapuaAuthenticationSetting SETTING = KapuaAuthenticationSetting.getInstance();
+
+    private static final UserPassVerifiedCredentialsCache INSTANCE = new UserPassVerifiedCredentialsCache(
+            SETTING.getBoolean(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_ENABLE, false),
+            SETTING.getInt(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_SIZE_MAX, 10000),
+            SETTING.getLong(KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_TTL, 300000L));
+
+    private final boolean enabled;
+    private final LocalCache<String, VerifiedCredential> verifiedCredentialsCache;
+    private final SecretKeySpec hmacKey;
+
+    private final Counter cacheHit;
+    private final Counter cacheMiss;
+
+    /**
+     * Constructor.
+     *
+     * @param enabled Whether the cache is enabled.
+     * @param sizeMax The maximum number of verified credentials to cache.
+     * @param ttl     The time (in milliseconds) after which a verified credential is checked again.
+     * @since 1.5.0
+     */
+    public UserPassVerifiedCredentialsCache(boolean enabled, int sizeMax, long ttl) {
+        this.enabled = enabled;
+        this.verifiedCredentialsCache = new LocalCache<>(sizeMax, (int) Math.max(1, ttl / 1000), null);
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+
+        MetricsService metricsService = MetricServiceFactory.getInstance();
+        this.cacheHit = metricsService.getCounter(METRIC_MODULE_NAME, METRIC_COMPONENT_NAME, "cache", "hit", "count");
+        this.cacheMiss = metricsService.getCounter(METRIC_MODULE_NAME, METRIC_COMPONENT_NAME, "cache", "miss", "count");
+    }
+
+    /**
+     * Gets the default {@link UserPassVerifiedCredentialsCache}, configured with the {@link KapuaAuthenticationSetting}.
+     *
+     * @return The default {@link UserPassVerifiedCredentialsCache}.
+     * @since 1.5.0
+     */
+    public static UserPassVerifiedCredentialsCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets whether the cache is enabled.
+     *
+     * @return {@code true} if the cache is enabled, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checks whether the given username and password have been recently verified against the given {@link Credential}.
+     *
+     * @param username   The username.
+     * @param password   The password.
+     * @param credential The {@link Credential} to check against.
+     * @return {@code true} if they have been verified and the {@link Credential} has not changed since, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public boolean isVerified(String username, String password, Credential credential) {
+        if (!enabled) {
+            return false;
+        }
+
+        VerifiedCredential verifiedCredential = verifiedCredentialsCache.get(fingerprint(username, password));
+        if (verifiedCredential != null && verifiedCredential.matches(credential)) {
+            cacheHit.inc();
+            return true;
+        }
+
+        cacheMiss.inc();
+        return false;
+    }
+
+    /**
+     * Caches that the given username and password have been verified against the given {@link Credential}.
+     *
+     * @param username   The username.
+     * @param password   The password.
+     * @param credential The verified {@link Credential}.
+     * @since 1.5.0
+     */
+    public void putVerified(String username, String password, Credential credential) {
+        if (enabled) {
+            verifiedCredentialsCache.put(fingerprint(username, password), new VerifiedCredential(credential));
+        }
+    }
+
+    /**
+     * Removes the verified credentials of the given {@link User}.
+     *
+     * @param userId The {@link User#getId()}.
+     * @since 1.5.0
+     */
+    public void removeByUserId(KapuaId userId) {
+        removeIf(verifiedCredential -> verifiedCredential.userId.equals(userId.getId()));
+    }
+
+    /**
+     * Removes the verified credentials of the {@link User}s of the given {@link Account}.
+     *
+     * @param scopeId The {@link Account#getId()}.
+     * @since 1.5.0
+     */
+    public void removeByScopeId(KapuaId scopeId) {
+        removeIf(verifiedCredential -> verifiedCredential.scopeId.equals(scopeId.getId()));
+    }
+
+    /**
+     * Removes all the verified credentials.
+     *
+     * @since 1.5.0
+     */
+    public void removeAll() {
+        verifiedCredentialsCache.invalidateAll();
+    }
+
+    private void removeIf(Predicate<VerifiedCredential> predicate) {
+        if (!enabled) {
+            return;
+        }
+
+        for (String fingerprint : verifiedCredentialsCache.getAllKeys()) {
+            VerifiedCredential verifiedCredential = verifiedCredentialsCache.get(fingerprint);
+            if (verifiedCredential != null && predicate.test(verifiedCredential)) {
+                verifiedCredentialsCache.remove(fingerprint);
+            }
+        }
+    }
+
+    /**
+     * Computes the HMAC of the given username and password, which is used as key of the cache in place of them.
+     */
+    private String fingerprint(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw KapuaRuntimeException.internalError(e, "Error while computing the credential fingerprint");
+        }
+    }
+
+    /**
+     * The {@link Credential} that has been verified.
+     */
+    private static class VerifiedCredential {
+
+        private final BigInteger scopeId;
+        private final BigInteger userId;
+        private final BigInteger credentialId;
+        private final String credentialKey;
+
+        private VerifiedCredential(Credential credential) {
+            this.scopeId = credential.getScopeId().getId();
+            this.userId = credential.getUserId().getId();
+            this.credentialId = credential.getId().getId();
+            this.credentialKey = credential.getCredentialKey();
+        }
+
+        private boolean matches(Credential credential) {
+            return credentialId.equals(credential.getId().getId()) &&
+                    userId.equals(credential.getUserId().getId()) &&
+                    Objects.equals(credentialKey, credential.getCredentialKey());
+        }
+    }
+}
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.kapua.service.authorization;
 
+import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.commons.event.ServiceEventClientConfiguration;
 import org.eclipse.kapua.commons.event.ServiceEventModule;
 import org.eclipse.kapua.commons.event.ServiceEventModuleConfiguration;
@@ -21,6 +22,7 @@ import org.eclipse.kapua.service.authorization.domain.DomainRegistryService;
 import org.eclipse.kapua.service.authorization.group.GroupService;
 import org.eclipse.kapua.service.authorization.role.RoleService;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizationInfoCache;
 import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSetting;
 import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSettingKeys;
 
@@ -54,4 +56,11 @@ public class AuthorizationServiceModule extends ServiceEventModule {
                 selc.toArray(new ServiceEventClientConfiguration[0]));
     }
 
+    @Override
+    public void start() throws KapuaException {
+        super.start();
+
+        KapuaAuthorizationInfoCache.getInstance().subscribe(KapuaAuthorizationSetting.getInstance().getString(KapuaAuthorizationSettingKeys.AUTHORIZATION_EVENT_ADDRESS));
+    }
+
 }
@@ -43,6 +43,7 @@ import org.eclipse.kapua.service.authorization.permission.shiro.PermissionValida
 import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RoleService;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizationInfoCache;
 import org.eclipse.kapua.service.authorization.shiro.exception.KapuaAuthorizationErrorCodes;
 import org.eclipse.kapua.service.authorization.shiro.exception.KapuaAuthorizationException;
 import org.slf4j.Logger;
@@ -133,7 +134,7 @@ public class AccessInfoServiceImpl extends AbstractKapuaService implements Acces
             }
 
             return accessInfo;
-        }));
+        }).onAfterHandler((entity) -> KapuaAuthorizationInfoCache.getInstance().remove(entity.getUserId())));
     }
 
     @Override
@@ -225,7 +226,10 @@ public class AccessInfoServiceImpl extends AbstractKapuaService implements Acces
                     }
                     return AccessInfoDAO.delete(em, scopeId, accessInfoId);
                 }
-        ).onAfterHandler((emptyParam) -> entityCache.remove(scopeId, accessInfoId)));
+        ).onAfterHandler((entity) -> {
+            entityCache.remove(scopeId, accessInfoId);
+            KapuaAuthorizationInfoCache.getInstance().remove(entity.getUserId());
+        }));
     }
 
     //@ListenServiceEvent(fromAddress="account")
@@ -237,6 +241,7 @@ public class AccessInfoServiceImpl extends AbstractKapuaService implements Acces
         LOGGER.info("AccessInfoService: received kapua event from {}, operation {}", kapuaEvent.getService(), kapuaEvent.getOperation());
         if ("user".equals(kapuaEvent.getService()) && "delete".equals(kapuaEvent.getOperation())) {
             deleteAccessInfoByUserId(kapuaEvent.getScopeId(), kapuaEvent.getEntityId());
+            KapuaAuthorizationInfoCache.getInstance().remove(kapuaEvent.getEntityId());
         } else if ("account".equals(kapuaEvent.getService()) && "delete".equals(kapuaEvent.getOperation())) {
             deleteAccessInfoByAccountId(kapuaEvent.getScopeId(), kapuaEvent.getEntityId());
         }
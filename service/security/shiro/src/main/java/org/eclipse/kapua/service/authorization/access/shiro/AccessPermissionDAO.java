@@ -18,9 +18,13 @@ import org.eclipse.kapua.commons.jpa.EntityManager;
 import org.eclipse.kapua.commons.service.internal.ServiceDAO;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.service.authorization.access.AccessInfo;
 import org.eclipse.kapua.service.authorization.access.AccessPermission;
 import org.eclipse.kapua.service.authorization.access.AccessPermissionCreator;
 import org.eclipse.kapua.service.authorization.access.AccessPermissionListResult;
+import org.eclipse.kapua.service.user.User;
+
+import javax.persistence.TypedQuery;
 
 /**
  * {@link AccessPermission} {@link ServiceDAO}
@@ -99,4 +103,23 @@ public class AccessPermissionDAO extends ServiceDAO {
     public static AccessPermission delete(EntityManager em, KapuaId scopeId, KapuaId accessPermissionId) throws KapuaEntityNotFoundException {
         return ServiceDAO.delete(em, AccessPermissionImpl.class, scopeId, accessPermissionId);
     }
+
+    /**
+     * Finds all the {@link AccessPermission}s granted to the {@link AccessInfo}s of the given {@link User}, with a single query.
+     *
+     * @param em      The {@link EntityManager}.
+     * @param scopeId The {@link User#getScopeId()}.
+     * @param userId  The {@link User#getId()}.
+     * @return The {@link AccessPermissionListResult} of the {@link AccessPermission}s granted to the {@link User}.
+     * @since 1.5.0
+     */
+    public static AccessPermissionListResult findByUserId(EntityManager em, KapuaId scopeId, KapuaId userId) {
+        TypedQuery<AccessPermission> query = em.createNamedQuery("AccessPermission.findByUserId", AccessPermission.class);
+        query.setParameter("scopeId", scopeId.getId());
+        query.setParameter("userId", userId.getId());
+
+        AccessPermissionListResult result = new AccessPermissionListResultImpl();
+        result.addItems(query.getResultList());
+        return result;
+    }
 }
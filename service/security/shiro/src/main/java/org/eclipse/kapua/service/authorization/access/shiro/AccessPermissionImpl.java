@@ -24,6 +24,8 @@ import javax.persistence.AttributeOverrides;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 
 /**
@@ -32,6 +34,9 @@ import javax.persistence.Table;
  * @since 1.0.0
  */
 @Entity(name = "AccessPermission")
+@NamedQueries({
+        @NamedQuery(name = "AccessPermission.findByUserId", query = "SELECT ap FROM AccessPermission ap, AccessInfo ai WHERE ai.scopeId.eid = :scopeId AND ai.userId.eid = :userId AND ap.scopeId.eid = ai.scopeId.eid AND ap.accessInfoId.eid = ai.id.eid")
+})
 @Table(name = "athz_access_permission")
 public class AccessPermissionImpl extends AbstractKapuaEntity implements AccessPermission {
 
@@ -37,6 +37,7 @@ import org.eclipse.kapua.service.authorization.permission.Permission;
 import org.eclipse.kapua.service.authorization.permission.PermissionFactory;
 import org.eclipse.kapua.service.authorization.permission.shiro.PermissionValidator;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizationInfoCache;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
@@ -120,7 +121,10 @@ public class AccessPermissionServiceImpl extends AbstractKapuaService implements
             }
 
             return AccessPermissionDAO.create(em, accessPermissionCreator);
-        }).onAfterHandler((entity) -> entityCache.removeList(entity.getScopeId(), entity.getAccessInfoId())));
+        }).onAfterHandler((entity) -> {
+            entityCache.removeList(entity.getScopeId(), entity.getAccessInfoId());
+            KapuaAuthorizationInfoCache.getInstance().removeByAccessInfoId(entity.getAccessInfoId());
+        }));
     }
 
     @Override
@@ -146,6 +150,7 @@ public class AccessPermissionServiceImpl extends AbstractKapuaService implements
         }).onAfterHandler((entity) -> {
             entityCache.remove(scopeId, accessPermissionId);
             entityCache.removeList(scopeId, entity.getAccessInfoId());
+            KapuaAuthorizationInfoCache.getInstance().removeByAccessInfoId(entity.getAccessInfoId());
         }));
     }
 
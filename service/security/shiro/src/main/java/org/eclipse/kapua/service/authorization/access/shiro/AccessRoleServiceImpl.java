@@ -38,6 +38,7 @@ import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RolePermissionAttributes;
 import org.eclipse.kapua.service.authorization.role.shiro.RoleDAO;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizationInfoCache;
 import org.eclipse.kapua.service.authorization.shiro.exception.KapuaAuthorizationErrorCodes;
 import org.eclipse.kapua.service.authorization.shiro.exception.KapuaAuthorizationException;
 
@@ -105,7 +106,10 @@ public class AccessRoleServiceImpl extends AbstractKapuaService implements Acces
             }
 
             return AccessRoleDAO.create(em, accessRoleCreator);
-        }).onAfterHandler((entity) -> entityCache.removeList(entity.getScopeId(), entity.getAccessInfoId())));
+        }).onAfterHandler((entity) -> {
+            entityCache.removeList(entity.getScopeId(), entity.getAccessInfoId());
+            KapuaAuthorizationInfoCache.getInstance().removeByAccessInfoId(entity.getAccessInfoId());
+        }));
     }
 
     @Override
@@ -132,6 +136,7 @@ public class AccessRoleServiceImpl extends AbstractKapuaService implements Acces
         ).onAfterHandler((entity) -> {
             entityCache.remove(scopeId, accessRoleId);
             entityCache.removeList(scopeId, entity.getAccessInfoId());
+            KapuaAuthorizationInfoCache.getInstance().removeByAccessInfoId(entity.getAccessInfoId());
         }));
     }
 
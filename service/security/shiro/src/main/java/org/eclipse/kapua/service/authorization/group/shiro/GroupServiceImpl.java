@@ -90,7 +90,9 @@ public class GroupServiceImpl extends AbstractKapuaConfigurableResourceLimitedSe
 
         //
         // Do create
-        return entityManagerSession.doTransactedAction(em -> GroupDAO.create(em, groupCreator));
+        Group group = entityManagerSession.doTransactedAction(em -> GroupDAO.create(em, groupCreator));
+        onChildEntityCreated(group.getScopeId());
+        return group;
     }
 
     @Override
@@ -151,6 +153,7 @@ public class GroupServiceImpl extends AbstractKapuaConfigurableResourceLimitedSe
         //
         // Do delete
         entityManagerSession.doTransactedAction(em -> GroupDAO.delete(em, scopeId, groupId));
+        onChildEntityDeleted(scopeId);
     }
 
     @Override
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.permission.shiro;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.KapuaRuntimeException;
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.account.Account;
+import org.eclipse.kapua.service.account.AccountService;
+import org.eclipse.kapua.service.authorization.permission.Permission;
+import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSetting;
+import org.eclipse.kapua.service.authorization.shiro.setting.KapuaAuthorizationSettingKeys;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Cache of the ancestors of the {@link Account}s, read from the {@link Account#getParentAccountPath()}.
+ * <p>
+ * It is used to check the {@link Permission#getForwardable()} {@link Permission}s without looking up the {@link Account} on each check.
+ * The {@link Account#getParentAccountPath()} never changes, so the cached ancestors are only evicted to bound the memory and to forget deleted {@link Account}s.
+ * The {@link Account}s which are not found are not cached, so an {@link Account} created right after a lookup is seen by the next one.
+ *
+ * @since 1.5.0
+ */
+public class AccountAncestryCache {
+
+    /**
+     * Reads the {@link Account#getParentAccountPath()}.
+     *
+     * @since 1.5.0
+     */
+    @FunctionalInterface
+    public interface ParentAccountPathReader {
+
+        /**
+         * Reads the {@link Account#getParentAccountPath()} of the given {@link Account#getId()}.
+         *
+         * @param accountId The {@link Account#getId()}.
+         * @return The {@link Account#getParentAccountPath()}, or {@code null} if the {@link Account} does not exist.
+         * @throws KapuaException if the {@link Account} cannot be read.
+         * @since 1.5.0
+         */
+        String read(KapuaId accountId) throws KapuaException;
+    }
+
+    private static final KapuaAuthorizationSetting SETTING = KapuaAuthorizationSetting.getInstance();
+
+    private static final AccountAncestryCache INSTANCE = new AccountAncestryCache(
+            SETTING.getInt(KapuaAuthorizationSettingKeys.AUTHORIZATION_ACCOUNT_ANCESTRY_CACHE_SIZE_MAX, 10000),
+            SETTING.getLong(KapuaAuthorizationSettingKeys.AUTHORIZATION_ACCOUNT_ANCESTRY_CACHE_TTL, 3600000L),
+            accountId -> {
+                AccountService accountService = KapuaLocator.getInstance().getService(AccountService.class);
+                Account account = KapuaSecurityUtils.doPrivileged(() -> accountService.find(accountId));
+
+                return account != null ? account.getParentAccountPath() : null;
+            });
+
+    private final LocalCache<BigInteger, Set<BigInteger>> ancestorsCache;
+    private final ParentAccountPathReader parentAccountPathReader;
+
+    /**
+     * Constructor.
+     *
+     * @param sizeMax                 The maximum number of {@link Account}s to cache.
+     * @param ttl                     The time (in milliseconds) after which the ancestors of an {@link Account} are read again.
+     * @param parentAccountPathReader The {@link ParentAccountPathReader} to read the {@link Account#getParentAccountPath()}.
+     * @since 1.5.0
+     */
+    public AccountAncestryCache(int sizeMax, long ttl, ParentAccountPathReader parentAccountPathReader) {
+        this.ancestorsCache = new LocalCache<>(sizeMax, (int) Math.max(1, ttl / 1000), null);
+        this.parentAccountPathReader = parentAccountPathReader;
+    }
+
+    /**
+     * Gets the default {@link AccountAncestryCache}, which reads the {@link Account}s with the {@link AccountService}.
+     *
+     * @return The default {@link AccountAncestryCache}.
+     * @since 1.5.0
+     */
+    public static AccountAncestryCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks whether the given {@link Account} is a descendant of the given ancestor {@link Account}.
+     *
+     * @param ancestorId The {@link Account#getId()} of the ancestor.
+     * @param accountId  The {@link Account#getId()} of the descendant.
+     * @return {@code true} if the ancestor is in the {@link Account#getParentAccountPath()} of the descendant, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public boolean isDescendant(KapuaId ancestorId, KapuaId accountId) {
+        return getAncestorIds(accountId).contains(ancestorId.getId());
+    }
+
+    /**
+     * Gets the {@link Account#getId()}s of the ancestors of the given {@link Account}.
+     *
+     * @param accountId The {@link Account#getId()}.
+     * @return The {@link Account#getId()}s of the ancestors, excluding the given {@link Account#getId()}.
+     * @since 1.5.0
+     */
+    public Set<BigInteger> getAncestorIds(KapuaId accountId) {
+        Set<BigInteger> ancestorIds = ancestorsCache.get(accountId.getId());
+        if (ancestorIds == null) {
+            String parentAccountPath;
+            try {
+                parentAccountPath = parentAccountPathReader.read(accountId);
+            } catch (KapuaException e) {
+                throw KapuaRuntimeException.internalError(e, "Error while reading the parent account path of: " + accountId.toStringId());
+            }
+
+            ancestorIds = parseAncestorIds(parentAccountPath);
+            if (parentAccountPath != null) {
+                ancestorsCache.put(accountId.getId(), ancestorIds);
+            }
+        }
+        return ancestorIds;
+    }
+
+    /**
+     * Parses the {@link Account#getParentAccountPath()}, which is in the form {@code /rootId/.../parentId/accountId}.
+     */
+    private static Set<BigInteger> parseAncestorIds(String parentAccountPath) {
+        if (parentAccountPath == null || parentAccountPath.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        String[] pathIds = parentAccountPath.split("/");
+        Set<BigInteger> ancestorIds = new HashSet<>();
+        // The last one is the account itself
+        for (int i = 0; i < pathIds.length - 1; i++) {
+            if (!pathIds[i].isEmpty()) {
+                ancestorIds.add(new BigInteger(pathIds[i]));
+            }
+        }
+        return Collections.unmodifiableSet(ancestorIds);
+    }
+}
@@ -15,11 +15,7 @@ package org.eclipse.kapua.service.authorization.permission.shiro;
 import org.apache.shiro.authz.UnauthorizedException;
 import org.apache.shiro.authz.permission.WildcardPermission;
 import org.apache.shiro.subject.Subject;
-import org.eclipse.kapua.KapuaException;
-import org.eclipse.kapua.KapuaRuntimeException;
 import org.eclipse.kapua.commons.model.id.KapuaEid;
-import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
-import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.KapuaEntity;
 import org.eclipse.kapua.model.KapuaEntityCreator;
 import org.eclipse.kapua.model.domain.Actions;
@@ -27,7 +23,6 @@ import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
 import org.eclipse.kapua.service.KapuaEntityService;
 import org.eclipse.kapua.service.account.Account;
-import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.authorization.AuthorizationService;
 import org.eclipse.kapua.service.authorization.group.Group;
 import org.eclipse.kapua.service.authorization.permission.Permission;
@@ -52,9 +47,6 @@ public class PermissionImpl extends WildcardPermission implements Permission, or
 
     private static final long serialVersionUID = 1480557438886065675L;
 
-    private static final KapuaLocator LOCATOR = KapuaLocator.getInstance();
-    private static final AccountService ACCOUNT_SERVICE = LOCATOR.getService(AccountService.class);
-
     @Basic
     @Column(name = "domain", nullable = true, updatable = false)
     private String domain;
@@ -215,23 +207,17 @@ public class PermissionImpl extends WildcardPermission implements Permission, or
 
         Permission permission = (Permission) p;
 
-        if (KapuaId.ANY.equals(permission.getTargetScopeId())) {
-            setTargetScopeId(null);
-        }
-
-        if (Group.ANY.equals(permission.getGroupId())) {
-            setGroupId(null);
+        if (!impliesDomain(getDomain(), permission.getDomain()) ||
+                !impliesAction(getAction(), permission.getAction()) ||
+                !impliesGroupId(getGroupId(), permission.getGroupId())) {
+            return false;
         }
 
-        setParts(toString());
-
-        boolean implies = super.implies(p);
-
-        if (!implies && permission.getTargetScopeId() != null && getForwardable()) {
-            implies = forwardPermission(p);
+        if (impliesTargetScopeId(getTargetScopeId(), permission.getTargetScopeId())) {
+            return true;
         }
 
-        return implies;
+        return permission.getTargetScopeId() != null && getForwardable() && forwardPermission(p);
     }
 
     /**
@@ -251,7 +237,11 @@ public class PermissionImpl extends WildcardPermission implements Permission, or
      * <br>
      * User 'A' tries to access a resource of account 'B' an the direct check {@link org.apache.shiro.authz.Permission#implies(org.apache.shiro.authz.Permission)} fails.
      * So this method searches the parent account path of account 'B', found that 'A' is a parent of 'B'
-     * so then {@code this} {@link Permission} is checked again with 'B' as scopeId.
+     * so then {@code this} {@link Permission} is valid for 'B' as well.
+     * </p>
+     * <p>
+     * The other parts of the {@link Permission} are expected to be already checked.
+     * The {@link Account#getParentAccountPath()}s are read through the {@link AccountAncestryCache}.
      * </p>
      *
      * @param p The permission to check against.
@@ -261,25 +251,73 @@ public class PermissionImpl extends WildcardPermission implements Permission, or
     private boolean forwardPermission(org.apache.shiro.authz.Permission p) {
         Permission permission = (Permission) p;
 
-        try {
-            Account account = KapuaSecurityUtils.doPrivileged(() -> ACCOUNT_SERVICE.find(permission.getTargetScopeId()));
+        return getTargetScopeId() != null && AccountAncestryCache.getInstance().isDescendant(getTargetScopeId(), permission.getTargetScopeId());
+    }
+
+    /**
+     * Checks whether the granted {@link Permission#getDomain()} implies the required one.
+     * <p>
+     * A {@code null} granted domain implies any domain. The comparison is case insensitive, like the {@link WildcardPermission} one.
+     *
+     * @param grantedDomain  The granted {@link Permission#getDomain()}.
+     * @param requiredDomain The required {@link Permission#getDomain()}.
+     * @return {@code true} if the granted domain implies the required one, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    static boolean impliesDomain(String grantedDomain, String requiredDomain) {
+        return grantedDomain == null || grantedDomain.equalsIgnoreCase(requiredDomain);
+    }
+
+    /**
+     * Checks whether the granted {@link Permission#getAction()} implies the required one.
+     * <p>
+     * A {@code null} granted action implies any action.
+     *
+     * @param grantedAction  The granted {@link Permission#getAction()}.
+     * @param requiredAction The required {@link Permission#getAction()}.
+     * @return {@code true} if the granted action implies the required one, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    static boolean impliesAction(Actions grantedAction, Actions requiredAction) {
+        return grantedAction == null || grantedAction == requiredAction;
+    }
 
-            if (account != null && account.getScopeId() != null) {
-                String parentAccountPath = account.getParentAccountPath();
+    /**
+     * Checks whether the granted {@link Permission#getTargetScopeId()} implies the required one, without forwarding.
+     * <p>
+     * A {@code null} granted scope implies any scope and a {@link KapuaId#ANY} required scope is implied by any scope.
+     *
+     * @param grantedTargetScopeId  The granted {@link Permission#getTargetScopeId()}.
+     * @param requiredTargetScopeId The required {@link Permission#getTargetScopeId()}.
+     * @return {@code true} if the granted scope implies the required one, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    static boolean impliesTargetScopeId(KapuaId grantedTargetScopeId, KapuaId requiredTargetScopeId) {
+        return impliesId(grantedTargetScopeId, requiredTargetScopeId, KapuaId.ANY);
+    }
 
-                // If it doesn't contain the scope id in the parent, don't even try to check against
-                if (parentAccountPath.contains("/" + getTargetScopeId().toStringId() + "/")) {
-                    setTargetScopeId(permission.getTargetScopeId());
-                    setParts(toString());
+    /**
+     * Checks whether the granted {@link Permission#getGroupId()} implies the required one.
+     * <p>
+     * A {@code null} granted group implies any group and a {@link Group#ANY} required group is implied by any group.
+     *
+     * @param grantedGroupId  The granted {@link Permission#getGroupId()}.
+     * @param requiredGroupId The required {@link Permission#getGroupId()}.
+     * @return {@code true} if the granted group implies the required one, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    static boolean impliesGroupId(KapuaId grantedGroupId, KapuaId requiredGroupId) {
+        return impliesId(grantedGroupId, requiredGroupId, Group.ANY);
+    }
 
-                    return super.implies(p);
-                }
-            }
-        } catch (KapuaException e) {
-            throw KapuaRuntimeException.internalError(e, "Error while forwarding permission: " + p.toString());
+    private static boolean impliesId(KapuaId grantedId, KapuaId requiredId, KapuaId anyId) {
+        if (grantedId == null) {
+            return true;
         }
-
-        return false;
+        if (requiredId == null) {
+            return false;
+        }
+        return anyId.getId().equals(requiredId.getId()) || grantedId.getId().equals(requiredId.getId());
     }
 
     @Override
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.permission.shiro;
+
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authorization.group.Group;
+import org.eclipse.kapua.service.authorization.permission.Permission;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable index of a set of granted {@link Permission}s.
+ * <p>
+ * The granted {@link Permission}s are indexed by {@link Permission#getDomain()}, {@link Permission#getAction()}, {@link Permission#getTargetScopeId()}
+ * and {@link Permission#getGroupId()}, so that {@link #implies(Permission)} is a few lookups instead of a {@link PermissionImpl#implies(org.apache.shiro.authz.Permission)}
+ * call for each granted {@link Permission}.
+ * It gives the same result as checking each granted {@link PermissionImpl}.
+ * <p>
+ * The {@link Permission#getForwardable()} {@link Permission}s are checked against the ancestors of the required {@link Permission#getTargetScopeId()}
+ * read from the {@link AccountAncestryCache}.
+ *
+ * @since 1.5.0
+ */
+public class PermissionIndex {
+
+    private final DomainPermissions anyDomainPermissions;
+    private final Map<String, DomainPermissions> domainPermissions;
+    private final AccountAncestryCache accountAncestryCache;
+
+    /**
+     * Constructor.
+     *
+     * @param permissions The granted {@link Permission}s.
+     * @since 1.5.0
+     */
+    public PermissionIndex(Collection<? extends Permission> permissions) {
+        this(permissions, AccountAncestryCache.getInstance());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param permissions          The granted {@link Permission}s.
+     * @param accountAncestryCache The {@link AccountAncestryCache} to check the {@link Permission#getForwardable()} {@link Permission}s.
+     * @since 1.5.0
+     */
+    public PermissionIndex(Collection<? extends Permission> permissions, AccountAncestryCache accountAncestryCache) {
+        DomainPermissionsBuilder anyDomainBuilder = new DomainPermissionsBuilder();
+        Map<String, DomainPermissionsBuilder> domainBuilders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Permission permission : permissions) {
+            DomainPermissionsBuilder domainBuilder = permission.getDomain() == null ? anyDomainBuilder : domainBuilders.computeIfAbsent(permission.getDomain(), domain -> new DomainPermissionsBuilder());
+            domainBuilder.add(permission);
+        }
+
+        Map<String, DomainPermissions> domainPermissions = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        domainBuilders.forEach((domain, domainBuilder) -> domainPermissions.put(domain, domainBuilder.build()));
+
+        this.anyDomainPermissions = anyDomainBuilder.build();
+        this.domainPermissions = Collections.unmodifiableMap(domainPermissions);
+        this.accountAncestryCache = accountAncestryCache;
+    }
+
+    /**
+     * Checks whether the granted {@link Permission}s imply the given required {@link Permission}.
+     *
+     * @param permission The required {@link Permission}.
+     * @return {@code true} if at least one of the granted {@link Permission}s implies the required one, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public boolean implies(Permission permission) {
+        DomainPermissions requiredDomainPermissions = permission.getDomain() != null ? domainPermissions.get(permission.getDomain()) : null;
+
+        return (requiredDomainPermissions != null && requiredDomainPermissions.implies(permission, accountAncestryCache)) ||
+                anyDomainPermissions.implies(permission, accountAncestryCache);
+    }
+
+    /**
+     * The granted {@link Permission}s of a {@link Permission#getDomain()}.
+     */
+    private static class DomainPermissions {
+
+        private final ActionPermissions anyActionPermissions;
+        private final Map<Actions, ActionPermissions> actionPermissions;
+
+        private DomainPermissions(ActionPermissions anyActionPermissions, Map<Actions, ActionPermissions> actionPermissions) {
+            this.anyActionPermissions = anyActionPermissions;
+            this.actionPermissions = actionPermissions;
+        }
+
+        private boolean implies(Permission permission, AccountAncestryCache accountAncestryCache) {
+            ActionPermissions requiredActionPermissions = permission.getAction() != null ? actionPermissions.get(permission.getAction()) : null;
+
+            return (requiredActionPermissions != null && requiredActionPermissions.implies(permission, accountAncestryCache)) ||
+                    anyActionPermissions.implies(permission, accountAncestryCache);
+        }
+    }
+
+    /**
+     * The granted {@link Permission}s of a {@link Permission#getDomain()} and a {@link Permission#getAction()}.
+     */
+    private static class ActionPermissions {
+
+        private static final ActionPermissions EMPTY = new ActionPermissions(GroupPermissions.EMPTY, GroupPermissions.EMPTY, Collections.emptyMap(), new BigInteger[0], new GroupPermissions[0]);
+
+        private final GroupPermissions anyScopePermissions;
+        private final GroupPermissions allScopesPermissions;
+        private final Map<BigInteger, GroupPermissions> scopePermissions;
+        private final BigInteger[] forwardableScopeIds;
+        private final GroupPermissions[] forwardablePermissions;
+
+        /**
+         * @param anyScopePermissions    The granted {@link Permission}s with a {@code null} {@link Permission#getTargetScopeId()}.
+         * @param allScopesPermissions   The granted {@link Permission}s of all the {@link Permission#getTargetScopeId()}s, used when the required one is {@link KapuaId#ANY}.
+         * @param scopePermissions       The granted {@link Permission}s by {@link Permission#getTargetScopeId()}.
+         * @param forwardableScopeIds    The {@link Permission#getTargetScopeId()}s of the {@link Permission#getForwardable()} {@link Permission}s.
+         * @param forwardablePermissions The {@link Permission#getForwardable()} {@link Permission}s of each one of the forwardableScopeIds.
+         */
+        private ActionPermissions(GroupPermissions anyScopePermissions, GroupPermissions allScopesPermissions, Map<BigInteger, GroupPermissions> scopePermissions, BigInteger[] forwardableScopeIds, GroupPermissions[] forwardablePermissions) {
+            this.anyScopePermissions = anyScopePermissions;
+            this.allScopesPermissions = allScopesPermissions;
+            this.scopePermissions = scopePermissions;
+            this.forwardableScopeIds = forwardableScopeIds;
+            this.forwardablePermissions = forwardablePermissions;
+        }
+
+        private boolean implies(Permission permission, AccountAncestryCache accountAncestryCache) {
+            KapuaId targetScopeId = permission.getTargetScopeId();
+            KapuaId groupId = permission.getGroupId();
+
+            if (anyScopePermissions.implies(groupId)) {
+                return true;
+            }
+            if (targetScopeId == null) {
+                return false;
+            }
+            if (KapuaId.ANY.getId().equals(targetScopeId.getId())) {
+                return allScopesPermissions.implies(groupId);
+            }
+
+            GroupPermissions targetScopePermissions = scopePermissions.get(targetScopeId.getId());
+            if (targetScopePermissions != null && targetScopePermissions.implies(groupId)) {
+                return true;
+            }
+
+            if (forwardableScopeIds.length > 0) {
+                Set<BigInteger> ancestorIds = accountAncestryCache.getAncestorIds(targetScopeId);
+                for (int i = 0; i < forwardableScopeIds.length; i++) {
+                    if (ancestorIds.contains(forwardableScopeIds[i]) && forwardablePermissions[i].implies(groupId)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The granted {@link Permission#getGroupId()}s of a {@link Permission#getDomain()}, a {@link Permission#getAction()} and a {@link Permission#getTargetScopeId()}.
+     */
+    private static class GroupPermissions {
+
+        private static final GroupPermissions EMPTY = new GroupPermissions(false, Collections.emptySet());
+
+        private final boolean anyGroup;
+        private final Set<BigInteger> groupIds;
+
+        private GroupPermissions(boolean anyGroup, Set<BigInteger> groupIds) {
+            this.anyGroup = anyGroup;
+            this.groupIds = groupIds;
+        }
+
+        private boolean implies(KapuaId groupId) {
+            if (anyGroup) {
+                return true;
+            }
+            if (groupId == null) {
+                return false;
+            }
+            return Group.ANY.getId().equals(groupId.getId()) ? !groupIds.isEmpty() : groupIds.contains(groupId.getId());
+        }
+    }
+
+    private static class DomainPermissionsBuilder {
+
+        private final ActionPermissionsBuilder anyActionBuilder = new ActionPermissionsBuilder();
+        private final Map<Actions, ActionPermissionsBuilder> actionBuilders = new EnumMap<>(Actions.class);
+
+        private void add(Permission permission) {
+            ActionPermissionsBuilder actionBuilder = permission.getAction() == null ? anyActionBuilder : actionBuilders.computeIfAbsent(permission.getAction(), action -> new ActionPermissionsBuilder());
+            actionBuilder.add(permission);
+        }
+
+        private DomainPermissions build() {
+            Map<Actions, ActionPermissions> actionPermissions = new EnumMap<>(Actions.class);
+            actionBuilders.forEach((action, actionBuilder) -> actionPermissions.put(action, actionBuilder.build()));
+            return new DomainPermissions(anyActionBuilder.build(), actionPermissions);
+        }
+    }
+
+    private static class ActionPermissionsBuilder {
+
+        private final GroupPermissionsBuilder anyScopeBuilder = new GroupPermissionsBuilder();
+        private final GroupPermissionsBuilder allScopesBuilder = new GroupPermissionsBuilder();
+        private final Map<BigInteger, GroupPermissionsBuilder> scopeBuilders = new HashMap<>();
+        private final Map<BigInteger, GroupPermissionsBuilder> forwardableBuilders = new HashMap<>();
+
+        private void add(Permission permission) {
+            KapuaId targetScopeId = permission.getTargetScopeId();
+            if (targetScopeId == null) {
+                anyScopeBuilder.add(permission.getGroupId());
+                return;
+            }
+
+            allScopesBuilder.add(permission.getGroupId());
+            scopeBuilders.computeIfAbsent(targetScopeId.getId(), scopeId -> new GroupPermissionsBuilder()).add(permission.getGroupId());
+            if (permission.getForwardable()) {
+                forwardableBuilders.computeIfAbsent(targetScopeId.getId(), scopeId -> new GroupPermissionsBuilder()).add(permission.getGroupId());
+            }
+        }
+
+        private ActionPermissions build() {
+            if (anyScopeBuilder.isEmpty() && scopeBuilders.isEmpty()) {
+                return ActionPermissions.EMPTY;
+            }
+
+            Map<BigInteger, GroupPermissions> scopePermissions = new HashMap<>();
+            scopeBuilders.forEach((scopeId, groupBuilder) -> scopePermissions.put(scopeId, groupBuilder.build()));
+
+            List<BigInteger> forwardableScopeIds = new ArrayList<>(forwardableBuilders.keySet());
+            GroupPermissions[] forwardablePermissions = new GroupPermissions[forwardableScopeIds.size()];
+            for (int i = 0; i < forwardablePermissions.length; i++) {
+                forwardablePermissions[i] = forwardableBuilders.get(forwardableScopeIds.get(i)).build();
+            }
+
+            return new ActionPermissions(
+                    anyScopeBuilder.build(),
+                    allScopesBuilder.build(),
+                    scopePermissions,
+                    forwardableScopeIds.toArray(new BigInteger[0]),
+                    forwardablePermissions);
+        }
+    }
+
+    private static class GroupPermissionsBuilder {
+
+        private boolean empty = true;
+        private boolean anyGroup;
+        private final Set<BigInteger> groupIds = new HashSet<>();
+
+        private void add(KapuaId groupId) {
+            empty = false;
+            if (groupId == null) {
+                anyGroup = true;
+            } else {
+                groupIds.add(groupId.getId());
+            }
+        }
+
+        private boolean isEmpty() {
+            return empty;
+        }
+
+        private GroupPermissions build() {
+            if (empty) {
+                return GroupPermissions.EMPTY;
+            }
+            return new GroupPermissions(anyGroup, anyGroup ? Collections.emptySet() : Collections.unmodifiableSet(new HashSet<>(groupIds)));
+        }
+    }
+}
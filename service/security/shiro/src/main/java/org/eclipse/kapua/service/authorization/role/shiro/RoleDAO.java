@@ -18,9 +18,13 @@ import org.eclipse.kapua.commons.jpa.EntityManager;
 import org.eclipse.kapua.commons.service.internal.ServiceDAO;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.service.authorization.access.AccessInfo;
 import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RoleCreator;
 import org.eclipse.kapua.service.authorization.role.RoleListResult;
+import org.eclipse.kapua.service.user.User;
+
+import javax.persistence.TypedQuery;
 
 /**
  * Role DAO
@@ -114,4 +118,23 @@ public class RoleDAO extends ServiceDAO {
             throws KapuaEntityNotFoundException {
         return ServiceDAO.delete(em, RoleImpl.class, scopeId, roleId);
     }
+
+    /**
+     * Finds all the {@link Role}s assigned to the {@link AccessInfo}s of the given {@link User}, with a single query.
+     *
+     * @param em      The {@link EntityManager}.
+     * @param scopeId The {@link User#getScopeId()}.
+     * @param userId  The {@link User#getId()}.
+     * @return The {@link RoleListResult} of the {@link Role}s assigned to the {@link User}.
+     * @since 1.5.0
+     */
+    public static RoleListResult findByUserId(EntityManager em, KapuaId scopeId, KapuaId userId) {
+        TypedQuery<Role> query = em.createNamedQuery("Role.findByUserId", Role.class);
+        query.setParameter("scopeId", scopeId.getId());
+        query.setParameter("userId", userId.getId());
+
+        RoleListResult result = new RoleListResultImpl();
+        result.addItems(query.getResultList());
+        return result;
+    }
 }
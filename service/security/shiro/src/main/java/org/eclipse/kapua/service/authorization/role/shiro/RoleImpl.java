@@ -18,6 +18,8 @@ import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.authorization.role.Role;
 
 import javax.persistence.Entity;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.Table;
 
 /**
@@ -26,6 +28,9 @@ import javax.persistence.Table;
  * @since 1.0.0
  */
 @Entity(name = "Role")
+@NamedQueries({
+        @NamedQuery(name = "Role.findByUserId", query = "SELECT DISTINCT r FROM Role r, AccessRole ar, AccessInfo ai WHERE ai.scopeId.eid = :scopeId AND ai.userId.eid = :userId AND ar.scopeId.eid = ai.scopeId.eid AND ar.accessInfoId.eid = ai.id.eid AND r.scopeId.eid = ar.scopeId.eid AND r.id.eid = ar.roleId.eid")
+})
 @Table(name = "athz_role")
 public class RoleImpl extends AbstractKapuaNamedEntity implements Role {
 
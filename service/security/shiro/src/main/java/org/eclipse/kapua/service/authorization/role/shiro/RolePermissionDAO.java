@@ -18,9 +18,14 @@ import org.eclipse.kapua.commons.jpa.EntityManager;
 import org.eclipse.kapua.commons.service.internal.ServiceDAO;
 import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.model.query.KapuaQuery;
+import org.eclipse.kapua.service.authorization.access.AccessInfo;
+import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RolePermission;
 import org.eclipse.kapua.service.authorization.role.RolePermissionCreator;
 import org.eclipse.kapua.service.authorization.role.RolePermissionListResult;
+import org.eclipse.kapua.service.user.User;
+
+import javax.persistence.TypedQuery;
 
 /**
  * {@link RolePermission} DAO
@@ -99,4 +104,23 @@ public class RolePermissionDAO extends ServiceDAO {
     public static RolePermission delete(EntityManager em, KapuaId scopeId, KapuaId rolePermissionId) throws KapuaEntityNotFoundException {
         return ServiceDAO.delete(em, RolePermissionImpl.class, scopeId, rolePermissionId);
     }
+
+    /**
+     * Finds all the {@link RolePermission}s of the {@link Role}s assigned to the {@link AccessInfo}s of the given {@link User}, with a single query.
+     *
+     * @param em      The {@link EntityManager}.
+     * @param scopeId The {@link User#getScopeId()}.
+     * @param userId  The {@link User#getId()}.
+     * @return The {@link RolePermissionListResult} of the {@link RolePermission}s of the {@link Role}s assigned to the {@link User}.
+     * @since 1.5.0
+     */
+    public static RolePermissionListResult findByUserId(EntityManager em, KapuaId scopeId, KapuaId userId) {
+        TypedQuery<RolePermission> query = em.createNamedQuery("RolePermission.findByUserId", RolePermission.class);
+        query.setParameter("scopeId", scopeId.getId());
+        query.setParameter("userId", userId.getId());
+
+        RolePermissionListResult result = new RolePermissionListResultImpl();
+        result.addItems(query.getResultList());
+        return result;
+    }
 }
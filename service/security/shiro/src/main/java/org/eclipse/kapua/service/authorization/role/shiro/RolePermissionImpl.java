@@ -25,6 +25,8 @@ import javax.persistence.AttributeOverrides;
 import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.Entity;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
 import java.util.Date;
@@ -35,6 +37,9 @@ import java.util.Date;
  * @since 1.0.0
  */
 @Entity(name = "RolePermission")
+@NamedQueries({
+        @NamedQuery(name = "RolePermission.findByUserId", query = "SELECT rp FROM RolePermission rp, Role r, AccessRole ar, AccessInfo ai WHERE ai.scopeId.eid = :scopeId AND ai.userId.eid = :userId AND ar.scopeId.eid = ai.scopeId.eid AND ar.accessInfoId.eid = ai.id.eid AND r.scopeId.eid = ar.scopeId.eid AND r.id.eid = ar.roleId.eid AND rp.scopeId.eid = r.scopeId.eid AND rp.roleId.eid = r.id.eid")
+})
 @Table(name = "athz_role_permission")
 public class RolePermissionImpl extends AbstractKapuaEntity implements RolePermission {
 
@@ -39,6 +39,7 @@ import org.eclipse.kapua.service.authorization.role.RolePermissionQuery;
 import org.eclipse.kapua.service.authorization.role.RolePermissionService;
 import org.eclipse.kapua.service.authorization.role.RoleService;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizationInfoCache;
 
 import java.util.AbstractMap;
 import java.util.ArrayList;
@@ -119,7 +120,10 @@ public class RolePermissionServiceImpl extends AbstractKapuaService implements R
         }
 
         return entityManagerSession.doTransactedAction(EntityManagerContainer.<RolePermission>create().onResultHandler(em -> RolePermissionDAO.create(em, rolePermissionCreator))
-                .onAfterHandler((entity) -> entityCache.removeList(entity.getScopeId(), entity.getRoleId())));
+                .onAfterHandler((entity) -> {
+                    entityCache.removeList(entity.getScopeId(), entity.getRoleId());
+                    KapuaAuthorizationInfoCache.getInstance().removeAll();
+                }));
     }
 
     @Override
@@ -147,6 +151,7 @@ public class RolePermissionServiceImpl extends AbstractKapuaService implements R
         }).onAfterHandler((entity) -> {
             entityCache.remove(scopeId, rolePermissionId);
             entityCache.removeList(scopeId, entity.getRoleId());
+            KapuaAuthorizationInfoCache.getInstance().removeAll();
         }));
     }
 
@@ -42,6 +42,7 @@ import org.eclipse.kapua.service.authorization.role.RolePermissionFactory;
 import org.eclipse.kapua.service.authorization.role.RoleQuery;
 import org.eclipse.kapua.service.authorization.role.RoleService;
 import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizationInfoCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -115,7 +116,7 @@ public class RoleServiceImpl extends AbstractKapuaConfigurableResourceLimitedSer
 
         //
         // Do create
-        return entityManagerSession.doTransactedAction(EntityManagerContainer.<Role>create().onResultHandler(em -> {
+        Role createdRole = entityManagerSession.doTransactedAction(EntityManagerContainer.<Role>create().onResultHandler(em -> {
             Role role = RoleDAO.create(em, roleCreator);
 
             if (!roleCreator.getPermissions().isEmpty()) {
@@ -132,6 +133,8 @@ public class RoleServiceImpl extends AbstractKapuaConfigurableResourceLimitedSer
 
             return role;
         }));
+        onChildEntityCreated(createdRole.getScopeId());
+        return createdRole;
     }
 
     @Override
@@ -173,7 +176,8 @@ public class RoleServiceImpl extends AbstractKapuaConfigurableResourceLimitedSer
                 .onBeforeHandler(() -> {
                     entityCache.remove(null, role);
                     return null;
-                }));
+                })
+                .onAfterHandler((entity) -> KapuaAuthorizationInfoCache.getInstance().removeAll()));
     }
 
     @Override
@@ -199,7 +203,11 @@ public class RoleServiceImpl extends AbstractKapuaConfigurableResourceLimitedSer
         //
         // Do delete
         entityManagerSession.doTransactedAction(EntityManagerContainer.<Role>create().onResultHandler(em -> RoleDAO.delete(em, scopeId, roleId))
-                .onAfterHandler((emptyParam) -> entityCache.remove(scopeId, roleId)));
+                .onAfterHandler((emptyParam) -> {
+                    entityCache.remove(scopeId, roleId);
+                    KapuaAuthorizationInfoCache.getInstance().removeAll();
+                }));
+        onChildEntityDeleted(scopeId);
     }
 
     @Override
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.apache.shiro.authz.AuthorizationInfo;
+import org.eclipse.kapua.service.authorization.permission.Permission;
+import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
+import org.eclipse.kapua.service.authorization.permission.shiro.PermissionIndex;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable {@link AuthorizationInfo} built by the {@link KapuaAuthorizingRealm}.
+ * <p>
+ * Along with the granted {@link PermissionImpl}s it holds their {@link PermissionIndex}, which is used by {@link KapuaAuthorizingRealm} to check the {@link Permission}s.
+ *
+ * @since 1.5.0
+ */
+public class KapuaAuthorizationInfo implements AuthorizationInfo {
+
+    private static final long serialVersionUID = -3457296785632453473L;
+
+    private final Set<String> roles;
+    private final Set<PermissionImpl> objectPermissions;
+    private transient volatile PermissionIndex permissionIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param roles       The granted role names.
+     * @param permissions The granted {@link PermissionImpl}s.
+     * @since 1.5.0
+     */
+    public KapuaAuthorizationInfo(Collection<String> roles, Collection<PermissionImpl> permissions) {
+        this.roles = Collections.unmodifiableSet(new LinkedHashSet<>(roles));
+        this.objectPermissions = new LinkedHashSet<>(permissions);
+        this.permissionIndex = new PermissionIndex(permissions);
+    }
+
+    @Override
+    public Collection<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public Collection<String> getStringPermissions() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Collection<org.apache.shiro.authz.Permission> getObjectPermissions() {
+        return Collections.unmodifiableSet(objectPermissions);
+    }
+
+    /**
+     * Checks whether the granted {@link PermissionImpl}s imply the given {@link Permission}.
+     *
+     * @param permission The required {@link Permission}.
+     * @return {@code true} if the given {@link Permission} is granted, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public boolean isPermitted(Permission permission) {
+        PermissionIndex index = permissionIndex;
+        if (index == null) {
+            // Not serialized, rebuilt after deserialization
+            index = new PermissionIndex(objectPermissions);
+            permissionIndex = index;
+        }
+        return index.implies(permission);
+    }
+}
@@ -0,0 +1,287 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.eclipse.kapua.commons.event.ServiceEventBusManager;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.commons.service.internal.cache.KapuaCacheManager;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.event.ServiceEventBusException;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.service.authorization.access.AccessInfo;
+import org.eclipse.kapua.service.authorization.role.Role;
+import org.eclipse.kapua.service.user.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.cache.Cache;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the {@link KapuaAuthorizationInfo} of each {@link User}.
+ * <p>
+ * The {@link KapuaAuthorizingRealm} stores here the snapshot of the {@link User} authorization data, so that it is not read again on each check.
+ * The services of the authorization module invalidate the snapshots when the data that they are built from changes:
+ * <ul>
+ *     <li>changes of an {@link AccessInfo} and of its permissions and {@link Role}s invalidate the snapshot of its {@link User}</li>
+ *     <li>changes of a {@link Role} and of its permissions invalidate all the snapshots, since they can be shared by any {@link User}</li>
+ * </ul>
+ * A snapshot read before an invalidation is not cached, since it could miss the change that caused the invalidation.
+ * The caches are created by the {@link KapuaCacheManager}, and follow its configuration.
+ * <p>
+ * Once {@link #subscribe(String)} is called, each invalidation is also published as a {@link ServiceEvent},
+ * so that the other nodes drop their snapshots too instead of serving them until they expire.
+ *
+ * @since 1.5.0
+ */
+public class KapuaAuthorizationInfoCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KapuaAuthorizationInfoCache.class);
+
+    private static final KapuaAuthorizationInfoCache INSTANCE = new KapuaAuthorizationInfoCache();
+
+    static final String OPERATION_REMOVE = "remove";
+    static final String OPERATION_REMOVE_BY_ACCESS_INFO_ID = "removeByAccessInfoId";
+    static final String OPERATION_REMOVE_ALL = "removeAll";
+
+    private final Cache<Serializable, Serializable> authorizationInfoByUserIdCache;
+    private final Cache<Serializable, Serializable> userIdByAccessInfoIdCache;
+    private final AtomicLong invalidationCount = new AtomicLong();
+    private volatile String eventAddress;
+
+    private KapuaAuthorizationInfoCache() {
+        this(KapuaCacheManager.getCache("KapuaAuthorizationInfoUserId"), KapuaCacheManager.getCache("KapuaAuthorizationInfoAccessInfoIdUserId"));
+    }
+
+    /**
+     * Constructor.
+     * <p>
+     * It is used by the tests to back the {@link KapuaAuthorizationInfoCache} with given {@link Cache}s.
+     *
+     * @param authorizationInfoByUserIdCache The {@link Cache} of the {@link KapuaAuthorizationInfo}s by {@link User#getId()}.
+     * @param userIdByAccessInfoIdCache      The {@link Cache} of the {@link User#getId()}s by {@link AccessInfo#getId()}.
+     * @since 1.5.0
+     */
+    KapuaAuthorizationInfoCache(Cache<Serializable, Serializable> authorizationInfoByUserIdCache, Cache<Serializable, Serializable> userIdByAccessInfoIdCache) {
+        this.authorizationInfoByUserIdCache = authorizationInfoByUserIdCache;
+        this.userIdByAccessInfoIdCache = userIdByAccessInfoIdCache;
+    }
+
+    /**
+     * Gets the {@link KapuaAuthorizationInfoCache} instance.
+     *
+     * @return The {@link KapuaAuthorizationInfoCache} instance.
+     * @since 1.5.0
+     */
+    public static KapuaAuthorizationInfoCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Gets the number of invalidations done so far.
+     * <p>
+     * It must be read before reading the data of a {@link KapuaAuthorizationInfo}, and given back to {@link #put(KapuaId, Collection, KapuaAuthorizationInfo, long)}.
+     *
+     * @return The number of invalidations done so far.
+     * @since 1.5.0
+     */
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    /**
+     * Gets the cached {@link KapuaAuthorizationInfo} of the given {@link User}.
+     *
+     * @param userId The {@link User#getId()}.
+     * @return The cached {@link KapuaAuthorizationInfo}, or {@code null} if it is not cached.
+     * @since 1.5.0
+     */
+    public KapuaAuthorizationInfo get(KapuaId userId) {
+        try {
+            return (KapuaAuthorizationInfo) authorizationInfoByUserIdCache.get(userId.getId());
+        } catch (Exception e) {
+            cacheErrorLogger("get", authorizationInfoByUserIdCache.getName(), userId.getId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the {@link KapuaAuthorizationInfo} of the given {@link User}.
+     *
+     * @param userId            The {@link User#getId()}.
+     * @param accessInfoIds     The {@link AccessInfo#getId()}s of the {@link User}, used to invalidate the {@link KapuaAuthorizationInfo} by {@link AccessInfo}.
+     * @param authorizationInfo The {@link KapuaAuthorizationInfo} to cache.
+     * @param invalidationCount The {@link #getInvalidationCount()} read before reading the data of the {@link KapuaAuthorizationInfo}.
+     * @since 1.5.0
+     */
+    public void put(KapuaId userId, Collection<KapuaId> accessInfoIds, KapuaAuthorizationInfo authorizationInfo, long invalidationCount) {
+        if (this.invalidationCount.get() != invalidationCount) {
+            return;
+        }
+
+        try {
+            for (KapuaId accessInfoId : accessInfoIds) {
+                userIdByAccessInfoIdCache.put(accessInfoId.getId(), userId.getId());
+            }
+            authorizationInfoByUserIdCache.put(userId.getId(), authorizationInfo);
+        } catch (Exception e) {
+            cacheErrorLogger("put", authorizationInfoByUserIdCache.getName(), userId.getId(), e);
+        }
+    }
+
+    /**
+     * Subscribes to the invalidations published by the other nodes, and starts publishing the ones of this node.
+     * <p>
+     * The subscription is not shared, so that each node receives all the invalidations.
+     *
+     * @param eventAddress The address where the invalidations are published.
+     * @throws ServiceEventBusException If the subscription fails.
+     * @since 1.5.0
+     */
+    public void subscribe(String eventAddress) throws ServiceEventBusException {
+        ServiceEventBusManager.getInstance().subscribe(eventAddress, null, this::onKapuaEvent);
+        this.eventAddress = eventAddress;
+    }
+
+    /**
+     * Removes the cached {@link KapuaAuthorizationInfo} of the given {@link User}.
+     *
+     * @param userId The {@link User#getId()}.
+     * @since 1.5.0
+     */
+    public void remove(KapuaId userId) {
+        doRemove(userId);
+        publish(newInvalidationEvent(OPERATION_REMOVE, User.TYPE, userId));
+    }
+
+    /**
+     * Removes the cached {@link KapuaAuthorizationInfo} of the {@link User} of the given {@link AccessInfo}.
+     *
+     * @param accessInfoId The {@link AccessInfo#getId()}.
+     * @since 1.5.0
+     */
+    public void removeByAccessInfoId(KapuaId accessInfoId) {
+        doRemoveByAccessInfoId(accessInfoId);
+        publish(newInvalidationEvent(OPERATION_REMOVE_BY_ACCESS_INFO_ID, AccessInfo.TYPE, accessInfoId));
+    }
+
+    /**
+     * Removes all the cached {@link KapuaAuthorizationInfo}s.
+     *
+     * @since 1.5.0
+     */
+    public void removeAll() {
+        doRemoveAll();
+        publish(newInvalidationEvent(OPERATION_REMOVE_ALL, null, null));
+    }
+
+    /**
+     * Applies an invalidation published by {@link #remove(KapuaId)}, {@link #removeByAccessInfoId(KapuaId)} or {@link #removeAll()}.
+     * <p>
+     * The invalidation is not published again.
+     *
+     * @param serviceEvent The {@link ServiceEvent} of the invalidation.
+     * @since 1.5.0
+     */
+    void onKapuaEvent(ServiceEvent serviceEvent) {
+        if (!KapuaAuthorizationInfoCache.class.getName().equals(serviceEvent.getService())) {
+            return;
+        }
+
+        if (OPERATION_REMOVE.equals(serviceEvent.getOperation())) {
+            doRemove(serviceEvent.getEntityId());
+        } else if (OPERATION_REMOVE_BY_ACCESS_INFO_ID.equals(serviceEvent.getOperation())) {
+            doRemoveByAccessInfoId(serviceEvent.getEntityId());
+        } else if (OPERATION_REMOVE_ALL.equals(serviceEvent.getOperation())) {
+            doRemoveAll();
+        } else {
+            LOG.warn("Discarding unknown invalidation operation {}", serviceEvent.getOperation());
+        }
+    }
+
+    /**
+     * Builds the {@link ServiceEvent} of an invalidation.
+     *
+     * @param operation  The invalidation operation.
+     * @param entityType The type of the invalidated entity, if any.
+     * @param entityId   The id of the invalidated entity, if any.
+     * @return The {@link ServiceEvent} of the invalidation.
+     * @since 1.5.0
+     */
+    static ServiceEvent newInvalidationEvent(String operation, String entityType, KapuaId entityId) {
+        ServiceEvent serviceEvent = new ServiceEvent();
+        serviceEvent.setTimestamp(new Date());
+        serviceEvent.setService(KapuaAuthorizationInfoCache.class.getName());
+        serviceEvent.setOperation(operation);
+        serviceEvent.setEntityType(entityType);
+        serviceEvent.setEntityId(entityId);
+
+        KapuaSession session = KapuaSecurityUtils.getSession();
+        if (session != null) {
+            serviceEvent.setScopeId(session.getScopeId());
+            serviceEvent.setUserId(session.getUserId());
+        }
+        return serviceEvent;
+    }
+
+    private void publish(ServiceEvent serviceEvent) {
+        if (eventAddress == null) {
+            return;
+        }
+
+        try {
+            ServiceEventBusManager.getInstance().publish(eventAddress, serviceEvent);
+        } catch (ServiceEventBusException e) {
+            LOG.warn("Error publishing the invalidation {} to {}: {}", serviceEvent.getOperation(), eventAddress, e.getMessage(), e);
+        }
+    }
+
+    private void doRemove(KapuaId userId) {
+        invalidationCount.incrementAndGet();
+        try {
+            authorizationInfoByUserIdCache.remove(userId.getId());
+        } catch (Exception e) {
+            cacheErrorLogger("remove", authorizationInfoByUserIdCache.getName(), userId.getId(), e);
+        }
+    }
+
+    private void doRemoveByAccessInfoId(KapuaId accessInfoId) {
+        invalidationCount.incrementAndGet();
+        try {
+            Serializable userId = userIdByAccessInfoIdCache.get(accessInfoId.getId());
+            if (userId != null) {
+                authorizationInfoByUserIdCache.remove(userId);
+            }
+        } catch (Exception e) {
+            cacheErrorLogger("removeByAccessInfoId", userIdByAccessInfoIdCache.getName(), accessInfoId.getId(), e);
+        }
+    }
+
+    private void doRemoveAll() {
+        invalidationCount.incrementAndGet();
+        try {
+            authorizationInfoByUserIdCache.clear();
+        } catch (Exception e) {
+            cacheErrorLogger("removeAll", authorizationInfoByUserIdCache.getName(), null, e);
+        }
+    }
+
+    private void cacheErrorLogger(String operation, String cacheName, Serializable keyId, Throwable t) {
+        LOG.warn("Cache error while performing {} on {} for key {} : {}", operation, cacheName, keyId, t.getLocalizedMessage());
+        LOG.debug("Cache exception", t);
+    }
+}
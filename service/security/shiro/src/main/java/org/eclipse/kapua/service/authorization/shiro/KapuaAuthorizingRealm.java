@@ -17,38 +17,37 @@ import org.apache.shiro.ShiroException;
 import org.apache.shiro.authc.AuthenticationException;
 import org.apache.shiro.authc.AuthenticationInfo;
 import org.apache.shiro.authc.AuthenticationToken;
-import org.apache.shiro.authc.UnknownAccountException;
 import org.apache.shiro.authz.AuthorizationInfo;
-import org.apache.shiro.authz.SimpleAuthorizationInfo;
 import org.apache.shiro.realm.AuthorizingRealm;
 import org.apache.shiro.subject.PrincipalCollection;
 import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.jpa.EntityManagerSession;
 import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.model.id.KapuaId;
-import org.eclipse.kapua.model.query.KapuaListResult;
 import org.eclipse.kapua.service.authorization.access.AccessInfo;
 import org.eclipse.kapua.service.authorization.access.AccessInfoAttributes;
 import org.eclipse.kapua.service.authorization.access.AccessInfoFactory;
 import org.eclipse.kapua.service.authorization.access.AccessInfoQuery;
-import org.eclipse.kapua.service.authorization.access.AccessInfoService;
 import org.eclipse.kapua.service.authorization.access.AccessPermission;
-import org.eclipse.kapua.service.authorization.access.AccessPermissionListResult;
-import org.eclipse.kapua.service.authorization.access.AccessPermissionService;
-import org.eclipse.kapua.service.authorization.access.AccessRole;
-import org.eclipse.kapua.service.authorization.access.AccessRoleListResult;
-import org.eclipse.kapua.service.authorization.access.AccessRoleService;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessInfoDAO;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessPermissionDAO;
+import org.eclipse.kapua.service.authorization.permission.Permission;
 import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
 import org.eclipse.kapua.service.authorization.role.Role;
 import org.eclipse.kapua.service.authorization.role.RolePermission;
-import org.eclipse.kapua.service.authorization.role.RolePermissionListResult;
-import org.eclipse.kapua.service.authorization.role.RolePermissionService;
-import org.eclipse.kapua.service.authorization.role.RoleService;
+import org.eclipse.kapua.service.authorization.role.shiro.RoleDAO;
+import org.eclipse.kapua.service.authorization.role.shiro.RolePermissionDAO;
 import org.eclipse.kapua.service.user.User;
 import org.eclipse.kapua.service.user.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * The JPA-based application's one and only configured Apache Shiro Realm.
  */
@@ -64,21 +63,34 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
 
     /**
      * Authorization.
+     * <p>
+     * The {@link KapuaAuthorizationInfo} is read from the {@link KapuaAuthorizationInfoCache}.
+     * If not cached, the {@link AccessPermission}s, the {@link Role}s and the {@link RolePermission}s of the {@link User} are read
+     * with one query each, regardless of the number of {@link Role}s.
      */
     @Override
     protected AuthorizationInfo doGetAuthorizationInfo(PrincipalCollection principals)
             throws AuthenticationException {
         //
         // Extract principal
-        String username = ((User) principals.getPrimaryPrincipal()).getName();
+        User principalUser = (User) principals.getPrimaryPrincipal();
+        String username = principalUser.getName();
         logger.debug("Getting authorization info for: {}", username);
 
+        //
+        // Check cache
+        KapuaAuthorizationInfoCache authorizationInfoCache = KapuaAuthorizationInfoCache.getInstance();
+        KapuaAuthorizationInfo cachedAuthorizationInfo = authorizationInfoCache.get(principalUser.getId());
+        if (cachedAuthorizationInfo != null) {
+            return cachedAuthorizationInfo;
+        }
+        long invalidationCount = authorizationInfoCache.getInvalidationCount();
+
         //
         // Get Services
         KapuaLocator locator = KapuaLocator.getInstance();
 
         UserService userService = locator.getService(UserService.class);
-        AccessInfoService accessInfoService = locator.getService(AccessInfoService.class);
         AccessInfoFactory accessInfoFactory = locator.getFactory(AccessInfoFactory.class);
 
         //
@@ -101,95 +113,65 @@ public class KapuaAuthorizingRealm extends AuthorizingRealm {
         }
 
         //
-        // Get user access infos
+        // Get user access infos, roles and permissions
         AccessInfoQuery accessInfoQuery = accessInfoFactory.newQuery(user.getScopeId());
         accessInfoQuery.setPredicate(accessInfoQuery.attributePredicate(AccessInfoAttributes.USER_ID, user.getId()));
 
-        final KapuaListResult<AccessInfo> accessInfos;
-        try {
-            accessInfos = KapuaSecurityUtils.doPrivileged(() -> accessInfoService.query(accessInfoQuery));
-        } catch (AuthenticationException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new ShiroException("Error while find access info!", e);
-        }
-
-        //
-        // Check existence
-        if (accessInfos == null) {
-            throw new UnknownAccountException();
-        }
+        List<KapuaId> accessInfoIds = new ArrayList<>();
+        Set<String> roles = new HashSet<>();
+        Set<PermissionImpl> permissions = new HashSet<>();
 
-        //
-        // Create SimpleAuthorizationInfo with principals permissions
-        SimpleAuthorizationInfo info = new SimpleAuthorizationInfo();
-
-        // Get user roles set and related permissions
-        for (AccessInfo accessInfo : accessInfos.getItems()) {
-
-            // Access Permissions
-            AccessPermissionService accessPermissionService = locator.getService(AccessPermissionService.class);
-            AccessPermissionListResult accessPermissions;
-            try {
-                accessPermissions = KapuaSecurityUtils.doPrivileged(() -> accessPermissionService.findByAccessInfoId(accessInfo.getScopeId(), accessInfo.getId()));
-            } catch (AuthenticationException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new ShiroException("Error while find access permissions!", e);
-            }
-
-            for (AccessPermission accessPermission : accessPermissions.getItems()) {
-                PermissionImpl p = accessPermission.getPermission();
-                logger.trace("User: {} has permission: {}", username, p);
-                info.addObjectPermission(p);
-            }
-
-            // Access Role Id
-            AccessRoleService accessRoleService = locator.getService(AccessRoleService.class);
-            AccessRoleListResult accessRoles;
-            try {
-                accessRoles = KapuaSecurityUtils.doPrivileged(() -> accessRoleService.findByAccessInfoId(accessInfo.getScopeId(), accessInfo.getId()));
-            } catch (AuthenticationException e) {
-                throw e;
-            } catch (Exception e) {
-                throw new ShiroException("Error while find access role ids!", e);
-            }
-
-            RoleService roleService = locator.getService(RoleService.class);
-            RolePermissionService rolePermissionService = locator.getService(RolePermissionService.class);
-            for (AccessRole accessRole : accessRoles.getItems()) {
-
-                KapuaId roleId = accessRole.getRoleId();
-
-                Role role;
-                try {
-                    role = KapuaSecurityUtils.doPrivileged(() -> roleService.find(accessRole.getScopeId(), roleId));
-                } catch (AuthenticationException e) {
-                    throw e;
-                } catch (Exception e) {
-                    throw new ShiroException("Error while find role ids!", e);
+        EntityManagerSession entityManagerSession = new EntityManagerSession(AuthorizationEntityManagerFactory.getInstance());
+        try {
+            entityManagerSession.doAction(em -> {
+                for (AccessInfo accessInfo : AccessInfoDAO.query(em, accessInfoQuery).getItems()) {
+                    accessInfoIds.add(accessInfo.getId());
                 }
 
-                info.addRole(role.getName());
-                final RolePermissionListResult rolePermissions;
-                try {
-                    rolePermissions = KapuaSecurityUtils.doPrivileged(() -> rolePermissionService.findByRoleId(role.getScopeId(), role.getId()));
-                } catch (Exception e) {
-                    throw new ShiroException("Error while find role permission!", e);
+                // Access Permissions
+                for (AccessPermission accessPermission : AccessPermissionDAO.findByUserId(em, user.getScopeId(), user.getId()).getItems()) {
+                    PermissionImpl p = accessPermission.getPermission();
+                    logger.trace("User: {} has permission: {}", username, p);
+                    permissions.add(p);
                 }
 
-                for (RolePermission rolePermission : rolePermissions.getItems()) {
+                // Access Roles
+                for (Role role : RoleDAO.findByUserId(em, user.getScopeId(), user.getId()).getItems()) {
+                    roles.add(role.getName());
+                }
 
+                // Access Roles Permissions
+                for (RolePermission rolePermission : RolePermissionDAO.findByUserId(em, user.getScopeId(), user.getId()).getItems()) {
                     PermissionImpl p = rolePermission.getPermission();
-                    logger.trace("Role: {} has permission: {}", role, p);
-                    info.addObjectPermission(p);
+                    logger.trace("Role: {} has permission: {}", rolePermission.getRoleId(), p);
+                    permissions.add(p);
                 }
-            }
+
+                return null;
+            });
+        } catch (Exception e) {
+            throw new ShiroException("Error while find authorization info!", e);
         }
 
         //
         // Return authorization info
-        return info;
+        KapuaAuthorizationInfo authorizationInfo = new KapuaAuthorizationInfo(roles, permissions);
+        authorizationInfoCache.put(user.getId(), accessInfoIds, authorizationInfo, invalidationCount);
+        return authorizationInfo;
+    }
+
+    /**
+     * Checks the {@link Permission} against the {@link KapuaAuthorizationInfo} index instead of checking each granted {@link PermissionImpl}.
+     *
+     * @since 1.5.0
+     */
+    @Override
+    protected boolean isPermitted(org.apache.shiro.authz.Permission permission, AuthorizationInfo info) {
+        if (info instanceof KapuaAuthorizationInfo && permission instanceof Permission) {
+            return ((KapuaAuthorizationInfo) info).isPermitted((Permission) permission);
+        }
+
+        return super.isPermitted(permission, info);
     }
 
     /**
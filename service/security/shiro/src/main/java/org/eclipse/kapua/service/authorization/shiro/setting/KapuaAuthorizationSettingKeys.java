@@ -20,7 +20,9 @@ import org.eclipse.kapua.commons.setting.SettingKey;
  */
 public enum KapuaAuthorizationSettingKeys implements SettingKey {
     AUTHORIZATION_KEY("authorization.key"),
-    AUTHORIZATION_EVENT_ADDRESS("authorization.eventAddress");
+    AUTHORIZATION_EVENT_ADDRESS("authorization.eventAddress"),
+    AUTHORIZATION_ACCOUNT_ANCESTRY_CACHE_SIZE_MAX("authorization.account.ancestry.cache.size.max"),
+    AUTHORIZATION_ACCOUNT_ANCESTRY_CACHE_TTL("authorization.account.ancestry.cache.ttl");
 
     private String key;
 
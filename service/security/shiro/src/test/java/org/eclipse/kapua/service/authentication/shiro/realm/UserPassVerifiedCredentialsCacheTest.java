@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authentication.shiro.realm;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authentication.credential.Credential;
+import org.eclipse.kapua.service.authentication.credential.CredentialStatus;
+import org.eclipse.kapua.service.authentication.credential.CredentialType;
+import org.eclipse.kapua.service.authentication.credential.shiro.CredentialImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+
+@Category(JUnitTests.class)
+public class UserPassVerifiedCredentialsCacheTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId OTHER_SCOPE_ID = new KapuaEid(BigInteger.valueOf(20));
+    private static final KapuaId USER_ID = new KapuaEid(BigInteger.valueOf(100));
+    private static final KapuaId OTHER_USER_ID = new KapuaEid(BigInteger.valueOf(200));
+
+    UserPassVerifiedCredentialsCache verifiedCredentialsCache;
+    Credential credential;
+
+    @Before
+    public void initialize() {
+        verifiedCredentialsCache = new UserPassVerifiedCredentialsCache(true, 100, 60000);
+        credential = newCredential(SCOPE_ID, USER_ID, BigInteger.ONE, "$2a$12$credentialKey");
+    }
+
+    @Test
+    public void isVerifiedTest() {
+        assertFalse("False expected.", verifiedCredentialsCache.isVerified("username", "password", credential));
+
+        verifiedCredentialsCache.putVerified("username", "password", credential);
+
+        assertTrue("True expected.", verifiedCredentialsCache.isVerified("username", "password", credential));
+        assertFalse("False expected.", verifiedCredentialsCache.isVerified("username", "otherPassword", credential));
+        assertFalse("False expected.", verifiedCredentialsCache.isVerified("otherUsername", "password", credential));
+    }
+
+    @Test
+    public void isVerifiedChangedCredentialTest() {
+        verifiedCredentialsCache.putVerified("username", "password", credential);
+
+        assertFalse("False expected.", verifiedCredentialsCache.isVerified("username", "password", newCredential(SCOPE_ID, USER_ID, BigInteger.ONE, "$2a$12$otherCredentialKey")));
+        assertFalse("False expected.", verifiedCredentialsCache.isVerified("username", "password", newCredential(SCOPE_ID, USER_ID, BigInteger.valueOf(2), "$2a$12$credentialKey")));
+        assertFalse("False expected.", verifiedCredentialsCache.isVerified("username", "password", newCredential(SCOPE_ID, OTHER_USER_ID, BigInteger.ONE, "$2a$12$credentialKey")));
+    }
+
+    @Test
+    public void isVerifiedDisabledTest() {
+        verifiedCredentialsCache = new UserPassVerifiedCredentialsCache(false, 100, 60000);
+        verifiedCredentialsCache.putVerified("username", "password", credential);
+
+        assertFalse("False expected.", verifiedCredentialsCache.isEnabled());
+        assertFalse("False expected.", verifiedCredentialsCache.isVerified("username", "password", credential));
+    }
+
+    @Test
+    public void removeByUserIdTest() {
+        Credential otherCredential = newCredential(SCOPE_ID, OTHER_USER_ID, BigInteger.valueOf(2), "$2a$12$otherCredentialKey");
+        verifiedCredentialsCache.putVerified("username", "password", credential);
+        verifiedCredentialsCache.putVerified("otherUsername", "password", otherCredential);
+
+        verifiedCredentialsCache.removeByUserId(USER_ID);
+
+        assertFalse("False expected.", verifiedCredentialsCache.isVerified("username", "password", credential));
+        assertTrue("True expected.", verifiedCredentialsCache.isVerified("otherUsername", "password", otherCredential));
+    }
+
+    @Test
+    public void removeByScopeIdTest() {
+        Credential otherCredential = newCredential(OTHER_SCOPE_ID, OTHER_USER_ID, BigInteger.valueOf(2), "$2a$12$otherCredentialKey");
+        verifiedCredentialsCache.putVerified("username", "password", credential);
+        verifiedCredentialsCache.putVerified("otherUsername", "password", otherCredential);
+
+        verifiedCredentialsCache.removeByScopeId(SCOPE_ID);
+
+        assertFalse("False expected.", verifiedCredentialsCache.isVerified("username", "password", credential));
+        assertTrue("True expected.", verifiedCredentialsCache.isVerified("otherUsername", "password", otherCredential));
+
+        verifiedCredentialsCache.removeAll();
+
+        assertFalse("False expected.", verifiedCredentialsCache.isVerified("otherUsername", "password", otherCredential));
+    }
+
+    private static Credential newCredential(KapuaId scopeId, KapuaId userId, BigInteger credentialId, String credentialKey) {
+        CredentialImpl credential = new CredentialImpl(scopeId, userId, CredentialType.PASSWORD, credentialKey, CredentialStatus.ENABLED, null);
+        credential.setId(new KapuaEid(credentialId));
+        return credential;
+    }
+}
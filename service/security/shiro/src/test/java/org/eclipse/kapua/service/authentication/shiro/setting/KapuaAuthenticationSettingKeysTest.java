@@ -30,6 +30,7 @@ public class KapuaAuthenticationSettingKeysTest extends Assert {
         assertEquals("Expected and actual values should be the same.", "authentication.session.jwt.cache.ttl", KapuaAuthenticationSettingKeys.AUTHENTICATION_SESSION_JWT_CACHE_CACHE_TTL.key());
         assertEquals("Expected and actual values should be the same.", "authentication.credential.userpass.cache.enabled", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_ENABLE.key());
         assertEquals("Expected and actual values should be the same.", "authentication.credential.userpass.cache.ttl", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_CACHE_TTL.key());
+        assertEquals("Expected and actual values should be the same.", "authentication.credential.userpass.cache.size.max", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_CACHE_SIZE_MAX.key());
         assertEquals("Expected and actual values should be the same.", "authentication.credential.userpass.password.minlength", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_USERPASS_PASSWORD_MINLENGTH.key());
         assertEquals("Expected and actual values should be the same.", "authentication.credential.jwt.audience.allowed", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_AUDIENCE_ALLOWED.key());
         assertEquals("Expected and actual values should be the same.", "authentication.credential.jwt.cache.enabled", KapuaAuthenticationSettingKeys.AUTHENTICATION_CREDENTIAL_JWT_CACHE_ENABLE.key());
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.permission.shiro;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.group.Group;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Category(JUnitTests.class)
+public class PermissionIndexTest extends Assert {
+
+    private static final KapuaId ROOT_ID = new KapuaEid(BigInteger.ONE);
+    private static final KapuaId PARENT_ID = new KapuaEid(BigInteger.valueOf(10));
+    private static final KapuaId CHILD_ID = new KapuaEid(BigInteger.valueOf(100));
+    private static final KapuaId OTHER_ID = new KapuaEid(BigInteger.valueOf(20));
+    private static final KapuaId GROUP_ID = new KapuaEid(BigInteger.valueOf(1000));
+    private static final KapuaId OTHER_GROUP_ID = new KapuaEid(BigInteger.valueOf(2000));
+
+    private static final String[] DOMAINS = {null, "device", "user"};
+    private static final Actions[] ACTIONS = {null, Actions.read, Actions.write};
+    private static final KapuaId[] SCOPE_IDS = {null, KapuaId.ANY, PARENT_ID, OTHER_ID};
+    private static final KapuaId[] GROUP_IDS = {null, Group.ANY, GROUP_ID, OTHER_GROUP_ID};
+
+    private final AtomicInteger readCount = new AtomicInteger();
+    private final Set<KapuaId> createdAccountIds = new HashSet<>(Arrays.asList(ROOT_ID, PARENT_ID, CHILD_ID, OTHER_ID));
+    private final AccountAncestryCache accountAncestryCache = new AccountAncestryCache(100, 60000, accountId -> {
+        readCount.incrementAndGet();
+        if (!createdAccountIds.contains(accountId)) {
+            return null;
+        } else if (ROOT_ID.equals(accountId)) {
+            return "/1";
+        } else if (CHILD_ID.equals(accountId)) {
+            return "/1/10/100";
+        } else if (PARENT_ID.equals(accountId) || OTHER_ID.equals(accountId)) {
+            return "/1/" + accountId.toStringId();
+        }
+        return null;
+    });
+
+    @Test
+    public void impliesSameAsPermissionImplTest() {
+        List<PermissionImpl> permissions = allPermissions();
+
+        for (PermissionImpl granted : permissions) {
+            PermissionIndex permissionIndex = new PermissionIndex(Collections.singletonList(granted), accountAncestryCache);
+
+            for (PermissionImpl required : permissions) {
+                assertEquals("Expected and actual values should be the same. Granted: " + granted + " - Required: " + required,
+                        granted.implies(required),
+                        permissionIndex.implies(required));
+            }
+        }
+    }
+
+    @Test
+    public void impliesDoesNotChangePermissionTest() {
+        PermissionImpl granted = new PermissionImpl("device", Actions.read, PARENT_ID, GROUP_ID);
+
+        assertTrue("True expected.", granted.implies(new PermissionImpl("device", Actions.read, KapuaId.ANY, Group.ANY)));
+        assertEquals("Expected and actual values should be the same.", PARENT_ID, granted.getTargetScopeId());
+        assertEquals("Expected and actual values should be the same.", GROUP_ID, granted.getGroupId());
+        assertFalse("False expected.", granted.implies(new PermissionImpl("device", Actions.read, OTHER_ID, GROUP_ID)));
+        assertFalse("False expected.", granted.implies(new PermissionImpl("device", Actions.read, PARENT_ID, OTHER_GROUP_ID)));
+    }
+
+    @Test
+    public void impliesMultiplePermissionsTest() {
+        PermissionIndex permissionIndex = new PermissionIndex(Arrays.asList(
+                new PermissionImpl("device", Actions.read, PARENT_ID, null),
+                new PermissionImpl("DEVICE", Actions.write, PARENT_ID, GROUP_ID),
+                new PermissionImpl("user", null, OTHER_ID, null)), accountAncestryCache);
+
+        assertTrue("True expected.", permissionIndex.implies(new PermissionImpl("device", Actions.read, PARENT_ID, OTHER_GROUP_ID)));
+        assertTrue("True expected.", permissionIndex.implies(new PermissionImpl("Device", Actions.write, PARENT_ID, GROUP_ID)));
+        assertFalse("False expected.", permissionIndex.implies(new PermissionImpl("device", Actions.write, PARENT_ID, OTHER_GROUP_ID)));
+        assertTrue("True expected.", permissionIndex.implies(new PermissionImpl("device", Actions.write, KapuaId.ANY, Group.ANY)));
+        assertTrue("True expected.", permissionIndex.implies(new PermissionImpl("user", Actions.delete, OTHER_ID, GROUP_ID)));
+        assertFalse("False expected.", permissionIndex.implies(new PermissionImpl("user", Actions.delete, PARENT_ID, GROUP_ID)));
+        assertFalse("False expected.", permissionIndex.implies(new PermissionImpl("account", Actions.read, PARENT_ID, null)));
+    }
+
+    @Test
+    public void impliesForwardableTest() {
+        PermissionIndex permissionIndex = new PermissionIndex(Arrays.asList(
+                new PermissionImpl("device", Actions.read, PARENT_ID, null, true),
+                new PermissionImpl("user", Actions.read, PARENT_ID, null, false)), accountAncestryCache);
+
+        assertTrue("True expected.", permissionIndex.implies(new PermissionImpl("device", Actions.read, CHILD_ID, null)));
+        assertFalse("False expected.", permissionIndex.implies(new PermissionImpl("device", Actions.read, OTHER_ID, null)));
+        assertFalse("False expected.", permissionIndex.implies(new PermissionImpl("device", Actions.read, ROOT_ID, null)));
+        assertFalse("False expected.", permissionIndex.implies(new PermissionImpl("user", Actions.read, CHILD_ID, null)));
+
+        // Ancestors are read once for each account
+        assertTrue("True expected.", permissionIndex.implies(new PermissionImpl("device", Actions.read, CHILD_ID, null)));
+        assertEquals("Expected and actual values should be the same.", 3, readCount.get());
+    }
+
+    @Test
+    public void getAncestorIdsTest() {
+        assertEquals("Expected and actual values should be the same.", 2, accountAncestryCache.getAncestorIds(CHILD_ID).size());
+        assertTrue("True expected.", accountAncestryCache.isDescendant(ROOT_ID, CHILD_ID));
+        assertTrue("True expected.", accountAncestryCache.isDescendant(PARENT_ID, CHILD_ID));
+        assertFalse("False expected.", accountAncestryCache.isDescendant(CHILD_ID, CHILD_ID));
+        assertFalse("False expected.", accountAncestryCache.isDescendant(OTHER_ID, CHILD_ID));
+        assertTrue("True expected.", accountAncestryCache.getAncestorIds(ROOT_ID).isEmpty());
+    }
+
+    @Test
+    public void getAncestorIdsNotFoundTest() {
+        KapuaId newAccountId = new KapuaEid(BigInteger.valueOf(101));
+        createdAccountIds.remove(CHILD_ID);
+
+        assertTrue("True expected.", accountAncestryCache.getAncestorIds(CHILD_ID).isEmpty());
+        assertTrue("True expected.", accountAncestryCache.getAncestorIds(newAccountId).isEmpty());
+
+        // The account created after the miss is found by the next lookup
+        createdAccountIds.add(CHILD_ID);
+        assertTrue("True expected.", accountAncestryCache.isDescendant(PARENT_ID, CHILD_ID));
+        assertEquals("Expected and actual values should be the same.", 3, readCount.get());
+
+        assertTrue("True expected.", accountAncestryCache.isDescendant(PARENT_ID, CHILD_ID));
+        assertEquals("Expected and actual values should be the same.", 3, readCount.get());
+    }
+
+    private static List<PermissionImpl> allPermissions() {
+        List<PermissionImpl> permissions = new ArrayList<>();
+        for (String domain : DOMAINS) {
+            for (Actions action : ACTIONS) {
+                for (KapuaId scopeId : SCOPE_IDS) {
+                    for (KapuaId groupId : GROUP_IDS) {
+                        permissions.add(new PermissionImpl(domain, action, scopeId, groupId));
+                    }
+                }
+            }
+        }
+        return permissions;
+    }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.eclipse.kapua.commons.cache.LocalCache;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import javax.cache.Cache;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class KapuaAuthorizationInfoCacheTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId USER_ID = new KapuaEid(BigInteger.valueOf(20));
+    private static final KapuaId ACCESS_INFO_ID = new KapuaEid(BigInteger.valueOf(30));
+
+    private KapuaAuthorizationInfoCache authorizationInfoCache;
+    private KapuaAuthorizationInfo authorizationInfo;
+
+    @Before
+    public void initialize() {
+        authorizationInfoCache = new KapuaAuthorizationInfoCache(newLocalCache("KapuaAuthorizationInfoUserId"), newLocalCache("KapuaAuthorizationInfoAccessInfoIdUserId"));
+        authorizationInfo = new KapuaAuthorizationInfo(
+                Collections.singletonList("admin"),
+                Collections.singletonList(new PermissionImpl("device", Actions.read, SCOPE_ID, null)));
+    }
+
+    @Test
+    public void putTest() {
+        authorizationInfoCache.put(USER_ID, Collections.singletonList(ACCESS_INFO_ID), authorizationInfo, authorizationInfoCache.getInvalidationCount());
+
+        assertSame("Expected and actual values should be the same.", authorizationInfo, authorizationInfoCache.get(USER_ID));
+    }
+
+    @Test
+    public void removeDuringLoadTest() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+
+        // The loader reads the invalidation count, then reads the data while the snapshot is invalidated
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> loader = executor.submit(() -> {
+                long invalidationCount = authorizationInfoCache.getInvalidationCount();
+                loading.countDown();
+                invalidated.await(10, TimeUnit.SECONDS);
+                authorizationInfoCache.put(USER_ID, Collections.singletonList(ACCESS_INFO_ID), authorizationInfo, invalidationCount);
+                return null;
+            });
+
+            assertTrue("True expected.", loading.await(10, TimeUnit.SECONDS));
+            authorizationInfoCache.remove(USER_ID);
+            invalidated.countDown();
+            loader.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // The stale snapshot is not cached
+        assertNull("Null expected.", authorizationInfoCache.get(USER_ID));
+
+        // A snapshot read after the invalidation is cached
+        authorizationInfoCache.put(USER_ID, Collections.singletonList(ACCESS_INFO_ID), authorizationInfo, authorizationInfoCache.getInvalidationCount());
+        assertSame("Expected and actual values should be the same.", authorizationInfo, authorizationInfoCache.get(USER_ID));
+    }
+
+    @Test
+    public void removeByAccessInfoIdTest() {
+        authorizationInfoCache.put(USER_ID, Collections.singletonList(ACCESS_INFO_ID), authorizationInfo, authorizationInfoCache.getInvalidationCount());
+
+        long invalidationCount = authorizationInfoCache.getInvalidationCount();
+        authorizationInfoCache.removeByAccessInfoId(ACCESS_INFO_ID);
+        assertNull("Null expected.", authorizationInfoCache.get(USER_ID));
+
+        authorizationInfoCache.put(USER_ID, Collections.singletonList(ACCESS_INFO_ID), authorizationInfo, invalidationCount);
+        assertNull("Null expected.", authorizationInfoCache.get(USER_ID));
+    }
+
+    @Test
+    public void removeAllDuringLoadTest() {
+        KapuaId otherUserId = new KapuaEid(BigInteger.valueOf(21));
+        authorizationInfoCache.put(otherUserId, Collections.emptyList(), authorizationInfo, authorizationInfoCache.getInvalidationCount());
+
+        long invalidationCount = authorizationInfoCache.getInvalidationCount();
+        authorizationInfoCache.removeAll();
+        authorizationInfoCache.put(USER_ID, Collections.singletonList(ACCESS_INFO_ID), authorizationInfo, invalidationCount);
+
+        assertNull("Null expected.", authorizationInfoCache.get(otherUserId));
+        assertNull("Null expected.", authorizationInfoCache.get(USER_ID));
+    }
+
+    /**
+     * Creates a {@link Cache} backed by a {@link LocalCache}, which is not a JCache implementation.
+     */
+    @SuppressWarnings("unchecked")
+    private static Cache<Serializable, Serializable> newLocalCache(String name) {
+        LocalCache<Serializable, Serializable> localCache = new LocalCache<>(100, null);
+
+        Cache<Serializable, Serializable> cache = Mockito.mock(Cache.class);
+        Mockito.when(cache.getName()).thenReturn(name);
+        Mockito.when(cache.get(Mockito.any(Serializable.class))).thenAnswer(invocation -> localCache.get((Serializable) invocation.getArguments()[0]));
+        Mockito.doAnswer(invocation -> {
+            localCache.put((Serializable) invocation.getArguments()[0], (Serializable) invocation.getArguments()[1]);
+            return null;
+        }).when(cache).put(Mockito.any(Serializable.class), Mockito.any(Serializable.class));
+        Mockito.when(cache.remove(Mockito.any(Serializable.class))).thenAnswer(invocation -> {
+            localCache.remove((Serializable) invocation.getArguments()[0]);
+            return true;
+        });
+        Mockito.doAnswer(invocation -> {
+            localCache.invalidateAll();
+            return null;
+        }).when(cache).clear();
+        return cache;
+    }
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.authorization.shiro;
+
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.event.ServiceEvent;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.access.AccessInfo;
+import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
+import org.eclipse.kapua.service.user.User;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+
+import javax.cache.Cache;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+
+@Category(JUnitTests.class)
+public class KapuaAuthorizationInfoTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.TEN);
+    private static final KapuaId OTHER_SCOPE_ID = new KapuaEid(BigInteger.valueOf(20));
+
+    @Test
+    public void kapuaAuthorizationInfoTest() {
+        KapuaAuthorizationInfo authorizationInfo = new KapuaAuthorizationInfo(
+                Collections.singletonList("admin"),
+                Arrays.asList(new PermissionImpl("device", Actions.read, SCOPE_ID, null), new PermissionImpl("device", Actions.read, SCOPE_ID, null)));
+
+        assertEquals("Expected and actual values should be the same.", Collections.singleton("admin"), authorizationInfo.getRoles());
+        assertEquals("Expected and actual values should be the same.", 1, authorizationInfo.getObjectPermissions().size());
+        assertTrue("True expected.", authorizationInfo.getStringPermissions().isEmpty());
+        assertTrue("True expected.", authorizationInfo.isPermitted(new PermissionImpl("device", Actions.read, SCOPE_ID, null)));
+        assertFalse("False expected.", authorizationInfo.isPermitted(new PermissionImpl("device", Actions.write, SCOPE_ID, null)));
+    }
+
+    @Test
+    public void kapuaAuthorizationInfoSerializationTest() throws Exception {
+        KapuaAuthorizationInfo authorizationInfo = new KapuaAuthorizationInfo(
+                Collections.singletonList("admin"),
+                Collections.singletonList(new PermissionImpl("device", Actions.read, SCOPE_ID, null)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(authorizationInfo);
+        }
+
+        KapuaAuthorizationInfo deserializedAuthorizationInfo;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            deserializedAuthorizationInfo = (KapuaAuthorizationInfo) objectInputStream.readObject();
+        }
+
+        assertEquals("Expected and actual values should be the same.", authorizationInfo.getRoles(), deserializedAuthorizationInfo.getRoles());
+        assertTrue("True expected.", deserializedAuthorizationInfo.isPermitted(new PermissionImpl("device", Actions.read, SCOPE_ID, null)));
+        assertFalse("False expected.", deserializedAuthorizationInfo.isPermitted(new PermissionImpl("device", Actions.read, OTHER_SCOPE_ID, null)));
+    }
+
+    @Test
+    public void kapuaAuthorizationInfoCacheInvalidationTest() {
+        KapuaAuthorizationInfoCache authorizationInfoCache = KapuaAuthorizationInfoCache.getInstance();
+
+        long invalidationCount = authorizationInfoCache.getInvalidationCount();
+        authorizationInfoCache.remove(SCOPE_ID);
+        authorizationInfoCache.removeByAccessInfoId(SCOPE_ID);
+        authorizationInfoCache.removeAll();
+
+        assertEquals("Expected and actual values should be the same.", invalidationCount + 3, authorizationInfoCache.getInvalidationCount());
+        assertNull("Null expected.", authorizationInfoCache.get(SCOPE_ID));
+    }
+
+    @Test
+    public void kapuaAuthorizationInfoCacheInvalidationEventTest() {
+        Cache<Serializable, Serializable> authorizationInfoByUserIdCache = Mockito.mock(Cache.class);
+        Cache<Serializable, Serializable> userIdByAccessInfoIdCache = Mockito.mock(Cache.class);
+        Mockito.when(userIdByAccessInfoIdCache.get(OTHER_SCOPE_ID.getId())).thenReturn(SCOPE_ID.getId());
+        KapuaAuthorizationInfoCache authorizationInfoCache = new KapuaAuthorizationInfoCache(authorizationInfoByUserIdCache, userIdByAccessInfoIdCache);
+
+        ServiceEvent removeEvent = KapuaAuthorizationInfoCache.newInvalidationEvent(KapuaAuthorizationInfoCache.OPERATION_REMOVE, User.TYPE, SCOPE_ID);
+        assertEquals("Expected and actual values should be the same.", KapuaAuthorizationInfoCache.class.getName(), removeEvent.getService());
+        assertEquals("Expected and actual values should be the same.", SCOPE_ID, removeEvent.getEntityId());
+
+        long invalidationCount = authorizationInfoCache.getInvalidationCount();
+        authorizationInfoCache.onKapuaEvent(removeEvent);
+        Mockito.verify(authorizationInfoByUserIdCache).remove(SCOPE_ID.getId());
+
+        authorizationInfoCache.onKapuaEvent(KapuaAuthorizationInfoCache.newInvalidationEvent(KapuaAuthorizationInfoCache.OPERATION_REMOVE_BY_ACCESS_INFO_ID, AccessInfo.TYPE, OTHER_SCOPE_ID));
+        Mockito.verify(authorizationInfoByUserIdCache, Mockito.times(2)).remove(SCOPE_ID.getId());
+
+        authorizationInfoCache.onKapuaEvent(KapuaAuthorizationInfoCache.newInvalidationEvent(KapuaAuthorizationInfoCache.OPERATION_REMOVE_ALL, null, null));
+        Mockito.verify(authorizationInfoByUserIdCache).clear();
+        assertEquals("Expected and actual values should be the same.", invalidationCount + 3, authorizationInfoCache.getInvalidationCount());
+
+        ServiceEvent otherEvent = new ServiceEvent();
+        otherEvent.setService("org.eclipse.kapua.service.user.UserService");
+        otherEvent.setOperation(KapuaAuthorizationInfoCache.OPERATION_REMOVE_ALL);
+        authorizationInfoCache.onKapuaEvent(otherEvent);
+        Mockito.verify(authorizationInfoByUserIdCache).clear();
+        assertEquals("Expected and actual values should be the same.", invalidationCount + 3, authorizationInfoCache.getInvalidationCount());
+    }
+}
@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.service.security.test;
+
+import org.eclipse.kapua.KapuaException;
+import org.eclipse.kapua.commons.jpa.EntityManager;
+import org.eclipse.kapua.commons.model.id.KapuaEid;
+import org.eclipse.kapua.commons.security.KapuaSecurityUtils;
+import org.eclipse.kapua.commons.security.KapuaSession;
+import org.eclipse.kapua.model.domain.Actions;
+import org.eclipse.kapua.model.id.KapuaId;
+import org.eclipse.kapua.qa.common.DBHelper;
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.service.authorization.access.AccessInfo;
+import org.eclipse.kapua.service.authorization.access.AccessInfoAttributes;
+import org.eclipse.kapua.service.authorization.access.AccessPermission;
+import org.eclipse.kapua.service.authorization.access.AccessPermissionAttributes;
+import org.eclipse.kapua.service.authorization.access.AccessRole;
+import org.eclipse.kapua.service.authorization.access.AccessRoleAttributes;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessInfoCreatorImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessInfoDAO;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessInfoQueryImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessPermissionCreatorImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessPermissionDAO;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessPermissionQueryImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessRoleCreatorImpl;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessRoleDAO;
+import org.eclipse.kapua.service.authorization.access.shiro.AccessRoleQueryImpl;
+import org.eclipse.kapua.service.authorization.permission.Permission;
+import org.eclipse.kapua.service.authorization.permission.shiro.PermissionImpl;
+import org.eclipse.kapua.service.authorization.role.Role;
+import org.eclipse.kapua.service.authorization.role.RolePermission;
+import org.eclipse.kapua.service.authorization.role.RolePermissionAttributes;
+import org.eclipse.kapua.service.authorization.role.shiro.RoleCreatorImpl;
+import org.eclipse.kapua.service.authorization.role.shiro.RoleDAO;
+import org.eclipse.kapua.service.authorization.role.shiro.RolePermissionCreatorImpl;
+import org.eclipse.kapua.service.authorization.role.shiro.RolePermissionDAO;
+import org.eclipse.kapua.service.authorization.role.shiro.RolePermissionQueryImpl;
+import org.eclipse.kapua.service.authorization.shiro.AuthorizationEntityManagerFactory;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Checks that the named queries used by the {@link org.eclipse.kapua.service.authorization.shiro.KapuaAuthorizingRealm}
+ * read the same data of the per {@link AccessInfo} and per {@link Role} lookups that they replace.
+ */
+@Category(JUnitTests.class)
+public class FindByUserIdDAOTest extends Assert {
+
+    private static final KapuaId SCOPE_ID = new KapuaEid(BigInteger.valueOf(1000));
+    private static final KapuaId USER_ID = new KapuaEid(BigInteger.valueOf(1001));
+    private static final KapuaId OTHER_USER_ID = new KapuaEid(BigInteger.valueOf(1002));
+
+    private static final DBHelper DB_HELPER = new DBHelper();
+
+    @BeforeClass
+    public static void setUp() throws KapuaException {
+        DB_HELPER.setup();
+        KapuaSecurityUtils.setSession(new KapuaSession(null, KapuaId.ONE, KapuaId.ONE));
+
+        EntityManager em = AuthorizationEntityManagerFactory.getEntityManager();
+        try {
+            em.beginTransaction();
+
+            Role deviceRole = createRole(em, "device-manager", new PermissionImpl("device", Actions.read, SCOPE_ID, null), new PermissionImpl("device", Actions.write, SCOPE_ID, null));
+            Role dataRole = createRole(em, "data-reader", new PermissionImpl("datastore", Actions.read, SCOPE_ID, null), new PermissionImpl("device", Actions.read, SCOPE_ID, null));
+            Role otherRole = createRole(em, "user-manager", new PermissionImpl("user", Actions.write, SCOPE_ID, null));
+
+            createAccessInfo(em, USER_ID, new Role[] { deviceRole, dataRole }, new PermissionImpl("job", Actions.execute, SCOPE_ID, null));
+            createAccessInfo(em, OTHER_USER_ID, new Role[] { otherRole, deviceRole }, new PermissionImpl("user", Actions.read, SCOPE_ID, null));
+
+            em.commit();
+        } finally {
+            em.close();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws SQLException {
+        KapuaSecurityUtils.clearSession();
+
+        // Only the tables of the modules on the classpath are created, so they are dropped instead of being cleaned with the full delete script
+        DB_HELPER.dropAll();
+    }
+
+    @Test
+    public void findByUserIdTest() throws KapuaException {
+        EntityManager em = AuthorizationEntityManagerFactory.getEntityManager();
+        try {
+            // Per AccessInfo and per Role lookups
+            Set<Permission> expectedAccessPermissions = new HashSet<>();
+            Set<KapuaId> expectedRoleIds = new HashSet<>();
+            Set<Permission> expectedRolePermissions = new HashSet<>();
+
+            AccessInfoQueryImpl accessInfoQuery = new AccessInfoQueryImpl(SCOPE_ID);
+            accessInfoQuery.setPredicate(accessInfoQuery.attributePredicate(AccessInfoAttributes.USER_ID, USER_ID));
+            for (AccessInfo accessInfo : AccessInfoDAO.query(em, accessInfoQuery).getItems()) {
+                AccessPermissionQueryImpl accessPermissionQuery = new AccessPermissionQueryImpl(accessInfo.getScopeId());
+                accessPermissionQuery.setPredicate(accessPermissionQuery.attributePredicate(AccessPermissionAttributes.ACCESS_INFO_ID, accessInfo.getId()));
+                for (AccessPermission accessPermission : AccessPermissionDAO.query(em, accessPermissionQuery).getItems()) {
+                    expectedAccessPermissions.add(accessPermission.getPermission());
+                }
+
+                AccessRoleQueryImpl accessRoleQuery = new AccessRoleQueryImpl(accessInfo.getScopeId());
+                accessRoleQuery.setPredicate(accessRoleQuery.attributePredicate(AccessRoleAttributes.ACCESS_INFO_ID, accessInfo.getId()));
+                for (AccessRole accessRole : AccessRoleDAO.query(em, accessRoleQuery).getItems()) {
+                    Role role = RoleDAO.find(em, accessRole.getScopeId(), accessRole.getRoleId());
+                    expectedRoleIds.add(role.getId());
+
+                    RolePermissionQueryImpl rolePermissionQuery = new RolePermissionQueryImpl(role.getScopeId());
+                    rolePermissionQuery.setPredicate(rolePermissionQuery.attributePredicate(RolePermissionAttributes.ROLE_ID, role.getId()));
+                    for (RolePermission rolePermission : RolePermissionDAO.query(em, rolePermissionQuery).getItems()) {
+                        expectedRolePermissions.add(rolePermission.getPermission());
+                    }
+                }
+            }
+
+            // Single queries
+            Set<Permission> accessPermissions = new HashSet<>();
+            for (AccessPermission accessPermission : AccessPermissionDAO.findByUserId(em, SCOPE_ID, USER_ID).getItems()) {
+                accessPermissions.add(accessPermission.getPermission());
+            }
+
+            Set<KapuaId> roleIds = new HashSet<>();
+            for (Role role : RoleDAO.findByUserId(em, SCOPE_ID, USER_ID).getItems()) {
+                roleIds.add(role.getId());
+            }
+
+            Set<Permission> rolePermissions = new HashSet<>();
+            for (RolePermission rolePermission : RolePermissionDAO.findByUserId(em, SCOPE_ID, USER_ID).getItems()) {
+                rolePermissions.add(rolePermission.getPermission());
+            }
+
+            assertEquals("Expected and actual values should be the same.", 1, expectedAccessPermissions.size());
+            assertEquals("Expected and actual values should be the same.", 2, expectedRoleIds.size());
+            assertEquals("Expected and actual values should be the same.", 3, expectedRolePermissions.size());
+
+            assertEquals("Expected and actual values should be the same.", expectedAccessPermissions, accessPermissions);
+            assertEquals("Expected and actual values should be the same.", expectedRoleIds, roleIds);
+            assertEquals("Expected and actual values should be the same.", expectedRolePermissions, rolePermissions);
+        } finally {
+            em.close();
+        }
+    }
+
+    @Test
+    public void findByUserIdNotFoundTest() throws KapuaException {
+        EntityManager em = AuthorizationEntityManagerFactory.getEntityManager();
+        try {
+            KapuaId unknownUserId = new KapuaEid(BigInteger.valueOf(1003));
+
+            assertTrue("True expected.", AccessPermissionDAO.findByUserId(em, SCOPE_ID, unknownUserId).isEmpty());
+            assertTrue("True expected.", RoleDAO.findByUserId(em, SCOPE_ID, unknownUserId).isEmpty());
+            assertTrue("True expected.", RolePermissionDAO.findByUserId(em, SCOPE_ID, unknownUserId).isEmpty());
+
+            // The User is looked up in its own scope
+            assertTrue("True expected.", AccessPermissionDAO.findByUserId(em, KapuaId.ONE, USER_ID).isEmpty());
+            assertTrue("True expected.", RoleDAO.findByUserId(em, KapuaId.ONE, USER_ID).isEmpty());
+            assertTrue("True expected.", RolePermissionDAO.findByUserId(em, KapuaId.ONE, USER_ID).isEmpty());
+        } finally {
+            em.close();
+        }
+    }
+
+    private static Role createRole(EntityManager em, String name, Permission... permissions) throws KapuaException {
+        RoleCreatorImpl roleCreator = new RoleCreatorImpl(SCOPE_ID);
+        roleCreator.setName(name);
+        Role role = RoleDAO.create(em, roleCreator);
+
+        for (Permission permission : permissions) {
+            RolePermissionCreatorImpl rolePermissionCreator = new RolePermissionCreatorImpl(SCOPE_ID);
+            rolePermissionCreator.setRoleId(role.getId());
+            rolePermissionCreator.setPermission(permission);
+            RolePermissionDAO.create(em, rolePermissionCreator);
+        }
+        return role;
+    }
+
+    private static void createAccessInfo(EntityManager em, KapuaId userId, Role[] roles, Permission... permissions) throws KapuaException {
+        AccessInfoCreatorImpl accessInfoCreator = new AccessInfoCreatorImpl(SCOPE_ID);
+        accessInfoCreator.setUserId(userId);
+        AccessInfo accessInfo = AccessInfoDAO.create(em, accessInfoCreator);
+
+        for (Permission permission : permissions) {
+            AccessPermissionCreatorImpl accessPermissionCreator = new AccessPermissionCreatorImpl(SCOPE_ID);
+            accessPermissionCreator.setAccessInfoId(accessInfo.getId());
+            accessPermissionCreator.setPermission(permission);
+            AccessPermissionDAO.create(em, accessPermissionCreator);
+        }
+
+        for (Role role : roles) {
+            AccessRoleCreatorImpl accessRoleCreator = new AccessRoleCreatorImpl(SCOPE_ID);
+            accessRoleCreator.setAccessInfoId(accessInfo.getId());
+            accessRoleCreator.setRoleId(role.getId());
+            AccessRoleDAO.create(em, accessRoleCreator);
+        }
+    }
+}
@@ -85,7 +85,9 @@ public class TagServiceImpl extends AbstractKapuaConfigurableResourceLimitedServ
 
         //
         // Do create
-        return entityManagerSession.doTransactedAction(em -> TagDAO.create(em, tagCreator));
+        Tag tag = entityManagerSession.doTransactedAction(em -> TagDAO.create(em, tagCreator));
+        onChildEntityCreated(tag.getScopeId());
+        return tag;
     }
 
     @Override
@@ -146,6 +148,7 @@ public class TagServiceImpl extends AbstractKapuaConfigurableResourceLimitedServ
         //
         //
         entityManagerSession.doTransactedAction(em -> TagDAO.delete(em, scopeId, tagId));
+        onChildEntityDeleted(scopeId);
     }
 
     @Override
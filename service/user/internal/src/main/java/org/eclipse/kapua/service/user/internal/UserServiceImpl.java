@@ -123,8 +123,10 @@ public class UserServiceImpl extends AbstractKapuaConfigurableResourceLimitedSer
 
         //
         // Do create
-        return entityManagerSession.doTransactedAction(EntityManagerContainer.<User>create().onResultHandler(em -> UserDAO.create(em,
+        User user = entityManagerSession.doTransactedAction(EntityManagerContainer.<User>create().onResultHandler(em -> UserDAO.create(em,
                 userCreator)));
+        onChildEntityCreated(user.getScopeId());
+        return user;
     }
 
     @Override
@@ -213,6 +215,7 @@ public class UserServiceImpl extends AbstractKapuaConfigurableResourceLimitedSer
         // Do  delete
         entityManagerSession.doTransactedAction(EntityManagerContainer.<User>create().onResultHandler(em -> UserDAO.delete(em, scopeId, userId))
                 .onAfterHandler((emptyParam) -> entityCache.remove(scopeId, userId)));
+        onChildEntityDeleted(scopeId);
     }
 
     @Override
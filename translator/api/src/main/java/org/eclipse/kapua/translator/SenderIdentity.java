@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator;
+
+import org.eclipse.kapua.message.Message;
+import org.eclipse.kapua.model.id.KapuaId;
+
+import java.util.Objects;
+
+/**
+ * Identity of the client which has sent a {@link Message}, as already resolved by the transport which received it.
+ * <p>
+ * It allows {@link Translator}s to skip the lookups of the account and of the device of the {@link Message}
+ * when they match the ones of the sender, like for the messages that a device publishes on its own topics.
+ *
+ * @since 1.5.0
+ */
+public class SenderIdentity {
+
+    private final KapuaId scopeId;
+    private final String accountName;
+    private final String clientId;
+    private final KapuaId deviceId;
+
+    /**
+     * Constructor.
+     *
+     * @param scopeId     The scope {@link KapuaId} of the sender.
+     * @param accountName The name of the account of the sender.
+     * @param clientId    The client id of the sender.
+     * @param deviceId    The device {@link KapuaId} of the sender. May be {@code null} if the device is not registered yet.
+     * @since 1.5.0
+     */
+    public SenderIdentity(KapuaId scopeId, String accountName, String clientId, KapuaId deviceId) {
+        Objects.requireNonNull(scopeId);
+        Objects.requireNonNull(accountName);
+        Objects.requireNonNull(clientId);
+
+        this.scopeId = scopeId;
+        this.accountName = accountName;
+        this.clientId = clientId;
+        this.deviceId = deviceId;
+    }
+
+    public KapuaId getScopeId() {
+        return scopeId;
+    }
+
+    public String getAccountName() {
+        return accountName;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public KapuaId getDeviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Checks whether the given account is the one of the sender.
+     *
+     * @param accountName The account name of the {@link Message}.
+     * @return {@code true} if the account is the one of the sender, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public boolean isSenderAccount(String accountName) {
+        return this.accountName.equals(accountName);
+    }
+
+    /**
+     * Checks whether the given account and client id are the ones of the sender, and its device is registered.
+     *
+     * @param accountName The account name of the {@link Message}.
+     * @param clientId    The client id of the {@link Message}.
+     * @return {@code true} if the device of the sender is known and matches the given ones, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public boolean isSenderDevice(String accountName, String clientId) {
+        return deviceId != null && isSenderAccount(accountName) && this.clientId.equals(clientId);
+    }
+}
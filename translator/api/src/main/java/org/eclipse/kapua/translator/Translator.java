@@ -103,6 +103,22 @@ public abstract class Translator<FROM_M extends Message, TO_M extends Message> {
      */
     public abstract TO_M translate(FROM_M message) throws TranslateException;
 
+    /**
+     * Translates {@link Message} from the domain FROM_M to the domain TO_M, using the already resolved {@link SenderIdentity}.
+     * <p>
+     * {@link Translator}s which look up the account or the device of the {@link Message} can override it to skip the lookups when they match the {@link SenderIdentity}.
+     * By default it ignores the {@link SenderIdentity} and invokes {@link #translate(Message)}.
+     *
+     * @param message        The {@link Message} to translate.
+     * @param senderIdentity The {@link SenderIdentity} of the client which has sent the {@link Message}. May be {@code null} if not known.
+     * @return the translated {@link Message}.
+     * @throws TranslateException If the {@link Message} cannot be translated. See {@link #translate(Message)}.
+     * @since 1.5.0
+     */
+    public TO_M translate(FROM_M message, SenderIdentity senderIdentity) throws TranslateException {
+        return translate(message);
+    }
+
     /**
      * Returns the FROM_M {@link Message} type.
      *
@@ -13,11 +13,13 @@
 package org.eclipse.kapua.translator.kura.kapua;
 
 import org.eclipse.kapua.KapuaEntityNotFoundException;
+import org.eclipse.kapua.KapuaException;
 import org.eclipse.kapua.locator.KapuaLocator;
 import org.eclipse.kapua.message.device.data.KapuaDataChannel;
 import org.eclipse.kapua.message.device.data.KapuaDataMessage;
 import org.eclipse.kapua.message.device.data.KapuaDataMessageFactory;
 import org.eclipse.kapua.message.device.data.KapuaDataPayload;
+import org.eclipse.kapua.model.id.KapuaId;
 import org.eclipse.kapua.service.account.Account;
 import org.eclipse.kapua.service.account.AccountService;
 import org.eclipse.kapua.service.device.call.message.kura.data.KuraDataChannel;
@@ -25,6 +27,7 @@ import org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage;
 import org.eclipse.kapua.service.device.call.message.kura.data.KuraDataPayload;
 import org.eclipse.kapua.service.device.registry.Device;
 import org.eclipse.kapua.service.device.registry.DeviceRegistryService;
+import org.eclipse.kapua.translator.SenderIdentity;
 import org.eclipse.kapua.translator.Translator;
 import org.eclipse.kapua.translator.exception.InvalidChannelException;
 import org.eclipse.kapua.translator.exception.InvalidMessageException;
@@ -47,6 +50,11 @@ public class TranslatorDataKuraKapua extends Translator<KuraDataMessage, KapuaDa
 
     @Override
     public KapuaDataMessage translate(KuraDataMessage kuraMessage) throws TranslateException {
+        return translate(kuraMessage, null);
+    }
+
+    @Override
+    public KapuaDataMessage translate(KuraDataMessage kuraMessage, SenderIdentity senderIdentity) throws TranslateException {
         try {
             //
             // Kapua Channel
@@ -58,18 +66,7 @@ public class TranslatorDataKuraKapua extends Translator<KuraDataMessage, KapuaDa
 
             //
             // Kapua message
-            Account account = ACCOUNT_SERVICE.findByName(kuraMessage.getChannel().getScope());
-
-            if (account == null) {
-                throw new KapuaEntityNotFoundException(Account.TYPE, kuraMessage.getChannel().getScope());
-            }
-
-            Device device = DEVICE_REGISTRY_SERVICE.findByClientId(account.getId(), kuraMessage.getChannel().getClientId());
-
-            KapuaDataMessage kapuaDataMessage = DATA_MESSAGE_FACTORY.newKapuaDataMessage();
-            kapuaDataMessage.setScopeId(account.getId());
-            kapuaDataMessage.setDeviceId(device != null ? device.getId() : null);
-            kapuaDataMessage.setClientId(kuraMessage.getChannel().getClientId());
+            KapuaDataMessage kapuaDataMessage = newKapuaDataMessage(kuraMessage.getChannel().getScope(), kuraMessage.getChannel().getClientId(), senderIdentity);
             kapuaDataMessage.setChannel(kapuaDataChannel);
             kapuaDataMessage.setPayload(kapuaDataPayload);
             kapuaDataMessage.setCapturedOn(kuraMessage.getPayload().getTimestamp());
@@ -86,6 +83,49 @@ public class TranslatorDataKuraKapua extends Translator<KuraDataMessage, KapuaDa
         }
     }
 
+    /**
+     * Instantiates a new {@link KapuaDataMessage} setting the scope {@link KapuaId}, the device {@link KapuaId} and the client id of the given account name and client id.
+     * <p>
+     * If the {@link SenderIdentity} matches the given account name and client id the lookups of the {@link Account} and of the {@link Device} are skipped.
+     *
+     * @param accountName    The account name of the {@link KapuaDataMessage}.
+     * @param clientId       The client id of the {@link KapuaDataMessage}.
+     * @param senderIdentity The {@link SenderIdentity} of the client which has sent the message. May be {@code null} if not known.
+     * @return The new {@link KapuaDataMessage}.
+     * @throws KapuaException if the {@link Account} cannot be found or the lookups fail.
+     * @since 1.5.0
+     */
+    public static KapuaDataMessage newKapuaDataMessage(String accountName, String clientId, SenderIdentity senderIdentity) throws KapuaException {
+        KapuaId scopeId;
+        KapuaId deviceId;
+        if (senderIdentity != null && senderIdentity.isSenderDevice(accountName, clientId)) {
+            // Published by a registered device on its own topics, already resolved by the transport
+            scopeId = senderIdentity.getScopeId();
+            deviceId = senderIdentity.getDeviceId();
+        } else {
+            if (senderIdentity != null && senderIdentity.isSenderAccount(accountName)) {
+                scopeId = senderIdentity.getScopeId();
+            } else {
+                Account account = ACCOUNT_SERVICE.findByName(accountName);
+
+                if (account == null) {
+                    throw new KapuaEntityNotFoundException(Account.TYPE, accountName);
+                }
+
+                scopeId = account.getId();
+            }
+
+            Device device = DEVICE_REGISTRY_SERVICE.findByClientId(scopeId, clientId);
+            deviceId = device != null ? device.getId() : null;
+        }
+
+        KapuaDataMessage kapuaDataMessage = DATA_MESSAGE_FACTORY.newKapuaDataMessage();
+        kapuaDataMessage.setScopeId(scopeId);
+        kapuaDataMessage.setDeviceId(deviceId);
+        kapuaDataMessage.setClientId(clientId);
+        return kapuaDataMessage;
+    }
+
     private KapuaDataChannel translate(KuraDataChannel kuraChannel) {
         KapuaDataChannel kapuaChannel = DATA_MESSAGE_FACTORY.newKapuaDataChannel();
         kapuaChannel.setSemanticParts(kuraChannel.getSemanticParts());
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.translator.jms.kapua;
+
+import org.eclipse.kapua.locator.KapuaLocator;
+import org.eclipse.kapua.message.KapuaMessageFactory;
+import org.eclipse.kapua.message.KapuaPosition;
+import org.eclipse.kapua.message.device.data.KapuaDataChannel;
+import org.eclipse.kapua.message.device.data.KapuaDataMessage;
+import org.eclipse.kapua.message.device.data.KapuaDataMessageFactory;
+import org.eclipse.kapua.message.device.data.KapuaDataPayload;
+import org.eclipse.kapua.message.internal.MessageException;
+import org.eclipse.kapua.service.device.call.kura.Kura;
+import org.eclipse.kapua.service.device.call.message.kura.KuraPayloadReader;
+import org.eclipse.kapua.service.device.call.message.kura.data.KuraDataMessage;
+import org.eclipse.kapua.service.device.call.message.kura.proto.KuraPayloadProto;
+import org.eclipse.kapua.translator.SenderIdentity;
+import org.eclipse.kapua.translator.Translator;
+import org.eclipse.kapua.translator.exception.InvalidChannelException;
+import org.eclipse.kapua.translator.exception.InvalidMessageException;
+import org.eclipse.kapua.translator.exception.InvalidPayloadException;
+import org.eclipse.kapua.translator.exception.TranslateException;
+import org.eclipse.kapua.translator.exception.TranslatorErrorCodes;
+import org.eclipse.kapua.translator.exception.TranslatorException;
+import org.eclipse.kapua.translator.kura.kapua.TranslatorDataKuraKapua;
+import org.eclipse.kapua.transport.message.jms.JmsMessage;
+import org.eclipse.kapua.transport.message.jms.JmsPayload;
+import org.eclipse.kapua.transport.message.jms.JmsTopic;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * {@link Translator} implementation from {@link JmsMessage} to {@link KapuaDataMessage}
+ * <p>
+ * It translates the {@link Kura} data messages in a single step, reading the {@link KuraPayloadProto.KuraPayload} directly into the {@link KapuaDataPayload}
+ * instead of building the intermediate {@link KuraDataMessage} which would then be copied into the {@link KapuaDataMessage}.
+ * The result is the same of translating with {@code TranslatorDataJmsKura} and then with {@link TranslatorDataKuraKapua}.
+ *
+ * @since 1.5.0
+ */
+public class TranslatorDataJmsKapua extends Translator<JmsMessage, KapuaDataMessage> {
+
+    private static final KapuaLocator LOCATOR = KapuaLocator.getInstance();
+
+    private static final KapuaDataMessageFactory DATA_MESSAGE_FACTORY = LOCATOR.getFactory(KapuaDataMessageFactory.class);
+    private static final KapuaMessageFactory KAPUA_MESSAGE_FACTORY = LOCATOR.getFactory(KapuaMessageFactory.class);
+
+    @Override
+    public KapuaDataMessage translate(JmsMessage jmsMessage) throws TranslateException {
+        return translate(jmsMessage, null);
+    }
+
+    @Override
+    public KapuaDataMessage translate(JmsMessage jmsMessage, SenderIdentity senderIdentity) throws TranslateException {
+        try {
+            //
+            // Topic
+            String[] topicTokens = translate(jmsMessage.getTopic());
+
+            KapuaDataChannel kapuaDataChannel = DATA_MESSAGE_FACTORY.newKapuaDataChannel();
+            List<String> semanticParts = new ArrayList<>(topicTokens.length - 2);
+            for (int i = 2; i < topicTokens.length; i++) {
+                semanticParts.add(topicTokens[i]);
+            }
+            kapuaDataChannel.setSemanticParts(semanticParts);
+
+            //
+            // Kapua message
+            KapuaDataMessage kapuaDataMessage = TranslatorDataKuraKapua.newKapuaDataMessage(topicTokens[0], topicTokens[1], senderIdentity);
+            kapuaDataMessage.setChannel(kapuaDataChannel);
+            kapuaDataMessage.setReceivedOn(jmsMessage.getReceivedOn());
+
+            //
+            // Kapua payload
+            translate(jmsMessage.getPayload(), kapuaDataMessage);
+
+            // Return Kapua Message
+            return kapuaDataMessage;
+        } catch (InvalidChannelException | InvalidPayloadException te) {
+            throw te;
+        } catch (Exception e) {
+            throw new InvalidMessageException(e, jmsMessage);
+        }
+    }
+
+    /**
+     * Splits the given {@link JmsTopic} into the {@link Kura} account name, client id and semantic parts.
+     *
+     * @param jmsTopic The {@link JmsTopic} to translate.
+     * @return The {@link JmsTopic#getSplittedTopic()} tokens.
+     * @throws InvalidChannelException if there are not enough {@link JmsTopic#getSplittedTopic()} tokens.
+     * @since 1.5.0
+     */
+    private String[] translate(JmsTopic jmsTopic) throws InvalidChannelException {
+        try {
+            String[] topicTokens = jmsTopic.getSplittedTopic();
+
+            if (topicTokens.length < 2) {
+                throw new TranslatorException(TranslatorErrorCodes.INVALID_CHANNEL, null, (Object) topicTokens);
+            }
+
+            return topicTokens;
+        } catch (Exception e) {
+            throw new InvalidChannelException(e, jmsTopic);
+        }
+    }
+
+    /**
+     * Decodes the given {@link JmsPayload} into the {@link KapuaDataPayload}, the timestamps and the {@link KapuaPosition} of the given {@link KapuaDataMessage}.
+     * <p>
+     * If {@link JmsPayload#getBody()} is not {@link Kura} protobuf encoded the raw data will be put into {@link KapuaDataPayload#getBody()}
+     *
+     * @param jmsPayload       The {@link JmsPayload} to translate.
+     * @param kapuaDataMessage The {@link KapuaDataMessage} to fill.
+     * @throws InvalidPayloadException if translation encounters any error.
+     * @since 1.5.0
+     */
+    private void translate(JmsPayload jmsPayload, KapuaDataMessage kapuaDataMessage) throws InvalidPayloadException {
+        try {
+            KapuaDataPayload kapuaDataPayload = DATA_MESSAGE_FACTORY.newKapuaDataPayload();
+            kapuaDataMessage.setPayload(kapuaDataPayload);
+
+            if (!jmsPayload.hasBody()) {
+                return;
+            }
+
+            byte[] jmsBody = jmsPayload.getBody();
+
+            KuraPayloadReader kuraPayloadReader;
+            try {
+                kuraPayloadReader = KuraPayloadReader.read(jmsBody);
+            } catch (MessageException me) {
+                // Not a Kura payload, the raw data is used as body
+                kapuaDataPayload.setBody(jmsBody);
+                return;
+            }
+
+            //
+            // Timestamp
+            if (kuraPayloadReader.getTimestamp() != null) {
+                Date timestamp = new Date(kuraPayloadReader.getTimestamp());
+                kapuaDataMessage.setCapturedOn(timestamp);
+                kapuaDataMessage.setSentOn(timestamp);
+            }
+
+            //
+            // Position
+            if (kuraPayloadReader.getPosition() != null) {
+                kapuaDataMessage.setPosition(translate(kuraPayloadReader.getPosition()));
+            }
+
+            //
+            // Metrics, which are decoded only when accessed
+            if (kuraPayloadReader.getMetrics() != null) {
+                kapuaDataPayload.setMetrics(kuraPayloadReader.getMetrics());
+            }
+
+            //
+            // Body
+            if (kuraPayloadReader.getBody() != null) {
+                kapuaDataPayload.setBody(kuraPayloadReader.getBody());
+            }
+        } catch (Exception e) {
+            throw new InvalidPayloadException(e, jmsPayload);
+        }
+    }
+
+    private KapuaPosition translate(KuraPayloadProto.KuraPayload.KuraPosition protoPosition) {
+        KapuaPosition kapuaPosition = KAPUA_MESSAGE_FACTORY.newPosition();
+
+        if (protoPosition.hasLatitude()) {
+            kapuaPosition.setLatitude(protoPosition.getLatitude());
+        }
+        if (protoPosition.hasLongitude()) {
+            kapuaPosition.setLongitude(protoPosition.getLongitude());
+        }
+        if (protoPosition.hasAltitude()) {
+            kapuaPosition.setAltitude(protoPosition.getAltitude());
+        }
+        if (protoPosition.hasPrecision()) {
+            kapuaPosition.setPrecision(protoPosition.getPrecision());
+        }
+        if (protoPosition.hasHeading()) {
+            kapuaPosition.setHeading(protoPosition.getHeading());
+        }
+        if (protoPosition.hasSpeed()) {
+            kapuaPosition.setSpeed(protoPosition.getSpeed());
+        }
+        if (protoPosition.hasSatellites()) {
+            kapuaPosition.setSatellites(protoPosition.getSatellites());
+        }
+        if (protoPosition.hasStatus()) {
+            kapuaPosition.setStatus(protoPosition.getStatus());
+        }
+        if (protoPosition.hasTimestamp()) {
+            kapuaPosition.setTimestamp(new Date(protoPosition.getTimestamp()));
+        }
+
+        return kapuaPosition;
+    }
+
+    @Override
+    public Class<JmsMessage> getClassFrom() {
+        return JmsMessage.class;
+    }
+
+    @Override
+    public Class<KapuaDataMessage> getClassTo() {
+        return KapuaDataMessage.class;
+    }
+
+}
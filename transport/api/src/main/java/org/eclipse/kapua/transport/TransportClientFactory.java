@@ -56,4 +56,17 @@ public interface TransportClientFactory<C extends TransportChannel, P extends Tr
      * @since 1.0.0
      */
     CO newConnectOptions() throws KapuaException;
+
+    /**
+     * Whether the {@link TransportFacade}s wait for the response of {@link TransportFacade#sendAsync(TransportMessage, Long)} without blocking a thread.
+     * <p>
+     * The default implementation returns {@code false}, since the default {@link TransportFacade#sendAsync(TransportMessage, Long)} invokes
+     * {@link TransportFacade#sendSync(TransportMessage, Long)}.
+     *
+     * @return {@code true} if the {@link TransportFacade}s send asynchronously without blocking, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    default boolean isSendAsyncNonBlocking() {
+        return false;
+    }
 }
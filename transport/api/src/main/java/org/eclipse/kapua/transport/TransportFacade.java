@@ -20,6 +20,7 @@ import org.eclipse.kapua.transport.message.TransportPayload;
 
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * API to use the Transport layer for the device communication.
@@ -64,6 +65,29 @@ public interface TransportFacade<C extends TransportChannel, P extends Transport
      */
     void sendAsync(@NotNull MQ message) throws TransportTimeoutException, TransportSendException;
 
+    /**
+     * Send a request message to a device without blocking while waiting for the response.
+     * <p>
+     * The returned {@link CompletableFuture} is completed exceptionally with a {@link TransportTimeoutException} if waiting of the response goes on timeout,
+     * or with a {@link TransportSendException} if sending the request produces any error.
+     * <p>
+     * The default implementation invokes {@link #sendSync(TransportMessage, Long)}.
+     *
+     * @param message The request message to send.
+     * @param timeout The timeout for the operation.
+     * @return The {@link CompletableFuture} of the response to the request message.
+     * @since 1.5.0
+     */
+    default CompletableFuture<MS> sendAsync(@NotNull MQ message, @Nullable Long timeout) {
+        CompletableFuture<MS> response = new CompletableFuture<>();
+        try {
+            response.complete(sendSync(message, timeout));
+        } catch (TransportTimeoutException | TransportSendException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
     //
     // Utilities
     //
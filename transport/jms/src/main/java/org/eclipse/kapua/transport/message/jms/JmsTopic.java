@@ -18,7 +18,8 @@ import org.eclipse.kapua.transport.jms.setting.JmsClientSetting;
 import org.eclipse.kapua.transport.jms.setting.JmsClientSettingKeys;
 import org.eclipse.kapua.transport.message.TransportChannel;
 
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Implementation of {@link TransportChannel} API for JMS transport facade
@@ -34,13 +35,6 @@ public class JmsTopic implements TransportChannel {
      */
     private static final String TOPIC_SEPARATOR = JmsClientSetting.getInstance().getString(JmsClientSettingKeys.TRANSPORT_TOPIC_SEPARATOR);
 
-    /**
-     * {@link Pattern} used to optimize {@link String#split(String)} of the {@link #topic}
-     *
-     * @since 1.2.0
-     */
-    private static final Pattern SPLIT_PATTERN = Pattern.compile("\\" + TOPIC_SEPARATOR);
-
     /**
      * The full topic.
      *
@@ -98,6 +92,9 @@ public class JmsTopic implements TransportChannel {
 
     /**
      * Gets the topic split-ed by the topic separator configured in {@link JmsClientSetting}.{@link JmsClientSettingKeys#TRANSPORT_TOPIC_SEPARATOR}
+     * <p>
+     * Like {@link String#split(String)}, trailing empty tokens are not included.
+     * The topic is scanned for the separator without using regular expressions, since this is invoked for each message received.
      *
      * @return The topic tokens. Empty {@code String[]} is return in case of {@code topic == null}.
      * @since 1.0.0
@@ -107,7 +104,23 @@ public class JmsTopic implements TransportChannel {
             return new String[0];
         }
 
-        return SPLIT_PATTERN.split(getTopic());
+        List<String> topicTokens = new ArrayList<>();
+        int tokenStart = 0;
+        int separatorIndex;
+        while ((separatorIndex = topic.indexOf(TOPIC_SEPARATOR, tokenStart)) >= 0) {
+            topicTokens.add(topic.substring(tokenStart, separatorIndex));
+            tokenStart = separatorIndex + TOPIC_SEPARATOR.length();
+        }
+        topicTokens.add(topic.substring(tokenStart));
+
+        //
+        // Remove trailing empty tokens
+        int size = topicTokens.size();
+        while (size > 0 && topicTokens.get(size - 1).isEmpty()) {
+            size--;
+        }
+
+        return topicTokens.subList(0, size).toArray(new String[size]);
     }
 
     /**
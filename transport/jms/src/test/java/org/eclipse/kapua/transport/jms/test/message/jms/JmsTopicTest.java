@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.transport.jms.test.message.jms;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.transport.message.jms.JmsTopic;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(JUnitTests.class)
+public class JmsTopicTest extends Assert {
+
+    @Test
+    public void jmsTopicSecondConstructorValidTest() {
+        JmsTopic jmsTopic = new JmsTopic(new String[]{"account", "client", "semantic", "topic"});
+        assertEquals("Expected and actual values should be the same.", "account.client.semantic.topic", jmsTopic.getTopic());
+    }
+
+    @Test
+    public void getSplittedTopicValidTest() {
+        String[] jmsValue = new String[]{"account", "client", "semantic", "topic"};
+        JmsTopic jmsTopic = new JmsTopic(jmsValue);
+        assertArrayEquals("Expected and actual values should be the same.", jmsValue, jmsTopic.getSplittedTopic());
+    }
+
+    @Test
+    public void getSplittedSingleTokenTopicTest() {
+        JmsTopic jmsTopic = new JmsTopic("account");
+        assertArrayEquals("Expected and actual values should be the same.", new String[]{"account"}, jmsTopic.getSplittedTopic());
+    }
+
+    @Test
+    public void getSplittedEmptyTokensTopicTest() {
+        String[] topics = new String[]{".account.client", "account..client", "account.client.", "account.client..", ".", "..", "account..", "a.b.c.d.e.f"};
+        for (String topic : topics) {
+            assertArrayEquals("Expected and actual values should be the same.", topic.split("\\."), new JmsTopic(topic).getSplittedTopic());
+        }
+    }
+
+    @Test
+    public void getSplittedEmptyTopicTest() {
+        assertArrayEquals("Expected and actual values should be the same.", new String[0], new JmsTopic("").getSplittedTopic());
+        assertArrayEquals("Expected and actual values should be the same.", new String[0], new JmsTopic((String) null).getSplittedTopic());
+    }
+
+    @Test
+    public void toStringTest() {
+        JmsTopic jmsTopic = new JmsTopic("account.client");
+        assertEquals("Expected and actual values should be the same.", "account.client", jmsTopic.toString());
+    }
+}
@@ -26,6 +26,7 @@ import org.eclipse.kapua.transport.mqtt.exception.MqttClientPublishException;
 import org.eclipse.kapua.transport.mqtt.exception.MqttClientSubscribeException;
 import org.eclipse.kapua.transport.mqtt.exception.MqttClientTerminateException;
 import org.eclipse.kapua.transport.mqtt.exception.MqttClientUnsubscribeException;
+import org.eclipse.paho.client.mqttv3.MqttCallback;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
@@ -258,6 +259,22 @@ public class MqttClient {
 
     }
 
+    /**
+     * Sets a generic {@link MqttCallback} to this client.
+     *
+     * @param mqttCallback The {@link MqttCallback} to use.
+     * @throws MqttClientCallbackSetException When set the callback fails.
+     * @since 1.5.0
+     */
+    public void setCallback(MqttCallback mqttCallback) throws MqttClientCallbackSetException {
+        try {
+            getPahoClient().setCallback(mqttCallback);
+        } catch (MqttClientNotConnectedException e) {
+            // A generic callback handles the messages of all the subscribed topics
+            throw new MqttClientCallbackSetException(e, getClientId(), new MqttTopic("#"));
+        }
+    }
+
     /**
      * Cleans this client from any callback set and unsubscribes from all {@link MqttTopic} subscribed.
      *
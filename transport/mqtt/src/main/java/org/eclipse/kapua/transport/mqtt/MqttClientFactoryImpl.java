@@ -48,6 +48,18 @@ public class MqttClientFactoryImpl implements TransportClientFactory<MqttTopic,
         return new MqttClientConnectionOptions();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only in multiplexed mode, see {@link org.eclipse.kapua.transport.mqtt.setting.MqttClientSettingKeys#TRANSPORT_MULTIPLEXED_ENABLED}.
+     *
+     * @since 1.5.0
+     */
+    @Override
+    public boolean isSendAsyncNonBlocking() {
+        return MqttFacade.isMultiplexed();
+    }
+
     private String formatNodeUri(String nodeAddress) {
         return SystemSetting.getInstance().getString(SystemSettingKey.BROKER_SCHEME) + "://" + nodeAddress + ":" + SystemSetting.getInstance().getString(SystemSettingKey.BROKER_INTERNAL_CONNECTOR_PORT);
     }
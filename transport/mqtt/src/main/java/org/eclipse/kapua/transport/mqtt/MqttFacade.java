@@ -22,19 +22,29 @@ import org.eclipse.kapua.transport.message.mqtt.MqttTopic;
 import org.eclipse.kapua.transport.mqtt.exception.MqttClientCallbackSetException;
 import org.eclipse.kapua.transport.mqtt.exception.MqttClientSubscribeException;
 import org.eclipse.kapua.transport.mqtt.pooling.MqttClientPool;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSetting;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSettingKeys;
 
 import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Implementation of {@link TransportFacade} API for MQTT transport facade.
+ * <p>
+ * When {@link MqttClientSettingKeys#TRANSPORT_MULTIPLEXED_ENABLED} is set, requests are sent through the {@link MqttResponseCorrelator} of the node
+ * instead of a {@link MqttClient} borrowed from the {@link MqttClientPool}.
  *
  * @since 1.0.0
  */
 public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttMessage, MqttMessage> {
 
+    private static final boolean MULTIPLEXED = MqttClientSetting.getInstance().getBoolean(MqttClientSettingKeys.TRANSPORT_MULTIPLEXED_ENABLED, false);
+
     /**
      * The {@link MqttClient} used to make requests.
      *
@@ -42,6 +52,13 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
      */
     private MqttClient borrowedClient;
 
+    /**
+     * The {@link MqttResponseCorrelator} used to make requests in multiplexed mode.
+     *
+     * @since 1.5.0
+     */
+    private MqttResponseCorrelator mqttResponseCorrelator;
+
     /**
      * The host that this {@link MqttClient} connects to.
      */
@@ -56,6 +73,11 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
     public MqttFacade(@NotNull String nodeUri) throws TransportClientGetException {
         this.nodeUri = nodeUri;
 
+        if (MULTIPLEXED) {
+            mqttResponseCorrelator = MqttResponseCorrelator.getInstance(nodeUri);
+            return;
+        }
+
         //
         // Get the client form the pool
         try {
@@ -76,6 +98,22 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
 
     @Override
     public MqttMessage sendSync(@NotNull MqttMessage mqttMessage, @Nullable Long timeout) throws TransportTimeoutException, TransportSendException {
+        if (mqttResponseCorrelator != null) {
+            try {
+                return mqttResponseCorrelator.send(mqttMessage, timeout).get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof TransportTimeoutException) {
+                    throw (TransportTimeoutException) e.getCause();
+                } else if (e.getCause() instanceof TransportSendException) {
+                    throw (TransportSendException) e.getCause();
+                }
+                throw new TransportSendException(e.getCause(), mqttMessage);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransportSendException(e, mqttMessage);
+            }
+        }
+
         List<MqttMessage> responses = new ArrayList<>();
 
         sendInternal(mqttMessage, responses, timeout);
@@ -123,9 +161,35 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
         }
     }
 
+    /**
+     * Sends the request without blocking while waiting for the response.
+     * <p>
+     * In multiplexed mode no thread is blocked while waiting for the response, otherwise {@link #sendSync(MqttMessage, Long)} is invoked.
+     *
+     * @since 1.5.0
+     */
+    @Override
+    public CompletableFuture<MqttMessage> sendAsync(@NotNull MqttMessage mqttMessage, @Nullable Long timeout) {
+        if (mqttResponseCorrelator != null) {
+            return mqttResponseCorrelator.send(mqttMessage, timeout);
+        }
+
+        return TransportFacade.super.sendAsync(mqttMessage, timeout);
+    }
+
+    /**
+     * Whether requests are sent in multiplexed mode.
+     *
+     * @return {@code true} if {@link MqttClientSettingKeys#TRANSPORT_MULTIPLEXED_ENABLED} is set, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    static boolean isMultiplexed() {
+        return MULTIPLEXED;
+    }
+
     @Override
     public String getClientId() {
-        return borrowedClient.getClientId();
+        return mqttResponseCorrelator != null ? mqttResponseCorrelator.getClientId() : borrowedClient.getClientId();
     }
 
     @Override
@@ -140,6 +204,11 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
 
     @Override
     public void close() {
+        if (mqttResponseCorrelator != null) {
+            // The connection is shared by all the MqttFacades of the node
+            return;
+        }
+
         try {
             MqttClientPool.getInstance(nodeUri).returnObject(borrowedClient);
         } finally {
@@ -186,23 +255,30 @@ public class MqttFacade implements TransportFacade<MqttTopic, MqttPayload, MqttM
 
     /**
      * Waits for the response.
+     * <p>
+     * It waits on the {@link MqttResponseCallback} up to the given timeout, without starting a timer {@link Thread} for each request.
      *
      * @param timeout            The timeout time of waiting the message response.
      * @param mqttClientCallback The {@link MqttResponseCallback} which handles the received responses.
      * @since 1.1.0
      */
     private void waitResponse(long timeout, MqttResponseCallback mqttClientCallback) {
-
-        MqttResponseTimeoutTimer responseTimeoutTimer = new MqttResponseTimeoutTimer(borrowedClient.getClientId(), mqttClientCallback, timeout);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
 
         try {
             synchronized (mqttClientCallback) {
-                mqttClientCallback.wait();
+                // The response may have already arrived, and spurious wake ups can happen
+                while (!mqttClientCallback.isCompleted()) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        break;
+                    }
+
+                    mqttClientCallback.wait(remaining);
+                }
             }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-        } finally {
-            responseTimeoutTimer.cancel();
         }
     }
 }
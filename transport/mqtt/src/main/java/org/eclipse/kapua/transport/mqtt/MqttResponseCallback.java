@@ -59,6 +59,15 @@ public class MqttResponseCallback implements MqttCallback {
      */
     private final int expectedResponses;
 
+    /**
+     * Whether the expected responses arrived or the connection has been lost.
+     * <p>
+     * Guarded by {@code this}, so that waiters do not miss the notification.
+     *
+     * @since 1.5.0
+     */
+    private boolean completed;
+
     /**
      * Construct a {@link MqttCallback} with the given response container and 1 as expected response {@link MqttMessage}.
      *
@@ -111,6 +120,7 @@ public class MqttResponseCallback implements MqttCallback {
             // Notify if all expected responses arrived
             if (expectedResponses >= responses.size()) {
                 synchronized (this) {
+                    completed = true;
                     notifyAll();
                 }
             }
@@ -139,10 +149,23 @@ public class MqttResponseCallback implements MqttCallback {
         LOG.warn("Connection lost detected! {}", cause.getMessage());
         LOG.error("Connection lost detected!", cause);
         synchronized (this) {
+            completed = true;
             notifyAll();
         }
     }
 
+    /**
+     * Gets whether the expected responses arrived or the connection has been lost.
+     * <p>
+     * It must be invoked while holding the lock on {@code this} {@link MqttResponseCallback}.
+     *
+     * @return {@code true} if no more responses need to be waited, {@code false} otherwise.
+     * @since 1.5.0
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
     /**
      * Gets the response {@link MqttTopic} on which {@code this} {@link MqttResponseCallback} is subscribed to.
      *
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.transport.mqtt;
+
+import org.eclipse.kapua.transport.exception.TransportClientGetException;
+import org.eclipse.kapua.transport.exception.TransportSendException;
+import org.eclipse.kapua.transport.exception.TransportTimeoutException;
+import org.eclipse.kapua.transport.message.mqtt.MqttMessage;
+import org.eclipse.kapua.transport.message.mqtt.MqttPayload;
+import org.eclipse.kapua.transport.message.mqtt.MqttTopic;
+import org.eclipse.kapua.transport.mqtt.pooling.PooledMqttClientFactory;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSetting;
+import org.eclipse.kapua.transport.mqtt.setting.MqttClientSettingKeys;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Correlates the responses received on a single long-lived {@link MqttClient} with the requests sent through it.
+ * <p>
+ * There is one {@link MqttResponseCorrelator} for each broker node.
+ * Instead of subscribing to the response {@link MqttTopic} of each request, it subscribes once to a wildcard filter
+ * which matches the response {@link MqttTopic}s of all the requests that only differ for the last level (the request id).
+ * Each response is matched by its {@link MqttTopic} to the {@link CompletableFuture} of the pending request.
+ * <p>
+ * Timeouts are handled by a single scheduler shared by all the {@link MqttResponseCorrelator}s, so no thread is blocked while waiting for the responses.
+ * The {@link CompletableFuture}s are completed by the MQTT client callback thread, so their dependent stages must not block.
+ *
+ * @since 1.5.0
+ */
+public class MqttResponseCorrelator implements MqttCallbackExtended {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MqttResponseCorrelator.class);
+
+    private static final String TOPIC_SEPARATOR = MqttClientSetting.getInstance().getString(MqttClientSettingKeys.TRANSPORT_TOPIC_SEPARATOR);
+
+    private static final Map<String, MqttResponseCorrelator> MQTT_RESPONSE_CORRELATOR_BY_HOST = new ConcurrentHashMap<>();
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER;
+
+    static {
+        SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "mqtt-response-correlator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    private final MqttClient mqttClient;
+
+    private final Map<String, CompletableFuture<MqttMessage>> pendingResponses = new ConcurrentHashMap<>();
+    private final Set<String> subscribedFilters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor.
+     *
+     * @param mqttClient The connected {@link MqttClient} to use.
+     * @throws TransportClientGetException if the {@link MqttResponseCorrelator} cannot be set as callback of the {@link MqttClient}.
+     * @since 1.5.0
+     */
+    public MqttResponseCorrelator(@NotNull MqttClient mqttClient) throws TransportClientGetException {
+        this.mqttClient = mqttClient;
+
+        try {
+            mqttClient.setCallback(this);
+        } catch (Exception e) {
+            throw new TransportClientGetException(e, mqttClient.getClientId());
+        }
+    }
+
+    /**
+     * Gets the {@link MqttResponseCorrelator} for the given broker node, connecting it if needed.
+     *
+     * @param nodeUri The {@link java.net.URI} in {@link String} form of the broker node.
+     * @return The {@link MqttResponseCorrelator} of the broker node.
+     * @throws TransportClientGetException if the {@link MqttClient} cannot be connected.
+     * @since 1.5.0
+     */
+    public static MqttResponseCorrelator getInstance(@NotNull String nodeUri) throws TransportClientGetException {
+        MqttResponseCorrelator mqttResponseCorrelator = MQTT_RESPONSE_CORRELATOR_BY_HOST.get(nodeUri);
+        if (mqttResponseCorrelator != null) {
+            return mqttResponseCorrelator;
+        }
+
+        synchronized (MQTT_RESPONSE_CORRELATOR_BY_HOST) {
+            mqttResponseCorrelator = MQTT_RESPONSE_CORRELATOR_BY_HOST.get(nodeUri);
+            if (mqttResponseCorrelator == null) {
+                try {
+                    mqttResponseCorrelator = new MqttResponseCorrelator(new PooledMqttClientFactory(nodeUri).create());
+                } catch (TransportClientGetException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new TransportClientGetException(e, nodeUri);
+                }
+                MQTT_RESPONSE_CORRELATOR_BY_HOST.put(nodeUri, mqttResponseCorrelator);
+            }
+        }
+
+        return mqttResponseCorrelator;
+    }
+
+    /**
+     * Gets the clientId of the shared {@link MqttClient}, which is the requester of all the requests sent through this {@link MqttResponseCorrelator}.
+     *
+     * @return The clientId of the shared {@link MqttClient}.
+     * @since 1.5.0
+     */
+    public String getClientId() {
+        return mqttClient.getClientId();
+    }
+
+    /**
+     * Publishes the given {@link MqttMessage} and returns the {@link CompletableFuture} of its response.
+     * <p>
+     * If the {@link MqttMessage} does not expect a response or the timeout is {@code null} the returned {@link CompletableFuture} is completed with {@code null} once the {@link MqttMessage} has been published.
+     * If the response does not arrive in time the returned {@link CompletableFuture} is completed exceptionally with a {@link TransportTimeoutException}.
+     *
+     * @param mqttMessage The {@link MqttMessage} to send.
+     * @param timeout     The timeout of waiting the response.
+     * @return The {@link CompletableFuture} of the response.
+     * @since 1.5.0
+     */
+    public CompletableFuture<MqttMessage> send(@NotNull MqttMessage mqttMessage, Long timeout) {
+        CompletableFuture<MqttMessage> response = new CompletableFuture<>();
+
+        if (timeout == null || !mqttMessage.expectResponse()) {
+            try {
+                mqttClient.publish(mqttMessage);
+                response.complete(null);
+            } catch (Exception e) {
+                response.completeExceptionally(new TransportSendException(e, mqttMessage));
+            }
+            return response;
+        }
+
+        String responseTopic = mqttMessage.getResponseTopic().getTopic();
+        try {
+            subscribeIfNeeded(mqttMessage.getResponseTopic());
+
+            if (pendingResponses.putIfAbsent(responseTopic, response) != null) {
+                throw new IllegalStateException("A request with the same response topic is already pending: " + responseTopic);
+            }
+
+            ScheduledFuture<?> timeoutFuture = SCHEDULER.schedule(() -> response.completeExceptionally(new TransportTimeoutException(timeout)), timeout, TimeUnit.MILLISECONDS);
+            response.whenComplete((mqttResponse, throwable) -> {
+                timeoutFuture.cancel(false);
+                pendingResponses.remove(responseTopic, response);
+            });
+
+            mqttClient.publish(mqttMessage);
+        } catch (Exception e) {
+            pendingResponses.remove(responseTopic, response);
+            response.completeExceptionally(new TransportSendException(e, mqttMessage));
+        }
+
+        return response;
+    }
+
+    /**
+     * Subscribes to the wildcard filter of the given response {@link MqttTopic}, if not already subscribed.
+     *
+     * @param responseTopic The response {@link MqttTopic}.
+     * @throws Exception if the subscription fails.
+     * @since 1.5.0
+     */
+    private void subscribeIfNeeded(MqttTopic responseTopic) throws Exception {
+        String filter = toFilter(responseTopic.getTopic());
+        if (subscribedFilters.contains(filter)) {
+            return;
+        }
+
+        synchronized (subscribedFilters) {
+            if (!subscribedFilters.contains(filter)) {
+                mqttClient.subscribe(new MqttTopic(filter));
+                subscribedFilters.add(filter);
+            }
+        }
+    }
+
+    /**
+     * Replaces the last level of the given response topic with the single level wildcard.
+     *
+     * @param responseTopic The response topic.
+     * @return The wildcard filter which matches the response topic.
+     * @since 1.5.0
+     */
+    static String toFilter(String responseTopic) {
+        int lastSeparatorIndex = responseTopic.lastIndexOf(TOPIC_SEPARATOR);
+        return lastSeparatorIndex < 0 ? "+" : responseTopic.substring(0, lastSeparatorIndex + TOPIC_SEPARATOR.length()) + "+";
+    }
+
+    @Override
+    public void messageArrived(String stringTopic, org.eclipse.paho.client.mqttv3.MqttMessage message) {
+        CompletableFuture<MqttMessage> response = pendingResponses.remove(stringTopic);
+        if (response == null) {
+            LOG.debug("Received response on topic {} without a pending request. Probably already timed out", stringTopic);
+            return;
+        }
+
+        response.complete(new MqttMessage(new MqttTopic(stringTopic), new Date(), new MqttPayload(message.getPayload())));
+    }
+
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+        LOG.debug("Message delivery completed for messageId: {}", token.getMessageId());
+    }
+
+    @Override
+    public void connectionLost(Throwable cause) {
+        LOG.warn("Connection lost detected for client {}! {}", mqttClient.getClientId(), cause.getMessage());
+
+        // Responses published while disconnected are lost
+        List<CompletableFuture<MqttMessage>> responses = new ArrayList<>(pendingResponses.values());
+        for (CompletableFuture<MqttMessage> response : responses) {
+            response.completeExceptionally(cause);
+        }
+    }
+
+    @Override
+    public void connectComplete(boolean reconnect, String serverURI) {
+        if (!reconnect) {
+            return;
+        }
+
+        // Subscriptions are not kept by clean sessions.
+        // Subscribing is a blocking operation which cannot be performed by the callback thread.
+        SCHEDULER.execute(this::subscribeAgain);
+    }
+
+    /**
+     * Subscribes again to all the wildcard filters after a reconnect.
+     *
+     * @since 1.5.0
+     */
+    private void subscribeAgain() {
+        synchronized (subscribedFilters) {
+            for (String filter : subscribedFilters) {
+                try {
+                    mqttClient.subscribe(new MqttTopic(filter));
+                } catch (Exception e) {
+                    LOG.warn("Cannot subscribe again to {} after reconnect of client {}", filter, mqttClient.getClientId(), e);
+                    subscribedFilters.remove(filter);
+                }
+            }
+        }
+    }
+}
@@ -65,6 +65,13 @@ public enum MqttClientSettingKeys implements SettingKey {
      */
     @Deprecated
     SEND_TIMEOUT_MAX("transport.send.timeout.max"),
+
+    /**
+     * Whether requests are sent over a single shared connection for each broker node instead of a pooled connection for each request.
+     *
+     * @since 1.5.0
+     */
+    TRANSPORT_MULTIPLEXED_ENABLED("transport.mqtt.multiplexed.enabled"),
     ;
 
     /**
@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eurotech and/or its affiliates and others
+ *
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     Eurotech - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.kapua.transport.mqtt.test.mqtt;
+
+import org.eclipse.kapua.qa.markers.junit.JUnitTests;
+import org.eclipse.kapua.transport.exception.TransportTimeoutException;
+import org.eclipse.kapua.transport.message.mqtt.MqttMessage;
+import org.eclipse.kapua.transport.message.mqtt.MqttPayload;
+import org.eclipse.kapua.transport.message.mqtt.MqttTopic;
+import org.eclipse.kapua.transport.mqtt.MqttClient;
+import org.eclipse.kapua.transport.mqtt.MqttResponseCorrelator;
+import org.eclipse.paho.client.mqttv3.MqttCallback;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@Category(JUnitTests.class)
+public class MqttResponseCorrelatorTest extends Assert {
+
+    private static final String RESPONSE_TOPIC_PREFIX = "$EDC/kapua-sys/transport-client/CMD-V1/REPLY/";
+
+    private StubMqttClient mqttClient;
+    private MqttResponseCorrelator mqttResponseCorrelator;
+
+    @Before
+    public void createInstanceOfClass() throws Exception {
+        mqttClient = new StubMqttClient();
+        mqttResponseCorrelator = new MqttResponseCorrelator(mqttClient);
+    }
+
+    @Test
+    public void sendAndReceiveResponseTest() throws Exception {
+        CompletableFuture<MqttMessage> response = mqttResponseCorrelator.send(newRequest("1"), 10000L);
+
+        assertEquals("Expected and actual values should be the same.", 1, mqttClient.published.size());
+        assertEquals("Expected and actual values should be the same.", 1, mqttClient.subscribed.size());
+        assertEquals("Expected and actual values should be the same.", RESPONSE_TOPIC_PREFIX + "+", mqttClient.subscribed.get(0));
+        assertFalse("False expected.", response.isDone());
+
+        mqttClient.callback.messageArrived(RESPONSE_TOPIC_PREFIX + "1", new org.eclipse.paho.client.mqttv3.MqttMessage(new byte[]{1, 2}));
+
+        assertTrue("True expected.", response.isDone());
+        MqttMessage mqttResponse = response.get();
+        assertEquals("Expected and actual values should be the same.", RESPONSE_TOPIC_PREFIX + "1", mqttResponse.getRequestTopic().getTopic());
+        assertArrayEquals("Expected and actual values should be the same.", new byte[]{1, 2}, mqttResponse.getPayload().getBody());
+    }
+
+    @Test
+    public void sendManyWithSingleSubscriptionTest() throws Exception {
+        CompletableFuture<MqttMessage> firstResponse = mqttResponseCorrelator.send(newRequest("1"), 10000L);
+        CompletableFuture<MqttMessage> secondResponse = mqttResponseCorrelator.send(newRequest("2"), 10000L);
+
+        assertEquals("Expected and actual values should be the same.", 2, mqttClient.published.size());
+        assertEquals("Expected and actual values should be the same.", 1, mqttClient.subscribed.size());
+
+        mqttClient.callback.messageArrived(RESPONSE_TOPIC_PREFIX + "2", new org.eclipse.paho.client.mqttv3.MqttMessage(new byte[]{2}));
+
+        assertFalse("False expected.", firstResponse.isDone());
+        assertArrayEquals("Expected and actual values should be the same.", new byte[]{2}, secondResponse.get().getPayload().getBody());
+    }
+
+    @Test
+    public void sendTimeoutTest() throws Exception {
+        CompletableFuture<MqttMessage> response = mqttResponseCorrelator.send(newRequest("1"), 10L);
+
+        try {
+            response.get(10, TimeUnit.SECONDS);
+            fail("ExecutionException expected.");
+        } catch (ExecutionException e) {
+            assertTrue("True expected.", e.getCause() instanceof TransportTimeoutException);
+        }
+
+        // A late response is ignored
+        mqttClient.callback.messageArrived(RESPONSE_TOPIC_PREFIX + "1", new org.eclipse.paho.client.mqttv3.MqttMessage(new byte[]{1}));
+    }
+
+    @Test
+    public void sendWithoutResponseTest() throws Exception {
+        MqttMessage request = new MqttMessage(new MqttTopic("$EDC/kapua-sys/device/CMD-V1/EXEC/command"), (MqttTopic) null, new MqttPayload(new byte[0]));
+
+        CompletableFuture<MqttMessage> response = mqttResponseCorrelator.send(request, 10000L);
+
+        assertTrue("True expected.", response.isDone());
+        assertNull("Null expected.", response.get());
+        assertEquals("Expected and actual values should be the same.", 1, mqttClient.published.size());
+        assertTrue("True expected.", mqttClient.subscribed.isEmpty());
+    }
+
+    @Test
+    public void connectionLostTest() throws Exception {
+        CompletableFuture<MqttMessage> response = mqttResponseCorrelator.send(newRequest("1"), 10000L);
+
+        mqttClient.callback.connectionLost(new Exception("Connection lost"));
+
+        assertTrue("True expected.", response.isCompletedExceptionally());
+    }
+
+    private static MqttMessage newRequest(String requestId) {
+        return new MqttMessage(new MqttTopic("$EDC/kapua-sys/device/CMD-V1/EXEC/command"), new MqttTopic(RESPONSE_TOPIC_PREFIX + requestId), new MqttPayload(new byte[0]));
+    }
+
+    /**
+     * {@link MqttClient} which records the operations instead of connecting to a broker.
+     */
+    private static class StubMqttClient extends MqttClient {
+
+        private final List<MqttMessage> published = new ArrayList<>();
+        private final List<String> subscribed = new ArrayList<>();
+        private MqttCallback callback;
+
+        @Override
+        public void setCallback(MqttCallback mqttCallback) {
+            callback = mqttCallback;
+        }
+
+        @Override
+        public void publish(MqttMessage mqttMessage) {
+            published.add(mqttMessage);
+        }
+
+        @Override
+        public void subscribe(MqttTopic mqttTopic) {
+            subscribed.add(mqttTopic.getTopic());
+        }
+
+        @Override
+        public String getClientId() {
+            return "transport-client";
+        }
+    }
+}